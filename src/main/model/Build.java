@@ -1,6 +1,7 @@
 package model;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 
 
@@ -10,26 +11,32 @@ import java.util.*;
 // This class is mutable
 
 public class Build {
-    //inventory of all parts and lists
-    private final List<Part> inventory;
-    private final Set<String> nameIndex;
+    //inventory of all parts keyed by name, kept in insertion order
+    private final Map<String, Part> inventory;
+    //parts grouped by category, each group keyed by part name (one group per category, possibly empty)
+    private final Map<PartCategory, Map<String, Part>> categoryIndex;
+    //read-only live view of inventory handed out by partsView
+    private final Collection<Part> inventoryView;
+    //every part in inventory ordered by cost, plus one cost ordering per category
+    private final CostIndex costIndex;
+    private final Map<PartCategory, CostIndex> categoryCostIndex;
+    //every part in inventory by case-insensitive name prefix
+    private final NameTrie nameIndex;
+    //spec field indexes used by queries, each built on first use and kept up to date after that
+    private final Map<SpecField, SpecIndex> specIndexes;
     private String name; //phase 2 addition for data persistence
 
-    //active subParts we can have
-    private Wheel activeWheel;
-    private Tire activeTire;
-    private Suspension activeSuspension;
-    private Exhaust activeExhaust;
-    private Engine activeEngine;
-    private Transmission activeTransmission;
-    private Bumper activeBumper;
-    private SideSkirts activeSideSkirts;
-    private Diffuser activeDiffuser;
-    private Spoiler activeSpoiler;
-    private Lights activeLights; 
-
-    //private Double referenceOdMm;                  // user-set default for rolling diameter
-    //private final double rollingDeltaThresholdPct; // in this case will be set to a default of 3% for the program
+    //active part of each category (at most one per category)
+    private final Map<PartCategory, Part> active;
+    //sum of the costs of all active parts, kept up to date on every change to active
+    private long activeTotalCost;
+
+    private final List<BuildListener> listeners;
+    //true while a BuildEdit is being applied; per-change events and notifications are held back
+    private boolean applyingEdit;
+
+    private Double referenceOdMm;                  // user-set default for rolling diameter
+    private final double rollingDeltaThresholdPct; // in this case will be set to a default of 3% for the program
 
     // EFFECTS: constructs an empty build with default name "MyBuild"
     public Build() {
@@ -40,12 +47,25 @@ public class Build {
     // MODIFIES: this
     // EFFECTS:  constructs an empty build with no baseline; threshold set to 3.0
     public Build(String name) {
-        inventory = new ArrayList<>();
-        nameIndex = new HashSet<>();
+        inventory = new LinkedHashMap<>();
+        categoryIndex = new EnumMap<>(PartCategory.class);
+        categoryCostIndex = new EnumMap<>(PartCategory.class);
+        for (PartCategory c : PartCategory.values()) {
+            categoryIndex.put(c, new LinkedHashMap<>());
+            categoryCostIndex.put(c, new CostIndex());
+        }
+        inventoryView = Collections.unmodifiableCollection(inventory.values());
+        costIndex = new CostIndex();
+        nameIndex = new NameTrie();
+        specIndexes = new EnumMap<>(SpecField.class);
+        active = new EnumMap<>(PartCategory.class);
+        activeTotalCost = 0;
+        listeners = new ArrayList<>();
+        applyingEdit = false;
         this.name = name;
 
-        //referenceOdMm = null;
-        //rollingDeltaThresholdPct = 3.0;
+        referenceOdMm = null;
+        rollingDeltaThresholdPct = 3.0;
 
     }
 
@@ -66,12 +86,13 @@ public class Build {
         if (p == null) {
             throw new IllegalArgumentException();
         }
-        if (nameIndex.contains(p.getName())) {
+        if (inventory.containsKey(p.getName())) {
             return false;
         } else {
-            inventory.add(p);
-            nameIndex.add(p.getName());
-            logEvent("Added part '" + p.getName() + "' (" + p.getClass().getSimpleName() + ") to inventory");
+            inventory.put(p.getName(), p);
+            indexPart(p);
+            notifyAdded(p);
+            changed("Added part '" + p.getName() + "' (" + p.getCategoryName() + ") to inventory");
             return true;
         }
     }
@@ -85,24 +106,102 @@ public class Build {
             throw new IllegalArgumentException("name cannot be null or empty");
         }
 
-        Part target = null;
-        for (Part p : inventory) {
-            if (p.getName().equals(name)) {
-                target = p;
-                break;
-            }
-        }
+        Part target = inventory.remove(name);
         if (target == null) {
             return false;
         }
+        unindexPart(target);
 
-        inventory.remove(target);
-        nameIndex.remove(name);
         clearIfActive(target);
-        logEvent("Removed part '" + name + "' from inventory");
+        notifyRemoved(target);
+        changed("Removed part '" + name + "' from inventory");
         return true;
     }
 
+    // REQUIRES: parts != null
+    // MODIFIES: this
+    // EFFECTS:  adds every part of parts whose name is not already in inventory (the first one wins
+    //           when parts repeats a name) and returns how many were added. Duplicates are found in
+    //           one pass before inventory is touched, inventory grows once for the whole batch, and a
+    //           single event is logged. Throws IllegalArgumentException (adding nothing) if parts
+    //           contains null
+    public int addAll(Collection<? extends Part> parts) {
+        if (parts == null) {
+            throw new IllegalArgumentException();
+        }
+        Map<String, Part> staged = new LinkedHashMap<>(Math.max(16, (int) (parts.size() / 0.75f) + 1));
+        for (Part p : parts) {
+            if (p == null) {
+                throw new IllegalArgumentException("parts cannot contain null");
+            }
+            if (!inventory.containsKey(p.getName())) {
+                staged.putIfAbsent(p.getName(), p);
+            }
+        }
+        inventory.putAll(staged);
+        for (Part p : staged.values()) {
+            indexPart(p);
+            notifyAdded(p);
+        }
+        if (!staged.isEmpty()) {
+            changed("Added " + staged.size() + " parts to inventory");
+        }
+        return staged.size();
+    }
+
+    // REQUIRES: filter != null
+    // MODIFIES: this
+    // EFFECTS:  removes every part in inventory matching filter, clearing any that were active,
+    //           and returns how many were removed; logs a single event for the batch
+    public int removeIf(Predicate<? super Part> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException();
+        }
+        int removed = 0;
+        Iterator<Part> it = inventory.values().iterator();
+        while (it.hasNext()) {
+            Part p = it.next();
+            if (filter.test(p)) {
+                it.remove();
+                unindexPart(p);
+                clearIfActive(p);
+                notifyRemoved(p);
+                removed++;
+            }
+        }
+        logBatchRemoval(removed);
+        return removed;
+    }
+
+    // REQUIRES: names != null; every name non-null && non-empty
+    // MODIFIES: this
+    // EFFECTS:  removes the parts with the given names (names not in inventory are skipped),
+    //           clearing any that were active, and returns how many were removed; logs a single
+    //           event for the batch. Throws IllegalArgumentException (removing nothing) if any
+    //           name is null or empty
+    public int removeAllByName(Collection<String> names) {
+        if (names == null) {
+            throw new IllegalArgumentException();
+        }
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("name cannot be null or empty");
+            }
+        }
+        int removed = 0;
+        for (String name : names) {
+            Part target = inventory.remove(name);
+            if (target != null) {
+                unindexPart(target);
+                clearIfActive(target);
+                notifyRemoved(target);
+                removed++;
+            }
+        }
+        logBatchRemoval(removed);
+        return removed;
+    }
+
     // REQUIRES: category != null && non-empty; newName != null && non-empty
     // MODIFIES: this
     // EFFECTS:  if a part with name newName exists and matches the given category,
@@ -113,62 +212,81 @@ public class Build {
         if (category == null || category.trim().isEmpty() || newName == null || newName.trim().isEmpty()) {
             throw new IllegalArgumentException();
         }
+        PartCategory cat = PartCategory.fromKey(category);
+        return cat != null && replaceActivePart(cat, newName);
+    }
+
+    // REQUIRES: category != null; newName != null && non-empty
+    // MODIFIES: this
+    // EFFECTS:  same as replaceActivePart(String, String) for an already resolved category
+    public boolean replaceActivePart(PartCategory category, String newName) {
+        if (category == null || newName == null || newName.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
         Part candidate = getPartByName(newName);
-        if (candidate == null) {
+        if (candidate == null || candidate.getCategory() != category) {
             return false;
         }
-        String cat = normalizeCategory(category);
-
-        return switch (cat) {
-            case "wheel"        -> (candidate instanceof Wheel)        && assignWheel((Wheel) candidate);
-            case "tire"         -> (candidate instanceof Tire)         && assignTire((Tire) candidate);
-            case "suspension"   -> (candidate instanceof Suspension)   && assignSuspension((Suspension) candidate);
-            case "exhaust"      -> (candidate instanceof Exhaust)      && assignExhaust((Exhaust) candidate);
-            case "engine"       -> (candidate instanceof Engine)       && assignEngine((Engine) candidate);
-            case "transmission" -> (candidate instanceof Transmission) && assignTransmission((Transmission) candidate);
-            case "bumper"       -> (candidate instanceof Bumper)       && assignBumper((Bumper) candidate);
-            case "sideskirts"   -> (candidate instanceof SideSkirts)   && assignSideSkirts((SideSkirts) candidate);
-            case "diffuser"     -> (candidate instanceof Diffuser)     && assignDiffuser((Diffuser) candidate);
-            case "spoiler"      -> (candidate instanceof Spoiler)      && assignSpoiler((Spoiler) candidate);
-            case "lights"       -> (candidate instanceof Lights)       && assignLights((Lights) candidate);
-            default             -> false;
-        };
-    }
-
-    // EFFECTS: returns a copy of all parts in inventory
+        Part previous = active.get(category);
+        if (previous != null && previous != candidate) {
+            dropFromInventory(previous);
+            notifyRemoved(previous);
+        }
+        putActive(category, candidate);
+        notifyActive(category, candidate);
+        changed("Set active " + categoryKey(category) + " to '" + candidate.getName() + "'");
+        return true;
+    }
+
+    // EFFECTS: returns a copy of all parts in inventory, in the order they were added
     public List<Part> listAllParts() {
-        return new ArrayList<>(inventory);
+        return new ArrayList<>(inventory.values());
+    }
+
+    // EFFECTS: returns a read-only live view of all parts in inventory, in the order they were added.
+    //          No copy is made: the view reflects later changes to this build, and an iteration that
+    //          overlaps a change to this build fails fast with ConcurrentModificationException
+    public Collection<Part> partsView() {
+        return inventoryView;
+    }
+
+    // EFFECTS: returns the number of parts in inventory
+    public int size() {
+        return inventory.size();
     }
 
     // Active selections
     // -----------------------------------------------------------------------------------------------------------------
 
-    // REQUIRES: name != null && non-empty
+    // REQUIRES: category != null; name != null && non-empty
     // MODIFIES: this
-    // EFFECTS: if a Wheel with the given name exists, sets it active and returns
-    // true; otherwise returns false
-    public boolean setActiveWheel(String name) {
+    // EFFECTS:  if a part of the given category with the given name exists, sets it active
+    //           and returns true; otherwise returns false
+    public boolean setActive(PartCategory category, String name) {
         Part p = getPartByName(name);
-        if (p instanceof Wheel) {
-            activeWheel = (Wheel) p;
-            logEvent("Set active wheel to '" + p.getName() + "'");
+        if (p != null && p.getCategory() == category) {
+            putActive(category, p);
+            notifyActive(category, p);
+            changed("Set active " + categoryKey(category) + " to '" + p.getName() + "'");
             return true;
         }
         return false;
     }
 
+    // REQUIRES: name != null && non-empty
+    // MODIFIES: this
+    // EFFECTS: if a Wheel with the given name exists, sets it active and returns
+    // true; otherwise returns false
+    public boolean setActiveWheel(String name) {
+        return setActive(PartCategory.WHEEL, name);
+    }
+
     // REQUIRES: name != null && non-empty
     // MODIFIES: this
     // EFFECTS: if a Tire with the given name exists, sets it active and returns
     // true; otherwise returns false
     public boolean setActiveTire(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Tire) {
-            activeTire = (Tire) p;
-            logEvent("Set active tire to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.TIRE, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -176,13 +294,7 @@ public class Build {
     // EFFECTS: if a Suspension with the given name exists, sets it active and
     // returns true; otherwise returns false
     public boolean setActiveSuspension(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Suspension) {
-            activeSuspension = (Suspension) p;
-            logEvent("Set active suspension to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.SUSPENSION, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -190,13 +302,7 @@ public class Build {
     // EFFECTS: if an Exhaust with the given name exists, sets it active and returns
     // true; otherwise returns false
     public boolean setActiveExhaust(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Exhaust) {
-            activeExhaust = (Exhaust) p;
-            logEvent("Set active exhaust to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.EXHAUST, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -204,13 +310,7 @@ public class Build {
     // EFFECTS: if an Engine with the given name exists, sets it active and returns
     // true; otherwise returns false
     public boolean setActiveEngine(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Engine) {
-            activeEngine = (Engine) p;
-            logEvent("Set active engine to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.ENGINE, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -218,13 +318,7 @@ public class Build {
     // EFFECTS: if a Transmission with the given name exists, sets it active and
     //          returns true; otherwise returns false
     public boolean setActiveTransmission(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Transmission) {
-            activeTransmission = (Transmission) p;
-            logEvent("Set active transmission to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.TRANSMISSION, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -233,13 +327,7 @@ public class Build {
     //          rear, stored in type) and returns true
     //          otherwise returns false
     public boolean setActiveBumper(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Bumper) {
-            activeBumper = (Bumper) p;
-            logEvent("Set active bumper to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.BUMPER, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -247,13 +335,7 @@ public class Build {
     // EFFECTS: if a SideSkirts with the given name exists, sets it active and
     //          returns true; otherwise returns false
     public boolean setActiveSideSkirts(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof SideSkirts) {
-            activeSideSkirts = (SideSkirts) p;
-            logEvent("Set active sideSkirts to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.SIDE_SKIRTS, name);
     }
 
     // REQUIRES: name != null and non-empty
@@ -261,13 +343,7 @@ public class Build {
     // EFFECTS: if a Diffuser with the given name exists it sets it active and returns
     //          true otherwise returns false
     public boolean setActiveDiffuser(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Diffuser) {
-            activeDiffuser = (Diffuser) p;
-            logEvent("Set active diffuser to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.DIFFUSER, name);
     }
 
     // REQUIRES: name != null && non-empty
@@ -275,13 +351,7 @@ public class Build {
     // EFFECTS: if a spoiler with the given name exists it sets it active and returns
     //          true otherwise returns false
     public boolean setActiveSpoiler(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Spoiler) {
-            activeSpoiler = (Spoiler) p;
-            logEvent("Set active spoiler to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.SPOILER, name);
     }
 
     // REQUIRES: name != null and non-empty
@@ -289,33 +359,23 @@ public class Build {
     // EFFECTS: if a Lights with the given name exists then it sets it active
     //          and returns true otherwise returns false
     public boolean setActiveLights(String name) {
-        Part p = getPartByName(name);
-        if (p instanceof Lights) {
-            activeLights = (Lights) p;
-            logEvent("Set active lights to '" + p.getName() + "'");
-            return true;
-        }
-        return false;
+        return setActive(PartCategory.LIGHTS, name);
     }
 
     // REQUIRES: category != null && non-empty
     // EFFECTS: returns the active Part for the given category key or null if none
     public Part getActive(String category) {
-        String c = normalizeCategory(category);
-        return switch (c) {
-            case "wheel" -> activeWheel;
-            case "tire" -> activeTire;
-            case "suspension" -> activeSuspension;
-            case "exhaust" -> activeExhaust;
-            case "engine" -> activeEngine;
-            case "transmission" -> activeTransmission;
-            case "bumper" -> activeBumper;
-            case "sideskirts" -> activeSideSkirts;
-            case "diffuser" -> activeDiffuser;
-            case "spoiler" -> activeSpoiler;
-            case "lights" -> activeLights;
-            default -> null;
-        };
+        PartCategory c = PartCategory.fromKey(category);
+        if (c == null) {
+            return null;
+        }
+        return getActive(c);
+    }
+
+    // REQUIRES: category != null
+    // EFFECTS: returns the active Part for the given category or null if none
+    public Part getActive(PartCategory category) {
+        return active.get(category);
     }
 
 
@@ -323,81 +383,240 @@ public class Build {
     // MODIFIES: this
     // EFFECTS: clears the active selection for the given category or returns true if category is known
     public boolean clearActive(String category) {
-        String c = normalizeCategory(category);
-        switch (c) {
-            case "wheel" -> activeWheel = null;
-            case "tire" -> activeTire = null;
-            case "suspension" -> activeSuspension = null;
-            case "exhaust" -> activeExhaust = null;
-            case "engine" -> activeEngine = null;
-            case "transmission" -> activeTransmission = null;
-            case "bumper" -> activeBumper = null;
-            case "sideskirts" -> activeSideSkirts = null;
-            case "diffuser" -> activeDiffuser = null;
-            case "spoiler" -> activeSpoiler = null;
-            case "lights" -> activeLights = null;
-            default -> {
-                return false;
-            }
+        PartCategory c = PartCategory.fromKey(category);
+        if (c == null) {
+            return false;
         }
-        logEvent("Cleared active " + c);
+        clearActive(c);
         return true;
     }
 
+    // REQUIRES: category != null
+    // MODIFIES: this
+    // EFFECTS: clears the active selection for the given category
+    public void clearActive(PartCategory category) {
+        removeActive(category);
+        notifyActive(category, null);
+        changed("Cleared active " + categoryKey(category));
+    }
+
 
 
-    //                                                  Summary
+    //                                                  Fitment
     // -----------------------------------------------------------------------------------------------------------------
 
-    // EFFECTS: returns the total cost of active parts only
-    @SuppressWarnings("methodlength")
-    public int totalCost() {
-        int sum = 0;
-        if (activeWheel != null) {
-            sum += activeWheel.getCost();
-        }
-        if (activeTire != null) {
-            sum += activeTire.getCost();
+    // EFFECTS: returns the reference rolling diameter in mm that fitment checks compare against,
+    //          or null if none is set
+    public Double getReferenceOdMm() {
+        return referenceOdMm;
+    }
+
+    // REQUIRES: odMm == null or odMm > 0
+    // MODIFIES: this
+    // EFFECTS:  sets the reference rolling diameter in mm (null clears it)
+    public void setReferenceOdMm(Double odMm) {
+        if (odMm != null && !(odMm > 0)) {
+            throw new IllegalArgumentException("reference diameter must be more than 0!");
         }
-        if (activeSuspension != null) {
-            sum += activeSuspension.getCost();
+        referenceOdMm = odMm;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).referenceChanged(this, odMm);
         }
-        if (activeExhaust != null) {
-            sum += activeExhaust.getCost();
+        if (odMm == null) {
+            changed("Cleared reference rolling diameter");
+        } else {
+            changed("Set reference rolling diameter to " + odMm + " mm");
         }
-        if (activeEngine != null) {
-            sum += activeEngine.getCost();
+    }
+
+    // EFFECTS: returns the largest rolling diameter change, in percent of the reference, that
+    //          fitment checks accept without a warning
+    public double getRollingDeltaThresholdPct() {
+        return rollingDeltaThresholdPct;
+    }
+
+    //                                                  Summary
+    // -----------------------------------------------------------------------------------------------------------------
+
+    // EFFECTS: returns the total cost of active parts only
+    public long totalCost() {
+        return activeTotalCost;
+    }
+    // EFFECTS:  returns counts of parts by category name
+    //           result is a copy
+
+    public Map<String, Integer> countsByCategory() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<PartCategory, Map<String, Part>> e : categoryIndex.entrySet()) {
+            if (!e.getValue().isEmpty()) {
+                counts.put(e.getKey().getDisplayName(), e.getValue().size());
+            }
         }
-        if (activeTransmission != null) {
-            sum += activeTransmission.getCost();
+        return counts;
+    }
+
+    // REQUIRES: category != null
+    // EFFECTS:  returns a copy of the parts in the category with the given key (e.g. "Wheel",
+    //           "SideSkirts" or "tires"), in the order they were added; empty if there are none
+    //           or the key is unknown
+    public List<Part> getPartsInCategory(String category) {
+        PartCategory c = PartCategory.fromKey(category);
+        if (c == null) {
+            return new ArrayList<>();
         }
-        if (activeBumper != null) {
-            sum += activeBumper.getCost();
+        return getPartsInCategory(c);
+    }
+
+    // REQUIRES: category != null
+    // EFFECTS:  returns a copy of the parts in the given category, in the order they were added
+    public List<Part> getPartsInCategory(PartCategory category) {
+        return new ArrayList<>(categoryIndex.get(category).values());
+    }
+
+    // REQUIRES: category != null
+    // EFFECTS:  returns a read-only live view of the parts in the given category, in the order they
+    //           were added; like partsView, no copy is made and iteration fails fast on changes
+    public Collection<Part> categoryView(PartCategory category) {
+        return Collections.unmodifiableCollection(categoryIndex.get(category).values());
+    }
+
+    //                                               Name lookup
+    // -----------------------------------------------------------------------------------------------------------------
+
+    // REQUIRES: prefix != null; limit >= 0
+    // EFFECTS:  returns a list of at most limit parts whose names start with prefix, ignoring case,
+    //           in alphabetical order; an empty prefix matches every part
+    public List<Part> partsWithPrefix(String prefix, int limit) {
+        checkPrefix(prefix);
+        checkCount(limit);
+        return nameIndex.withPrefix(prefix, limit);
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS:  returns the number of parts whose names start with prefix, ignoring case
+    public int countPartsWithPrefix(String prefix) {
+        checkPrefix(prefix);
+        return nameIndex.countWithPrefix(prefix);
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS:  returns prefix extended as far as every part name starting with it (ignoring case)
+    //           agrees, e.g. the full name when only one part matches; returns null if no part
+    //           name starts with prefix
+    public String completeName(String prefix) {
+        checkPrefix(prefix);
+        return nameIndex.complete(prefix);
+    }
+
+    // EFFECTS: throws IllegalArgumentException if prefix is null
+    private static void checkPrefix(String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("prefix cannot be null");
         }
-        if (activeSideSkirts != null) {
-            sum += activeSideSkirts.getCost();
+    }
+
+    //                                                Spec queries
+    // -----------------------------------------------------------------------------------------------------------------
+
+    // REQUIRES: category != null
+    // EFFECTS:  returns a new query over the parts of the given category; add conditions on the
+    //           category's spec fields and call stream() to run it
+    public SpecQuery query(PartCategory category) {
+        if (category == null) {
+            throw new IllegalArgumentException("category cannot be null");
         }
-        if (activeDiffuser != null) {
-            sum += activeDiffuser.getCost();
+        return new SpecQuery(this, category);
+    }
+
+    // EFFECTS: returns a new query over every part in inventory; only SpecField.COST can be used in it
+    public SpecQuery query() {
+        return new SpecQuery(this, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  returns the index on field, building it from the current inventory on first use
+    SpecIndex specIndex(SpecField field) {
+        SpecIndex index = specIndexes.get(field);
+        if (index == null) {
+            index = new SpecIndex(field);
+            Collection<Part> parts = (field.getCategory() == null) ? inventoryView : categoryView(field.getCategory());
+            for (Part p : parts) {
+                index.add(p);
+            }
+            specIndexes.put(field, index);
         }
-        if (activeSpoiler != null) {
-            sum += activeSpoiler.getCost();
+        return index;
+    }
+
+    //                                               Budget queries
+    // -----------------------------------------------------------------------------------------------------------------
+
+    // REQUIRES: min <= max
+    // EFFECTS:  returns a list of the parts in inventory costing between min and max (inclusive),
+    //           cheapest first; parts of equal cost are in the order they were added
+    public List<Part> partsInCostRange(int min, int max) {
+        checkRange(min, max);
+        return costIndex.inRange(min, max);
+    }
+
+    // REQUIRES: category != null; min <= max
+    // EFFECTS:  returns a list of the parts of the given category costing between min and max
+    //           (inclusive), cheapest first
+    public List<Part> partsInCostRange(PartCategory category, int min, int max) {
+        checkRange(min, max);
+        return costIndexOf(category).inRange(min, max);
+    }
+
+    // REQUIRES: k >= 0
+    // EFFECTS:  returns a list of the k cheapest parts in inventory (fewer if there are not
+    //           that many), cheapest first
+    public List<Part> cheapestParts(int k) {
+        checkCount(k);
+        return costIndex.cheapest(k);
+    }
+
+    // REQUIRES: category != null; k >= 0
+    // EFFECTS:  returns a list of the k cheapest parts of the given category, cheapest first
+    public List<Part> cheapestParts(PartCategory category, int k) {
+        checkCount(k);
+        return costIndexOf(category).cheapest(k);
+    }
+
+    // REQUIRES: k >= 0
+    // EFFECTS:  returns a list of the k most expensive parts in inventory (fewer if there are not
+    //           that many), most expensive first
+    public List<Part> mostExpensiveParts(int k) {
+        checkCount(k);
+        return costIndex.mostExpensive(k);
+    }
+
+    // REQUIRES: category != null; k >= 0
+    // EFFECTS:  returns a list of the k most expensive parts of the given category, most expensive first
+    public List<Part> mostExpensiveParts(PartCategory category, int k) {
+        checkCount(k);
+        return costIndexOf(category).mostExpensive(k);
+    }
+
+    // EFFECTS: returns the cost index of category; throws IllegalArgumentException if category is null
+    private CostIndex costIndexOf(PartCategory category) {
+        if (category == null) {
+            throw new IllegalArgumentException("category cannot be null");
         }
-        if (activeLights != null) {
-            sum += activeLights.getCost();
+        return categoryCostIndex.get(category);
+    }
+
+    // EFFECTS: throws IllegalArgumentException if min > max
+    private static void checkRange(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min cost cannot be more than max cost");
         }
-        return sum;
     }
-    // EFFECTS:  returns counts of parts by category name
-    //           result is a copy
 
-    public Map<String, Integer> countsByCategory() {
-        Map<String, Integer> counts = new HashMap<>();
-        for (Part p : inventory) {
-            String key = p.getClass().getSimpleName();
-            counts.put(key, counts.getOrDefault(key, 0) + 1);
+    // EFFECTS: throws IllegalArgumentException if k < 0
+    private static void checkCount(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
         }
-        return counts;
     }
 
     //                                              Helper Methods
@@ -410,234 +629,172 @@ public class Build {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException();
         } 
-       
-        for (Part p : inventory) {
-            if (p.getName().equals(name)) {
-                return p;
-            }
-        }
-        return null;   
+        return inventory.get(name);
     }
 
-/** 
-    // REQUIRES: widthMm > 0; aspectPct > 0; rimIn > 0
-    // MODIFIES: nothing
-    // EFFECTS:  returns rolling outer diameter in millimeters using standard tire formula
-    private static double computeRollingDiameterMm(int widthMm, int aspectPct, double rimIn) {
-        double sidewall = widthMm * (aspectPct / 100.0);
-        return rimIn * 25.4 + 2.0 * sidewall;
-    }
-**/
-    @SuppressWarnings("methodlength")
+    // REQUIRES: target != null
+    // MODIFIES: this
+    // EFFECTS:  clears the active selection of target's category if target is the active part there
     private void clearIfActive(Part target) {
-        if (target == activeWheel) {
-            activeWheel = null;
-        }
-        if (target == activeTire) {
-            activeTire = null;
-        }
-        if (target == activeSuspension) {
-            activeSuspension = null;
-        }
-        if (target == activeExhaust) {
-            activeExhaust = null;
-        }
-        if (target == activeEngine) {
-            activeEngine = null;
-        }
-        if (target == activeTransmission) {
-            activeTransmission = null;
-        }
-        if (target == activeBumper) {
-            activeBumper = null;
-        }
-        if (target == activeSideSkirts) {
-            activeSideSkirts = null;
-        }
-        if (target == activeDiffuser) {
-            activeDiffuser = null;
-        }
-        if (target == activeSpoiler) {
-            activeSpoiler = null;
+        PartCategory category = target.getCategory();
+        if (category != null && active.get(category) == target) {
+            removeActive(category);
         }
-        if (target == activeLights) {
-            activeLights = null;
-        }
-    }
-
-    // REQUIRES: s != null
-    // MODIFIES: nothing
-    // EFFECTS:  returns category key
-    private static String normalizeCategory(String s) {
-        String c = s.trim().toLowerCase();
-        if (c.equals("wheels")) {
-            c = "wheel";
-        }
-        if (c.equals("tires")) {
-            c = "tire";
-        }
-        if (c.equals("bumpers")) {
-            c = "bumper";
-        }
-        if (c.equals("side skirts")) {
-            c = "sideskirts";
-        }
-        return c;
     }
 
-    // REQUIRES: w != null
+    // REQUIRES: p != null and p is in inventory
     // MODIFIES: this
-    // EFFECTS:  removes previous active wheel from inventory/index (if any), sets new active, returns true
-    private boolean assignWheel(Wheel w) {
-        if (activeWheel != null) { 
-            inventory.remove(activeWheel); 
-            nameIndex.remove(activeWheel.getName()); 
-        }
-        activeWheel = w; 
-        logEvent("Set active wheel to '" + w.getName() + "'");
-        return true;
+    // EFFECTS:  removes p from inventory and from its category group
+    private void dropFromInventory(Part p) {
+        inventory.remove(p.getName());
+        unindexPart(p);
     }
 
-    // REQUIRES: t != null
+    // REQUIRES: p != null
     // MODIFIES: this
-    // EFFECTS:  removes previous active tire, sets new, returns true
-    private boolean assignTire(Tire t) {
-        if (activeTire != null) { 
-            inventory.remove(activeTire); 
-            nameIndex.remove(activeTire.getName()); 
+    // EFFECTS:  adds p to the name and cost indexes, any built spec indexes on its fields, and the
+    //           group and cost index of its category; parts outside the standard categories are only
+    //           added to the name and overall cost indexes (and a built cost spec index)
+    private void indexPart(Part p) {
+        costIndex.add(p);
+        nameIndex.add(p);
+        for (SpecIndex index : specIndexes.values()) {
+            if (index.getField().appliesTo(p)) {
+                index.add(p);
+            }
+        }
+        PartCategory key = p.getCategory();
+        if (key != null) {
+            categoryIndex.get(key).put(p.getName(), p);
+            categoryCostIndex.get(key).add(p);
         }
-        activeTire = t; 
-        logEvent("Set active tire to '" + t.getName() + "'");
-        return true;
     }
 
-    // REQUIRES: s != null
+    // REQUIRES: p != null
     // MODIFIES: this
-    // EFFECTS:  removes previous active suspension (if any), sets new, returns true
-    private boolean assignSuspension(Suspension s) {
-        if (activeSuspension != null) { 
-            inventory.remove(activeSuspension);
-            nameIndex.remove(activeSuspension.getName()); 
+    // EFFECTS:  removes p from the name and cost indexes, any built spec indexes on its fields, and
+    //           the group and cost index of its category
+    private void unindexPart(Part p) {
+        costIndex.remove(p);
+        nameIndex.remove(p);
+        for (SpecIndex index : specIndexes.values()) {
+            if (index.getField().appliesTo(p)) {
+                index.remove(p);
+            }
+        }
+        PartCategory key = p.getCategory();
+        if (key != null) {
+            categoryIndex.get(key).remove(p.getName());
+            categoryCostIndex.get(key).remove(p);
         }
-        activeSuspension = s; 
-        logEvent("Set active suspension to '" + s.getName() + "'");
-        return true;
     }
 
-    // REQUIRES: e != null
+    // REQUIRES: category != null; p != null and p is of the given category
     // MODIFIES: this
-    // EFFECTS:  removes previous active exhaust (if any), sets new, returns true
-    private boolean assignExhaust(Exhaust e) {
-        if (activeExhaust != null) {
-            inventory.remove(activeExhaust); 
-            nameIndex.remove(activeExhaust.getName());
+    // EFFECTS:  makes p the active part of category, adjusting the running total cost
+    private void putActive(PartCategory category, Part p) {
+        Part previous = active.put(category, p);
+        activeTotalCost += p.getCost();
+        if (previous != null) {
+            activeTotalCost -= previous.getCost();
         }
-        activeExhaust = e; 
-        logEvent("Set active exhaust to '" + e.getName() + "'");
-        return true;
     }
 
-    // REQUIRES: e != null
+    // REQUIRES: category != null
     // MODIFIES: this
-    // EFFECTS:  removes previous active engine (if any), sets new, returns true
-    private boolean assignEngine(Engine e) {
-        if (activeEngine != null) {
-            inventory.remove(activeEngine);
-            nameIndex.remove(activeEngine.getName());
+    // EFFECTS:  clears the active part of category (if any), adjusting the running total cost
+    private void removeActive(PartCategory category) {
+        Part previous = active.remove(category);
+        if (previous != null) {
+            activeTotalCost -= previous.getCost();
         }
-        activeEngine = e;
-        logEvent("Set active engine to '" + e.getName() + "'");
-        return true;
     }
 
-    // REQUIRES: t != null
-    // MODIFIES: this
-    // EFFECTS:  removes previous active transmission (if any), sets new, returns true
-    private boolean assignTransmission(Transmission t) {
-        if (activeTransmission != null) {
-            inventory.remove(activeTransmission);
-            nameIndex.remove(activeTransmission.getName());
+    // EFFECTS: logs one event for a batch removal of count parts (nothing if count is 0)
+    private void logBatchRemoval(int count) {
+        if (count > 0) {
+            changed("Removed " + count + " parts from inventory");
         }
-        activeTransmission = t;
-        logEvent("Set active transmission to '" + t.getName() + "'");
-        return true;
     }
 
-    // REQUIRES: b != null
-    // MODIFIES: this
-    // EFFECTS:  removes previous active bumper (if any), sets new, returns true
-    private boolean assignBumper(Bumper b) {
-        if (activeBumper != null) {
-            inventory.remove(activeBumper);
-            nameIndex.remove(activeBumper.getName());
-        }
-        activeBumper = b; 
-        logEvent("Set active bumper to '" + b.getName() + "'");
-        return true;
+    // EFFECTS: returns the lower-case key used for category in event descriptions
+    private static String categoryKey(PartCategory category) {
+        return category.getDisplayName().toLowerCase();
     }
 
-    // REQUIRES: s != null
-    // MODIFIES: this
-    // EFFECTS:  removes previous active side skirts (if any), sets new, returns true
-    private boolean assignSideSkirts(SideSkirts s) {
-        if (activeSideSkirts != null) {
-            inventory.remove(activeSideSkirts); 
-            nameIndex.remove(activeSideSkirts.getName());
-        }
-        activeSideSkirts = s; 
-        logEvent("Set active sideSkirts to '" + s.getName() + "'");
-        return true;
+    // EFFECTS: returns a new edit that stages changes to this build and applies them all-or-nothing
+    public BuildEdit edit() {
+        return new BuildEdit(this);
     }
 
-    // REQUIRES: d != null
+    // REQUIRES: listener != null
     // MODIFIES: this
-    // EFFECTS:  removes previous active diffuser and sets new, returns true
-    private boolean assignDiffuser(Diffuser d) {
-        if (activeDiffuser != null) {
-            inventory.remove(activeDiffuser);
-            nameIndex.remove(activeDiffuser.getName());
+    // EFFECTS:  registers listener to be told about every later change to this build
+    public void addListener(BuildListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
         }
-        activeDiffuser = d;
-        logEvent("Set active diffuser to '" + d.getName() + "'");
-        return true;
+        listeners.add(listener);
     }
 
-    // REQUIRES: s != null
     // MODIFIES: this
-    // EFFECTS:  removes previous active spoiler (if any), sets new, returns true
-    private boolean assignSpoiler(Spoiler s) {
-        if (activeSpoiler != null) {
-            inventory.remove(activeSpoiler);
-            nameIndex.remove(activeSpoiler.getName());
-        }
-        activeSpoiler = s;
-        logEvent("Set active spoiler to '" + s.getName() + "'");
-        return true;
+    // EFFECTS:  stops telling listener about changes to this build
+    public void removeListener(BuildListener listener) {
+        listeners.remove(listener);
     }
 
-    // REQUIRES: l != null
+    // REQUIRES: body only applies changes that a BuildEdit has already checked
     // MODIFIES: this
-    // EFFECTS:  removes previous active lights (if any), sets new, returns true
-    private boolean assignLights(Lights l) {
-        if (activeLights != null) {
-            inventory.remove(activeLights);
-            nameIndex.remove(activeLights.getName());
+    // EFFECTS:  runs body with per-change events and notifications held back, then logs one event
+    //           for the count changes applied and notifies listeners once
+    void applyEdit(int count, Runnable body) {
+        applyingEdit = true;
+        try {
+            body.run();
+        } finally {
+            applyingEdit = false;
         }
-        activeLights = l; 
-        logEvent("Set active lights to '" + l.getName() + "'");
-        return true;
+        changed("Applied edit of " + count + " changes");
     }
 
     // EFFECTS: returns all parts in the build's inventory
     public List<Part> getParts() {
-        return new ArrayList<>(inventory);
+        return new ArrayList<>(inventory.values());
+    }
+
+
+    // EFFECTS: tells every listener that p was added
+    private void notifyAdded(Part p) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).partAdded(this, p);
+        }
+    }
+
+    // EFFECTS: tells every listener that p was removed
+    private void notifyRemoved(Part p) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).partRemoved(this, p);
+        }
     }
 
+    // EFFECTS: tells every listener that p (or nothing, if p is null) is now active in category
+    private void notifyActive(PartCategory category, Part p) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).activeChanged(this, category, p);
+        }
+    }
 
-    // EFFECTS: logs an event with the given description
-    // Helper for event logging
-    private void logEvent(String description) {
+    // MODIFIES: this
+    // EFFECTS:  logs an event with the given description and notifies listeners of the change,
+    //           unless a BuildEdit is being applied
+    private void changed(String description) {
+        if (applyingEdit) {
+            return;
+        }
         EventLog.getInstance().logEvent(new Event(description));
+        for (BuildListener listener : new ArrayList<>(listeners)) {
+            listener.buildChanged(this);
+        }
     }
 
 
@@ -0,0 +1,246 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Represents a batch of changes to a Build that is applied all-or-nothing.
+// Changes are only staged until commit is called; commit checks the whole batch against
+// the build as it is at that moment and either applies every change (logging one event
+// and notifying listeners once) or applies none of them.
+// A BuildEdit can be committed at most once.
+public class BuildEdit {
+
+    // Represents one staged change: it can be checked against the staged state and applied to the build
+    private interface Change {
+        // MODIFIES: BuildEdit.this (staged state)
+        // EFFECTS:  returns true and records this change in the staged state if it would succeed;
+        //           otherwise returns false
+        boolean check();
+
+        // MODIFIES: build
+        // EFFECTS:  applies this change to the build
+        void apply(Build build);
+    }
+
+    private final Build build;
+    private final List<Change> changes;
+    private boolean committed;
+
+    // staged state used while checking the batch
+    private final Map<String, Part> stagedParts;
+    private final Map<PartCategory, Part> stagedActive;
+    private final Set<PartCategory> touchedActive;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs an empty edit of the given build
+    BuildEdit(Build build) {
+        this.build = build;
+        changes = new ArrayList<>();
+        committed = false;
+        stagedParts = new HashMap<>();
+        stagedActive = new EnumMap<>(PartCategory.class);
+        touchedActive = EnumSet.noneOf(PartCategory.class);
+    }
+
+    // REQUIRES: p != null
+    // MODIFIES: this
+    // EFFECTS:  stages adding p to inventory; the batch fails if a part named like p exists by then
+    public BuildEdit addPart(Part p) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        return stage(new Change() {
+            @Override
+            public boolean check() {
+                if (lookup(p.getName()) != null) {
+                    return false;
+                }
+                stagedParts.put(p.getName(), p);
+                return true;
+            }
+
+            @Override
+            public void apply(Build b) {
+                b.addPart(p);
+            }
+        });
+    }
+
+    // REQUIRES: name != null && non-empty
+    // MODIFIES: this
+    // EFFECTS:  stages removing the part with the given name (clearing it if active);
+    //           the batch fails if no such part exists by then
+    public BuildEdit removePart(String name) {
+        checkName(name);
+        return stage(new Change() {
+            @Override
+            public boolean check() {
+                Part target = lookup(name);
+                if (target == null) {
+                    return false;
+                }
+                drop(target);
+                return true;
+            }
+
+            @Override
+            public void apply(Build b) {
+                b.removePartByName(name);
+            }
+        });
+    }
+
+    // REQUIRES: category != null; name != null && non-empty
+    // MODIFIES: this
+    // EFFECTS:  stages Build.replaceActivePart(category, name); the batch fails if no part of that
+    //           category with that name exists by then
+    public BuildEdit replaceActive(PartCategory category, String name) {
+        return stageActive(category, name, true);
+    }
+
+    // REQUIRES: category != null; name != null && non-empty
+    // MODIFIES: this
+    // EFFECTS:  stages making the named part active in its category without removing the previous one;
+    //           the batch fails if no part of that category with that name exists by then
+    public BuildEdit setActive(PartCategory category, String name) {
+        return stageActive(category, name, false);
+    }
+
+    // REQUIRES: category != null
+    // MODIFIES: this
+    // EFFECTS:  stages clearing the active selection of category
+    public BuildEdit clearActive(PartCategory category) {
+        if (category == null) {
+            throw new IllegalArgumentException();
+        }
+        return stage(new Change() {
+            @Override
+            public boolean check() {
+                putStagedActive(category, null);
+                return true;
+            }
+
+            @Override
+            public void apply(Build b) {
+                b.clearActive(category);
+            }
+        });
+    }
+
+    // EFFECTS: returns the number of staged changes
+    public int size() {
+        return changes.size();
+    }
+
+    // MODIFIES: this, build
+    // EFFECTS:  checks all staged changes together against the build; if every change would succeed,
+    //           applies them all, logs one event, notifies build listeners once and returns true;
+    //           otherwise leaves the build unchanged and returns false.
+    //           Throws IllegalStateException if this edit was already committed
+    public boolean commit() {
+        if (committed) {
+            throw new IllegalStateException("edit already committed");
+        }
+        committed = true;
+        for (Change c : changes) {
+            if (!c.check()) {
+                return false;
+            }
+        }
+        build.applyEdit(changes.size(), () -> {
+            for (Change c : changes) {
+                c.apply(build);
+            }
+        });
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  adds change to the batch and returns this edit for chaining
+    private BuildEdit stage(Change change) {
+        if (committed) {
+            throw new IllegalStateException("edit already committed");
+        }
+        changes.add(change);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  stages making the named part active; if replace, the previous active part of
+    //           category (when different) is also removed from inventory
+    private BuildEdit stageActive(PartCategory category, String name, boolean replace) {
+        if (category == null) {
+            throw new IllegalArgumentException();
+        }
+        checkName(name);
+        return stage(new Change() {
+            @Override
+            public boolean check() {
+                Part candidate = lookup(name);
+                if (candidate == null || candidate.getCategory() != category) {
+                    return false;
+                }
+                Part previous = stagedActive(category);
+                if (replace && previous != null && previous != candidate) {
+                    drop(previous);
+                }
+                putStagedActive(category, candidate);
+                return true;
+            }
+
+            @Override
+            public void apply(Build b) {
+                if (replace) {
+                    b.replaceActivePart(category, name);
+                } else {
+                    b.setActive(category, name);
+                }
+            }
+        });
+    }
+
+    // EFFECTS: returns the part with the given name in the staged state, or null if there is none
+    private Part lookup(String name) {
+        if (stagedParts.containsKey(name)) {
+            return stagedParts.get(name);
+        }
+        return build.getPartByName(name);
+    }
+
+    // EFFECTS: returns the active part of category in the staged state, or null if there is none
+    private Part stagedActive(PartCategory category) {
+        if (touchedActive.contains(category)) {
+            return stagedActive.get(category);
+        }
+        return build.getActive(category);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  records p as the staged active part of category (null clears it)
+    private void putStagedActive(PartCategory category, Part p) {
+        touchedActive.add(category);
+        stagedActive.put(category, p);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  records that target is no longer in inventory, clearing it if it is staged as active
+    private void drop(Part target) {
+        stagedParts.put(target.getName(), null);
+        PartCategory category = target.getCategory();
+        if (category != null && stagedActive(category) == target) {
+            putStagedActive(category, null);
+        }
+    }
+
+    // EFFECTS: throws IllegalArgumentException if name is null or empty
+    private static void checkName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("name cannot be null or empty");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+// Represents an observer of a Build that is told when the build changes.
+// A single call to a Build mutator notifies once; a committed BuildEdit notifies once for the whole batch.
+// Listeners that need every individual change (e.g. to record it) can also override the per-change
+// methods, which are called as each change is made, before buildChanged, and also inside a BuildEdit.
+public interface BuildListener {
+
+    // EFFECTS: reacts to a change in the inventory or active selections of build
+    void buildChanged(Build build);
+
+    // EFFECTS: reacts to part being added to the inventory of build
+    default void partAdded(Build build, Part part) {
+    }
+
+    // EFFECTS: reacts to part being removed from the inventory of build; if part was active, its
+    //          active selection is cleared without a separate activeChanged call
+    default void partRemoved(Build build, Part part) {
+    }
+
+    // EFFECTS: reacts to part becoming the active part of category in build (null when the
+    //          selection is cleared)
+    default void activeChanged(Build build, PartCategory category, Part part) {
+    }
+
+    // EFFECTS: reacts to the reference rolling diameter of build being set to odMm (null when cleared)
+    default void referenceChanged(Build build, Double odMm) {
+    }
+}
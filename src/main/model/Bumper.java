@@ -1,6 +1,9 @@
 package model;
 
 import org.json.JSONObject;
+import persistence.JsonEmitter;
+
+import java.io.IOException;
 
 /**
  * Represents a bumper part that can be either front or back
@@ -60,4 +63,27 @@ public class Bumper extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this bumper to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("type", type);
+        out.field("material", material);
+        out.field("brand", brand);
+        out.field("style", style);
+    }
+
+    // EFFECTS: returns the bumper category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.BUMPER;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a bumper rebuilt from the given JSON object
+    public static Bumper fromJson(JSONObject json) {
+        return new Bumper(json.getString("name"), json.getInt("cost"), json.getString("type"),
+                json.getString("material"), json.getString("brand"), json.getString("style"));
+    }
+
 }
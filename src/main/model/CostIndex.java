@@ -0,0 +1,85 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Represents an index of parts ordered by cost, used by Build to answer budget queries.
+// Parts are grouped into buckets of equal cost kept in a sorted map, so locating the start of a
+// cost range or either end of the ordering takes logarithmic time and each query then only walks
+// the parts it returns. Parts of equal cost are kept in the order they were added.
+class CostIndex {
+
+    //buckets of parts keyed by cost; each bucket is keyed by part name, in insertion order
+    private final NavigableMap<Integer, Map<String, Part>> byCost;
+    private int size;
+
+    // EFFECTS: constructs an empty cost index
+    CostIndex() {
+        byCost = new TreeMap<>();
+        size = 0;
+    }
+
+    // REQUIRES: p != null; no part with p's name is already indexed
+    // MODIFIES: this
+    // EFFECTS:  adds p to this index
+    void add(Part p) {
+        byCost.computeIfAbsent(p.getCost(), c -> new LinkedHashMap<>()).put(p.getName(), p);
+        size++;
+    }
+
+    // REQUIRES: p != null
+    // MODIFIES: this
+    // EFFECTS:  removes p from this index (if present), dropping its bucket once it is empty
+    void remove(Part p) {
+        Map<String, Part> bucket = byCost.get(p.getCost());
+        if (bucket != null && bucket.remove(p.getName()) != null) {
+            size--;
+            if (bucket.isEmpty()) {
+                byCost.remove(p.getCost());
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of indexed parts
+    int size() {
+        return size;
+    }
+
+    // REQUIRES: min <= max
+    // EFFECTS:  returns the parts with min <= cost <= max, cheapest first
+    List<Part> inRange(int min, int max) {
+        return collect(byCost.subMap(min, true, max, true), Integer.MAX_VALUE);
+    }
+
+    // REQUIRES: k >= 0
+    // EFFECTS:  returns at most k parts, cheapest first
+    List<Part> cheapest(int k) {
+        return collect(byCost, k);
+    }
+
+    // REQUIRES: k >= 0
+    // EFFECTS:  returns at most k parts, most expensive first
+    List<Part> mostExpensive(int k) {
+        return collect(byCost.descendingMap(), k);
+    }
+
+    // EFFECTS: returns up to limit parts from buckets, walking the buckets in the map's order
+    private static List<Part> collect(NavigableMap<Integer, Map<String, Part>> buckets, int limit) {
+        List<Part> result = new ArrayList<>();
+        Iterator<Map<String, Part>> it = buckets.values().iterator();
+        while (result.size() < limit && it.hasNext()) {
+            for (Part p : it.next().values()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(p);
+            }
+        }
+        return result;
+    }
+}
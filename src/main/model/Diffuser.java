@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a rear diffuser component.
  * Immutable once constructed.
@@ -48,4 +52,26 @@ public class Diffuser extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this diffuser to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("material", material);
+        out.field("brand", brand);
+        out.field("functional", functional);
+    }
+
+    // EFFECTS: returns the diffuser category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.DIFFUSER;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a diffuser rebuilt from the given JSON object
+    public static Diffuser fromJson(org.json.JSONObject json) {
+        return new Diffuser(json.getString("name"), json.getInt("cost"), json.getString("material"),
+                json.getString("brand"), json.getBoolean("functional"));
+    }
+
 }
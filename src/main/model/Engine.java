@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents an engine component in the build.
  * Immutable once constructed.
@@ -55,4 +59,26 @@ public class Engine extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this engine to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("type", type);
+        out.field("horsepower", horsepower);
+        out.field("displacement", displacement);
+    }
+
+    // EFFECTS: returns the engine category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.ENGINE;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns an engine rebuilt from the given JSON object
+    public static Engine fromJson(org.json.JSONObject json) {
+        return new Engine(json.getString("name"), json.getInt("cost"), json.getString("type"),
+                json.getInt("horsepower"), json.getDouble("displacement"));
+    }
+
 }
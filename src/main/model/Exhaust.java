@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents an exhaust component.
  * Immutable once constructed.
@@ -30,5 +34,24 @@ public class Exhaust extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this exhaust to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("spec", spec);
+    }
+
+    // EFFECTS: returns the exhaust category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.EXHAUST;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns an exhaust rebuilt from the given JSON object
+    public static Exhaust fromJson(org.json.JSONObject json) {
+        return new Exhaust(json.getString("name"), json.getInt("cost"), json.getString("spec"));
+    }
+
 
 }
@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a lighting component (headlights or taillights).
  * Immutable once constructed.
@@ -59,4 +63,27 @@ public class Lights extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this lights component to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("type", type);
+        out.field("brand", brand);
+        out.field("lightType", lightType);
+        out.field("detail", detail);
+    }
+
+    // EFFECTS: returns the lights category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.LIGHTS;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns lights rebuilt from the given JSON object
+    public static Lights fromJson(org.json.JSONObject json) {
+        return new Lights(json.getString("name"), json.getInt("cost"), json.getString("type"),
+                json.getString("brand"), json.getString("lightType"), json.getString("detail"));
+    }
+
 }
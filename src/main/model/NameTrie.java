@@ -0,0 +1,149 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Represents a case-insensitive prefix tree over part names, used by Build for type-ahead lookup.
+// Finding the node for a prefix takes time proportional to the prefix length, independent of how
+// many names are indexed; listing matches then only walks the part of the tree holding them.
+// Matches are returned in alphabetical order of their lower-cased names.
+class NameTrie {
+
+    // Represents one node of the tree: the names ending here and the children for the next character
+    private static final class Node {
+        //children keyed by the (lower-cased) next character, in alphabetical order
+        private final Map<Character, Node> children = new TreeMap<>();
+        //parts whose lower-cased name ends at this node, keyed by their exact name
+        private Map<String, Part> parts;
+        //number of parts at or below this node
+        private int size;
+    }
+
+    private final Node root;
+
+    // EFFECTS: constructs an empty name trie
+    NameTrie() {
+        root = new Node();
+    }
+
+    // REQUIRES: p != null; no part with p's exact name is already indexed
+    // MODIFIES: this
+    // EFFECTS:  adds p to this trie under its name
+    void add(Part p) {
+        String name = p.getName();
+        Node node = root;
+        node.size++;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.children.computeIfAbsent(fold(name.charAt(i)), c -> new Node());
+            node.size++;
+        }
+        if (node.parts == null) {
+            node.parts = new TreeMap<>();
+        }
+        node.parts.put(name, p);
+    }
+
+    // REQUIRES: p != null
+    // MODIFIES: this
+    // EFFECTS:  removes p from this trie (if present), pruning nodes that no longer lead to any name
+    void remove(Part p) {
+        String name = p.getName();
+        Node end = find(name);
+        if (end == null || end.parts == null || end.parts.get(name) != p) {
+            return;
+        }
+        end.parts.remove(name);
+        Node node = root;
+        node.size--;
+        for (int i = 0; i < name.length(); i++) {
+            char c = fold(name.charAt(i));
+            Node child = node.children.get(c);
+            child.size--;
+            if (child.size == 0) {
+                node.children.remove(c);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS:  returns the number of indexed names starting with prefix (ignoring case)
+    int countWithPrefix(String prefix) {
+        Node node = find(prefix);
+        return (node == null) ? 0 : node.size;
+    }
+
+    // REQUIRES: prefix != null; limit >= 0
+    // EFFECTS:  returns at most limit parts whose names start with prefix (ignoring case),
+    //           in alphabetical order
+    List<Part> withPrefix(String prefix, int limit) {
+        List<Part> result = new ArrayList<>(Math.min(limit, countWithPrefix(prefix)));
+        Node node = find(prefix);
+        if (node != null) {
+            collect(node, result, limit);
+        }
+        return result;
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS:  returns the longest text that every indexed name starting with prefix (ignoring case)
+    //           also starts with, using the letter case of the first such name; returns null if no
+    //           name starts with prefix
+    String complete(String prefix) {
+        Node node = find(prefix);
+        if (node == null || node.size == 0) {
+            return null;
+        }
+        int depth = prefix.length();
+        while (node.parts == null || node.parts.isEmpty()) {
+            if (node.children.size() != 1) {
+                break;
+            }
+            node = node.children.values().iterator().next();
+            depth++;
+        }
+        List<Part> first = new ArrayList<>(1);
+        collect(node, first, 1);
+        return first.get(0).getName().substring(0, depth);
+    }
+
+    // EFFECTS: returns the node reached by following key from the root, or null if there is none
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(fold(key.charAt(i)));
+        }
+        return node;
+    }
+
+    // MODIFIES: result
+    // EFFECTS:  appends the parts at and below node to result, in alphabetical order, until result
+    //           holds limit parts
+    private static void collect(Node node, List<Part> result, int limit) {
+        if (result.size() >= limit) {
+            return;
+        }
+        if (node.parts != null) {
+            for (Part p : node.parts.values()) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                result.add(p);
+            }
+        }
+        for (Node child : node.children.values()) {
+            if (result.size() >= limit) {
+                return;
+            }
+            collect(child, result, limit);
+        }
+    }
+
+    // EFFECTS: returns c in lower case; folding one char at a time keeps names and keys the same length
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+}
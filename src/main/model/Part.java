@@ -2,8 +2,11 @@ package model;
 
 import org.json.JSONObject;
 
+import persistence.JsonEmitter;
 import persistence.Writable;
 
+import java.io.IOException;
+
 /**
  * Represents a generic part that can be added to a build.
  * Each part has a user-given unique name and a cost in CAD.
@@ -43,6 +46,21 @@ public abstract class Part implements Writable {
     }
 
 
+    // EFFECTS: returns the category of this part, or null if it is not one of the standard categories
+    public PartCategory getCategory() {
+        return null;
+    }
+
+    // EFFECTS: returns the name of this part's category (e.g. "Wheel");
+    //          parts outside the standard categories use their class name
+    public String getCategoryName() {
+        PartCategory category = getCategory();
+        if (category == null) {
+            return getClass().getSimpleName();
+        }
+        return category.getDisplayName();
+    }
+
     //helper method for exception handling and validation for each subPart constructor
     protected static void validateString(String value, String fieldName) {
         if (value == null || value.trim().isEmpty()) {
@@ -54,10 +72,28 @@ public abstract class Part implements Writable {
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put("category", getClass().getSimpleName());
+        json.put("category", getCategoryName());
         json.put("name", name);
         json.put("cost", cost);
         return json;
     }
 
+
+    // MODIFIES: out
+    // EFFECTS:  writes this part to out as one JSON object with the same fields as toJson
+    @Override
+    public void writeJson(JsonEmitter out) throws IOException {
+        out.beginObject();
+        writeFields(out);
+        out.endObject();
+    }
+
+    // MODIFIES: out
+    // EFFECTS:  writes the category, name and cost fields of this part to out; subclasses add their
+    //           own fields after these
+    protected void writeFields(JsonEmitter out) throws IOException {
+        out.field("category", getCategoryName());
+        out.field("name", name);
+        out.field("cost", cost);
+    }
 }
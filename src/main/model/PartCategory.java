@@ -0,0 +1,98 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.json.JSONObject;
+
+/**
+ * Represents the categories a part can belong to.
+ * Each category knows its part class, the name it is shown and saved under,
+ * the keys a user may type for it, and how to rebuild one of its parts from JSON.
+ * The ordinal of a category is its active slot in a build.
+ */
+public enum PartCategory {
+    WHEEL(Wheel.class, "Wheel", Wheel::fromJson, "wheel", "wheels"),
+    TIRE(Tire.class, "Tire", Tire::fromJson, "tire", "tires"),
+    SUSPENSION(Suspension.class, "Suspension", Suspension::fromJson, "suspension"),
+    EXHAUST(Exhaust.class, "Exhaust", Exhaust::fromJson, "exhaust"),
+    ENGINE(Engine.class, "Engine", Engine::fromJson, "engine"),
+    TRANSMISSION(Transmission.class, "Transmission", Transmission::fromJson, "transmission"),
+    BUMPER(Bumper.class, "Bumper", Bumper::fromJson, "bumper", "bumpers"),
+    SIDE_SKIRTS(SideSkirts.class, "SideSkirts", SideSkirts::fromJson, "sideskirts", "side skirts"),
+    DIFFUSER(Diffuser.class, "Diffuser", Diffuser::fromJson, "diffuser"),
+    SPOILER(Spoiler.class, "Spoiler", Spoiler::fromJson, "spoiler"),
+    LIGHTS(Lights.class, "Lights", Lights::fromJson, "lights");
+
+    private static final Map<String, PartCategory> BY_KEY = new HashMap<>();
+    private static final Map<String, PartCategory> BY_DISPLAY_NAME = new HashMap<>();
+
+    static {
+        for (PartCategory c : values()) {
+            BY_DISPLAY_NAME.put(c.displayName, c);
+            BY_KEY.put(c.displayName, c);
+            for (String key : c.keys) {
+                BY_KEY.put(key, c);
+            }
+        }
+    }
+
+    private final Class<? extends Part> partClass;
+    private final String displayName;
+    private final Function<JSONObject, Part> parser;
+    private final String[] keys;
+
+    // EFFECTS: constructs a category for the given part class, display/JSON name,
+    //          JSON parser and lower-case keys users may type for it
+    PartCategory(Class<? extends Part> partClass, String displayName, Function<JSONObject, Part> parser,
+                 String... keys) {
+        this.partClass = partClass;
+        this.displayName = displayName;
+        this.parser = parser;
+        this.keys = keys;
+    }
+
+    // EFFECTS: returns the part class of this category
+    public Class<? extends Part> getPartClass() {
+        return partClass;
+    }
+
+    // EFFECTS: returns the name this category is shown and saved under (e.g. "SideSkirts")
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // REQUIRES: json has the fields written by toJson for a part of this category
+    // EFFECTS:  returns the part of this category rebuilt from the given JSON object
+    public Part fromJson(JSONObject json) {
+        return parser.apply(json);
+    }
+
+    // REQUIRES: key != null
+    // EFFECTS:  returns the category for a user-typed key such as "wheel", " Tires " or "side skirts"
+    //           (case and surrounding spaces are ignored); returns null if the key is unknown
+    public static PartCategory fromKey(String key) {
+        PartCategory c = BY_KEY.get(key);
+        if (c != null) {
+            return c;
+        }
+        return BY_KEY.get(key.trim().toLowerCase());
+    }
+
+    // REQUIRES: name != null
+    // EFFECTS:  returns the category saved under the given JSON name, ignoring case;
+    //           returns null if no category has that name
+    public static PartCategory fromJsonName(String name) {
+        PartCategory c = BY_DISPLAY_NAME.get(name);
+        if (c != null) {
+            return c;
+        }
+        for (PartCategory other : values()) {
+            if (other.displayName.equalsIgnoreCase(name)) {
+                return other;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a pair of side skirts.
  * Immutable once constructed.
@@ -40,5 +44,26 @@ public class SideSkirts extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this side skirts component to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("material", material);
+        out.field("brand", brand);
+    }
+
+    // EFFECTS: returns the side skirts category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.SIDE_SKIRTS;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns side skirts rebuilt from the given JSON object
+    public static SideSkirts fromJson(org.json.JSONObject json) {
+        return new SideSkirts(json.getString("name"), json.getInt("cost"), json.getString("material"),
+                json.getString("brand"));
+    }
+
 
 }
@@ -0,0 +1,121 @@
+package model;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Represents a typed spec field that parts can be queried on.
+ * Each field belongs to one part category (cost applies to every part) and is either
+ * numeric, supporting equality and range conditions, or text, supporting equality
+ * conditions that ignore case. The key of a field is the name it is saved under in JSON.
+ */
+public enum SpecField {
+    COST(null, "cost", p -> p.getCost(), null),
+
+    WHEEL_DIAMETER(PartCategory.WHEEL, "diameterIn", p -> ((Wheel) p).getDiameterIn(), null),
+    WHEEL_WIDTH(PartCategory.WHEEL, "widthIn", p -> ((Wheel) p).getWidthIn(), null),
+    WHEEL_OFFSET(PartCategory.WHEEL, "offsetMm", p -> ((Wheel) p).getOffsetMm(), null),
+
+    TIRE_WIDTH(PartCategory.TIRE, "widthMm", p -> ((Tire) p).getWidthMm(), null),
+    TIRE_ASPECT(PartCategory.TIRE, "aspectPercent", p -> ((Tire) p).getAspectPercent(), null),
+    TIRE_RIM_DIAMETER(PartCategory.TIRE, "rimDiameterIn", p -> ((Tire) p).getRimDiameterIn(), null),
+
+    SUSPENSION_TYPE(PartCategory.SUSPENSION, "type", null, p -> ((Suspension) p).getType()),
+    SUSPENSION_DROP(PartCategory.SUSPENSION, "dropMm", p -> ((Suspension) p).getDropMm(), null),
+
+    EXHAUST_SPEC(PartCategory.EXHAUST, "spec", null, p -> ((Exhaust) p).getSpec()),
+
+    ENGINE_TYPE(PartCategory.ENGINE, "type", null, p -> ((Engine) p).getType()),
+    ENGINE_HORSEPOWER(PartCategory.ENGINE, "horsepower", p -> ((Engine) p).getHorsepower(), null),
+    ENGINE_DISPLACEMENT(PartCategory.ENGINE, "displacement", p -> ((Engine) p).getDisplacement(), null),
+
+    TRANSMISSION_TYPE(PartCategory.TRANSMISSION, "type", null, p -> ((Transmission) p).getType()),
+    TRANSMISSION_GEARS(PartCategory.TRANSMISSION, "gears", p -> ((Transmission) p).getGears(), null),
+    TRANSMISSION_DRIVE(PartCategory.TRANSMISSION, "drive", null, p -> ((Transmission) p).getDrive()),
+
+    BUMPER_TYPE(PartCategory.BUMPER, "type", null, p -> ((Bumper) p).getType()),
+    BUMPER_MATERIAL(PartCategory.BUMPER, "material", null, p -> ((Bumper) p).getMaterial()),
+    BUMPER_BRAND(PartCategory.BUMPER, "brand", null, p -> ((Bumper) p).getBrand()),
+    BUMPER_STYLE(PartCategory.BUMPER, "style", null, p -> ((Bumper) p).getStyle()),
+
+    SIDE_SKIRTS_MATERIAL(PartCategory.SIDE_SKIRTS, "material", null, p -> ((SideSkirts) p).getMaterial()),
+    SIDE_SKIRTS_BRAND(PartCategory.SIDE_SKIRTS, "brand", null, p -> ((SideSkirts) p).getBrand()),
+
+    DIFFUSER_MATERIAL(PartCategory.DIFFUSER, "material", null, p -> ((Diffuser) p).getMaterial()),
+    DIFFUSER_BRAND(PartCategory.DIFFUSER, "brand", null, p -> ((Diffuser) p).getBrand()),
+    DIFFUSER_FUNCTIONAL(PartCategory.DIFFUSER, "functional", p -> ((Diffuser) p).isFunctional() ? 1 : 0, null),
+
+    SPOILER_MATERIAL(PartCategory.SPOILER, "material", null, p -> ((Spoiler) p).getMaterial()),
+    SPOILER_STYLE(PartCategory.SPOILER, "style", null, p -> ((Spoiler) p).getStyle()),
+    SPOILER_HEIGHT(PartCategory.SPOILER, "heightMm", p -> ((Spoiler) p).getHeightMm(), null),
+
+    LIGHTS_TYPE(PartCategory.LIGHTS, "type", null, p -> ((Lights) p).getType()),
+    LIGHTS_BRAND(PartCategory.LIGHTS, "brand", null, p -> ((Lights) p).getBrand()),
+    LIGHTS_LIGHT_TYPE(PartCategory.LIGHTS, "lightType", null, p -> ((Lights) p).getLightType()),
+    LIGHTS_DETAIL(PartCategory.LIGHTS, "detail", null, p -> ((Lights) p).getDetail());
+
+    private final PartCategory category;
+    private final String key;
+    private final ToDoubleFunction<Part> number;
+    private final Function<Part, String> text;
+
+    // REQUIRES: exactly one of number and text is non-null
+    // EFFECTS:  constructs a field of the given category (null for every part) and JSON key,
+    //           read with number if it is numeric or with text if it is text
+    SpecField(PartCategory category, String key, ToDoubleFunction<Part> number, Function<Part, String> text) {
+        this.category = category;
+        this.key = key;
+        this.number = number;
+        this.text = text;
+    }
+
+    // EFFECTS: returns the category this field belongs to, or null if it applies to every part
+    public PartCategory getCategory() {
+        return category;
+    }
+
+    // EFFECTS: returns the JSON key of this field
+    public String getKey() {
+        return key;
+    }
+
+    // EFFECTS: returns true if this field is numeric, false if it is text
+    public boolean isNumeric() {
+        return number != null;
+    }
+
+    // EFFECTS: returns true if p has this field
+    public boolean appliesTo(Part p) {
+        return category == null || p.getCategory() == category;
+    }
+
+    // REQUIRES: isNumeric() and appliesTo(p)
+    // EFFECTS:  returns the value of this field for p
+    public double numberOf(Part p) {
+        return number.applyAsDouble(p);
+    }
+
+    // REQUIRES: !isNumeric() and appliesTo(p)
+    // EFFECTS:  returns the value of this field for p in lower case, the form text conditions compare
+    public String textOf(Part p) {
+        return fold(text.apply(p));
+    }
+
+    // REQUIRES: category != null; key != null
+    // EFFECTS:  returns the field of the given category (or cost) with the given JSON key, ignoring case;
+    //           returns null if there is none
+    public static SpecField fromKey(PartCategory category, String key) {
+        for (SpecField f : values()) {
+            if ((f.category == null || f.category == category) && f.key.equalsIgnoreCase(key.trim())) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns s in lower case
+    static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+}
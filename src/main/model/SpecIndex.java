@@ -0,0 +1,83 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Represents an index of parts on one spec field, used by SpecQuery to avoid scanning a category.
+// Numeric fields are kept in a sorted map of equal-value buckets so a range is found in logarithmic
+// time; text fields are kept in a hash map of buckets keyed by the lower-cased value. Parts with the
+// same value are kept in the order they were added.
+class SpecIndex {
+
+    private final SpecField field;
+    //buckets keyed by value for a numeric field (null for a text field)
+    private final NavigableMap<Double, Map<String, Part>> numbers;
+    //buckets keyed by lower-cased value for a text field (null for a numeric field)
+    private final Map<String, Map<String, Part>> texts;
+
+    // EFFECTS: constructs an empty index on field
+    SpecIndex(SpecField field) {
+        this.field = field;
+        if (field.isNumeric()) {
+            numbers = new TreeMap<>();
+            texts = null;
+        } else {
+            numbers = null;
+            texts = new HashMap<>();
+        }
+    }
+
+    // EFFECTS: returns the field this index is on
+    SpecField getField() {
+        return field;
+    }
+
+    // REQUIRES: p != null; field.appliesTo(p)
+    // MODIFIES: this
+    // EFFECTS:  adds p to this index
+    void add(Part p) {
+        if (numbers != null) {
+            numbers.computeIfAbsent(field.numberOf(p), v -> new LinkedHashMap<>()).put(p.getName(), p);
+        } else {
+            texts.computeIfAbsent(field.textOf(p), v -> new LinkedHashMap<>()).put(p.getName(), p);
+        }
+    }
+
+    // REQUIRES: p != null; field.appliesTo(p)
+    // MODIFIES: this
+    // EFFECTS:  removes p from this index (if present), dropping its bucket once it is empty
+    void remove(Part p) {
+        if (numbers != null) {
+            removeFrom(numbers, field.numberOf(p), p);
+        } else {
+            removeFrom(texts, field.textOf(p), p);
+        }
+    }
+
+    // REQUIRES: field is text; value is in lower case
+    // EFFECTS:  returns a read-only live view of the bucket of parts whose value is value
+    Map<String, Part> bucket(String value) {
+        Map<String, Part> bucket = texts.get(value);
+        return (bucket == null) ? Collections.emptyMap() : Collections.unmodifiableMap(bucket);
+    }
+
+    // REQUIRES: field is numeric
+    // EFFECTS:  returns a read-only live view of the buckets whose value lies between lo and hi,
+    //           each end included if the matching flag is true
+    NavigableMap<Double, Map<String, Part>> range(double lo, boolean loInclusive, double hi, boolean hiInclusive) {
+        return Collections.unmodifiableNavigableMap(numbers.subMap(lo, loInclusive, hi, hiInclusive));
+    }
+
+    // MODIFIES: buckets
+    // EFFECTS:  removes p from the bucket at key, dropping the bucket once it is empty
+    private static <K> void removeFrom(Map<K, Map<String, Part>> buckets, K key, Part p) {
+        Map<String, Part> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(p.getName()) != null && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Represents a query over the parts of a build that match every one of a set of conditions on
+ * their spec fields, e.g. wheels with diameterIn = 18 and offsetMm between 35 and 45.
+ *
+ * When the query is run, a simple planner asks the build's per-field index for each condition how
+ * many parts it would let through and drives the query from the most selective one (or from a scan
+ * of the category when no index narrows it down). The remaining conditions are applied as filters.
+ * Results are returned as a lazy stream over the build's live indexes, so it should be consumed
+ * before the build is changed; like Build.partsView, it fails fast if the build changes under it.
+ */
+public class SpecQuery {
+
+    // Represents one condition: a numeric field within [lo, hi] (ends optionally open)
+    // or a text field equal to a value, ignoring case
+    private static final class Condition {
+        private final SpecField field;
+        private final String text;
+        private final double lo;
+        private final boolean loInclusive;
+        private final double hi;
+        private final boolean hiInclusive;
+
+        // EFFECTS: constructs a numeric range condition on field
+        private Condition(SpecField field, double lo, boolean loInclusive, double hi, boolean hiInclusive) {
+            this.field = field;
+            this.text = null;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+        }
+
+        // EFFECTS: constructs a text equality condition on field; value is in lower case
+        private Condition(SpecField field, String value) {
+            this.field = field;
+            this.text = value;
+            this.lo = 0;
+            this.loInclusive = false;
+            this.hi = 0;
+            this.hiInclusive = false;
+        }
+
+        // EFFECTS: returns true if p satisfies this condition
+        private boolean test(Part p) {
+            if (text != null) {
+                return text.equals(field.textOf(p));
+            }
+            double v = field.numberOf(p);
+            boolean aboveLo = loInclusive ? v >= lo : v > lo;
+            boolean belowHi = hiInclusive ? v <= hi : v < hi;
+            return aboveLo && belowHi;
+        }
+
+        // EFFECTS: returns the number of parts in index satisfying this condition, or any number
+        //          greater than cutoff once that many have been counted
+        private int count(SpecIndex index, int cutoff) {
+            if (text != null) {
+                return index.bucket(text).size();
+            }
+            int count = 0;
+            for (Map<String, Part> bucket : index.range(lo, loInclusive, hi, hiInclusive).values()) {
+                count += bucket.size();
+                if (count > cutoff) {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        // EFFECTS: returns a lazy stream of the parts in index satisfying this condition
+        private Stream<Part> candidates(SpecIndex index) {
+            if (text != null) {
+                return index.bucket(text).values().stream();
+            }
+            return index.range(lo, loInclusive, hi, hiInclusive).values().stream()
+                    .flatMap(bucket -> bucket.values().stream());
+        }
+    }
+
+    private final Build build;
+    private final PartCategory category;
+    private final List<Condition> conditions;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a query over the parts of build in category (every part if category is null)
+    SpecQuery(Build build, PartCategory category) {
+        this.build = build;
+        this.category = category;
+        conditions = new ArrayList<>();
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; value is not NaN
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field == value and returns this query for chaining
+    public SpecQuery equalTo(SpecField field, double value) {
+        return between(field, value, value);
+    }
+
+    // REQUIRES: field is text and belongs to this query's category; value != null
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field equals value (ignoring case) and returns this query for chaining
+    public SpecQuery equalTo(SpecField field, String value) {
+        checkField(field, false);
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        conditions.add(new Condition(field, SpecField.fold(value)));
+        return this;
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; min <= max
+    // MODIFIES: this
+    // EFFECTS:  adds the condition min <= field <= max and returns this query for chaining
+    public SpecQuery between(SpecField field, double min, double max) {
+        return range(field, min, true, max, true);
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; value is not NaN
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field > value and returns this query for chaining
+    public SpecQuery greaterThan(SpecField field, double value) {
+        return range(field, value, false, Double.POSITIVE_INFINITY, true);
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; value is not NaN
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field >= value and returns this query for chaining
+    public SpecQuery atLeast(SpecField field, double value) {
+        return range(field, value, true, Double.POSITIVE_INFINITY, true);
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; value is not NaN
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field < value and returns this query for chaining
+    public SpecQuery lessThan(SpecField field, double value) {
+        return range(field, Double.NEGATIVE_INFINITY, true, value, false);
+    }
+
+    // REQUIRES: field is numeric and belongs to this query's category; value is not NaN
+    // MODIFIES: this
+    // EFFECTS:  adds the condition field <= value and returns this query for chaining
+    public SpecQuery atMost(SpecField field, double value) {
+        return range(field, Double.NEGATIVE_INFINITY, true, value, true);
+    }
+
+    // EFFECTS: returns the field whose index the planner would drive this query from right now,
+    //          or null if it would scan the category instead
+    public SpecField plan() {
+        Condition driver = chooseDriver();
+        return (driver == null) ? null : driver.field;
+    }
+
+    // EFFECTS: runs this query and returns a lazy stream of the matching parts. Parts come in the
+    //          order of the driving index (by value, then insertion) or in insertion order for a scan
+    public Stream<Part> stream() {
+        Condition driver = chooseDriver();
+        Stream<Part> result = (driver == null) ? scope().stream()
+                : driver.candidates(build.specIndex(driver.field));
+        for (Condition c : conditions) {
+            if (c != driver) {
+                result = result.filter(c::test);
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the condition whose index lets through the fewest parts, provided that is
+    //          fewer than the whole scope; returns null if a scan is at least as cheap
+    private Condition chooseDriver() {
+        int best = scope().size();
+        Condition driver = null;
+        for (Condition c : conditions) {
+            int count = c.count(build.specIndex(c.field), best);
+            if (count < best) {
+                best = count;
+                driver = c;
+            }
+        }
+        return driver;
+    }
+
+    // EFFECTS: returns the live view of the parts this query ranges over
+    private Collection<Part> scope() {
+        return (category == null) ? build.partsView() : build.categoryView(category);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  adds a numeric range condition after validating it and returns this query
+    private SpecQuery range(SpecField field, double lo, boolean loInclusive, double hi, boolean hiInclusive) {
+        checkField(field, true);
+        if (Double.isNaN(lo) || Double.isNaN(hi) || lo > hi) {
+            throw new IllegalArgumentException("invalid range for " + field.getKey());
+        }
+        conditions.add(new Condition(field, lo, loInclusive, hi, hiInclusive));
+        return this;
+    }
+
+    // EFFECTS: throws IllegalArgumentException if field is null, is not of the given kind,
+    //          or does not belong to this query's category
+    private void checkField(SpecField field, boolean numeric) {
+        if (field == null) {
+            throw new IllegalArgumentException("field cannot be null");
+        }
+        if (field.isNumeric() != numeric) {
+            throw new IllegalArgumentException(field.getKey() + (numeric ? " is not numeric" : " is not text"));
+        }
+        if (field.getCategory() != null && field.getCategory() != category) {
+            throw new IllegalArgumentException(field.getKey() + " is not a field of this query's category");
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a spoiler or wing.
  * Immutable once constructed.
@@ -51,4 +55,26 @@ public class Spoiler extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this spoiler to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("material", material);
+        out.field("style", style);
+        out.field("heightMm", heightMm);
+    }
+
+    // EFFECTS: returns the spoiler category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.SPOILER;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a spoiler rebuilt from the given JSON object
+    public static Spoiler fromJson(org.json.JSONObject json) {
+        return new Spoiler(json.getString("name"), json.getInt("cost"), json.getString("material"),
+                json.getString("style"), json.getDouble("heightMm"));
+    }
+
 }
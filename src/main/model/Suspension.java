@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a suspension component
  * Immutable once constructed
@@ -45,5 +49,26 @@ public class Suspension extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this suspension to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("type", type);
+        out.field("dropMm", dropMm);
+    }
+
+    // EFFECTS: returns the suspension category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.SUSPENSION;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a suspension component rebuilt from the given JSON object
+    public static Suspension fromJson(org.json.JSONObject json) {
+        return new Suspension(json.getString("name"), json.getInt("cost"), json.getString("type"),
+                json.getInt("dropMm"));
+    }
+
 
 }
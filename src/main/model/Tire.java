@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a tire specification.
  * Immutable once constructed.
@@ -56,4 +60,26 @@ public class Tire extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this tire to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("widthMm", widthMm);
+        out.field("aspectPercent", aspectPercent);
+        out.field("rimDiameterIn", rimDiameterIn);
+    }
+
+    // EFFECTS: returns the tire category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.TIRE;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a tire rebuilt from the given JSON object
+    public static Tire fromJson(org.json.JSONObject json) {
+        return new Tire(json.getString("name"), json.getInt("cost"), json.getInt("widthMm"),
+                json.getInt("aspectPercent"), json.getDouble("rimDiameterIn"));
+    }
+
 }
@@ -1,5 +1,9 @@
 package model;
 
+import persistence.JsonEmitter;
+
+import java.io.IOException;
+
 /**
  * Represents a transmission component in the build.
  * Immutable once constructed.
@@ -52,5 +56,27 @@ public class Transmission extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this transmission to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("type", type);
+        out.field("gears", gears);
+        out.field("drive", drive);
+    }
+
+    // EFFECTS: returns the transmission category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.TRANSMISSION;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a transmission rebuilt from the given JSON object
+    public static Transmission fromJson(org.json.JSONObject json) {
+        return new Transmission(json.getString("name"), json.getInt("cost"), json.getString("type"),
+                json.getInt("gears"), json.getString("drive"));
+    }
+
 
 }
@@ -1,6 +1,9 @@
 package model;
 
 import org.json.JSONObject;
+import persistence.JsonEmitter;
+
+import java.io.IOException;
 
 /**
  * Represents a wheel specification.
@@ -52,4 +55,26 @@ public class Wheel extends Part {
         return json;
     }
 
+    // EFFECTS: writes the fields of this wheel to out, after the fields every part has
+    @Override
+    protected void writeFields(JsonEmitter out) throws IOException {
+        super.writeFields(out);
+        out.field("diameterIn", diameterIn);
+        out.field("widthIn", widthIn);
+        out.field("offsetMm", offsetMm);
+    }
+
+    // EFFECTS: returns the wheel category
+    @Override
+    public PartCategory getCategory() {
+        return PartCategory.WHEEL;
+    }
+
+    // REQUIRES: json has the fields written by toJson
+    // EFFECTS:  returns a wheel rebuilt from the given JSON object
+    public static Wheel fromJson(JSONObject json) {
+        return new Wheel(json.getString("name"), json.getInt("cost"), json.getDouble("diameterIn"),
+                json.getDouble("widthIn"), json.getInt("offsetMm"));
+    }
+
 }
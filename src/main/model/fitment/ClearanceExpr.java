@@ -0,0 +1,270 @@
+package model.fitment;
+
+import java.util.List;
+
+/**
+ * Represents a node of a parsed clearance rule expression.
+ *
+ * An expression can be run two ways. interpret walks the tree for every evaluation, switching on
+ * each node's operator as it goes. compileNumber and compileTest instead walk the tree once and
+ * return a chain of small lambdas, one per node, each specialised to its operator, with constant
+ * subexpressions folded and comparisons against a constant reading the constant from a captured
+ * local. The JIT can inline such a chain into straight-line code over the primitive spec fields.
+ *
+ * Numbers and conditions share the tree: a node is either numeric or boolean (isBoolean), and the
+ * parser only builds well-typed trees. When interpreted, a condition evaluates to 1 or 0.
+ */
+abstract class ClearanceExpr {
+
+    // Represents a compiled numeric expression
+    @FunctionalInterface
+    interface NumberCode {
+        double eval(ClearanceSpecs s);
+    }
+
+    // Represents a compiled condition
+    @FunctionalInterface
+    interface TestCode {
+        boolean test(ClearanceSpecs s);
+    }
+
+    // The operators of unary and binary nodes
+    enum Op { NEG, NOT, ADD, SUB, MUL, DIV, LT, LE, GT, GE, EQ, NE, AND, OR, MIN, MAX, ABS }
+
+    // EFFECTS: returns true if this expression is a condition rather than a number
+    abstract boolean isBoolean();
+
+    // EFFECTS: returns the value of this expression for s by walking the tree (1 or 0 for a condition)
+    abstract double interpret(ClearanceSpecs s);
+
+    // REQUIRES: !isBoolean()
+    // EFFECTS:  returns this numeric expression compiled to lambdas
+    abstract NumberCode compileNumber();
+
+    // REQUIRES: isBoolean()
+    // EFFECTS:  returns this condition compiled to lambdas
+    abstract TestCode compileTest();
+
+    // EFFECTS: returns true if this expression reads no variables
+    abstract boolean isConstant();
+
+    // Represents a number literal
+    static final class Constant extends ClearanceExpr {
+        private final double value;
+
+        // EFFECTS: constructs a literal of value
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean isBoolean() {
+            return false;
+        }
+
+        @Override
+        double interpret(ClearanceSpecs s) {
+            return value;
+        }
+
+        @Override
+        NumberCode compileNumber() {
+            double v = value;
+            return s -> v;
+        }
+
+        @Override
+        TestCode compileTest() {
+            throw new IllegalStateException("not a condition");
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    // Represents a named spec
+    static final class Variable extends ClearanceExpr {
+        private final ClearanceVariable variable;
+
+        // EFFECTS: constructs a reference to variable
+        Variable(ClearanceVariable variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        boolean isBoolean() {
+            return false;
+        }
+
+        @Override
+        double interpret(ClearanceSpecs s) {
+            return variable.valueIn(s);
+        }
+
+        @Override
+        NumberCode compileNumber() {
+            return variable.accessor();
+        }
+
+        @Override
+        TestCode compileTest() {
+            throw new IllegalStateException("not a condition");
+        }
+
+        @Override
+        boolean isConstant() {
+            return false;
+        }
+    }
+
+    // Represents an operator applied to one or two operands (NEG, NOT and ABS take one)
+    static final class Apply extends ClearanceExpr {
+        private final Op op;
+        private final ClearanceExpr left;
+        private final ClearanceExpr right;
+
+        // EFFECTS: constructs op applied to the given operands; right is null for NEG, NOT and ABS
+        Apply(Op op, ClearanceExpr left, ClearanceExpr right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        // EFFECTS: returns op applied to the given operands
+        static ClearanceExpr of(Op op, List<ClearanceExpr> operands) {
+            return new Apply(op, operands.get(0), operands.size() > 1 ? operands.get(1) : null);
+        }
+
+        @Override
+        boolean isBoolean() {
+            switch (op) {
+                case NOT: case LT: case LE: case GT: case GE: case EQ: case NE: case AND: case OR:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        boolean isConstant() {
+            return left.isConstant() && (right == null || right.isConstant());
+        }
+
+        @Override
+        double interpret(ClearanceSpecs s) {
+            double a = left.interpret(s);
+            switch (op) {
+                case NEG: return -a;
+                case NOT: return a != 0 ? 0 : 1;
+                case ABS: return Math.abs(a);
+                case AND: return (a != 0 && right.interpret(s) != 0) ? 1 : 0;
+                case OR: return (a != 0 || right.interpret(s) != 0) ? 1 : 0;
+                default: break;
+            }
+            double b = right.interpret(s);
+            switch (op) {
+                case ADD: return a + b;
+                case SUB: return a - b;
+                case MUL: return a * b;
+                case DIV: return a / b;
+                case MIN: return Math.min(a, b);
+                case MAX: return Math.max(a, b);
+                case LT: return a < b ? 1 : 0;
+                case LE: return a <= b ? 1 : 0;
+                case GT: return a > b ? 1 : 0;
+                case GE: return a >= b ? 1 : 0;
+                case EQ: return a == b ? 1 : 0;
+                default: return a != b ? 1 : 0;
+            }
+        }
+
+        @Override
+        NumberCode compileNumber() {
+            if (isConstant()) {
+                double v = interpret(new ClearanceSpecs());
+                return s -> v;
+            }
+            NumberCode a = left.compileNumber();
+            if (right == null) {
+                return (op == Op.NEG) ? s -> -a.eval(s) : s -> Math.abs(a.eval(s));
+            }
+            if (right.isConstant()) {
+                return withConstant(a, right.interpret(new ClearanceSpecs()));
+            }
+            NumberCode b = right.compileNumber();
+            switch (op) {
+                case ADD: return s -> a.eval(s) + b.eval(s);
+                case SUB: return s -> a.eval(s) - b.eval(s);
+                case MUL: return s -> a.eval(s) * b.eval(s);
+                case DIV: return s -> a.eval(s) / b.eval(s);
+                case MIN: return s -> Math.min(a.eval(s), b.eval(s));
+                default: return s -> Math.max(a.eval(s), b.eval(s));
+            }
+        }
+
+        // EFFECTS: returns this numeric operator compiled with a constant right operand c
+        private NumberCode withConstant(NumberCode a, double c) {
+            switch (op) {
+                case ADD: return s -> a.eval(s) + c;
+                case SUB: return s -> a.eval(s) - c;
+                case MUL: return s -> a.eval(s) * c;
+                case DIV: return s -> a.eval(s) / c;
+                case MIN: return s -> Math.min(a.eval(s), c);
+                default: return s -> Math.max(a.eval(s), c);
+            }
+        }
+
+        @Override
+        TestCode compileTest() {
+            if (isConstant()) {
+                boolean v = interpret(new ClearanceSpecs()) != 0;
+                return s -> v;
+            }
+            switch (op) {
+                case NOT: {
+                    TestCode a = left.compileTest();
+                    return s -> !a.test(s);
+                }
+                case AND: {
+                    TestCode a = left.compileTest();
+                    TestCode b = right.compileTest();
+                    return s -> a.test(s) && b.test(s);
+                }
+                case OR: {
+                    TestCode a = left.compileTest();
+                    TestCode b = right.compileTest();
+                    return s -> a.test(s) || b.test(s);
+                }
+                default:
+                    return compileComparison();
+            }
+        }
+
+        // EFFECTS: returns this comparison compiled, reading a constant right operand from a local
+        private TestCode compileComparison() {
+            NumberCode a = left.compileNumber();
+            if (right.isConstant()) {
+                double c = right.interpret(new ClearanceSpecs());
+                switch (op) {
+                    case LT: return s -> a.eval(s) < c;
+                    case LE: return s -> a.eval(s) <= c;
+                    case GT: return s -> a.eval(s) > c;
+                    case GE: return s -> a.eval(s) >= c;
+                    case EQ: return s -> a.eval(s) == c;
+                    default: return s -> a.eval(s) != c;
+                }
+            }
+            NumberCode b = right.compileNumber();
+            switch (op) {
+                case LT: return s -> a.eval(s) < b.eval(s);
+                case LE: return s -> a.eval(s) <= b.eval(s);
+                case GT: return s -> a.eval(s) > b.eval(s);
+                case GE: return s -> a.eval(s) >= b.eval(s);
+                case EQ: return s -> a.eval(s) == b.eval(s);
+                default: return s -> a.eval(s) != b.eval(s);
+            }
+        }
+    }
+}
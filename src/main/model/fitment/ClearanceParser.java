@@ -0,0 +1,277 @@
+package model.fitment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the condition of one clearance rule into a ClearanceExpr.
+ *
+ * Grammar, lowest precedence first:
+ *   condition  := and ("or" and)*
+ *   and        := not ("and" not)*
+ *   not        := "not" not | comparison
+ *   comparison := sum (("<" | "<=" | ">" | ">=" | "==" | "!=") sum)?
+ *   sum        := product (("+" | "-") product)*
+ *   product    := unary (("*" | "/") unary)*
+ *   unary      := "-" unary | primary
+ *   primary    := number | variable | ("min" | "max" | "abs") "(" sum ("," sum)* ")" | "(" condition ")"
+ * "&&", "||" and "!" may be used for "and", "or" and "not". Numbers and conditions cannot be mixed,
+ * so "drop + (offset < 3)" is rejected.
+ */
+final class ClearanceParser {
+
+    private final String text;
+    private final List<String> tokens;
+    private final List<Integer> positions;
+    private int next;
+
+    // EFFECTS: constructs a parser of text; throws IllegalArgumentException if text has a character
+    //          that cannot start a token
+    private ClearanceParser(String text) {
+        this.text = text;
+        this.tokens = new ArrayList<>();
+        this.positions = new ArrayList<>();
+        tokenize();
+    }
+
+    // EFFECTS: returns the condition in text; throws IllegalArgumentException if text is not a
+    //          well-typed condition
+    static ClearanceExpr parseCondition(String text) {
+        ClearanceParser parser = new ClearanceParser(text);
+        ClearanceExpr expr = parser.condition();
+        if (parser.next < parser.tokens.size()) {
+            throw parser.error("unexpected '" + parser.peek() + "'");
+        }
+        if (!expr.isBoolean()) {
+            throw parser.error("a rule must be a condition, such as a comparison");
+        }
+        return expr;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  splits text into tokens and remembers where each one starts
+    private void tokenize() {
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                while (i < text.length() && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                    i++;
+                }
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    i++;
+                }
+            } else if (i + 1 < text.length() && List.of("<=", ">=", "==", "!=", "&&", "||")
+                    .contains(text.substring(i, i + 2))) {
+                i += 2;
+            } else if ("+-*/(),<>!".indexOf(c) >= 0) {
+                i++;
+            } else {
+                throw new IllegalArgumentException("unexpected character '" + c + "' at column " + (i + 1));
+            }
+            tokens.add(text.substring(start, i).toLowerCase());
+            positions.add(start);
+        }
+    }
+
+    // EFFECTS: returns the next token without consuming it, or "" at the end
+    private String peek() {
+        return (next < tokens.size()) ? tokens.get(next) : "";
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  consumes the next token if it is one of options and returns true, otherwise returns false
+    private boolean accept(String... options) {
+        for (String option : options) {
+            if (peek().equals(option)) {
+                next++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  consumes the next token; throws IllegalArgumentException if it is not expected
+    private void expect(String expected) {
+        if (!accept(expected)) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    // EFFECTS: returns an exception describing message at the next token
+    private IllegalArgumentException error(String message) {
+        int column = (next < positions.size()) ? positions.get(next) + 1 : text.length() + 1;
+        return new IllegalArgumentException(message + " at column " + column);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses condition := and ("or" and)*
+    private ClearanceExpr condition() {
+        ClearanceExpr left = and();
+        while (accept("or", "||")) {
+            left = logical(ClearanceExpr.Op.OR, left, and());
+        }
+        return left;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses and := not ("and" not)*
+    private ClearanceExpr and() {
+        ClearanceExpr left = not();
+        while (accept("and", "&&")) {
+            left = logical(ClearanceExpr.Op.AND, left, not());
+        }
+        return left;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses not := "not" not | comparison
+    private ClearanceExpr not() {
+        if (accept("not", "!")) {
+            ClearanceExpr operand = not();
+            requireBoolean(operand, true);
+            return new ClearanceExpr.Apply(ClearanceExpr.Op.NOT, operand, null);
+        }
+        return comparison();
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses comparison := sum (comparator sum)?
+    private ClearanceExpr comparison() {
+        ClearanceExpr left = sum();
+        String[] comparators = {"<", "<=", ">", ">=", "==", "!="};
+        ClearanceExpr.Op[] ops = {ClearanceExpr.Op.LT, ClearanceExpr.Op.LE, ClearanceExpr.Op.GT,
+            ClearanceExpr.Op.GE, ClearanceExpr.Op.EQ, ClearanceExpr.Op.NE};
+        for (int i = 0; i < comparators.length; i++) {
+            if (accept(comparators[i])) {
+                requireBoolean(left, false);
+                ClearanceExpr right = sum();
+                requireBoolean(right, false);
+                return new ClearanceExpr.Apply(ops[i], left, right);
+            }
+        }
+        return left;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses sum := product (("+" | "-") product)*
+    private ClearanceExpr sum() {
+        ClearanceExpr left = product();
+        while (true) {
+            if (accept("+")) {
+                left = arithmetic(ClearanceExpr.Op.ADD, left, product());
+            } else if (accept("-")) {
+                left = arithmetic(ClearanceExpr.Op.SUB, left, product());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses product := unary (("*" | "/") unary)*
+    private ClearanceExpr product() {
+        ClearanceExpr left = unary();
+        while (true) {
+            if (accept("*")) {
+                left = arithmetic(ClearanceExpr.Op.MUL, left, unary());
+            } else if (accept("/")) {
+                left = arithmetic(ClearanceExpr.Op.DIV, left, unary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses unary := "-" unary | primary
+    private ClearanceExpr unary() {
+        if (accept("-")) {
+            ClearanceExpr operand = unary();
+            requireBoolean(operand, false);
+            return new ClearanceExpr.Apply(ClearanceExpr.Op.NEG, operand, null);
+        }
+        return primary();
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses primary := number | variable | function call | "(" condition ")"
+    private ClearanceExpr primary() {
+        String token = peek();
+        if (accept("(")) {
+            ClearanceExpr inner = condition();
+            expect(")");
+            return inner;
+        }
+        if (token.isEmpty()) {
+            throw error("unexpected end of rule");
+        }
+        if (Character.isDigit(token.charAt(0)) || token.charAt(0) == '.') {
+            try {
+                double value = Double.parseDouble(token);
+                next++;
+                return new ClearanceExpr.Constant(value);
+            } catch (NumberFormatException e) {
+                throw error("bad number '" + token + "'");
+            }
+        }
+        if (token.equals("min") || token.equals("max") || token.equals("abs")) {
+            next++;
+            return call(token);
+        }
+        ClearanceVariable variable = ClearanceVariable.fromKey(token);
+        if (variable == null) {
+            throw error("unknown name '" + token + "'");
+        }
+        next++;
+        return new ClearanceExpr.Variable(variable);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  parses the arguments of a call to function; min and max take two, abs takes one
+    private ClearanceExpr call(String function) {
+        expect("(");
+        List<ClearanceExpr> args = new ArrayList<>();
+        do {
+            ClearanceExpr arg = sum();
+            requireBoolean(arg, false);
+            args.add(arg);
+        } while (accept(","));
+        expect(")");
+        int arity = function.equals("abs") ? 1 : 2;
+        if (args.size() != arity) {
+            throw error(function + " takes " + arity + " argument" + (arity == 1 ? "" : "s"));
+        }
+        ClearanceExpr.Op op = function.equals("abs") ? ClearanceExpr.Op.ABS
+                : function.equals("min") ? ClearanceExpr.Op.MIN : ClearanceExpr.Op.MAX;
+        return ClearanceExpr.Apply.of(op, args);
+    }
+
+    // EFFECTS: returns op applied to two numbers; throws IllegalArgumentException if either is a condition
+    private ClearanceExpr arithmetic(ClearanceExpr.Op op, ClearanceExpr left, ClearanceExpr right) {
+        requireBoolean(left, false);
+        requireBoolean(right, false);
+        return new ClearanceExpr.Apply(op, left, right);
+    }
+
+    // EFFECTS: returns op applied to two conditions; throws IllegalArgumentException if either is a number
+    private ClearanceExpr logical(ClearanceExpr.Op op, ClearanceExpr left, ClearanceExpr right) {
+        requireBoolean(left, true);
+        requireBoolean(right, true);
+        return new ClearanceExpr.Apply(op, left, right);
+    }
+
+    // EFFECTS: throws IllegalArgumentException unless expr is a condition exactly when condition is true
+    private void requireBoolean(ClearanceExpr expr, boolean condition) {
+        if (expr.isBoolean() != condition) {
+            throw error(condition ? "expected a condition" : "expected a number");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model.fitment;
+
+/**
+ * Represents one named clearance rule written as text, such as
+ * "drop + sidewall / 2 > 120 and offset < 20". The rule flags a clearance risk when its condition
+ * holds. The condition is compiled to lambdas when the rule is created; see ClearanceExpr.
+ * This class is immutable.
+ */
+public class ClearanceRule {
+
+    private final String name;
+    private final String condition;
+    private final ClearanceExpr expr;
+    private final ClearanceExpr.TestCode compiled;
+
+    // EFFECTS: constructs and compiles the rule of the given name and condition; throws
+    //          IllegalArgumentException if name is empty or condition is not a valid condition
+    public ClearanceRule(String name, String condition) {
+        if (name == null || name.trim().isEmpty() || condition == null) {
+            throw new IllegalArgumentException("a rule needs a name and a condition");
+        }
+        this.name = name.trim();
+        this.condition = condition.trim();
+        this.expr = ClearanceParser.parseCondition(condition);
+        this.compiled = expr.compileTest();
+    }
+
+    // EFFECTS: returns the name of this rule
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the condition of this rule as written
+    public String getCondition() {
+        return condition;
+    }
+
+    // EFFECTS: returns true if this rule's condition holds for specs, using the compiled condition
+    public boolean test(ClearanceSpecs specs) {
+        return compiled.test(specs);
+    }
+
+    // EFFECTS: returns true if this rule's condition holds for specs, walking the expression tree
+    public boolean interpret(ClearanceSpecs specs) {
+        return expr.interpret(specs) != 0;
+    }
+
+    // EFFECTS: returns "name: condition"
+    @Override
+    public String toString() {
+        return name + ": " + condition;
+    }
+}
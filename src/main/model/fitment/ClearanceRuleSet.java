@@ -0,0 +1,149 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents the clearance rules loaded from text, one rule per line as "name: condition".
+ * Blank lines and lines starting with '#' are ignored. See ClearanceParser for the condition syntax
+ * and ClearanceVariable for the specs a condition can name.
+ *
+ * As a FitmentRule the set reads the active wheel, tire and suspension and reports CLEARANCE_RISK
+ * when any of its rules holds. The rules are only checked once a wheel and a tire are active; a
+ * missing suspension counts as no drop.
+ * This class is immutable.
+ */
+public class ClearanceRuleSet implements FitmentRule {
+
+    private static final Set<PartCategory> INPUTS = Collections.unmodifiableSet(
+            EnumSet.of(PartCategory.WHEEL, PartCategory.TIRE, PartCategory.SUSPENSION));
+
+    private final List<ClearanceRule> rules;
+
+    // REQUIRES: rules != null and contains no null
+    // EFFECTS:  constructs a set of the given rules; throws IllegalArgumentException if two share a name
+    public ClearanceRuleSet(List<ClearanceRule> rules) {
+        Set<String> names = new HashSet<>();
+        for (ClearanceRule r : rules) {
+            if (!names.add(r.getName())) {
+                throw new IllegalArgumentException("duplicate rule name: " + r.getName());
+            }
+        }
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    // REQUIRES: text != null
+    // EFFECTS:  returns the rules written in text; throws IllegalArgumentException naming the line
+    //           of the first rule that cannot be parsed
+    public static ClearanceRuleSet parse(String text) {
+        List<ClearanceRule> rules = new ArrayList<>();
+        String[] lines = text.split("\r?\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            try {
+                if (colon < 0) {
+                    throw new IllegalArgumentException("expected 'name: condition'");
+                }
+                rules.add(new ClearanceRule(line.substring(0, colon), line.substring(colon + 1)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return new ClearanceRuleSet(rules);
+    }
+
+    // REQUIRES: path != null
+    // EFFECTS:  returns the rules in the UTF-8 file at path; throws IOException if it cannot be read
+    //           and IllegalArgumentException if a rule cannot be parsed
+    public static ClearanceRuleSet load(Path path) throws IOException {
+        return parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns the rules of this set, in the order they were written
+    public List<ClearanceRule> getRules() {
+        return rules;
+    }
+
+    // EFFECTS: returns true if any rule holds for specs
+    public boolean anyMatch(ClearanceSpecs specs) {
+        for (ClearanceRule r : rules) {
+            if (r.test(specs)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the names of the rules that hold for specs, in order
+    public List<String> matching(ClearanceSpecs specs) {
+        List<String> names = new ArrayList<>();
+        for (ClearanceRule r : rules) {
+            if (r.test(specs)) {
+                names.add(r.getName());
+            }
+        }
+        return names;
+    }
+
+    // REQUIRES: build != null
+    // EFFECTS:  returns the names of the rules that hold for build's active wheel, tire and suspension,
+    //           or an empty list if build has no active wheel or tire
+    public List<String> matching(Build build) {
+        ClearanceSpecs specs = specsOf(build);
+        return (specs == null) ? new ArrayList<>() : matching(specs);
+    }
+
+    // EFFECTS: returns "CLEARANCE_RULES"
+    @Override
+    public String getName() {
+        return "CLEARANCE_RULES";
+    }
+
+    // EFFECTS: returns the wheel, tire and suspension categories
+    @Override
+    public Set<PartCategory> getInputs() {
+        return INPUTS;
+    }
+
+    // EFFECTS: returns false; the rules read only part specs
+    @Override
+    public boolean readsReference() {
+        return false;
+    }
+
+    // EFFECTS: returns the CLEARANCE_RISK bit if any rule holds for build's active parts, otherwise 0
+    @Override
+    public int evaluate(Build build) {
+        ClearanceSpecs specs = specsOf(build);
+        return (specs != null && anyMatch(specs)) ? FitmentIssue.CLEARANCE_RISK.bit() : 0;
+    }
+
+    // EFFECTS: returns the specs of build's active wheel, tire and suspension, or null if build has
+    //          no active wheel or tire
+    private static ClearanceSpecs specsOf(Build build) {
+        Wheel wheel = (Wheel) build.getActive(PartCategory.WHEEL);
+        Tire tire = (Tire) build.getActive(PartCategory.TIRE);
+        if (wheel == null || tire == null) {
+            return null;
+        }
+        return new ClearanceSpecs().set(wheel, tire, (Suspension) build.getActive(PartCategory.SUSPENSION));
+    }
+}
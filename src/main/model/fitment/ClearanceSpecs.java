@@ -0,0 +1,65 @@
+package model.fitment;
+
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+/**
+ * Represents the specs a clearance rule can read, held as primitive fields so one instance can be
+ * refilled for every candidate of a bulk sweep without allocating.
+ * The sidewall height and rolling diameter are derived from the tire specs whenever they are set.
+ */
+public class ClearanceSpecs {
+
+    double dropMm;
+    double offsetMm;
+    double wheelWidthIn;
+    double wheelDiameterIn;
+    double tireWidthMm;
+    double aspectPct;
+    double tireRimIn;
+    double sidewallMm;
+    double rollingDiameterMm;
+
+    // EFFECTS: constructs specs of no parts (every spec 0)
+    public ClearanceSpecs() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets the specs to those of the given parts; a missing (null) part leaves its specs at 0
+    public ClearanceSpecs set(Wheel wheel, Tire tire, Suspension suspension) {
+        setWheel(wheel == null ? 0 : wheel.getDiameterIn(), wheel == null ? 0 : wheel.getWidthIn(),
+                wheel == null ? 0 : wheel.getOffsetMm());
+        setTire(tire == null ? 0 : tire.getWidthMm(), tire == null ? 0 : tire.getAspectPercent(),
+                tire == null ? 0 : tire.getRimDiameterIn());
+        dropMm = (suspension == null) ? 0 : suspension.getDropMm();
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets the wheel specs
+    public ClearanceSpecs setWheel(double diameterIn, double widthIn, double offsetMm) {
+        this.wheelDiameterIn = diameterIn;
+        this.wheelWidthIn = widthIn;
+        this.offsetMm = offsetMm;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets the tire specs and the sidewall height and rolling diameter derived from them
+    public ClearanceSpecs setTire(double widthMm, double aspectPct, double rimIn) {
+        this.tireWidthMm = widthMm;
+        this.aspectPct = aspectPct;
+        this.tireRimIn = rimIn;
+        this.sidewallMm = widthMm * aspectPct / 100.0;
+        this.rollingDiameterMm = rimIn * FitmentEngine.MM_PER_INCH + 2.0 * sidewallMm;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets the suspension drop
+    public ClearanceSpecs setDrop(double dropMm) {
+        this.dropMm = dropMm;
+        return this;
+    }
+}
@@ -0,0 +1,51 @@
+package model.fitment;
+
+/**
+ * The specs a clearance rule can name, each with the primitive accessor compiled rules read it through.
+ */
+public enum ClearanceVariable {
+    DROP("drop", s -> s.dropMm),
+    OFFSET("offset", s -> s.offsetMm),
+    WHEEL_WIDTH("wheel_width", s -> s.wheelWidthIn),
+    WHEEL_WIDTH_MM("wheel_width_mm", s -> s.wheelWidthIn * FitmentEngine.MM_PER_INCH),
+    WHEEL_DIAMETER("wheel_diameter", s -> s.wheelDiameterIn),
+    TIRE_WIDTH("tire_width", s -> s.tireWidthMm),
+    ASPECT("aspect", s -> s.aspectPct),
+    RIM("rim", s -> s.tireRimIn),
+    SIDEWALL("sidewall", s -> s.sidewallMm),
+    DIAMETER("diameter", s -> s.rollingDiameterMm);
+
+    private final String key;
+    private final ClearanceExpr.NumberCode accessor;
+
+    // EFFECTS: constructs a variable named key in rule text, read through accessor
+    ClearanceVariable(String key, ClearanceExpr.NumberCode accessor) {
+        this.key = key;
+        this.accessor = accessor;
+    }
+
+    // EFFECTS: returns the name of this variable in rule text
+    public String getKey() {
+        return key;
+    }
+
+    // EFFECTS: returns the value of this variable in specs
+    public double valueIn(ClearanceSpecs specs) {
+        return accessor.eval(specs);
+    }
+
+    // EFFECTS: returns the accessor compiled rules read this variable through
+    ClearanceExpr.NumberCode accessor() {
+        return accessor;
+    }
+
+    // EFFECTS: returns the variable named key in rule text, or null if there is none
+    public static ClearanceVariable fromKey(String key) {
+        for (ClearanceVariable v : values()) {
+            if (v.key.equals(key)) {
+                return v;
+            }
+        }
+        return null;
+    }
+}
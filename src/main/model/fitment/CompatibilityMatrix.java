@@ -0,0 +1,259 @@
+package model.fitment;
+
+import model.Build;
+import model.Part;
+import model.PartCategory;
+import model.Tire;
+import model.Wheel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Finds every compatible (Wheel, Tire) pair in an inventory without a nested loop over all parts.
+ *
+ * Tires are first grouped by rim diameter (to the hundredth of an inch) into a hash table, so each
+ * wheel is only compared with the tires of its diameter and the two neighbouring hundredths, which
+ * covers every rim within FitmentEngine.RIM_MATCH_TOLERANCE_IN. Within a diameter, tires with
+ * identical specs are grouped, and so are wheels with identical specs, so the rules are evaluated
+ * once per distinct wheel spec and tire spec rather than once per pair of parts. The rolling
+ * diameter rules depend on the tire alone and are evaluated once per tire spec up front; only the
+ * rim rules are left for the join, on primitive specs copied into arrays. The wheel groups are split
+ * across a fork/join pool and compatible pairs are handed to a consumer as they are found, so the
+ * full matrix is never held in memory.
+ *
+ * The wheels and tires are copied when the matrix is constructed; later changes to the build are
+ * not seen.
+ */
+public class CompatibilityMatrix {
+
+    // wheel groups handled by one fork/join task before it stops splitting
+    private static final int GROUPS_PER_TASK = 64;
+
+    // Represents the wheels sharing one spec
+    private static final class WheelGroup {
+        private final Wheel[] wheels;
+        private final double diameterIn;
+        private final double widthIn;
+
+        // EFFECTS: constructs a group of the given wheels, which all have the same specs
+        private WheelGroup(List<Wheel> same) {
+            wheels = same.toArray(new Wheel[0]);
+            diameterIn = wheels[0].getDiameterIn();
+            widthIn = wheels[0].getWidthIn();
+        }
+    }
+
+    // Represents the tires sharing one rim diameter, grouped by identical specs and with the specs
+    // unpacked for the inner loop
+    private static final class TireBucket {
+        private final Tire[][] tires;
+        private final int[] widthsMm;
+        private final double[] rimsIn;
+        // rolling diameter issues of each tire spec, which no wheel can change
+        private final int[] diameterMasks;
+
+        // EFFECTS: constructs a bucket of the given tires, checking their rolling diameters against
+        //          referenceOdMm and thresholdPct
+        private TireBucket(List<Tire> group, double referenceOdMm, double thresholdPct) {
+            Map<List<Object>, List<Tire>> bySpec = new LinkedHashMap<>();
+            for (Tire t : group) {
+                bySpec.computeIfAbsent(List.of(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn()),
+                        k -> new ArrayList<>()).add(t);
+            }
+            int n = bySpec.size();
+            tires = new Tire[n][];
+            widthsMm = new int[n];
+            rimsIn = new double[n];
+            diameterMasks = new int[n];
+            int i = 0;
+            for (List<Tire> same : bySpec.values()) {
+                tires[i] = same.toArray(new Tire[0]);
+                Tire t = tires[i][0];
+                widthsMm[i] = t.getWidthMm();
+                rimsIn[i] = t.getRimDiameterIn();
+                diameterMasks[i] = FitmentEngine.evaluateRollingDiameter(t.getWidthMm(), t.getAspectPercent(),
+                        t.getRimDiameterIn(), 0, referenceOdMm, thresholdPct);
+                i++;
+            }
+        }
+    }
+
+    private final Wheel[] wheels;
+    private final WheelGroup[] wheelGroups;
+    private final Map<Long, TireBucket> tiresByRim;
+    private final int tireCount;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a matrix over the wheels and tires in build's inventory, checked against
+    //           build's reference rolling diameter and threshold
+    public CompatibilityMatrix(Build build) {
+        this(wheelsOf(build.categoryView(PartCategory.WHEEL)), tiresOf(build.categoryView(PartCategory.TIRE)),
+                build.getReferenceOdMm() == null ? Double.NaN : build.getReferenceOdMm(),
+                build.getRollingDeltaThresholdPct());
+    }
+
+    // REQUIRES: wheels and tires != null and contain no null; referenceOdMm > 0 or NaN for no reference;
+    //           thresholdPct >= 0
+    // EFFECTS:  constructs a matrix over the given wheels and tires, checked against referenceOdMm
+    //           and thresholdPct
+    public CompatibilityMatrix(Collection<Wheel> wheels, Collection<Tire> tires, double referenceOdMm,
+                               double thresholdPct) {
+        this.wheels = wheels.toArray(new Wheel[0]);
+        this.tireCount = tires.size();
+
+        Map<List<Double>, List<Wheel>> bySpec = new LinkedHashMap<>();
+        for (Wheel w : this.wheels) {
+            bySpec.computeIfAbsent(List.of(w.getDiameterIn(), w.getWidthIn()), k -> new ArrayList<>()).add(w);
+        }
+        wheelGroups = bySpec.values().stream().map(WheelGroup::new).toArray(WheelGroup[]::new);
+
+        Map<Long, List<Tire>> grouped = new HashMap<>();
+        for (Tire t : tires) {
+            grouped.computeIfAbsent(rimKey(t.getRimDiameterIn()), k -> new ArrayList<>()).add(t);
+        }
+        tiresByRim = new HashMap<>();
+        grouped.forEach((key, group) -> tiresByRim.put(key, new TireBucket(group, referenceOdMm, thresholdPct)));
+    }
+
+    // EFFECTS: returns the number of wheels in this matrix
+    public int getWheelCount() {
+        return wheels.length;
+    }
+
+    // EFFECTS: returns the number of tires in this matrix
+    public int getTireCount() {
+        return tireCount;
+    }
+
+    // REQUIRES: sink != null and safe to call from several threads at once
+    // EFFECTS:  calls sink with every compatible pair, in no particular order, using the common
+    //           fork/join pool; returns the number of compatible pairs
+    public long forEachCompatible(BiConsumer<Wheel, Tire> sink) {
+        return forEachCompatible(ForkJoinPool.commonPool(), sink);
+    }
+
+    // REQUIRES: pool != null; sink != null and safe to call from several threads at once
+    // EFFECTS:  calls sink with every compatible pair, in no particular order, running on pool;
+    //           returns the number of compatible pairs
+    public long forEachCompatible(ForkJoinPool pool, BiConsumer<Wheel, Tire> sink) {
+        return pool.invoke(new JoinTask(0, wheelGroups.length, sink));
+    }
+
+    // EFFECTS: returns the number of compatible pairs
+    public long count() {
+        return forEachCompatible((w, t) -> { });
+    }
+
+    // EFFECTS: returns a lazy stream of the compatible pairs, wheel by wheel in inventory order and,
+    //          for each wheel, tires by rim diameter and then grouped by spec in the inventory order of
+    //          each spec's first tire; call parallel() on it to spread the work
+    public Stream<WheelTirePair> stream() {
+        return Arrays.stream(wheels).flatMap(w -> bucketsNear(w.getDiameterIn())
+                .flatMap(bucket -> IntStream.range(0, bucket.tires.length)
+                        .filter(j -> fits(w.getDiameterIn(), w.getWidthIn(), bucket, j))
+                        .boxed()
+                        .flatMap(j -> Arrays.stream(bucket.tires[j])))
+                .map(t -> new WheelTirePair(w, t)));
+    }
+
+    // EFFECTS: returns the tire buckets whose rim diameter can match diameterIn, in increasing order
+    private Stream<TireBucket> bucketsNear(double diameterIn) {
+        long key = rimKey(diameterIn);
+        // a diameter within the rim match tolerance can round to a neighbouring key
+        return LongStream.rangeClosed(key - 1, key + 1).mapToObj(tiresByRim::get).filter(Objects::nonNull);
+    }
+
+    // EFFECTS: returns true if a wheel of the given specs and the tires of spec j in bucket pass every
+    //          fitment rule
+    private static boolean fits(double diameterIn, double widthIn, TireBucket bucket, int j) {
+        return bucket.diameterMasks[j] == 0
+                && FitmentEngine.evaluateRim(diameterIn, widthIn, bucket.widthsMm[j], bucket.rimsIn[j]) == 0;
+    }
+
+    // Represents the work of joining the wheel groups in [from, to) with their tire buckets
+    private final class JoinTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final BiConsumer<Wheel, Tire> sink;
+
+        // EFFECTS: constructs a task over wheelGroups[from, to)
+        private JoinTask(int from, int to, BiConsumer<Wheel, Tire> sink) {
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        // EFFECTS: splits the range in half until it is small enough, then joins each wheel group with
+        //          the tires near its rim diameter and returns the number of compatible pairs found
+        @Override
+        protected Long compute() {
+            if (to - from > GROUPS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                JoinTask left = new JoinTask(from, mid, sink);
+                left.fork();
+                long right = new JoinTask(mid, to, sink).compute();
+                return right + left.join();
+            }
+            long found = 0;
+            for (int i = from; i < to; i++) {
+                found += joinGroup(wheelGroups[i], sink);
+            }
+            return found;
+        }
+    }
+
+    // EFFECTS: passes every compatible pair of a wheel in group and a tire to sink and returns how
+    //          many there were
+    private long joinGroup(WheelGroup group, BiConsumer<Wheel, Tire> sink) {
+        long key = rimKey(group.diameterIn);
+        long found = 0;
+        // a diameter within the rim match tolerance can round to a neighbouring key
+        for (long k = key - 1; k <= key + 1; k++) {
+            TireBucket bucket = tiresByRim.get(k);
+            if (bucket == null) {
+                continue;
+            }
+            for (int j = 0; j < bucket.tires.length; j++) {
+                if (fits(group.diameterIn, group.widthIn, bucket, j)) {
+                    for (Wheel w : group.wheels) {
+                        for (Tire t : bucket.tires[j]) {
+                            sink.accept(w, t);
+                        }
+                    }
+                    found += (long) group.wheels.length * bucket.tires[j].length;
+                }
+            }
+        }
+        return found;
+    }
+
+    // EFFECTS: returns the hash join key of a rim diameter: the diameter in hundredths of an inch
+    private static long rimKey(double diameterIn) {
+        return Math.round(diameterIn * 100);
+    }
+
+    // EFFECTS: returns the parts of a wheel category view as wheels
+    private static Collection<Wheel> wheelsOf(Collection<Part> parts) {
+        return Arrays.asList(parts.stream().map(p -> (Wheel) p).toArray(Wheel[]::new));
+    }
+
+    // EFFECTS: returns the parts of a tire category view as tires
+    private static Collection<Tire> tiresOf(Collection<Part> parts) {
+        return Arrays.asList(parts.stream().map(p -> (Tire) p).toArray(Tire[]::new));
+    }
+}
@@ -0,0 +1,234 @@
+package model.fitment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of FitmentEngine.evaluate by spec tuple, so parts that share the same
+ * wheel, tire and suspension specs under different names and prices are only checked once.
+ *
+ * The key is the full numeric tuple: wheel diameter and width, tire width, aspect ratio and rim
+ * diameter, suspension drop, reference rolling diameter and threshold. The cache holds at most its
+ * capacity entries and evicts the least recently used one when full. Large caches are split into
+ * a few independently locked segments so parallel bulk jobs do not all wait on one lock; eviction
+ * is then least recently used within each segment. A capacity of 0 disables caching: lookups then
+ * go straight to FitmentEngine without building a key or taking a lock, and only count as misses.
+ *
+ * A lookup allocates a key and takes a lock, which costs more than the few float operations of
+ * FitmentEngine.evaluate it saves, so this cache is only for single-build checks (FitmentEngine.check
+ * and the StandardFitmentRules run by FitmentMonitor), whose hits and misses show up in the rule
+ * timings report. Bulk jobs such as CompatibilityMatrix, BuildOptimizer and
+ * ParetoFrontier instead group parts by spec and evaluate each distinct spec once (see
+ * FitmentCacheBenchmark). The shared instance's capacity is read from the system property
+ * SIZE_PROPERTY the first time it is used (DEFAULT_CAPACITY if unset) or set with configureShared at
+ * startup.
+ */
+public final class FitmentCache {
+
+    public static final String SIZE_PROPERTY = "autolink.fitmentCacheSize";
+    public static final int DEFAULT_CAPACITY = 4096;
+    // entries per segment before a cache is split further, and the most segments used
+    private static final int ENTRIES_PER_SEGMENT = 64;
+    private static final int MAX_SEGMENTS = 16;
+
+    private static volatile FitmentCache shared;
+
+    // Represents the spec tuple a fitment result depends on
+    private static final class SpecKey {
+        private final double wheelDiameterIn;
+        private final double wheelWidthIn;
+        private final int tireWidthMm;
+        private final int aspectPct;
+        private final double tireRimIn;
+        private final int dropMm;
+        private final double referenceOdMm;
+        private final double thresholdPct;
+        private final int hash;
+
+        // EFFECTS: constructs the key of the given specs
+        private SpecKey(double wheelDiameterIn, double wheelWidthIn, int tireWidthMm, int aspectPct,
+                        double tireRimIn, int dropMm, double referenceOdMm, double thresholdPct) {
+            this.wheelDiameterIn = wheelDiameterIn;
+            this.wheelWidthIn = wheelWidthIn;
+            this.tireWidthMm = tireWidthMm;
+            this.aspectPct = aspectPct;
+            this.tireRimIn = tireRimIn;
+            this.dropMm = dropMm;
+            this.referenceOdMm = referenceOdMm;
+            this.thresholdPct = thresholdPct;
+            int h = Double.hashCode(wheelDiameterIn);
+            h = 31 * h + Double.hashCode(wheelWidthIn);
+            h = 31 * h + tireWidthMm;
+            h = 31 * h + aspectPct;
+            h = 31 * h + Double.hashCode(tireRimIn);
+            h = 31 * h + dropMm;
+            h = 31 * h + Double.hashCode(referenceOdMm);
+            h = 31 * h + Double.hashCode(thresholdPct);
+            this.hash = h ^ (h >>> 16);
+        }
+
+        // EFFECTS: returns true if o is a key of the same specs (NaN references are equal)
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SpecKey)) {
+                return false;
+            }
+            SpecKey k = (SpecKey) o;
+            return tireWidthMm == k.tireWidthMm && aspectPct == k.aspectPct && dropMm == k.dropMm
+                    && Double.compare(wheelDiameterIn, k.wheelDiameterIn) == 0
+                    && Double.compare(wheelWidthIn, k.wheelWidthIn) == 0
+                    && Double.compare(tireRimIn, k.tireRimIn) == 0
+                    && Double.compare(referenceOdMm, k.referenceOdMm) == 0
+                    && Double.compare(thresholdPct, k.thresholdPct) == 0;
+        }
+
+        // EFFECTS: returns the hash code of the specs
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Represents one independently locked part of the cache, in least recently used order
+    private static final class Segment extends LinkedHashMap<SpecKey, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        // EFFECTS: constructs an empty segment holding at most capacity entries
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        // EFFECTS: returns true (evicting eldest) once this segment holds more than its capacity
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SpecKey, Integer> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final int capacity;
+    private final Segment[] segments;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    // EFFECTS: constructs an empty cache holding at most capacity results;
+    //          throws IllegalArgumentException if capacity < 0
+    public FitmentCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0");
+        }
+        this.capacity = capacity;
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 * ENTRIES_PER_SEGMENT <= capacity) {
+            count *= 2;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // spread the capacity so the segments add up to exactly capacity
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    // EFFECTS: returns the shared cache, creating it from SIZE_PROPERTY on first use
+    public static FitmentCache shared() {
+        FitmentCache cache = shared;
+        if (cache == null) {
+            synchronized (FitmentCache.class) {
+                if (shared == null) {
+                    shared = new FitmentCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_CAPACITY));
+                }
+                cache = shared;
+            }
+        }
+        return cache;
+    }
+
+    // MODIFIES: this class
+    // EFFECTS:  replaces the shared cache with an empty one holding at most capacity results;
+    //           throws IllegalArgumentException if capacity < 0
+    public static void configureShared(int capacity) {
+        shared = new FitmentCache(capacity);
+    }
+
+    // REQUIRES: the same as FitmentEngine.evaluate
+    // MODIFIES: this
+    // EFFECTS:  returns FitmentEngine.evaluate of the given specs, computing it only if this cache
+    //           does not already hold the result, and counts the hit or miss
+    public int evaluate(double wheelDiameterIn, double wheelWidthIn, int tireWidthMm, int aspectPct,
+                        double tireRimIn, int dropMm, double referenceOdMm, double thresholdPct) {
+        if (capacity == 0) {
+            misses.increment();
+            return FitmentEngine.evaluate(wheelDiameterIn, wheelWidthIn, tireWidthMm, aspectPct, tireRimIn, dropMm,
+                    referenceOdMm, thresholdPct);
+        }
+        SpecKey key = new SpecKey(wheelDiameterIn, wheelWidthIn, tireWidthMm, aspectPct, tireRimIn, dropMm,
+                referenceOdMm, thresholdPct);
+        // the top bits pick the segment, so the bits each segment's table uses stay spread
+        Segment segment = segments[(key.hash >>> 28) & (segments.length - 1)];
+        Integer cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        int mask = FitmentEngine.evaluate(wheelDiameterIn, wheelWidthIn, tireWidthMm, aspectPct, tireRimIn, dropMm,
+                referenceOdMm, thresholdPct);
+        synchronized (segment) {
+            segment.put(key, mask);
+        }
+        return mask;
+    }
+
+    // EFFECTS: returns the most results this cache holds
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // EFFECTS: returns the number of results this cache holds
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                total += segment.size();
+            }
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of lookups answered from this cache
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // EFFECTS: returns the number of lookups that had to be computed
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // EFFECTS: returns the fraction of lookups answered from this cache, or 0 if there were none
+    public double getHitRate() {
+        long h = getHits();
+        long total = h + getMisses();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  removes every result and sets the hit and miss counts back to 0
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+}
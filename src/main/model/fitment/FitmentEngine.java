@@ -0,0 +1,135 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+/**
+ * Checks whether the active wheel, tire and suspension of a build fit together.
+ *
+ * The checks are: the tire's rim diameter must match the wheel diameter, the wheel width must
+ * suit the tire's section width, the rolling diameter must stay within the build's threshold of
+ * the reference diameter (when one is set), and the suspension drop plus any growth of the tire
+ * must not eat too far into the wheel well.
+ *
+ * The evaluate method works on primitive specs only and allocates nothing, so checks can be
+ * re-run on every change to the active parts; check(Build) looks its result up in the shared
+ * FitmentCache and allocates just the cache key and the returned report.
+ */
+public final class FitmentEngine {
+
+    public static final double MM_PER_INCH = 25.4;
+    // a wheel narrower than this fraction of the tire's section width pinches the tire
+    public static final double MIN_RIM_TO_SECTION_RATIO = 0.70;
+    // a wheel wider than the tire's section width stretches the tire
+    public static final double MAX_RIM_TO_SECTION_RATIO = 1.00;
+    // largest difference in inches between wheel and tire rim diameters still counted as a match
+    public static final double RIM_MATCH_TOLERANCE_IN = 0.01;
+    // largest loss of wheel-well gap in mm (drop plus half the rolling diameter growth) accepted
+    public static final double MAX_GAP_LOSS_MM = 50.0;
+
+    private FitmentEngine() {
+    }
+
+    // REQUIRES: build != null
+    // EFFECTS:  checks the active wheel, tire and suspension of build against its reference
+    //           rolling diameter and threshold, and returns the result
+    public static FitmentReport check(Build build) {
+        Wheel wheel = (Wheel) build.getActive(PartCategory.WHEEL);
+        Tire tire = (Tire) build.getActive(PartCategory.TIRE);
+        Suspension suspension = (Suspension) build.getActive(PartCategory.SUSPENSION);
+        Double reference = build.getReferenceOdMm();
+        double referenceOdMm = (reference == null) ? Double.NaN : reference;
+        double threshold = build.getRollingDeltaThresholdPct();
+        int dropMm = (suspension == null) ? 0 : suspension.getDropMm();
+
+        if (tire == null) {
+            int mask = FitmentIssue.MISSING_TIRE.bit() | (wheel == null ? FitmentIssue.MISSING_WHEEL.bit() : 0);
+            return new FitmentReport(mask, Double.NaN, referenceOdMm, threshold, dropMm);
+        }
+        int mask;
+        if (wheel == null) {
+            mask = FitmentIssue.MISSING_WHEEL.bit() | evaluateRollingDiameter(tire.getWidthMm(),
+                    tire.getAspectPercent(), tire.getRimDiameterIn(), dropMm, referenceOdMm, threshold);
+        } else {
+            mask = FitmentCache.shared().evaluate(wheel.getDiameterIn(), wheel.getWidthIn(), tire.getWidthMm(),
+                    tire.getAspectPercent(), tire.getRimDiameterIn(), dropMm, referenceOdMm, threshold);
+        }
+        double odMm = rollingDiameterMm(tire.getWidthMm(), tire.getAspectPercent(), tire.getRimDiameterIn());
+        return new FitmentReport(mask, odMm, referenceOdMm, threshold, dropMm);
+    }
+
+    // REQUIRES: wheelDiameterIn > 0; wheelWidthIn > 0; tireWidthMm > 0; aspectPct > 0; tireRimIn > 0;
+    //           dropMm >= 0; referenceOdMm > 0 or NaN when there is no reference; thresholdPct >= 0
+    // EFFECTS:  returns the mask of FitmentIssue bits found for the given wheel, tire and suspension
+    //           specs (never MISSING_WHEEL or MISSING_TIRE)
+    public static int evaluate(double wheelDiameterIn, double wheelWidthIn, int tireWidthMm, int aspectPct,
+                               double tireRimIn, int dropMm, double referenceOdMm, double thresholdPct) {
+        return evaluateRim(wheelDiameterIn, wheelWidthIn, tireWidthMm, tireRimIn)
+                | evaluateRollingDiameter(tireWidthMm, aspectPct, tireRimIn, dropMm, referenceOdMm, thresholdPct);
+    }
+
+    // REQUIRES: wheelDiameterIn > 0; wheelWidthIn > 0; tireWidthMm > 0; tireRimIn > 0
+    // EFFECTS:  returns the mask of the issues that depend only on the wheel and tire:
+    //           RIM_MISMATCH, RIM_TOO_NARROW and RIM_TOO_WIDE
+    public static int evaluateRim(double wheelDiameterIn, double wheelWidthIn, double tireWidthMm,
+                                  double tireRimIn) {
+        int mask = 0;
+        if (Math.abs(wheelDiameterIn - tireRimIn) > RIM_MATCH_TOLERANCE_IN) {
+            mask |= FitmentIssue.RIM_MISMATCH.bit();
+        }
+        double ratio = wheelWidthIn * MM_PER_INCH / tireWidthMm;
+        if (ratio < MIN_RIM_TO_SECTION_RATIO) {
+            mask |= FitmentIssue.RIM_TOO_NARROW.bit();
+        } else if (ratio > MAX_RIM_TO_SECTION_RATIO) {
+            mask |= FitmentIssue.RIM_TOO_WIDE.bit();
+        }
+        return mask;
+    }
+
+    // REQUIRES: tireWidthMm > 0; aspectPct > 0; tireRimIn > 0; dropMm >= 0;
+    //           referenceOdMm > 0 or NaN when there is no reference; thresholdPct >= 0
+    // EFFECTS:  returns the mask of the issues that depend only on the tire and suspension:
+    //           ROLLING_DIAMETER_DELTA and CLEARANCE_RISK
+    public static int evaluateRollingDiameter(int tireWidthMm, int aspectPct, double tireRimIn, int dropMm,
+                                              double referenceOdMm, double thresholdPct) {
+        return evaluateDiameter(rollingDiameterMm(tireWidthMm, aspectPct, tireRimIn), dropMm, referenceOdMm,
+                thresholdPct);
+    }
+
+    // REQUIRES: odMm > 0; dropMm >= 0; referenceOdMm > 0 or NaN when there is no reference; thresholdPct >= 0
+    // EFFECTS:  returns the ROLLING_DIAMETER_DELTA and CLEARANCE_RISK issues of a tire whose rolling
+    //           diameter is odMm on a suspension dropped by dropMm
+    public static int evaluateDiameter(double odMm, double dropMm, double referenceOdMm, double thresholdPct) {
+        int mask = 0;
+        if (Math.abs(deltaPct(odMm, referenceOdMm)) > thresholdPct) {
+            mask |= FitmentIssue.ROLLING_DIAMETER_DELTA.bit();
+        }
+        if (gapLossMm(dropMm, odMm, referenceOdMm) > MAX_GAP_LOSS_MM) {
+            mask |= FitmentIssue.CLEARANCE_RISK.bit();
+        }
+        return mask;
+    }
+
+    // REQUIRES: widthMm > 0; aspectPct > 0; rimIn > 0
+    // EFFECTS:  returns rolling outer diameter in millimeters using standard tire formula
+    public static double rollingDiameterMm(int widthMm, int aspectPct, double rimIn) {
+        double sidewall = widthMm * (aspectPct / 100.0);
+        return rimIn * MM_PER_INCH + 2.0 * sidewall;
+    }
+
+    // EFFECTS: returns the change from referenceOdMm to odMm in percent of referenceOdMm;
+    //          returns NaN if referenceOdMm is NaN (NaN never exceeds a threshold)
+    public static double deltaPct(double odMm, double referenceOdMm) {
+        return (odMm - referenceOdMm) / referenceOdMm * 100.0;
+    }
+
+    // EFFECTS: returns how many mm of wheel-well gap are lost to a drop of dropMm plus half of any
+    //          growth of odMm over referenceOdMm (no growth is counted without a reference)
+    public static double gapLossMm(double dropMm, double odMm, double referenceOdMm) {
+        double growth = odMm - referenceOdMm;
+        return (growth > 0) ? dropMm + growth / 2.0 : dropMm;
+    }
+}
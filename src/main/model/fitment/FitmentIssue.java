@@ -0,0 +1,37 @@
+package model.fitment;
+
+/**
+ * Represents a problem a fitment check can find with the active wheel, tire and suspension.
+ * Each issue has its own bit so a set of issues can be passed around as a single int mask.
+ */
+public enum FitmentIssue {
+    MISSING_WHEEL("No active wheel"),
+    MISSING_TIRE("No active tire"),
+    RIM_MISMATCH("Tire rim diameter does not match the wheel diameter"),
+    RIM_TOO_NARROW("Wheel is too narrow for the tire width"),
+    RIM_TOO_WIDE("Wheel is too wide for the tire width"),
+    ROLLING_DIAMETER_DELTA("Rolling diameter differs from the reference by more than the threshold"),
+    CLEARANCE_RISK("Suspension drop and rolling diameter growth may cause clearance issues");
+
+    private final String description;
+
+    // EFFECTS: constructs an issue with the given description
+    FitmentIssue(String description) {
+        this.description = description;
+    }
+
+    // EFFECTS: returns a short description of this issue
+    public String getDescription() {
+        return description;
+    }
+
+    // EFFECTS: returns the bit of this issue in an issue mask
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    // EFFECTS: returns true if mask contains this issue
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+}
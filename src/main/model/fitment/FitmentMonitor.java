@@ -0,0 +1,161 @@
+package model.fitment;
+
+import model.Build;
+import model.Part;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the fitment of one build's active parts up to date by re-running only the rules whose
+ * inputs changed.
+ *
+ * Each rule declares the categories it reads, which gives a dependency graph from categories (and
+ * the reference rolling diameter) to rules. On every check the monitor compares the build's active
+ * parts with the ones it last saw; only the rules reading a category whose active part changed are
+ * re-evaluated, and every other rule's cached issue mask is reused. A check after an inventory-only
+ * change, or after setting the same active part again, runs no rules at all.
+ *
+ * The monitor also records how often each rule ran and how long it took.
+ */
+public class FitmentMonitor {
+
+    private final Build build;
+    private final FitmentRule[] rules;
+    // rule indexes reading each category, and reading the reference
+    private final Map<PartCategory, int[]> dependents;
+    private final int[] referenceDependents;
+
+    // active parts (by category ordinal) and reference seen at the last check
+    private final Part[] seenActive;
+    private Double seenReference;
+    private boolean checked;
+
+    private final int[] masks;
+    private final boolean[] dirty;
+    private final long[] evaluations;
+    private final long[] totalNanos;
+    private final long[] lastNanos;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a monitor of build running every StandardFitmentRule
+    public FitmentMonitor(Build build) {
+        this(build, List.of(StandardFitmentRule.values()));
+    }
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a monitor of build running the given rules;
+    //           throws IllegalArgumentException if rules is null or contains null
+    public FitmentMonitor(Build build, List<? extends FitmentRule> rules) {
+        if (rules == null || rules.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("rules must be non-null");
+        }
+        this.build = build;
+        this.rules = rules.toArray(new FitmentRule[0]);
+        int n = this.rules.length;
+
+        Map<PartCategory, List<Integer>> graph = new EnumMap<>(PartCategory.class);
+        List<Integer> readers = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (PartCategory c : this.rules[i].getInputs()) {
+                graph.computeIfAbsent(c, k -> new ArrayList<>()).add(i);
+            }
+            if (this.rules[i].readsReference()) {
+                readers.add(i);
+            }
+        }
+        dependents = new EnumMap<>(PartCategory.class);
+        graph.forEach((c, list) -> dependents.put(c, list.stream().mapToInt(Integer::intValue).toArray()));
+        referenceDependents = readers.stream().mapToInt(Integer::intValue).toArray();
+
+        seenActive = new Part[PartCategory.values().length];
+        masks = new int[n];
+        dirty = new boolean[n];
+        evaluations = new long[n];
+        totalNanos = new long[n];
+        lastNanos = new long[n];
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  re-evaluates the rules whose inputs changed since the last check and returns the
+    //           combined result of every rule
+    public FitmentReport check() {
+        markChangedInputs();
+        int mask = 0;
+        for (int i = 0; i < rules.length; i++) {
+            if (dirty[i]) {
+                long start = System.nanoTime();
+                masks[i] = rules[i].evaluate(build);
+                long elapsed = System.nanoTime() - start;
+                dirty[i] = false;
+                evaluations[i]++;
+                totalNanos[i] += elapsed;
+                lastNanos[i] = elapsed;
+            }
+            mask |= masks[i];
+        }
+
+        Tire tire = (Tire) build.getActive(PartCategory.TIRE);
+        Suspension suspension = (Suspension) build.getActive(PartCategory.SUSPENSION);
+        double odMm = (tire == null) ? Double.NaN
+                : FitmentEngine.rollingDiameterMm(tire.getWidthMm(), tire.getAspectPercent(), tire.getRimDiameterIn());
+        return new FitmentReport(mask, odMm, seenReference == null ? Double.NaN : seenReference,
+                build.getRollingDeltaThresholdPct(), suspension == null ? 0 : suspension.getDropMm());
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  marks dirty every rule reading a category whose active part changed, or the reference
+    //           if it changed, and remembers the current active parts and reference; marks every rule
+    //           dirty on the first check
+    private void markChangedInputs() {
+        if (!checked) {
+            Arrays.fill(dirty, true);
+            checked = true;
+        }
+        for (Map.Entry<PartCategory, int[]> entry : dependents.entrySet()) {
+            int slot = entry.getKey().ordinal();
+            Part active = build.getActive(entry.getKey());
+            if (active != seenActive[slot]) {
+                seenActive[slot] = active;
+                markDirty(entry.getValue());
+            }
+        }
+        Double reference = build.getReferenceOdMm();
+        if (!Objects.equals(reference, seenReference)) {
+            seenReference = reference;
+            markDirty(referenceDependents);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  marks the given rules dirty
+    private void markDirty(int[] ruleIndexes) {
+        for (int i : ruleIndexes) {
+            dirty[i] = true;
+        }
+    }
+
+    // EFFECTS: returns the timing of every rule, in the order the rules were given
+    public List<RuleTiming> getTimings() {
+        List<RuleTiming> result = new ArrayList<>();
+        for (int i = 0; i < rules.length; i++) {
+            result.add(new RuleTiming(rules[i].getName(), evaluations[i], totalNanos[i], lastNanos[i]));
+        }
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets every rule's evaluation count and times back to 0
+    public void resetTimings() {
+        Arrays.fill(evaluations, 0);
+        Arrays.fill(totalNanos, 0);
+        Arrays.fill(lastNanos, 0);
+    }
+}
@@ -0,0 +1,100 @@
+package model.fitment;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Represents the result of a fitment check: the issues found plus the measurements behind them.
+ * Measurements that could not be taken (e.g. the rolling diameter without an active tire, or the
+ * delta without a reference) are NaN.
+ * This class is immutable.
+ */
+public class FitmentReport {
+
+    private final int issueMask;
+    private final double rollingDiameterMm;
+    private final double referenceOdMm;
+    private final double thresholdPct;
+    private final int dropMm;
+
+    // EFFECTS: constructs a report of the given issue mask and measurements
+    public FitmentReport(int issueMask, double rollingDiameterMm, double referenceOdMm, double thresholdPct,
+                         int dropMm) {
+        this.issueMask = issueMask;
+        this.rollingDiameterMm = rollingDiameterMm;
+        this.referenceOdMm = referenceOdMm;
+        this.thresholdPct = thresholdPct;
+        this.dropMm = dropMm;
+    }
+
+    // EFFECTS: returns the mask of FitmentIssue bits found
+    public int getIssueMask() {
+        return issueMask;
+    }
+
+    // EFFECTS: returns true if the check found the given issue
+    public boolean hasIssue(FitmentIssue issue) {
+        return issue.in(issueMask);
+    }
+
+    // EFFECTS: returns true if the check found no issues
+    public boolean isClean() {
+        return issueMask == 0;
+    }
+
+    // EFFECTS: returns a new set of the issues found
+    public Set<FitmentIssue> getIssues() {
+        Set<FitmentIssue> issues = EnumSet.noneOf(FitmentIssue.class);
+        for (FitmentIssue issue : FitmentIssue.values()) {
+            if (issue.in(issueMask)) {
+                issues.add(issue);
+            }
+        }
+        return issues;
+    }
+
+    // EFFECTS: returns the rolling diameter of the active tire in mm, or NaN if there is none
+    public double getRollingDiameterMm() {
+        return rollingDiameterMm;
+    }
+
+    // EFFECTS: returns the reference rolling diameter in mm, or NaN if none was set
+    public double getReferenceOdMm() {
+        return referenceOdMm;
+    }
+
+    // EFFECTS: returns the rolling diameter change from the reference in percent, or NaN if either
+    //          diameter is unknown
+    public double getDeltaPct() {
+        return FitmentEngine.deltaPct(rollingDiameterMm, referenceOdMm);
+    }
+
+    // EFFECTS: returns one human-readable warning per issue found, with the measurements behind it
+    public List<String> getWarnings() {
+        List<String> warnings = new ArrayList<>();
+        for (FitmentIssue issue : FitmentIssue.values()) {
+            if (issue.in(issueMask)) {
+                warnings.add(describe(issue));
+            }
+        }
+        return warnings;
+    }
+
+    // EFFECTS: returns the warning text for issue
+    private String describe(FitmentIssue issue) {
+        switch (issue) {
+            case ROLLING_DIAMETER_DELTA:
+                return String.format(Locale.ROOT, "%s (%.1f mm vs %.1f mm, %+.2f%%, limit %.1f%%)",
+                        issue.getDescription(), rollingDiameterMm, referenceOdMm, getDeltaPct(), thresholdPct);
+            case CLEARANCE_RISK:
+                return String.format(Locale.ROOT, "%s (%.1f mm of gap lost, %d mm from the drop)",
+                        issue.getDescription(),
+                        FitmentEngine.gapLossMm(dropMm, rollingDiameterMm, referenceOdMm), dropMm);
+            default:
+                return issue.getDescription();
+        }
+    }
+}
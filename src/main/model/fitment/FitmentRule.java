@@ -0,0 +1,28 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+
+import java.util.Set;
+
+/**
+ * Represents one fitment rule: a check over some of a build's active parts that reports a set of
+ * FitmentIssue bits. A rule declares the categories it reads so a FitmentMonitor only re-runs it
+ * when the active part of one of those categories changes.
+ */
+public interface FitmentRule {
+
+    // EFFECTS: returns a short name for this rule
+    String getName();
+
+    // EFFECTS: returns the categories whose active parts this rule reads
+    Set<PartCategory> getInputs();
+
+    // EFFECTS: returns true if this rule also reads the build's reference rolling diameter or threshold
+    boolean readsReference();
+
+    // REQUIRES: build != null
+    // EFFECTS:  returns the mask of FitmentIssue bits this rule finds in build's active parts; must
+    //           only read the active parts of getInputs() (and the reference if readsReference())
+    int evaluate(Build build);
+}
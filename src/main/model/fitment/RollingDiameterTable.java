@@ -0,0 +1,177 @@
+package model.fitment;
+
+import model.Build;
+import model.Part;
+import model.PartCategory;
+import model.Tire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the tires of a catalog sorted by rolling diameter, for fast nearest-diameter lookups.
+ *
+ * The diameters of the whole catalog are computed at once by rollingDiametersMm, a batch kernel
+ * over primitive spec arrays. Its loop has no branches, calls or object access, so the JIT compiles
+ * it to SIMD instructions on hardware that has them, and it runs as a plain scalar loop elsewhere.
+ * The distinct diameters are then sorted, and each holds the tires that share it, so a lookup is a
+ * binary search.
+ *
+ * The tires are copied when the table is constructed; later changes to the build are not seen.
+ */
+public class RollingDiameterTable {
+
+    private final double[] diameters;
+    private final Tire[][] tires;
+    private final int tireCount;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a table of the tires in build's inventory
+    public RollingDiameterTable(Build build) {
+        this(tiresOf(build.categoryView(PartCategory.TIRE)));
+    }
+
+    // REQUIRES: tires != null and contains no null
+    // EFFECTS:  constructs a table of the given tires
+    public RollingDiameterTable(Collection<Tire> tires) {
+        Tire[] all = tires.toArray(new Tire[0]);
+        int n = all.length;
+        double[] widths = new double[n];
+        double[] aspects = new double[n];
+        double[] rims = new double[n];
+        for (int i = 0; i < n; i++) {
+            widths[i] = all[i].getWidthMm();
+            aspects[i] = all[i].getAspectPercent();
+            rims[i] = all[i].getRimDiameterIn();
+        }
+        double[] computed = new double[n];
+        rollingDiametersMm(widths, aspects, rims, computed);
+
+        double[] sorted = computed.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.diameters = Arrays.copyOf(sorted, distinct);
+
+        // two passes: count the tires of each diameter, then place them in inventory order
+        int[] slot = new int[n];
+        int[] counts = new int[distinct];
+        for (int i = 0; i < n; i++) {
+            slot[i] = Arrays.binarySearch(diameters, computed[i]);
+            counts[slot[i]]++;
+        }
+        this.tires = new Tire[distinct][];
+        for (int d = 0; d < distinct; d++) {
+            this.tires[d] = new Tire[counts[d]];
+            counts[d] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            this.tires[slot[i]][counts[slot[i]]++] = all[i];
+        }
+        this.tireCount = n;
+    }
+
+    // REQUIRES: every spec is > 0
+    // MODIFIES: outMm
+    // EFFECTS:  sets outMm[i] to the rolling diameter in mm of a tire of widthsMm[i], aspectsPct[i] and
+    //           rimsIn[i], the same value FitmentEngine.rollingDiameterMm gives; throws
+    //           IllegalArgumentException if the arrays are not all the same length
+    public static void rollingDiametersMm(double[] widthsMm, double[] aspectsPct, double[] rimsIn, double[] outMm) {
+        int n = outMm.length;
+        if (widthsMm.length != n || aspectsPct.length != n || rimsIn.length != n) {
+            throw new IllegalArgumentException("spec arrays must all be the same length");
+        }
+        for (int i = 0; i < n; i++) {
+            outMm[i] = rimsIn[i] * FitmentEngine.MM_PER_INCH + 2.0 * (widthsMm[i] * (aspectsPct[i] / 100.0));
+        }
+    }
+
+    // EFFECTS: returns the number of tires in this table
+    public int size() {
+        return tireCount;
+    }
+
+    // EFFECTS: returns the number of distinct rolling diameters in this table
+    public int distinctCount() {
+        return diameters.length;
+    }
+
+    // REQUIRES: 0 <= i < distinctCount()
+    // EFFECTS:  returns the i-th smallest distinct rolling diameter in mm
+    public double diameterAt(int i) {
+        return diameters[i];
+    }
+
+    // REQUIRES: 0 <= i < distinctCount()
+    // EFFECTS:  returns the tires with the i-th smallest distinct rolling diameter, in inventory order
+    public List<Tire> tiresAt(int i) {
+        return Collections.unmodifiableList(Arrays.asList(tires[i]));
+    }
+
+    // EFFECTS: returns the index of the distinct diameter closest to targetMm (the smaller one on a
+    //          tie), or -1 if this table is empty
+    public int nearestIndex(double targetMm) {
+        if (diameters.length == 0) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(diameters, targetMm);
+        if (i >= 0) {
+            return i;
+        }
+        int above = -i - 1;
+        if (above == 0) {
+            return 0;
+        }
+        if (above == diameters.length) {
+            return above - 1;
+        }
+        return (targetMm - diameters[above - 1] <= diameters[above] - targetMm) ? above - 1 : above;
+    }
+
+    // EFFECTS: returns the tires whose rolling diameter is closest to targetMm, or an empty list if
+    //          this table is empty
+    public List<Tire> nearest(double targetMm) {
+        int i = nearestIndex(targetMm);
+        return (i < 0) ? new ArrayList<>() : tiresAt(i);
+    }
+
+    // REQUIRES: targetMm > 0; tolerancePct >= 0
+    // EFFECTS:  returns the tires whose rolling diameter is within tolerancePct percent of targetMm,
+    //           smallest diameter first
+    public List<Tire> within(double targetMm, double tolerancePct) {
+        double spread = targetMm * tolerancePct / 100.0;
+        int from = lowerBound(targetMm - spread);
+        List<Tire> result = new ArrayList<>();
+        for (int i = from; i < diameters.length && diameters[i] <= targetMm + spread; i++) {
+            result.addAll(Arrays.asList(tires[i]));
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the index of the first distinct diameter >= value
+    private int lowerBound(double value) {
+        int lo = 0;
+        int hi = diameters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (diameters[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // EFFECTS: returns the parts of a tire category view as tires
+    private static Collection<Tire> tiresOf(Collection<Part> parts) {
+        return Arrays.asList(parts.stream().map(p -> (Tire) p).toArray(Tire[]::new));
+    }
+}
@@ -0,0 +1,52 @@
+package model.fitment;
+
+/**
+ * Represents how often a FitmentMonitor has evaluated one rule and how long it took.
+ * This class is immutable.
+ */
+public class RuleTiming {
+
+    private final String ruleName;
+    private final long evaluations;
+    private final long totalNanos;
+    private final long lastNanos;
+
+    // EFFECTS: constructs a timing of the named rule
+    public RuleTiming(String ruleName, long evaluations, long totalNanos, long lastNanos) {
+        this.ruleName = ruleName;
+        this.evaluations = evaluations;
+        this.totalNanos = totalNanos;
+        this.lastNanos = lastNanos;
+    }
+
+    // EFFECTS: returns the name of the rule
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    // EFFECTS: returns the number of times the rule was evaluated
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    // EFFECTS: returns the total time spent evaluating the rule in nanoseconds
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    // EFFECTS: returns the time the last evaluation took in nanoseconds, or 0 if there was none
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    // EFFECTS: returns the average time of an evaluation in nanoseconds, or 0 if there was none
+    public double getAverageNanos() {
+        return (evaluations == 0) ? 0 : (double) totalNanos / evaluations;
+    }
+
+    // EFFECTS: returns the rule name, evaluation count and average time
+    @Override
+    public String toString() {
+        return String.format("%s: %d evaluations, avg %.0f ns", ruleName, evaluations, getAverageNanos());
+    }
+}
@@ -0,0 +1,152 @@
+package model.fitment;
+
+import model.Tire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Works out the SpeedometerEffect of tires against a reference rolling diameter.
+ *
+ * Effects are cached per tire spec (width, aspect ratio and rim diameter), so a catalog with many
+ * tires of the same size does the work once per size, and the cache is dropped when the reference
+ * changes. When a whole catalog is sorted, the diameters of the sizes not yet cached are computed
+ * together with the RollingDiameterTable batch kernel.
+ */
+public class SpeedometerCalculator {
+
+    // Represents the spec of a tire that its rolling diameter depends on
+    private static final class SpecKey {
+        private final int widthMm;
+        private final int aspectPct;
+        private final double rimIn;
+
+        // EFFECTS: constructs the spec key of tire
+        private SpecKey(Tire tire) {
+            this.widthMm = tire.getWidthMm();
+            this.aspectPct = tire.getAspectPercent();
+            this.rimIn = tire.getRimDiameterIn();
+        }
+
+        // EFFECTS: returns true if o is the key of the same spec
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SpecKey)) {
+                return false;
+            }
+            SpecKey k = (SpecKey) o;
+            return widthMm == k.widthMm && aspectPct == k.aspectPct && Double.compare(rimIn, k.rimIn) == 0;
+        }
+
+        // EFFECTS: returns the hash code of the spec
+        @Override
+        public int hashCode() {
+            return (widthMm * 31 + aspectPct) * 31 + Double.hashCode(rimIn);
+        }
+    }
+
+    private Double referenceOdMm;
+    private final Map<SpecKey, SpeedometerEffect> cache;
+
+    // EFFECTS: constructs a calculator with no reference
+    public SpeedometerCalculator() {
+        cache = new HashMap<>();
+    }
+
+    // EFFECTS: returns the reference rolling diameter in mm, or null if there is none
+    public Double getReferenceOdMm() {
+        return referenceOdMm;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  sets the reference rolling diameter (null for none) and drops the cached effects if
+    //           it changed; throws IllegalArgumentException if referenceOdMm is not > 0
+    public void setReferenceOdMm(Double referenceOdMm) {
+        if (referenceOdMm != null && !(referenceOdMm > 0)) {
+            throw new IllegalArgumentException("reference diameter must be > 0");
+        }
+        if (!Objects.equals(this.referenceOdMm, referenceOdMm)) {
+            this.referenceOdMm = referenceOdMm;
+            cache.clear();
+        }
+    }
+
+    // EFFECTS: returns the number of tire specs whose effect is cached
+    public int cachedSpecs() {
+        return cache.size();
+    }
+
+    // REQUIRES: tire != null
+    // MODIFIES: this
+    // EFFECTS:  returns the effect of tire against the reference, or null if there is no reference
+    public SpeedometerEffect effectOf(Tire tire) {
+        if (referenceOdMm == null) {
+            return null;
+        }
+        return cache.computeIfAbsent(new SpecKey(tire), k -> new SpeedometerEffect(
+                FitmentEngine.rollingDiameterMm(tire.getWidthMm(), tire.getAspectPercent(), tire.getRimDiameterIn()),
+                referenceOdMm));
+    }
+
+    // REQUIRES: tires != null and contains no null
+    // MODIFIES: this
+    // EFFECTS:  returns the tires sorted by the size of their speedometer error, smallest first (then
+    //           by name); returns them in their given order if there is no reference
+    public List<Tire> sortBySpeedoError(Collection<Tire> tires) {
+        List<Tire> result = new ArrayList<>(tires);
+        if (referenceOdMm == null) {
+            return result;
+        }
+        fillCache(result);
+        double[] errors = new double[result.size()];
+        Integer[] order = new Integer[result.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            errors[i] = Math.abs(cache.get(new SpecKey(result.get(i))).getSpeedoErrorPct());
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> errors[i])
+                .thenComparing(i -> result.get(i).getName()));
+        List<Tire> sorted = new ArrayList<>(order.length);
+        for (Integer i : order) {
+            sorted.add(result.get(i));
+        }
+        return sorted;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  caches the effects of every tire spec in tires that is not cached yet, computing their
+    //           rolling diameters in one batch
+    private void fillCache(List<Tire> tires) {
+        Map<SpecKey, Tire> missing = new HashMap<>();
+        for (Tire t : tires) {
+            SpecKey key = new SpecKey(t);
+            if (!cache.containsKey(key)) {
+                missing.putIfAbsent(key, t);
+            }
+        }
+        int n = missing.size();
+        SpecKey[] keys = new SpecKey[n];
+        double[] widths = new double[n];
+        double[] aspects = new double[n];
+        double[] rims = new double[n];
+        int i = 0;
+        for (Map.Entry<SpecKey, Tire> entry : missing.entrySet()) {
+            keys[i] = entry.getKey();
+            widths[i] = entry.getValue().getWidthMm();
+            aspects[i] = entry.getValue().getAspectPercent();
+            rims[i] = entry.getValue().getRimDiameterIn();
+            i++;
+        }
+        double[] diameters = new double[n];
+        RollingDiameterTable.rollingDiametersMm(widths, aspects, rims, diameters);
+        for (int j = 0; j < n; j++) {
+            cache.put(keys[j], new SpeedometerEffect(diameters[j], referenceOdMm));
+        }
+    }
+}
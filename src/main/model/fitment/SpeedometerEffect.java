@@ -0,0 +1,76 @@
+package model.fitment;
+
+import model.Transmission;
+
+import java.util.Arrays;
+
+/**
+ * Represents how a tire's rolling diameter changes speedometer readings and effective gearing
+ * compared with the reference diameter the speedometer is calibrated for.
+ *
+ * The speedometer counts wheel turns and assumes the reference circumference, so it reads
+ * reference / diameter times the true speed. The same factor multiplies the effective final drive:
+ * a smaller tire turns more times per km, which acts like a shorter (numerically higher) final
+ * drive in every gear.
+ * This class is immutable.
+ */
+public class SpeedometerEffect {
+
+    private final double rollingDiameterMm;
+    private final double referenceOdMm;
+    private final double factor;
+
+    // REQUIRES: rollingDiameterMm > 0; referenceOdMm > 0
+    // EFFECTS:  constructs the effect of a tire of rollingDiameterMm against referenceOdMm
+    public SpeedometerEffect(double rollingDiameterMm, double referenceOdMm) {
+        this.rollingDiameterMm = rollingDiameterMm;
+        this.referenceOdMm = referenceOdMm;
+        this.factor = referenceOdMm / rollingDiameterMm;
+    }
+
+    // EFFECTS: returns the rolling diameter of the tire in mm
+    public double getRollingDiameterMm() {
+        return rollingDiameterMm;
+    }
+
+    // EFFECTS: returns the reference rolling diameter in mm
+    public double getReferenceOdMm() {
+        return referenceOdMm;
+    }
+
+    // EFFECTS: returns how far the speedometer reading is off the true speed, in percent of the
+    //          true speed; positive when it reads high
+    public double getSpeedoErrorPct() {
+        return (factor - 1.0) * 100.0;
+    }
+
+    // EFFECTS: returns the speed the speedometer shows at trueSpeed
+    public double indicatedSpeed(double trueSpeed) {
+        return trueSpeed * factor;
+    }
+
+    // EFFECTS: returns the true speed when the speedometer shows indicatedSpeed
+    public double trueSpeed(double indicatedSpeed) {
+        return indicatedSpeed / factor;
+    }
+
+    // EFFECTS: returns the factor the effective final drive ratio is multiplied by
+    public double getFinalDriveFactor() {
+        return factor;
+    }
+
+    // EFFECTS: returns the change of the effective final drive ratio in percent; positive means
+    //          shorter gearing (more engine rpm at a given road speed)
+    public double getFinalDriveChangePct() {
+        return (factor - 1.0) * 100.0;
+    }
+
+    // REQUIRES: transmission != null
+    // EFFECTS:  returns the effective final drive factor of each gear of transmission, first gear
+    //           first; the transmission has no per-gear ratios, so every gear changes by the same factor
+    public double[] gearFactors(Transmission transmission) {
+        double[] factors = new double[transmission.getGears()];
+        Arrays.fill(factors, factor);
+        return factors;
+    }
+}
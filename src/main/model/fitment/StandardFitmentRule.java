@@ -0,0 +1,106 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * The rules behind FitmentEngine.check, split by the active parts they read so they can be
+ * re-evaluated independently. Together they report exactly the issues FitmentEngine.check does.
+ *
+ * With both a wheel and a tire active, the rules look their specs up in the shared FitmentCache, so
+ * the rules of one build share a single evaluation (two when a suspension is dropped) and builds
+ * that swap between parts of the same specs are not evaluated again.
+ */
+public enum StandardFitmentRule implements FitmentRule {
+    PRESENCE(EnumSet.of(PartCategory.WHEEL, PartCategory.TIRE), false, b ->
+            (wheel(b) == null ? FitmentIssue.MISSING_WHEEL.bit() : 0)
+                    | (tire(b) == null ? FitmentIssue.MISSING_TIRE.bit() : 0)),
+    RIM_FIT(EnumSet.of(PartCategory.WHEEL, PartCategory.TIRE), false, b -> {
+        Wheel w = wheel(b);
+        Tire t = tire(b);
+        if (w == null || t == null) {
+            return 0;
+        }
+        return issues(b, 0) & (FitmentIssue.RIM_MISMATCH.bit() | FitmentIssue.RIM_TOO_NARROW.bit()
+                | FitmentIssue.RIM_TOO_WIDE.bit());
+    }),
+    ROLLING_DIAMETER(EnumSet.of(PartCategory.TIRE), true, b ->
+            issues(b, 0) & FitmentIssue.ROLLING_DIAMETER_DELTA.bit()),
+    CLEARANCE(EnumSet.of(PartCategory.TIRE, PartCategory.SUSPENSION), true, b -> {
+        Suspension s = (Suspension) b.getActive(PartCategory.SUSPENSION);
+        int dropMm = (s == null) ? 0 : s.getDropMm();
+        return issues(b, dropMm) & FitmentIssue.CLEARANCE_RISK.bit();
+    });
+
+    private final Set<PartCategory> inputs;
+    private final boolean readsReference;
+    private final ToIntFunction<Build> rule;
+
+    // EFFECTS: constructs a rule reading the given categories (and the reference if readsReference)
+    StandardFitmentRule(Set<PartCategory> inputs, boolean readsReference, ToIntFunction<Build> rule) {
+        this.inputs = Collections.unmodifiableSet(inputs);
+        this.readsReference = readsReference;
+        this.rule = rule;
+    }
+
+    // EFFECTS: returns the name of this constant
+    @Override
+    public String getName() {
+        return name();
+    }
+
+    // EFFECTS: returns the categories this rule reads
+    @Override
+    public Set<PartCategory> getInputs() {
+        return inputs;
+    }
+
+    // EFFECTS: returns true if this rule reads the reference rolling diameter or threshold
+    @Override
+    public boolean readsReference() {
+        return readsReference;
+    }
+
+    // EFFECTS: returns the issues this rule finds in build's active parts
+    @Override
+    public int evaluate(Build build) {
+        return rule.applyAsInt(build);
+    }
+
+    // EFFECTS: returns the active wheel of build, or null if there is none
+    private static Wheel wheel(Build build) {
+        return (Wheel) build.getActive(PartCategory.WHEEL);
+    }
+
+    // EFFECTS: returns the active tire of build, or null if there is none
+    private static Tire tire(Build build) {
+        return (Tire) build.getActive(PartCategory.TIRE);
+    }
+
+    // EFFECTS: returns the issues of build's active wheel and tire with a drop of dropMm, looked up in
+    //          the shared FitmentCache; only the rolling diameter issues of the tire if there is no
+    //          active wheel, and 0 if there is no active tire
+    private static int issues(Build build, int dropMm) {
+        Tire t = tire(build);
+        if (t == null) {
+            return 0;
+        }
+        Wheel w = wheel(build);
+        Double reference = build.getReferenceOdMm();
+        double referenceOdMm = (reference == null) ? Double.NaN : reference;
+        if (w == null) {
+            return FitmentEngine.evaluateRollingDiameter(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn(),
+                    dropMm, referenceOdMm, build.getRollingDeltaThresholdPct());
+        }
+        return FitmentCache.shared().evaluate(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(), t.getAspectPercent(),
+                t.getRimDiameterIn(), dropMm, referenceOdMm, build.getRollingDeltaThresholdPct());
+    }
+}
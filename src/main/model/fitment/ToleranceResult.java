@@ -0,0 +1,81 @@
+package model.fitment;
+
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+/**
+ * Represents the outcome of a tolerance simulation of one wheel, tire and suspension: how many
+ * sampled parts were checked, how many of them failed any fitment rule, and how often each
+ * FitmentIssue came up.
+ * This class is immutable.
+ */
+public class ToleranceResult {
+
+    private final Wheel wheel;
+    private final Tire tire;
+    private final Suspension suspension;
+    private final long samples;
+    private final long failures;
+    private final long[] issueCounts;
+
+    // REQUIRES: wheel and tire != null; samples > 0; 0 <= failures <= samples;
+    //           issueCounts has one count per FitmentIssue, in ordinal order
+    // EFFECTS:  constructs a result for the given parts (suspension may be null for none)
+    public ToleranceResult(Wheel wheel, Tire tire, Suspension suspension, long samples, long failures,
+                           long[] issueCounts) {
+        this.wheel = wheel;
+        this.tire = tire;
+        this.suspension = suspension;
+        this.samples = samples;
+        this.failures = failures;
+        this.issueCounts = issueCounts.clone();
+    }
+
+    // EFFECTS: returns the simulated wheel
+    public Wheel getWheel() {
+        return wheel;
+    }
+
+    // EFFECTS: returns the simulated tire
+    public Tire getTire() {
+        return tire;
+    }
+
+    // EFFECTS: returns the simulated suspension, or null if none was used
+    public Suspension getSuspension() {
+        return suspension;
+    }
+
+    // EFFECTS: returns the number of samples checked
+    public long getSamples() {
+        return samples;
+    }
+
+    // EFFECTS: returns the number of samples with at least one fitment issue
+    public long getFailures() {
+        return failures;
+    }
+
+    // EFFECTS: returns the fraction of samples with at least one fitment issue
+    public double getFailureProbability() {
+        return (double) failures / samples;
+    }
+
+    // EFFECTS: returns the number of samples in which issue came up
+    public long getIssueCount(FitmentIssue issue) {
+        return issueCounts[issue.ordinal()];
+    }
+
+    // EFFECTS: returns the fraction of samples in which issue came up
+    public double probability(FitmentIssue issue) {
+        return (double) getIssueCount(issue) / samples;
+    }
+
+    // EFFECTS: returns "wheel + tire [+ suspension]: P% of N samples fail"
+    @Override
+    public String toString() {
+        return wheel.getName() + " + " + tire.getName() + (suspension == null ? "" : " + " + suspension.getName())
+                + String.format(": %.2f%% of %d samples fail", getFailureProbability() * 100, samples);
+    }
+}
@@ -0,0 +1,233 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Estimates how likely a wheel, tire and suspension are to fail a fitment check once real parts
+ * stray from their nominal specs.
+ *
+ * Each sample draws the wheel width, tire section width, rolling diameter and suspension drop from
+ * normal distributions around the nominal specs (see Tolerances) and runs the FitmentEngine rules
+ * on the sampled values. Samples are cut into fixed-size chunks and every chunk gets its own
+ * SplittableRandom, split off the seed's generator in a fixed order before any work starts, so the
+ * chunks can run on any number of fork/join workers and the counts come out the same for the same
+ * seed.
+ */
+public class ToleranceSimulator {
+
+    // samples drawn by one fork/join task from one generator
+    static final int SAMPLES_PER_CHUNK = 4096;
+
+    private final Tolerances tolerances;
+    private final double referenceOdMm;
+    private final double thresholdPct;
+    private final ForkJoinPool pool;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs a simulator using the default tolerances and build's reference rolling
+    //           diameter and threshold, running on the common fork/join pool
+    public ToleranceSimulator(Build build) {
+        this(Tolerances.DEFAULT, build.getReferenceOdMm() == null ? Double.NaN : build.getReferenceOdMm(),
+                build.getRollingDeltaThresholdPct());
+    }
+
+    // REQUIRES: tolerances != null; referenceOdMm > 0 or NaN for no reference; thresholdPct >= 0
+    // EFFECTS:  constructs a simulator with the given tolerances, reference and threshold, running on
+    //           the common fork/join pool
+    public ToleranceSimulator(Tolerances tolerances, double referenceOdMm, double thresholdPct) {
+        this(tolerances, referenceOdMm, thresholdPct, ForkJoinPool.commonPool());
+    }
+
+    // REQUIRES: tolerances != null; referenceOdMm > 0 or NaN for no reference; thresholdPct >= 0;
+    //           pool != null
+    // EFFECTS:  constructs a simulator with the given tolerances, reference and threshold, running on
+    //           pool
+    public ToleranceSimulator(Tolerances tolerances, double referenceOdMm, double thresholdPct,
+                              ForkJoinPool pool) {
+        this.tolerances = tolerances;
+        this.referenceOdMm = referenceOdMm;
+        this.thresholdPct = thresholdPct;
+        this.pool = pool;
+    }
+
+    // REQUIRES: build != null
+    // EFFECTS:  simulates the active wheel, tire and suspension of build; returns null if build has
+    //           no active wheel or tire; throws IllegalArgumentException if samples <= 0
+    public static ToleranceResult simulateActive(Build build, int samples, long seed) {
+        Wheel wheel = (Wheel) build.getActive(PartCategory.WHEEL);
+        Tire tire = (Tire) build.getActive(PartCategory.TIRE);
+        if (wheel == null || tire == null) {
+            return null;
+        }
+        return new ToleranceSimulator(build).simulate(wheel, tire,
+                (Suspension) build.getActive(PartCategory.SUSPENSION), samples, seed);
+    }
+
+    // REQUIRES: wheel and tire != null
+    // EFFECTS:  draws samples sampled versions of wheel, tire and suspension (null for no drop) from
+    //           seed and returns how often they fail; throws IllegalArgumentException if samples <= 0
+    public ToleranceResult simulate(Wheel wheel, Tire tire, Suspension suspension, int samples, long seed) {
+        return run(List.of(new Combination(wheel, tire, suspension)), samples, seed).get(0);
+    }
+
+    // REQUIRES: wheels and tires != null and contain no null
+    // EFFECTS:  simulates every wheel with every tire of its rim diameter on suspension (null for no
+    //           drop), samples times each, all from seed; returns the results wheel by wheel in the
+    //           given order and, for each wheel, in tire order; throws IllegalArgumentException if
+    //           samples <= 0
+    public List<ToleranceResult> simulateAll(Collection<Wheel> wheels, Collection<Tire> tires,
+                                             Suspension suspension, int samples, long seed) {
+        List<Combination> combinations = new ArrayList<>();
+        for (Wheel w : wheels) {
+            for (Tire t : tires) {
+                if (Math.abs(w.getDiameterIn() - t.getRimDiameterIn()) <= FitmentEngine.RIM_MATCH_TOLERANCE_IN) {
+                    combinations.add(new Combination(w, t, suspension));
+                }
+            }
+        }
+        return run(combinations, samples, seed);
+    }
+
+    // EFFECTS: splits the samples of every combination into chunks, runs the chunks on the pool and
+    //          returns one result per combination, in order
+    private List<ToleranceResult> run(List<Combination> combinations, int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Sample count must be greater than 0");
+        }
+        int chunksEach = (samples + SAMPLES_PER_CHUNK - 1) / SAMPLES_PER_CHUNK;
+        Chunk[] chunks = new Chunk[combinations.size() * chunksEach];
+        SplittableRandom root = new SplittableRandom(seed);
+        int c = 0;
+        for (Combination combination : combinations) {
+            SplittableRandom random = root.split();
+            for (int k = 0; k < chunksEach; k++) {
+                int size = Math.min(SAMPLES_PER_CHUNK, samples - k * SAMPLES_PER_CHUNK);
+                chunks[c++] = new Chunk(combination, size, random.split());
+            }
+        }
+        if (chunks.length > 0) {
+            pool.invoke(new SampleTask(chunks, 0, chunks.length));
+        }
+
+        List<ToleranceResult> results = new ArrayList<>(combinations.size());
+        for (int i = 0; i < combinations.size(); i++) {
+            long failures = 0;
+            long[] issueCounts = new long[FitmentIssue.values().length];
+            for (int k = i * chunksEach; k < (i + 1) * chunksEach; k++) {
+                failures += chunks[k].failures;
+                for (int b = 0; b < issueCounts.length; b++) {
+                    issueCounts[b] += chunks[k].issueCounts[b];
+                }
+            }
+            Combination combination = combinations.get(i);
+            results.add(new ToleranceResult(combination.wheel, combination.tire, combination.suspension, samples,
+                    failures, issueCounts));
+        }
+        return results;
+    }
+
+    // Represents a wheel, tire and suspension to simulate, with their nominal specs unpacked
+    private static final class Combination {
+        private final Wheel wheel;
+        private final Tire tire;
+        private final Suspension suspension;
+        private final double rollingDiameterMm;
+        private final int dropMm;
+
+        // EFFECTS: constructs a combination of the given parts
+        private Combination(Wheel wheel, Tire tire, Suspension suspension) {
+            this.wheel = wheel;
+            this.tire = tire;
+            this.suspension = suspension;
+            this.rollingDiameterMm = FitmentEngine.rollingDiameterMm(tire.getWidthMm(), tire.getAspectPercent(),
+                    tire.getRimDiameterIn());
+            this.dropMm = (suspension == null) ? 0 : suspension.getDropMm();
+        }
+    }
+
+    // Represents one run of samples of a combination drawn from its own generator, and its counts
+    private static final class Chunk {
+        private final Combination combination;
+        private final int samples;
+        private final SplittableRandom random;
+        private final long[] issueCounts = new long[FitmentIssue.values().length];
+        private long failures;
+
+        // EFFECTS: constructs a chunk of samples draws of combination from random
+        private Chunk(Combination combination, int samples, SplittableRandom random) {
+            this.combination = combination;
+            this.samples = samples;
+            this.random = random;
+        }
+    }
+
+    // Represents the work of sampling chunks[from, to)
+    private final class SampleTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        // EFFECTS: constructs a task over chunks[from, to)
+        private SampleTask(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        // MODIFIES: the chunks in [from, to)
+        // EFFECTS:  splits the range in half down to single chunks, then samples each chunk
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SampleTask(chunks, from, mid), new SampleTask(chunks, mid, to));
+            } else {
+                sample(chunks[from]);
+            }
+        }
+    }
+
+    // MODIFIES: chunk
+    // EFFECTS:  draws the samples of chunk and counts its failures and issues
+    private void sample(Chunk chunk) {
+        Combination nominal = chunk.combination;
+        SplittableRandom random = chunk.random;
+        double wheelDiameterIn = nominal.wheel.getDiameterIn();
+        double tireRimIn = nominal.tire.getRimDiameterIn();
+        double wheelWidthSigma = tolerances.getWheelWidthSigmaIn();
+        double tireWidthSigma = tolerances.getTireWidthSigmaMm();
+        double odSigma = tolerances.getRollingDiameterSigmaMm();
+        double dropSigma = tolerances.getDropSigmaMm();
+        long failures = 0;
+        for (int i = 0; i < chunk.samples; i++) {
+            double wheelWidthIn = nominal.wheel.getWidthIn() + wheelWidthSigma * random.nextGaussian();
+            double tireWidthMm = nominal.tire.getWidthMm() + tireWidthSigma * random.nextGaussian();
+            double odMm = nominal.rollingDiameterMm + odSigma * random.nextGaussian();
+            double dropMm = (nominal.suspension == null) ? 0
+                    : Math.max(0, nominal.dropMm + dropSigma * random.nextGaussian());
+            int mask = FitmentEngine.evaluateRim(wheelDiameterIn, wheelWidthIn, tireWidthMm, tireRimIn)
+                    | FitmentEngine.evaluateDiameter(odMm, dropMm, referenceOdMm, thresholdPct);
+            if (mask != 0) {
+                failures++;
+                while (mask != 0) {
+                    chunk.issueCounts[Integer.numberOfTrailingZeros(mask)]++;
+                    mask &= mask - 1;
+                }
+            }
+        }
+        chunk.failures = failures;
+    }
+}
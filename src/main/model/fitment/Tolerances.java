@@ -0,0 +1,53 @@
+package model.fitment;
+
+/**
+ * Represents how far real parts stray from their nominal specs: the standard deviation of each
+ * spec a ToleranceSimulator samples. Sampled values are normally distributed around the nominal
+ * value.
+ * This class is immutable.
+ */
+public class Tolerances {
+
+    // typical spread of mass-produced wheels, tires and lowering kits
+    public static final Tolerances DEFAULT = new Tolerances(0.1, 3.0, 4.0, 5.0);
+
+    private final double wheelWidthSigmaIn;
+    private final double tireWidthSigmaMm;
+    private final double rollingDiameterSigmaMm;
+    private final double dropSigmaMm;
+
+    // EFFECTS: constructs tolerances with the given standard deviations of the wheel width in inches,
+    //          the tire section width, the tire rolling diameter and the suspension drop in mm;
+    //          throws IllegalArgumentException if any of them is negative or not a number
+    public Tolerances(double wheelWidthSigmaIn, double tireWidthSigmaMm, double rollingDiameterSigmaMm,
+                      double dropSigmaMm) {
+        if (!(wheelWidthSigmaIn >= 0 && tireWidthSigmaMm >= 0 && rollingDiameterSigmaMm >= 0
+                && dropSigmaMm >= 0)) {
+            throw new IllegalArgumentException("Tolerances must be non-negative numbers");
+        }
+        this.wheelWidthSigmaIn = wheelWidthSigmaIn;
+        this.tireWidthSigmaMm = tireWidthSigmaMm;
+        this.rollingDiameterSigmaMm = rollingDiameterSigmaMm;
+        this.dropSigmaMm = dropSigmaMm;
+    }
+
+    // EFFECTS: returns the standard deviation of the wheel width in inches
+    public double getWheelWidthSigmaIn() {
+        return wheelWidthSigmaIn;
+    }
+
+    // EFFECTS: returns the standard deviation of the tire section width in mm
+    public double getTireWidthSigmaMm() {
+        return tireWidthSigmaMm;
+    }
+
+    // EFFECTS: returns the standard deviation of the tire rolling diameter in mm
+    public double getRollingDiameterSigmaMm() {
+        return rollingDiameterSigmaMm;
+    }
+
+    // EFFECTS: returns the standard deviation of the suspension drop in mm
+    public double getDropSigmaMm() {
+        return dropSigmaMm;
+    }
+}
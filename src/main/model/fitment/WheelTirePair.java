@@ -0,0 +1,45 @@
+package model.fitment;
+
+import model.Tire;
+import model.Wheel;
+
+/**
+ * Represents a wheel and a tire that fit each other, with the rolling diameter of the tire.
+ * This class is immutable.
+ */
+public class WheelTirePair {
+
+    private final Wheel wheel;
+    private final Tire tire;
+    private final double rollingDiameterMm;
+
+    // REQUIRES: wheel != null; tire != null
+    // EFFECTS:  constructs a pair of the given wheel and tire
+    public WheelTirePair(Wheel wheel, Tire tire) {
+        this.wheel = wheel;
+        this.tire = tire;
+        this.rollingDiameterMm = FitmentEngine.rollingDiameterMm(tire.getWidthMm(), tire.getAspectPercent(),
+                tire.getRimDiameterIn());
+    }
+
+    // EFFECTS: returns the wheel of this pair
+    public Wheel getWheel() {
+        return wheel;
+    }
+
+    // EFFECTS: returns the tire of this pair
+    public Tire getTire() {
+        return tire;
+    }
+
+    // EFFECTS: returns the rolling diameter of the tire in mm
+    public double getRollingDiameterMm() {
+        return rollingDiameterMm;
+    }
+
+    // EFFECTS: returns "wheel + tire" using the part names
+    @Override
+    public String toString() {
+        return wheel.getName() + " + " + tire.getName();
+    }
+}
@@ -0,0 +1,409 @@
+package model.planning;
+
+import model.Build;
+import model.Engine;
+import model.Part;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import model.fitment.FitmentEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Picks one part per category from a build's inventory so that the total score of the picked parts
+ * is as high as possible while the total cost stays within a budget and the wheel, tire and
+ * suspension fit.
+ *
+ * This is a multiple-choice knapsack: every category with parts in inventory is a group, and the
+ * wheel, tire and suspension categories are joined into a single group of (wheel, tire, suspension)
+ * choices that pass every FitmentEngine rule together. Since the clearance rule only tightens as the
+ * drop grows, the suspensions a tire clears are a prefix of the suspensions sorted by drop; each
+ * such prefix is pruned once and shared by every tire of the same rolling diameter.
+ * Brute force is avoided by:
+ *  - dominance pruning: within a group, an option is dropped when at least N other options cost
+ *    no more and score no less, since it can then never be part of one of the N best builds;
+ *  - branch-and-bound: a depth-first search over the groups skips a branch when even the cheapest
+ *    completion is over budget, or when even the best-scoring completion cannot reach the N-th
+ *    best build found so far;
+ *  - parallel search: the branches under the first group are searched on the common fork/join pool,
+ *    sharing the best builds found so far.
+ *
+ * Builds are ranked by score (highest first), then total cost (lowest first); remaining ties are
+ * broken by a fixed order of the options, so the result does not depend on thread timing.
+ * The inventory is copied when the optimizer is constructed.
+ */
+public class BuildOptimizer {
+
+    // score of a part when maximizing engine horsepower
+    public static final ToDoubleFunction<Part> HORSEPOWER =
+            p -> (p instanceof Engine) ? ((Engine) p).getHorsepower() : 0;
+
+    // Represents one way of filling a group: its parts, their total cost and total score
+    private static final class Option {
+        private final Part[] parts;
+        private final long cost;
+        private final double value;
+        private String key;
+
+        // EFFECTS: constructs an option of the given parts, scored with score
+        private Option(Part[] parts, ToDoubleFunction<Part> score) {
+            this.parts = parts;
+            long c = 0;
+            double v = 0;
+            for (Part p : parts) {
+                c += p.getCost();
+                v += score.applyAsDouble(p);
+            }
+            this.cost = c;
+            this.value = v;
+        }
+
+        // EFFECTS: returns the names of the parts of this option, used to order exact ties
+        private String key() {
+            if (key == null) {
+                key = Arrays.stream(parts).map(Part::getName).collect(Collectors.joining("\u0000"));
+            }
+            return key;
+        }
+    }
+
+    // orders options by cost (lowest first), then value (highest first), then part names
+    private static final Comparator<Option> CHEAPEST_FIRST = Comparator.comparingLong((Option o) -> o.cost)
+            .thenComparing(Comparator.comparingDouble((Option o) -> o.value).reversed())
+            .thenComparing(Option::key);
+
+    // orders options by value (highest first), then cost (lowest first), then part names
+    private static final Comparator<Option> HIGHEST_VALUE_FIRST =
+            Comparator.comparingDouble((Option o) -> o.value).reversed()
+                    .thenComparingLong(o -> o.cost)
+                    .thenComparing(Option::key);
+
+    // Represents a complete choice of one option per group
+    private static final class Candidate {
+        private final int[] choice;
+        private final long cost;
+        private final double value;
+
+        // EFFECTS: constructs a candidate of the given option indexes, cost and value
+        private Candidate(int[] choice, long cost, double value) {
+            this.choice = choice;
+            this.cost = cost;
+            this.value = value;
+        }
+    }
+
+    // orders candidates best first: higher value, then lower cost, then lower option indexes
+    private static final Comparator<Candidate> BEST_FIRST = (a, b) -> {
+        int c = Double.compare(b.value, a.value);
+        if (c == 0) {
+            c = Long.compare(a.cost, b.cost);
+        }
+        return (c == 0) ? Arrays.compare(a.choice, b.choice) : c;
+    };
+
+    // Represents the N best candidates found so far, shared by the parallel searches
+    private static final class Best {
+        private final int limit;
+        private final PriorityQueue<Candidate> heap;
+        //the N-th best candidate once N have been found, null before that
+        private volatile Candidate worst;
+
+        // EFFECTS: constructs an empty collection of the limit best candidates
+        private Best(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(BEST_FIRST.reversed());
+        }
+
+        // MODIFIES: this
+        // EFFECTS:  keeps c if it is among the limit best candidates offered so far
+        private synchronized void offer(Candidate c) {
+            if (heap.size() < limit) {
+                heap.add(c);
+            } else if (BEST_FIRST.compare(c, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(c);
+            } else {
+                return;
+            }
+            if (heap.size() == limit) {
+                worst = heap.peek();
+            }
+        }
+
+        // EFFECTS: returns true if a completion scoring at most bound and costing at least minCost
+        //          could still be among the best candidates
+        private boolean canBeat(double bound, long minCost) {
+            Candidate w = worst;
+            return w == null || bound > w.value || (bound == w.value && minCost <= w.cost);
+        }
+
+        // EFFECTS: returns true if no completion scoring at most bound can be among the best candidates
+        private boolean outOfReach(double bound) {
+            Candidate w = worst;
+            return w != null && bound < w.value;
+        }
+
+        // EFFECTS: returns the best candidates, best first
+        private synchronized List<Candidate> sorted() {
+            List<Candidate> result = new ArrayList<>(heap);
+            result.sort(BEST_FIRST);
+            return result;
+        }
+    }
+
+    private final List<List<Part>> groups;
+    private final List<Wheel> wheels;
+    private final List<Tire> tires;
+    private final List<Suspension> suspensions;
+    private final double referenceOdMm;
+    private final double thresholdPct;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs an optimizer over a copy of build's inventory, checking wheel and tire
+    //           fitment against build's reference rolling diameter and threshold
+    public BuildOptimizer(Build build) {
+        groups = new ArrayList<>();
+        List<Wheel> w = new ArrayList<>();
+        List<Tire> t = new ArrayList<>();
+        List<Suspension> s = new ArrayList<>();
+        for (PartCategory c : PartCategory.values()) {
+            Collection<Part> parts = build.categoryView(c);
+            if (c == PartCategory.WHEEL) {
+                parts.forEach(p -> w.add((Wheel) p));
+            } else if (c == PartCategory.TIRE) {
+                parts.forEach(p -> t.add((Tire) p));
+            } else if (c == PartCategory.SUSPENSION) {
+                parts.forEach(p -> s.add((Suspension) p));
+            } else if (!parts.isEmpty()) {
+                groups.add(new ArrayList<>(parts));
+            }
+        }
+        wheels = w;
+        tires = t;
+        suspensions = s;
+        referenceOdMm = (build.getReferenceOdMm() == null) ? Double.NaN : build.getReferenceOdMm();
+        thresholdPct = build.getRollingDeltaThresholdPct();
+    }
+
+    // REQUIRES: budget >= 0; n > 0
+    // EFFECTS:  returns up to n builds with the highest total engine horsepower costing at most budget,
+    //           best first; see optimize(long, int, ToDoubleFunction)
+    public List<PlannedBuild> optimize(long budget, int n) {
+        return optimize(budget, n, HORSEPOWER);
+    }
+
+    // REQUIRES: budget >= 0; n > 0; score != null and gives the same result for the same part every time
+    // EFFECTS:  returns up to n builds with the highest total score costing at most budget, best first.
+    //           Each build has one part from every category that has parts in inventory, and when it
+    //           has a wheel and a tire, its wheel, tire and suspension pass every FitmentEngine rule.
+    //           Returns an empty list if no such build is within budget
+    public List<PlannedBuild> optimize(long budget, int n, ToDoubleFunction<Part> score) {
+        if (budget < 0 || n <= 0 || score == null) {
+            throw new IllegalArgumentException("budget must be >= 0, n > 0 and score non-null");
+        }
+        List<Option[]> all = new ArrayList<>();
+        for (List<Part> group : groups) {
+            all.add(prune(singles(group, score), n));
+        }
+        if (!wheels.isEmpty() && !tires.isEmpty()) {
+            all.add(prune(wheelTireOptions(n, score), n));
+        } else {
+            if (!wheels.isEmpty() || !tires.isEmpty()) {
+                all.add(prune(singles(wheels.isEmpty() ? tires : wheels, score), n));
+            }
+            if (!suspensions.isEmpty()) {
+                all.add(prune(singles(suspensions, score), n));
+            }
+        }
+        for (Option[] options : all) {
+            if (options.length == 0) {
+                return new ArrayList<>();
+            }
+        }
+        // widest group first so the parallel split at the top has the most branches
+        all.sort(Comparator.comparingInt((Option[] o) -> o.length).reversed());
+        return new Search(all.toArray(new Option[0][]), budget, n).run();
+    }
+
+    // Represents one branch-and-bound search over fixed groups of options
+    private static final class Search {
+        private final Option[][] groups;
+        private final long budget;
+        private final Best best;
+        //minCostFrom[g] / maxValueFrom[g]: cheapest cost / best value of filling groups g and after
+        private final long[] minCostFrom;
+        private final double[] maxValueFrom;
+
+        // EFFECTS: constructs a search for the n best builds over groups within budget
+        private Search(Option[][] groups, long budget, int n) {
+            this.groups = groups;
+            this.budget = budget;
+            this.best = new Best(n);
+            minCostFrom = new long[groups.length + 1];
+            maxValueFrom = new double[groups.length + 1];
+            for (int g = groups.length - 1; g >= 0; g--) {
+                long minCost = Long.MAX_VALUE;
+                double maxValue = Double.NEGATIVE_INFINITY;
+                for (Option o : groups[g]) {
+                    minCost = Math.min(minCost, o.cost);
+                    maxValue = Math.max(maxValue, o.value);
+                }
+                minCostFrom[g] = minCostFrom[g + 1] + minCost;
+                maxValueFrom[g] = maxValueFrom[g + 1] + maxValue;
+            }
+        }
+
+        // EFFECTS: runs the search and returns the best builds found, best first
+        private List<PlannedBuild> run() {
+            if (groups.length == 0) {
+                best.offer(new Candidate(new int[0], 0, 0));
+            } else if (minCostFrom[0] <= budget) {
+                IntStream.range(0, groups[0].length).parallel().forEach(i -> {
+                    int[] choice = new int[groups.length];
+                    Option o = groups[0][i];
+                    choice[0] = i;
+                    if (o.cost + minCostFrom[1] <= budget) {
+                        search(1, o.cost, o.value, choice);
+                    }
+                });
+            }
+            List<PlannedBuild> result = new ArrayList<>();
+            for (Candidate c : best.sorted()) {
+                result.add(toPlannedBuild(c));
+            }
+            return result;
+        }
+
+        // MODIFIES: choice
+        // EFFECTS:  searches every completion of choice[0..g) (costing cost and scoring value) and
+        //           offers the complete ones that can still be among the best
+        private void search(int g, long cost, double value, int[] choice) {
+            if (g == groups.length) {
+                best.offer(new Candidate(choice.clone(), cost, value));
+                return;
+            }
+            Option[] options = groups[g];
+            for (int i = 0; i < options.length; i++) {
+                Option o = options[i];
+                double bound = value + o.value + maxValueFrom[g + 1];
+                if (best.outOfReach(bound)) {
+                    break;
+                }
+                long minCost = cost + o.cost + minCostFrom[g + 1];
+                if (minCost > budget || !best.canBeat(bound, minCost)) {
+                    continue;
+                }
+                choice[g] = i;
+                search(g + 1, cost + o.cost, value + o.value, choice);
+            }
+        }
+
+        // EFFECTS: returns the planned build of c, with its parts in category order
+        private PlannedBuild toPlannedBuild(Candidate c) {
+            List<Part> parts = new ArrayList<>();
+            for (int g = 0; g < groups.length; g++) {
+                parts.addAll(Arrays.asList(groups[g][c.choice[g]].parts));
+            }
+            parts.sort(Comparator.comparingInt(p -> p.getCategory().ordinal()));
+            return new PlannedBuild(parts, c.cost, c.value);
+        }
+    }
+
+    // EFFECTS: returns, for every wheel, the (wheel, tire, suspension) choices that pass every
+    //          FitmentEngine rule and are not dominated by n other such choices of the same wheel;
+    //          without suspensions in inventory the choices are (wheel, tire) pairs checked with no drop
+    private List<Option> wheelTireOptions(int n, ToDoubleFunction<Part> score) {
+        Option[] tireOptions = singles(tires, score).toArray(new Option[0]);
+        double[] odsMm = new double[tireOptions.length];
+        boolean[] clears = new boolean[tireOptions.length];
+        Option[][] suspensionsFor = new Option[tireOptions.length][];
+
+        Suspension[] byDrop = suspensions.stream()
+                .sorted(Comparator.comparingInt(Suspension::getDropMm))
+                .toArray(Suspension[]::new);
+        Map<Integer, Option[]> prefixes = new ConcurrentHashMap<>();
+        for (int j = 0; j < tireOptions.length; j++) {
+            Tire t = (Tire) tireOptions[j].parts[0];
+            odsMm[j] = FitmentEngine.rollingDiameterMm(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn());
+            clears[j] = FitmentEngine.evaluateDiameter(odsMm[j], 0, referenceOdMm, thresholdPct) == 0;
+            if (clears[j] && byDrop.length > 0) {
+                int k = clearedPrefix(byDrop, odsMm[j]);
+                suspensionsFor[j] = prefixes.computeIfAbsent(k,
+                        key -> prune(singles(Arrays.asList(byDrop).subList(0, key), score), n));
+            }
+        }
+
+        return wheels.parallelStream().flatMap(w -> {
+            List<Option> kept = new ArrayList<>();
+            for (int j = 0; j < tireOptions.length; j++) {
+                Tire t = (Tire) tireOptions[j].parts[0];
+                if (!clears[j] || FitmentEngine.evaluateRim(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(),
+                        t.getRimDiameterIn()) != 0) {
+                    continue;
+                }
+                if (suspensionsFor[j] == null) {
+                    kept.add(new Option(new Part[] {w, t}, score));
+                } else {
+                    for (Option s : suspensionsFor[j]) {
+                        kept.add(new Option(new Part[] {w, t, s.parts[0]}, score));
+                    }
+                }
+            }
+            return Arrays.stream(prune(kept, n));
+        }).collect(Collectors.toList());
+    }
+
+    // REQUIRES: byDrop is sorted by drop, lowest first
+    // EFFECTS:  returns how many of the suspensions in byDrop pass the clearance rule with a tire of
+    //           rolling diameter odMm; the gap lost only grows with the drop, so they are a prefix
+    private int clearedPrefix(Suspension[] byDrop, double odMm) {
+        int lo = 0;
+        int hi = byDrop.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (FitmentEngine.evaluateDiameter(odMm, byDrop[mid].getDropMm(), referenceOdMm, thresholdPct) == 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // EFFECTS: returns one single-part option per part
+    private static List<Option> singles(List<? extends Part> parts, ToDoubleFunction<Part> score) {
+        return parts.stream().map(p -> new Option(new Part[] {p}, score)).collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns the options not dominated by n others (costing no more and scoring no less),
+    //          best value first, then cheapest, then by part names
+    private static Option[] prune(List<Option> options, int n) {
+        List<Option> sorted = new ArrayList<>(options);
+        sorted.sort(CHEAPEST_FIRST);
+        List<Option> kept = new ArrayList<>();
+        PriorityQueue<Double> topValues = new PriorityQueue<>();
+        for (Option o : sorted) {
+            if (topValues.size() < n || topValues.peek() < o.value) {
+                kept.add(o);
+            }
+            topValues.add(o.value);
+            if (topValues.size() > n) {
+                topValues.poll();
+            }
+        }
+        kept.sort(HIGHEST_VALUE_FIRST);
+        return kept.toArray(new Option[0]);
+    }
+}
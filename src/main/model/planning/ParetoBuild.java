@@ -0,0 +1,47 @@
+package model.planning;
+
+import model.Part;
+
+import java.util.List;
+
+/**
+ * Represents one build on a Pareto frontier, with the horsepower of its engine and the drop of its
+ * suspension. The score of the build is its horsepower.
+ * This class is immutable.
+ */
+public class ParetoBuild extends PlannedBuild {
+
+    private final int horsepower;
+    private final int dropMm;
+
+    // REQUIRES: parts != null, at most one part per category
+    // EFFECTS:  constructs a frontier build of the given parts, total cost, horsepower and drop
+    public ParetoBuild(List<Part> parts, long totalCost, int horsepower, int dropMm) {
+        super(parts, totalCost, horsepower);
+        this.horsepower = horsepower;
+        this.dropMm = dropMm;
+    }
+
+    // EFFECTS: returns the horsepower of the engine of this build, or 0 if it has none
+    public int getHorsepower() {
+        return horsepower;
+    }
+
+    // EFFECTS: returns the drop in mm of the suspension of this build, or 0 if it has none
+    public int getDropMm() {
+        return dropMm;
+    }
+
+    // EFFECTS: returns the part names, total cost, horsepower and drop of this build
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Part p : getParts()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(p.getName());
+        }
+        return "[" + sb + "] cost " + getTotalCost() + ", " + horsepower + " hp, drop " + dropMm + " mm";
+    }
+}
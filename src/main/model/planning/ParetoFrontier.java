@@ -0,0 +1,470 @@
+package model.planning;
+
+import model.Build;
+import model.Engine;
+import model.Part;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import model.fitment.FitmentEngine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps the Pareto frontier of the complete builds of an inventory trading off total cost (lower is
+ * better), engine horsepower (higher is better) and suspension drop (more is better, for a lower
+ * stance). A build is on the frontier when no other build is at least as good on all three and
+ * better on one. As in BuildOptimizer, a complete build has one part from every category with parts
+ * in inventory, and a wheel, tire and suspension that pass every FitmentEngine rule together.
+ *
+ * The frontier is never computed over every combination of parts. Each category is pruned on its
+ * own first: only the cost/horsepower skyline of the engines can appear on the frontier, and every
+ * category other than engine, suspension, wheel and tire only affects cost, so only its cheapest
+ * part is kept. Wheels and tires are joined on rim diameter, and only the fitting pairs on the
+ * skyline of cost against rolling diameter growth are kept: the clearance rule tightens with both
+ * the drop and the growth, so the cheapest pair that clears a drop is always on that skyline. Each
+ * suspension is then costed together with the cheapest pair that clears its drop, and the frontier
+ * is the skyline of the engine skyline crossed with the cost/drop skyline of the suspensions.
+ *
+ * Adding a part updates the frontier in place: a part that does not enter its category's skyline
+ * leaves the frontier unchanged, a cheaper cost-only part only lowers every total cost, and a new
+ * engine (or suspension) is only paired with the suspensions (or engines) of the other skyline. A
+ * wheel or tire that changes the pair skyline re-costs the suspensions and rebuilds the frontier.
+ * Removing parts is not supported; construct a new frontier instead.
+ *
+ * Builds that tie on all three are ordered by part names and only the first is kept, so the
+ * frontier does not depend on the order parts are added in.
+ */
+public class ParetoFrontier {
+
+    // Represents the wheel and tire of a build (or just the one of them stocked, or neither) with
+    // the gap its tire loses to rolling diameter growth
+    private static final class Pick {
+        private final Part[] parts;
+        private final long cost;
+        private final double odMm;
+        private final double growthMm;
+        private final String key;
+
+        // EFFECTS: constructs a pick of the given parts, whose tire (if any) has a rolling diameter
+        //          of odMm (NaN without a tire) and loses growthMm of gap
+        private Pick(Part[] parts, double odMm, double growthMm) {
+            this.parts = parts;
+            long c = 0;
+            StringBuilder sb = new StringBuilder();
+            for (Part p : parts) {
+                c += p.getCost();
+                sb.append(p.getName()).append('\u0000');
+            }
+            this.cost = c;
+            this.odMm = odMm;
+            this.growthMm = growthMm;
+            this.key = sb.toString();
+        }
+
+        // EFFECTS: returns true if this pick costs no more and loses no more gap than other, and
+        //          either beats it on one or comes first by part names
+        private boolean beats(Pick other) {
+            if (cost > other.cost || growthMm > other.growthMm) {
+                return false;
+            }
+            return cost < other.cost || growthMm < other.growthMm || key.compareTo(other.key) < 0;
+        }
+    }
+
+    // Represents a suspension (or none) costed with the cheapest pick that clears its drop
+    private static final class Stance {
+        private final Suspension suspension;
+        private final Pick pick;
+        private final long cost;
+        private final int dropMm;
+
+        // EFFECTS: constructs a stance of the given suspension, which may be null, and pick
+        private Stance(Suspension suspension, Pick pick) {
+            this.suspension = suspension;
+            this.pick = pick;
+            this.cost = costOf(suspension) + pick.cost;
+            this.dropMm = (suspension == null) ? 0 : suspension.getDropMm();
+        }
+
+        // EFFECTS: returns true if this stance costs no more and drops no less than other, and
+        //          either beats it on one or comes first by suspension name
+        private boolean beats(Stance other) {
+            if (cost > other.cost || dropMm < other.dropMm) {
+                return false;
+            }
+            return cost < other.cost || dropMm > other.dropMm
+                    || nameOf(suspension).compareTo(nameOf(other.suspension)) < 0;
+        }
+    }
+
+    // Represents a frontier point before the cost of the cost-only parts is added
+    private static final class Point {
+        private final Engine engine;
+        private final Stance stance;
+        private final long cost;
+        private final int horsepower;
+        private final int dropMm;
+        private final String key;
+
+        // EFFECTS: constructs a point of the given engine, which may be null, and stance
+        private Point(Engine engine, Stance stance) {
+            this.engine = engine;
+            this.stance = stance;
+            this.cost = costOf(engine) + stance.cost;
+            this.horsepower = (engine == null) ? 0 : engine.getHorsepower();
+            this.dropMm = stance.dropMm;
+            this.key = nameOf(engine) + "\u0000" + nameOf(stance.suspension);
+        }
+
+        // EFFECTS: returns true if this point is at least as good as other on every objective and
+        //          either better on one or first by part names
+        private boolean beats(Point other) {
+            if (cost > other.cost || horsepower < other.horsepower || dropMm < other.dropMm) {
+                return false;
+            }
+            return cost < other.cost || horsepower > other.horsepower || dropMm > other.dropMm
+                    || key.compareTo(other.key) < 0;
+        }
+    }
+
+    // orders parts by cost (lowest first), then name
+    private static final Comparator<Part> CHEAPEST_FIRST =
+            Comparator.comparingInt(Part::getCost).thenComparing(Part::getName);
+
+    private final double referenceOdMm;
+    private final double thresholdPct;
+    // cost/horsepower skyline, cheapest first
+    private final List<Engine> engines;
+    // every suspension, and the cost/drop skyline of them costed with their picks
+    private final List<Suspension> suspensions;
+    private final List<Stance> stances;
+    // cheapest part of every cost-only category other than wheel and tire
+    private final Map<PartCategory, Part> cheapest;
+    // wheels and tires by rim diameter in hundredths of an inch
+    private final Map<Long, List<Wheel>> wheelsByRim;
+    private final Map<Long, List<Tire>> tiresByRim;
+    // cost/growth skyline of the fitting wheel and tire picks, cheapest first
+    private final List<Pick> picks;
+    private final List<Point> points;
+
+    // REQUIRES: build != null
+    // EFFECTS:  constructs the frontier of build's inventory, checking fitment against build's
+    //           reference rolling diameter and threshold
+    public ParetoFrontier(Build build) {
+        referenceOdMm = (build.getReferenceOdMm() == null) ? Double.NaN : build.getReferenceOdMm();
+        thresholdPct = build.getRollingDeltaThresholdPct();
+        engines = new ArrayList<>();
+        suspensions = new ArrayList<>();
+        stances = new ArrayList<>();
+        cheapest = new EnumMap<>(PartCategory.class);
+        wheelsByRim = new HashMap<>();
+        tiresByRim = new HashMap<>();
+        picks = new ArrayList<>();
+        points = new ArrayList<>();
+        for (Part p : build.partsView()) {
+            prune(p);
+        }
+        rebuildPicks();
+        recompute();
+    }
+
+    // REQUIRES: p != null and not already in this frontier's inventory
+    // MODIFIES: this
+    // EFFECTS:  updates the frontier as if p had been added to the inventory; parts without a
+    //           standard category are ignored
+    public void add(Part p) {
+        PartCategory category = p.getCategory();
+        boolean first = (category == PartCategory.ENGINE && engines.isEmpty())
+                || (category == PartCategory.SUSPENSION && suspensions.isEmpty());
+        boolean firstOfPick = (category == PartCategory.WHEEL && wheelsByRim.isEmpty())
+                || (category == PartCategory.TIRE && tiresByRim.isEmpty());
+        if (!prune(p)) {
+            return;
+        }
+        if (firstOfPick) {
+            // the picks were made without this category, so every one of them changes
+            rebuildPicks();
+            recompute();
+        } else if (category == PartCategory.WHEEL || category == PartCategory.TIRE) {
+            if (addPicks(p)) {
+                recompute();
+            }
+        } else if (first) {
+            // the points were built without this category, so every one of them changes
+            recompute();
+        } else if (category == PartCategory.ENGINE) {
+            for (Stance s : stances) {
+                offer(new Point((Engine) p, s));
+            }
+        } else if (category == PartCategory.SUSPENSION) {
+            Stance s = stanceOf((Suspension) p);
+            if (s != null && insertStance(s)) {
+                for (Engine e : engineOptions()) {
+                    offer(new Point(e, s));
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of builds on the frontier
+    public int size() {
+        return points.size();
+    }
+
+    // EFFECTS: returns the builds on the frontier, cheapest first, then most horsepower, then most drop;
+    //          returns an empty list if no complete build exists
+    public List<ParetoBuild> getBuilds() {
+        List<Part> fixed = new ArrayList<>(cheapest.values());
+        long fixedCost = fixed.stream().mapToLong(Part::getCost).sum();
+
+        List<Point> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparingLong((Point pt) -> pt.cost)
+                .thenComparing(Comparator.comparingInt((Point pt) -> pt.horsepower).reversed())
+                .thenComparing(Comparator.comparingInt((Point pt) -> pt.dropMm).reversed())
+                .thenComparing(pt -> pt.key));
+        List<ParetoBuild> result = new ArrayList<>();
+        for (Point pt : sorted) {
+            List<Part> parts = new ArrayList<>(fixed);
+            parts.addAll(List.of(pt.stance.pick.parts));
+            if (pt.engine != null) {
+                parts.add(pt.engine);
+            }
+            if (pt.stance.suspension != null) {
+                parts.add(pt.stance.suspension);
+            }
+            parts.sort(Comparator.comparingInt(p -> p.getCategory().ordinal()));
+            result.add(new ParetoBuild(parts, fixedCost + pt.cost, pt.horsepower, pt.dropMm));
+        }
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  records p in the per-category pruning of its category and returns true if the
+    //           frontier may have changed, false if p is dominated within its category
+    private boolean prune(Part p) {
+        PartCategory category = p.getCategory();
+        if (category == null) {
+            return false;
+        }
+        switch (category) {
+            case ENGINE: return insertSkyline(engines, (Engine) p, Engine::getHorsepower);
+            case SUSPENSION: return suspensions.add((Suspension) p);
+            case WHEEL:
+                return wheelsByRim.computeIfAbsent(rimKey(((Wheel) p).getDiameterIn()), k -> new ArrayList<>())
+                        .add((Wheel) p);
+            case TIRE:
+                return tiresByRim.computeIfAbsent(rimKey(((Tire) p).getRimDiameterIn()), k -> new ArrayList<>())
+                        .add((Tire) p);
+            default:
+                Part current = cheapest.get(category);
+                if (current != null && CHEAPEST_FIRST.compare(current, p) <= 0) {
+                    return false;
+                }
+                cheapest.put(category, p);
+                return true;
+        }
+    }
+
+    // MODIFIES: skyline
+    // EFFECTS:  adds p to the cost/value skyline unless a part already in it costs no more, has no
+    //           less value and either beats p on one or comes first by name; drops the parts p beats.
+    //           Returns true if p was added
+    private static <P extends Part> boolean insertSkyline(List<P> skyline, P p, ToIntFunction<P> value) {
+        int v = value.applyAsInt(p);
+        for (P q : skyline) {
+            if (beats(q.getCost(), value.applyAsInt(q), q.getName(), p.getCost(), v, p.getName())) {
+                return false;
+            }
+        }
+        skyline.removeIf(q -> beats(p.getCost(), v, p.getName(), q.getCost(), value.applyAsInt(q), q.getName()));
+        skyline.add(p);
+        skyline.sort(CHEAPEST_FIRST);
+        return true;
+    }
+
+    // EFFECTS: returns true if a part of costA, valueA and nameA beats one of costB, valueB and nameB
+    private static boolean beats(int costA, int valueA, String nameA, int costB, int valueB, String nameB) {
+        if (costA > costB || valueA < valueB) {
+            return false;
+        }
+        return costA < costB || valueA > valueB || nameA.compareTo(nameB) < 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  rebuilds the pick skyline from every wheel and tire
+    private void rebuildPicks() {
+        picks.clear();
+        if (wheelsByRim.isEmpty() && tiresByRim.isEmpty()) {
+            picks.add(new Pick(new Part[0], Double.NaN, 0));
+            return;
+        }
+        for (List<Wheel> ws : wheelsByRim.values()) {
+            for (Wheel w : ws) {
+                addPicks(w);
+            }
+        }
+        if (wheelsByRim.isEmpty()) {
+            for (List<Tire> ts : tiresByRim.values()) {
+                for (Tire t : ts) {
+                    addPicks(t);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  offers the picks made with p (p joined with every fitting part of the other category
+    //           on about the same rim diameter, or p alone if the other category is not stocked) to
+    //           the pick skyline; returns true if the skyline changed
+    private boolean addPicks(Part p) {
+        if (p instanceof Wheel && tiresByRim.isEmpty() || p instanceof Tire && wheelsByRim.isEmpty()) {
+            return insertPick(new Pick(new Part[] {p}, Double.NaN, 0));
+        }
+        boolean changed = false;
+        double rimIn = (p instanceof Wheel) ? ((Wheel) p).getDiameterIn() : ((Tire) p).getRimDiameterIn();
+        long key = rimKey(rimIn);
+        // a diameter within the rim match tolerance can round to a neighbouring key
+        for (long k = key - 1; k <= key + 1; k++) {
+            if (p instanceof Wheel) {
+                for (Tire t : tiresByRim.getOrDefault(k, List.of())) {
+                    changed |= offerPair((Wheel) p, t);
+                }
+            } else {
+                for (Wheel w : wheelsByRim.getOrDefault(k, List.of())) {
+                    changed |= offerPair(w, (Tire) p);
+                }
+            }
+        }
+        return changed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  offers the pick of w and t to the pick skyline if they fit with no drop; returns true
+    //           if the skyline changed
+    private boolean offerPair(Wheel w, Tire t) {
+        if (FitmentEngine.evaluateRim(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(), t.getRimDiameterIn()) != 0) {
+            return false;
+        }
+        double odMm = FitmentEngine.rollingDiameterMm(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn());
+        if (FitmentEngine.evaluateDiameter(odMm, 0, referenceOdMm, thresholdPct) != 0) {
+            return false;
+        }
+        return insertPick(new Pick(new Part[] {w, t}, odMm, FitmentEngine.gapLossMm(0, odMm, referenceOdMm)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  adds pick to the pick skyline unless one there beats it, dropping the ones it beats;
+    //           returns true if it was added
+    private boolean insertPick(Pick pick) {
+        for (Pick q : picks) {
+            if (q.beats(pick)) {
+                return false;
+            }
+        }
+        picks.removeIf(pick::beats);
+        picks.add(pick);
+        picks.sort(Comparator.comparingLong((Pick q) -> q.cost).thenComparing(q -> q.key));
+        return true;
+    }
+
+    // EFFECTS: returns the cheapest pick that clears a drop of dropMm, or null if there is none
+    private Pick pickFor(int dropMm) {
+        for (Pick pick : picks) {
+            if (Double.isNaN(pick.odMm)
+                    || FitmentEngine.evaluateDiameter(pick.odMm, dropMm, referenceOdMm, thresholdPct) == 0) {
+                return pick;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the stance of s (which may be null) with its cheapest pick, or null if no pick
+    //          clears its drop
+    private Stance stanceOf(Suspension s) {
+        Pick pick = pickFor((s == null) ? 0 : s.getDropMm());
+        return (pick == null) ? null : new Stance(s, pick);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  adds s to the stance skyline unless one there beats it, dropping the ones it beats;
+    //           returns true if it was added
+    private boolean insertStance(Stance s) {
+        for (Stance q : stances) {
+            if (q.beats(s)) {
+                return false;
+            }
+        }
+        stances.removeIf(s::beats);
+        stances.add(s);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  rebuilds the stance skyline and the points from the engines, suspensions and picks
+    private void recompute() {
+        stances.clear();
+        if (suspensions.isEmpty()) {
+            Stance none = stanceOf(null);
+            if (none != null) {
+                stances.add(none);
+            }
+        }
+        for (Suspension s : suspensions) {
+            Stance stance = stanceOf(s);
+            if (stance != null) {
+                insertStance(stance);
+            }
+        }
+        points.clear();
+        for (Engine e : engineOptions()) {
+            for (Stance s : stances) {
+                offer(new Point(e, s));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  adds candidate to the points unless one of them beats it, dropping the points it beats
+    private void offer(Point candidate) {
+        for (Point pt : points) {
+            if (pt.beats(candidate)) {
+                return;
+            }
+        }
+        points.removeIf(candidate::beats);
+        points.add(candidate);
+    }
+
+    // EFFECTS: returns the engine skyline, or a single null (no engine) when there are no engines
+    private List<Engine> engineOptions() {
+        if (!engines.isEmpty()) {
+            return engines;
+        }
+        List<Engine> none = new ArrayList<>();
+        none.add(null);
+        return none;
+    }
+
+    // EFFECTS: returns the hash join key of a rim diameter: the diameter in hundredths of an inch
+    private static long rimKey(double diameterIn) {
+        return Math.round(diameterIn * 100);
+    }
+
+    // EFFECTS: returns the cost of p, or 0 if p is null
+    private static long costOf(Part p) {
+        return (p == null) ? 0 : p.getCost();
+    }
+
+    // EFFECTS: returns the name of p, or "" if p is null
+    private static String nameOf(Part p) {
+        return (p == null) ? "" : p.getName();
+    }
+}
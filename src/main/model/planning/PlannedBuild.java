@@ -0,0 +1,79 @@
+package model.planning;
+
+import model.Build;
+import model.BuildEdit;
+import model.Part;
+import model.PartCategory;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents one complete build proposed by a planner: one part per category, with its total
+ * cost and the score it was chosen for.
+ * This class is immutable.
+ */
+public class PlannedBuild {
+
+    private final List<Part> parts;
+    private final long totalCost;
+    private final double score;
+
+    // REQUIRES: parts != null, at most one part per category
+    // EFFECTS:  constructs a planned build of the given parts, total cost and score
+    public PlannedBuild(List<Part> parts, long totalCost, double score) {
+        this.parts = Collections.unmodifiableList(parts);
+        this.totalCost = totalCost;
+        this.score = score;
+    }
+
+    // EFFECTS: returns the parts of this build, in category order
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    // EFFECTS: returns the part of this build in the given category, or null if there is none
+    public Part getPart(PartCategory category) {
+        for (Part p : parts) {
+            if (p.getCategory() == category) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the sum of the costs of the parts of this build
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    // EFFECTS: returns the score this build was chosen for
+    public double getScore() {
+        return score;
+    }
+
+    // REQUIRES: build != null
+    // MODIFIES: build
+    // EFFECTS:  makes the parts of this build active in build through replaceActivePart, all in one
+    //           BuildEdit; returns false (changing nothing) if any part is no longer in build
+    public boolean applyTo(Build build) {
+        BuildEdit edit = build.edit();
+        for (Part p : parts) {
+            edit.replaceActive(p.getCategory(), p.getName());
+        }
+        return edit.commit();
+    }
+
+    // EFFECTS: returns the part names, total cost and score of this build
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Part p : parts) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(p.getName());
+        }
+        return "[" + sb + "] cost " + totalCost + ", score " + score;
+    }
+}
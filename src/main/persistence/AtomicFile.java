@@ -0,0 +1,166 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Represents one save of a file that either completely replaces the target or leaves it alone.
+// The data goes to a temporary file next to the target through a FileChannel; commit forces it to
+// disk (depending on the durability) and renames it over the target in one atomic step, and abort
+// or close without commit deletes it. The temporary file is created with the default permissions,
+// or with the target's permissions if it already exists, so a save does not change them.
+final class AtomicFile implements Closeable {
+    private final Path target;
+    private final Durability durability;
+    private final Path temp;
+    private final FileChannel channel;
+    private boolean done;
+
+    // REQUIRES: destination and durability != null
+    // EFFECTS: starts a save of destination by creating a temporary file beside it; throws
+    //          FileNotFoundException if destination is not a valid path or its directory cannot be
+    //          written
+    AtomicFile(String destination, Durability durability) throws FileNotFoundException {
+        this.durability = durability;
+        try {
+            target = Paths.get(destination).toAbsolutePath();
+            temp = createTemp(target);
+        } catch (InvalidPathException | IOException e) {
+            throw new FileNotFoundException("Cannot write " + destination + ": " + e.getMessage());
+        }
+        try {
+            copyPermissions(target, temp);
+            channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            deleteTemp();
+            throw new FileNotFoundException("Cannot write " + destination + ": " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: creates an empty file with a new name beside target, with the default permissions
+    //          for new files, and returns its path
+    private static Path createTemp(Path target) throws IOException {
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+            Path temp = target.resolveSibling("." + target.getFileName() + "." + suffix + ".tmp");
+            try {
+                Files.newByteChannel(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return temp;
+            } catch (FileAlreadyExistsException e) {
+                // another save picked the same name; try another
+            }
+        }
+    }
+
+    // EFFECTS: gives temp the POSIX permissions of target if target exists and the file system has them
+    private static void copyPermissions(Path target, Path temp) throws IOException {
+        if (Files.exists(target)
+                && target.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+    }
+
+    // EFFECTS: returns a stream that writes to the temporary file; closing it does not commit
+    OutputStream stream() {
+        OutputStream out = Channels.newOutputStream(channel);
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+        };
+    }
+
+    // EFFECTS: returns true if the save has been neither committed nor aborted
+    boolean isOpen() {
+        return !done;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the temporary file to disk if durability is FSYNC, then renames it over the
+    //          target; throws IOException (after deleting the temporary file) if any step fails, or
+    //          IllegalStateException if the save has already been committed or aborted
+    void commit() throws IOException {
+        if (done) {
+            throw new IllegalStateException("Save already finished");
+        }
+        try {
+            if (durability == Durability.FSYNC) {
+                channel.force(true);
+            }
+            channel.close();
+            move();
+            done = true;
+        } finally {
+            if (!done) {
+                abort();
+            }
+        }
+        if (durability == Durability.FSYNC) {
+            forceDirectory();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards the save, deleting the temporary file and leaving the target unchanged
+    void abort() {
+        done = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the file is deleted below, so nothing written to it matters
+        }
+        deleteTemp();
+    }
+
+    // EFFECTS: deletes the temporary file if it is still there
+    private void deleteTemp() {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // a leftover temporary file never replaces the target
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: aborts the save unless it has been committed
+    @Override
+    public void close() {
+        if (!done) {
+            abort();
+        }
+    }
+
+    // EFFECTS: renames the temporary file over the target in one atomic step; throws IOException
+    //          (AtomicMoveNotSupportedException if the file system cannot rename atomically) rather
+    //          than falling back to a copy that readers could see half done
+    private void move() throws IOException {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // EFFECTS: forces the target's directory to disk so the rename survives a crash; file systems
+    //          that cannot open a directory this way are skipped
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // not supported here (e.g. on Windows); the file itself is already on disk
+        }
+    }
+}
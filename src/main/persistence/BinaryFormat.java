@@ -0,0 +1,223 @@
+package persistence;
+
+import model.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// The layout of a binary AutoLink snapshot, shared by BinaryWriter and BinaryReader:
+//
+//   header        int MAGIC, short VERSION
+//   string table  int count, then per string: int byte length, UTF-8 bytes
+//   build name    int string index
+//   build parts   part list
+//   inventory     part list
+//   state         (version 2 on) long BuildJournal generation, byte active count, then per active
+//                 part: category byte, int name index; then a reference flag byte and, if set,
+//                 the double reference rolling diameter
+//
+// A part list is an int part count, one category byte per part in list order, a byte section
+// count, then one section per category present: a category byte, an int record count and that
+// many fixed-width records. Category bytes are the fixed codes of code(PartCategory), not enum
+// ordinals, so reordering PartCategory does not change the format. A record holds the fields of
+// its part in constructor order: strings as int string table indexes, whole numbers as ints,
+// numbers as doubles and flags as bytes.
+final class BinaryFormat {
+    static final int MAGIC = 0x414C4E4B;
+    static final short VERSION = 2;
+    // oldest version BinaryReader still reads; version 1 snapshots have no state section
+    static final short MIN_VERSION = 1;
+
+    private BinaryFormat() {
+    }
+
+    // EFFECTS: returns the byte that stands for category on disk; these codes must never change, and
+    //          a new category takes the next unused code
+    static int code(PartCategory category) {
+        switch (category) {
+            case WHEEL: return 0;
+            case TIRE: return 1;
+            case SUSPENSION: return 2;
+            case EXHAUST: return 3;
+            case ENGINE: return 4;
+            case TRANSMISSION: return 5;
+            case BUMPER: return 6;
+            case SIDE_SKIRTS: return 7;
+            case DIFFUSER: return 8;
+            case SPOILER: return 9;
+            case LIGHTS: return 10;
+            default: throw new IllegalArgumentException("No code for category " + category);
+        }
+    }
+
+    // EFFECTS: returns the category whose code is code, or null if there is none
+    static PartCategory category(int code) {
+        for (PartCategory c : PartCategory.values()) {
+            if (code(c) == code) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    // REQUIRES: part has a category
+    // EFFECTS:  returns the string fields of part, which must all be in the string table
+    static List<String> strings(Part part) {
+        switch (part.getCategory()) {
+            case SUSPENSION: return List.of(part.getName(), ((Suspension) part).getType());
+            case EXHAUST: return List.of(part.getName(), ((Exhaust) part).getSpec());
+            case ENGINE: return List.of(part.getName(), ((Engine) part).getType());
+            case TRANSMISSION:
+                Transmission t = (Transmission) part;
+                return List.of(t.getName(), t.getType(), t.getDrive());
+            case BUMPER:
+                Bumper b = (Bumper) part;
+                return List.of(b.getName(), b.getType(), b.getMaterial(), b.getBrand(), b.getStyle());
+            case SIDE_SKIRTS: return List.of(part.getName(), ((SideSkirts) part).getMaterial(),
+                    ((SideSkirts) part).getBrand());
+            case DIFFUSER: return List.of(part.getName(), ((Diffuser) part).getMaterial(),
+                    ((Diffuser) part).getBrand());
+            case SPOILER: return List.of(part.getName(), ((Spoiler) part).getMaterial(),
+                    ((Spoiler) part).getStyle());
+            case LIGHTS:
+                Lights l = (Lights) part;
+                return List.of(l.getName(), l.getType(), l.getBrand(), l.getLightType(), l.getDetail());
+            default: return List.of(part.getName());
+        }
+    }
+
+    // REQUIRES: part has a category; every string of part is in index
+    // EFFECTS:  writes the fixed-width record of part to out
+    static void writeRecord(DataOutput out, Part part, Map<String, Integer> index) throws IOException {
+        out.writeInt(index.get(part.getName()));
+        out.writeInt(part.getCost());
+        switch (part.getCategory()) {
+            case WHEEL:
+                Wheel w = (Wheel) part;
+                out.writeDouble(w.getDiameterIn());
+                out.writeDouble(w.getWidthIn());
+                out.writeInt(w.getOffsetMm());
+                break;
+            case TIRE:
+                Tire t = (Tire) part;
+                out.writeInt(t.getWidthMm());
+                out.writeInt(t.getAspectPercent());
+                out.writeDouble(t.getRimDiameterIn());
+                break;
+            case SUSPENSION:
+                out.writeInt(index.get(((Suspension) part).getType()));
+                out.writeInt(((Suspension) part).getDropMm());
+                break;
+            case ENGINE:
+                Engine e = (Engine) part;
+                out.writeInt(index.get(e.getType()));
+                out.writeInt(e.getHorsepower());
+                out.writeDouble(e.getDisplacement());
+                break;
+            default:
+                writeOtherFields(out, part, index);
+        }
+    }
+
+    // EFFECTS: writes the fields after name and cost of the categories not handled by writeRecord
+    private static void writeOtherFields(DataOutput out, Part part, Map<String, Integer> index)
+            throws IOException {
+        switch (part.getCategory()) {
+            case TRANSMISSION:
+                Transmission t = (Transmission) part;
+                out.writeInt(index.get(t.getType()));
+                out.writeInt(t.getGears());
+                out.writeInt(index.get(t.getDrive()));
+                break;
+            case DIFFUSER:
+                Diffuser d = (Diffuser) part;
+                out.writeInt(index.get(d.getMaterial()));
+                out.writeInt(index.get(d.getBrand()));
+                out.writeBoolean(d.isFunctional());
+                break;
+            case SPOILER:
+                Spoiler s = (Spoiler) part;
+                out.writeInt(index.get(s.getMaterial()));
+                out.writeInt(index.get(s.getStyle()));
+                out.writeDouble(s.getHeightMm());
+                break;
+            default:
+                // the remaining categories have only string fields after the cost
+                List<String> strings = strings(part);
+                for (String value : strings.subList(1, strings.size())) {
+                    out.writeInt(index.get(value));
+                }
+        }
+    }
+
+    // EFFECTS: reads one record of the given category from in, looking strings up in table;
+    //          throws IOException if a string index is out of range or the record is not a valid part
+    static Part readRecord(DataInput in, PartCategory category, String[] table) throws IOException {
+        try {
+            switch (category) {
+                case WHEEL: return new Wheel(string(in, table), in.readInt(), in.readDouble(), in.readDouble(),
+                        in.readInt());
+                case TIRE: return new Tire(string(in, table), in.readInt(), in.readInt(), in.readInt(),
+                        in.readDouble());
+                case SUSPENSION: return new Suspension(string(in, table), in.readInt(), string(in, table),
+                        in.readInt());
+                case EXHAUST: return new Exhaust(string(in, table), in.readInt(), string(in, table));
+                case ENGINE: return new Engine(string(in, table), in.readInt(), string(in, table), in.readInt(),
+                        in.readDouble());
+                case TRANSMISSION: return new Transmission(string(in, table), in.readInt(), string(in, table),
+                        in.readInt(), string(in, table));
+                default: return readOtherRecord(in, category, table);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid " + category.getDisplayName() + " record: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: reads one record of a category not handled by readRecord
+    private static Part readOtherRecord(DataInput in, PartCategory category, String[] table) throws IOException {
+        switch (category) {
+            case BUMPER: return new Bumper(string(in, table), in.readInt(), string(in, table), string(in, table),
+                    string(in, table), string(in, table));
+            case SIDE_SKIRTS: return new SideSkirts(string(in, table), in.readInt(), string(in, table),
+                    string(in, table));
+            case DIFFUSER: return new Diffuser(string(in, table), in.readInt(), string(in, table),
+                    string(in, table), in.readBoolean());
+            case SPOILER: return new Spoiler(string(in, table), in.readInt(), string(in, table),
+                    string(in, table), in.readDouble());
+            default: return new Lights(string(in, table), in.readInt(), string(in, table), string(in, table),
+                    string(in, table), string(in, table));
+        }
+    }
+
+    // EFFECTS: writes s to out as an int byte length and its UTF-8 bytes
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // EFFECTS: reads a string written by writeString; throws IOException if its length is negative
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt data: negative string length");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: reads a string table index from in and returns its string; throws IOException if the
+    //          index is out of range
+    static String string(DataInput in, String[] table) throws IOException {
+        int i = in.readInt();
+        if (i < 0 || i >= table.length) {
+            throw new IOException("String index out of range: " + i);
+        }
+        return table[i];
+    }
+}
@@ -0,0 +1,136 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Represents a reader that reads AutoLink build and inventory data from a binary snapshot file
+// written by BinaryWriter
+public class BinaryReader {
+    // bytes read from the file at a time
+    private static final int BUFFER = 1 << 16;
+
+    private final String source;
+
+    // REQUIRES: source is a valid path to a snapshot file inside ./data directory
+    // MODIFIES: this
+    // EFFECTS: constructs a reader to read from given source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads data from file and returns BuildData object containing active build and
+    //          inventory list; throws IOException if the file cannot be read, is not a snapshot, has
+    //          an unsupported version or is corrupt
+    public BuildData read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Paths.get(source)), BUFFER))) {
+            if (in.readInt() != BinaryFormat.MAGIC) {
+                throw new IOException("Not an AutoLink snapshot: " + source);
+            }
+            short version = in.readShort();
+            if (version < BinaryFormat.MIN_VERSION || version > BinaryFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            String[] table = readStrings(in);
+            Build build = new Build(BinaryFormat.string(in, table));
+            build.addAll(readParts(in, table));
+            List<Part> inventory = readParts(in, table);
+            long generation = (version >= 2) ? readState(in, table, build) : 0;
+            return new BuildData(build, inventory, generation);
+        }
+    }
+
+    // MODIFIES: build
+    // EFFECTS: reads the state section, restoring the active parts and reference rolling diameter of
+    //          build, and returns the journal generation; throws IOException if the section is corrupt
+    private long readState(DataInputStream in, String[] table, Build build) throws IOException {
+        long generation = in.readLong();
+        if (generation < 0) {
+            throw new IOException("Corrupt snapshot: negative generation");
+        }
+        int activeCount = in.readUnsignedByte();
+        for (int i = 0; i < activeCount; i++) {
+            PartCategory category = category(in.readUnsignedByte());
+            if (!build.setActive(category, BinaryFormat.string(in, table))) {
+                throw new IOException("Corrupt snapshot: unknown active " + category.getDisplayName());
+            }
+        }
+        if (in.readBoolean()) {
+            double referenceOdMm = in.readDouble();
+            if (!(referenceOdMm > 0)) {
+                throw new IOException("Corrupt snapshot: invalid reference diameter");
+            }
+            build.setReferenceOdMm(referenceOdMm);
+        }
+        return generation;
+    }
+
+    // EFFECTS: reads the string table
+    private String[] readStrings(DataInputStream in) throws IOException {
+        String[] table = new String[nonNegative(in.readInt())];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = BinaryFormat.readString(in);
+        }
+        return table;
+    }
+
+    // EFFECTS: reads a part list and returns its parts in their original order; throws IOException if
+    //          the sections do not hold exactly the parts the order lists
+    private List<Part> readParts(DataInputStream in, String[] table) throws IOException {
+        byte[] order = new byte[nonNegative(in.readInt())];
+        in.readFully(order);
+        Map<PartCategory, Iterator<Part>> sections = new EnumMap<>(PartCategory.class);
+        int sectionCount = in.readUnsignedByte();
+        for (int s = 0; s < sectionCount; s++) {
+            PartCategory category = category(in.readUnsignedByte());
+            int count = nonNegative(in.readInt());
+            List<Part> records = new ArrayList<>(Math.min(count, order.length));
+            for (int i = 0; i < count; i++) {
+                records.add(BinaryFormat.readRecord(in, category, table));
+            }
+            sections.put(category, records.iterator());
+        }
+
+        List<Part> parts = new ArrayList<>(order.length);
+        for (byte b : order) {
+            Iterator<Part> section = sections.get(category(b & 0xFF));
+            if (section == null || !section.hasNext()) {
+                throw new IOException("Corrupt snapshot: missing part records");
+            }
+            parts.add(section.next());
+        }
+        for (Iterator<Part> section : sections.values()) {
+            if (section.hasNext()) {
+                throw new IOException("Corrupt snapshot: extra part records");
+            }
+        }
+        return parts;
+    }
+
+    // EFFECTS: returns the category with the given code; throws IOException if there is none
+    private PartCategory category(int code) throws IOException {
+        PartCategory category = BinaryFormat.category(code);
+        if (category == null) {
+            throw new IOException("Corrupt snapshot: unknown category " + code);
+        }
+        return category;
+    }
+
+    // EFFECTS: returns count; throws IOException if it is negative
+    private int nonNegative(int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Corrupt snapshot: negative count");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,165 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer that writes AutoLink build and inventory data to a binary snapshot file
+// (see BinaryFormat for the layout). Repeated strings such as brands and materials are stored
+// once in a string table, and each category's parts are written as one section of fixed-width
+// records. Saves are atomic in the same way as JsonWriter's.
+public class BinaryWriter {
+    // bytes buffered before each write to the file
+    private static final int BUFFER = 1 << 16;
+
+    private final String destination;
+    private final Durability durability;
+    private AtomicFile file;
+    private DataOutputStream out;
+    // string table index of each string in the snapshot being written
+    private Map<String, Integer> index;
+
+    // REQUIRES: destination is a valid path inside ./data directory
+    // MODIFIES: this
+    // EFFECTS: constructs a writer to write to given destination file, forcing each save to disk
+    public BinaryWriter(String destination) {
+        this(destination, Durability.FSYNC);
+    }
+
+    // REQUIRES: destination is a valid path inside ./data directory; durability != null
+    // MODIFIES: this
+    // EFFECTS: constructs a writer to write to given destination file with the given durability
+    public BinaryWriter(String destination, Durability durability) {
+        this.destination = destination;
+        this.durability = durability;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a save to destination, writing to a temporary file beside it;
+    //          throws FileNotFoundException if destination file cannot be opened
+    public void open() throws FileNotFoundException {
+        file = new AtomicFile(destination, durability);
+        out = new DataOutputStream(new BufferedOutputStream(file.stream(), BUFFER));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the given BuildData object to file, with the active parts and reference rolling
+    //          diameter of its build; throws IllegalArgumentException if a part is not in one of the
+    //          standard categories, and IOException if an error occurs; either way the save is
+    //          abandoned and destination is left unchanged
+    public void write(BuildData data) throws IOException {
+        Build build = data.getBuild();
+        Map<PartCategory, Part> active = new EnumMap<>(PartCategory.class);
+        for (PartCategory c : PartCategory.values()) {
+            if (build.getActive(c) != null) {
+                active.put(c, build.getActive(c));
+            }
+        }
+        write(build.getName(), build.partsView(), data.getInventoryView(), active, build.getReferenceOdMm(),
+                data.getGeneration());
+    }
+
+    // REQUIRES: every active part is one of buildParts
+    // MODIFIES: this
+    // EFFECTS: writes a snapshot of the given build state to file, abandoning the save on error as
+    //          write(BuildData) does
+    void write(String name, Collection<Part> buildParts, Collection<Part> inventory,
+               Map<PartCategory, Part> active, Double referenceOdMm, long generation) throws IOException {
+        try {
+            writeSnapshot(name, buildParts, inventory);
+            out.writeLong(generation);
+            out.writeByte(active.size());
+            for (Map.Entry<PartCategory, Part> entry : active.entrySet()) {
+                out.writeByte(BinaryFormat.code(entry.getKey()));
+                out.writeInt(index.get(entry.getValue().getName()));
+            }
+            out.writeBoolean(referenceOdMm != null);
+            if (referenceOdMm != null) {
+                out.writeDouble(referenceOdMm);
+            }
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            file.abort();
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes the save, replacing destination with the written file in one atomic step;
+    //          does nothing if the save was abandoned; throws IOException (leaving destination
+    //          unchanged) if the file cannot be written, forced to disk or renamed
+    public void close() throws IOException {
+        if (!file.isOpen()) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header, string table, build name, build parts and inventory
+    private void writeSnapshot(String name, Collection<Part> buildParts, Collection<Part> inventory)
+            throws IOException {
+        index = new LinkedHashMap<>();
+        index.put(name, 0);
+        addStrings(buildParts);
+        addStrings(inventory);
+
+        out.writeInt(BinaryFormat.MAGIC);
+        out.writeShort(BinaryFormat.VERSION);
+        out.writeInt(index.size());
+        for (String s : index.keySet()) {
+            BinaryFormat.writeString(out, s);
+        }
+        out.writeInt(index.get(name));
+        writeParts(buildParts);
+        writeParts(inventory);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives every new string field of parts the next string table index; throws
+    //          IllegalArgumentException if a part is not in one of the standard categories
+    private void addStrings(Collection<Part> parts) {
+        for (Part p : parts) {
+            if (p.getCategory() == null) {
+                throw new IllegalArgumentException("Cannot write uncategorized part: " + p.getName());
+            }
+            for (String s : BinaryFormat.strings(p)) {
+                index.putIfAbsent(s, index.size());
+            }
+        }
+    }
+
+    // EFFECTS: writes parts as a part list: the category of each part in order, then one section of
+    //          records per category
+    private void writeParts(Collection<Part> parts) throws IOException {
+        Map<PartCategory, List<Part>> sections = new EnumMap<>(PartCategory.class);
+        out.writeInt(parts.size());
+        for (Part p : parts) {
+            out.writeByte(BinaryFormat.code(p.getCategory()));
+            sections.computeIfAbsent(p.getCategory(), c -> new ArrayList<>()).add(p);
+        }
+        out.writeByte(sections.size());
+        for (Map.Entry<PartCategory, List<Part>> section : sections.entrySet()) {
+            out.writeByte(BinaryFormat.code(section.getKey()));
+            out.writeInt(section.getValue().size());
+            for (Part p : section.getValue()) {
+                BinaryFormat.writeRecord(out, p, index);
+            }
+        }
+    }
+}
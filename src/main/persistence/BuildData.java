@@ -2,6 +2,10 @@ package persistence;
 
 import model.Build;
 import model.Part;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 // Helper class
@@ -9,14 +13,31 @@ import java.util.List;
 
 public class BuildData {
     private Build build;
-    private List<Part> inventory;
+    private Collection<Part> inventory;
+    private long generation;
 
     // REQUIRES: build and inventory not null
     // MODIFIES: this
-    // EFFECTS: constructs BuildData object with given build and inventory list
-    public BuildData(Build build, List<Part> inventory) {
+    // EFFECTS: constructs BuildData object with given build and inventory; the inventory is not copied,
+    //          so a live view such as Build.partsView() can be passed without allocating
+    public BuildData(Build build, Collection<Part> inventory) {
+        this(build, inventory, 0);
+    }
+
+    // REQUIRES: build and inventory not null; generation >= 0
+    // MODIFIES: this
+    // EFFECTS: constructs BuildData object with given build and inventory, taken at the given
+    //          BuildJournal generation
+    public BuildData(Build build, Collection<Part> inventory, long generation) {
         this.build = build;
         this.inventory = inventory;
+        this.generation = generation;
+    }
+
+    // EFFECTS: returns the BuildJournal generation this data was taken at (0 if it was not written
+    //          through a journal)
+    public long getGeneration() {
+        return generation;
     }
 
     // EFFECTS: returns the active build
@@ -24,8 +45,17 @@ public class BuildData {
         return build;
     }
 
-    // EFFECTS: returns the list of parts representing inventory
+    // EFFECTS: returns the list of parts representing inventory; if the inventory was not given
+    //          as a list, returns a copy of it as a list
     public List<Part> getInventory() {
-        return inventory;
+        if (inventory instanceof List) {
+            return (List<Part>) inventory;
+        }
+        return new ArrayList<>(inventory);
+    }
+
+    // EFFECTS: returns a read-only view of the inventory without copying it
+    public Collection<Part> getInventoryView() {
+        return Collections.unmodifiableCollection(inventory);
     }
 }
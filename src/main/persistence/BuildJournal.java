@@ -0,0 +1,625 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Represents an append-only journal that keeps a Build saved one change at a time.
+//
+// The saved state is a binary snapshot (see BinaryWriter) plus journal files beside it named
+// "<snapshot>.journal.<generation>". Every change to the loaded build (added or removed part, active
+// part set or cleared, reference diameter set) is appended to the current journal as it happens, so
+// a save costs the size of the change rather than the size of the inventory. The changes of one
+// Build mutator call or committed BuildEdit go into a single record, written and (with FSYNC)
+// forced once, so a crash never leaves half of an edit on disk. Loading reads the snapshot and
+// replays the journals of its generation and later, in order.
+//
+// Once the current journal grows past a threshold, compaction starts a new journal of the next
+// generation right away and writes a fresh snapshot of that generation on a background thread;
+// when the snapshot is safely in place the journals it covers are deleted. A crash at any point
+// leaves a snapshot and journals that replay to the last recorded change.
+//
+// Each record is an int length, the record bytes and a CRC-32 of them, so a record torn by a crash
+// at the end of the newest journal is recognized and dropped, and later records are appended after
+// the last whole one. Older journals were complete when the next one started, so a bad record in
+// one of them means the journal is corrupt.
+//
+// Recording never throws from the Build's listener callbacks: a failure to write is kept and
+// reported by the next sync() or close(). After a failed append nothing more is recorded; after a
+// failed compaction changes are still recorded but no further compaction starts until the failure
+// has been reported.
+public class BuildJournal implements BuildListener, Closeable {
+    // journal size in bytes past which compaction starts
+    public static final long DEFAULT_COMPACT_BYTES = 1 << 20;
+
+    private static final int MAGIC = 0x414C4A4E;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8;
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte ACTIVE = 3;
+    private static final byte CLEAR = 4;
+    private static final byte REFERENCE = 5;
+
+    private static final PartCategory[] CATEGORIES = PartCategory.values();
+
+    private final Path snapshot;
+    private final String journalPrefix;
+    private final long compactBytes;
+    private final Durability durability;
+    private final ExecutorService compactor;
+
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+
+    private Build build;
+    private FileChannel channel;
+    private long generation;
+    private long journalBytes;
+    private Future<?> compaction;
+    private IOException failure;
+    private boolean appendFailed;
+
+    // REQUIRES: snapshotPath is a valid path inside ./data directory
+    // EFFECTS: constructs a journal saving to the snapshot at snapshotPath and the journals beside
+    //          it, compacting past DEFAULT_COMPACT_BYTES and forcing every change to disk
+    public BuildJournal(String snapshotPath) {
+        this(snapshotPath, DEFAULT_COMPACT_BYTES, Durability.FSYNC);
+    }
+
+    // REQUIRES: snapshotPath is a valid path inside ./data directory; compactBytes > 0;
+    //           durability != null
+    // EFFECTS: constructs a journal saving to the snapshot at snapshotPath and the journals beside
+    //          it, compacting once the current journal is past compactBytes, with the given
+    //          durability for both the journal and the snapshots
+    public BuildJournal(String snapshotPath, long compactBytes, Durability durability) {
+        if (compactBytes <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be greater than 0");
+        }
+        this.snapshot = Paths.get(snapshotPath).toAbsolutePath();
+        this.journalPrefix = snapshot.getFileName() + ".journal.";
+        this.compactBytes = compactBytes;
+        this.durability = durability;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // EFFECTS: returns true if a snapshot or a journal has been saved at this journal's path; throws
+    //          IOException if the directory cannot be listed
+    public boolean exists() throws IOException {
+        return Files.exists(snapshot) || !journalGenerations().isEmpty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the snapshot (or starts an empty build if there is none), replays the journals
+    //          on top of it, starts recording every later change to the returned build and returns
+    //          it; throws IOException if the files cannot be read, are corrupt or a journal
+    //          generation is missing, and IllegalStateException if this journal is already loaded
+    public Build load() throws IOException {
+        if (build != null) {
+            throw new IllegalStateException("Journal already loaded");
+        }
+        BuildData data = Files.exists(snapshot) ? new BinaryReader(snapshot.toString()).read() : null;
+        Build loaded = (data == null) ? new Build() : data.getBuild();
+        long snapshotGeneration = (data == null) ? 0 : data.getGeneration();
+
+        List<Long> generations = journalGenerations();
+        long newest = generations.isEmpty() ? -1 : generations.get(generations.size() - 1);
+        long next = snapshotGeneration;
+        long validEnd = 0;
+        for (long g : generations) {
+            if (g < snapshotGeneration) {
+                Files.deleteIfExists(journal(g));
+            } else if (g != next) {
+                throw new IOException("Missing journal generation " + next);
+            } else {
+                validEnd = replay(g, loaded, g == newest);
+                next++;
+            }
+        }
+        generation = (next == snapshotGeneration) ? snapshotGeneration : next - 1;
+        channel = FileChannel.open(journal(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validEnd < HEADER_BYTES) {
+            channel.truncate(0);
+            writeHeader();
+        } else {
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            journalBytes = validEnd;
+        }
+        build = loaded;
+        build.addListener(this);
+        return build;
+    }
+
+    // REQUIRES: every part of b is in one of the standard categories
+    // MODIFIES: this, b
+    // EFFECTS: replaces whatever was saved at this journal's path with b: writes a snapshot of b,
+    //          deletes the journals it replaces and starts recording every later change to b;
+    //          throws IOException if the files cannot be written, and IllegalStateException if this
+    //          journal is already loaded
+    public void save(Build b) throws IOException {
+        if (build != null) {
+            throw new IllegalStateException("Journal already loaded");
+        }
+        long g = 0;
+        for (long j : journalGenerations()) {
+            g = Math.max(g, j + 1);
+        }
+        writeSnapshot(b.getName(), b.partsView(), activeParts(b), b.getReferenceOdMm(), g);
+        generation = g;
+        channel = FileChannel.open(journal(generation), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writeHeader();
+        build = b;
+        build.addListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a compaction now: later changes go to a new journal of the next generation
+    //          while a snapshot of the build as it is now is written in the background; waits for an
+    //          earlier compaction to finish first (keeping its failure for sync() or close()).
+    //          Returns the background work, which fails with IOException if the snapshot cannot be
+    //          written (the journals are then kept, so nothing is lost). Throws IOException if a
+    //          change could not be recorded or the new journal cannot be started, and
+    //          IllegalStateException if the journal is not loaded
+    public Future<?> compact() throws IOException {
+        if (build == null) {
+            throw new IllegalStateException("Journal not loaded");
+        }
+        flush();
+        if (appendFailed) {
+            throw failure;
+        }
+        awaitCompaction();
+        String name = build.getName();
+        List<Part> parts = new ArrayList<>(build.partsView());
+        Map<PartCategory, Part> active = activeParts(build);
+        Double referenceOdMm = build.getReferenceOdMm();
+
+        long snapshotGeneration = generation + 1;
+        try {
+            closeChannel();
+            channel = FileChannel.open(journal(snapshotGeneration), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            generation = snapshotGeneration;
+            writeHeader();
+        } catch (IOException e) {
+            failAppend(e);
+            throw e;
+        }
+
+        compaction = compactor.submit(() -> {
+            writeSnapshot(name, parts, active, referenceOdMm, snapshotGeneration);
+            return null;
+        });
+        return compaction;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every recorded change to the journal, forces it to disk whatever the
+    //          durability and waits for a running compaction; throws the IOException of any append
+    //          or compaction that failed since the last sync, and IllegalStateException if the
+    //          journal is not loaded. After a failed append every later sync fails too, since
+    //          changes are no longer recorded
+    public void sync() throws IOException {
+        if (build == null) {
+            throw new IllegalStateException("Journal not loaded");
+        }
+        flush();
+        awaitCompaction();
+        if (!appendFailed) {
+            try {
+                channel.force(true);
+            } catch (IOException e) {
+                failAppend(e);
+            }
+        }
+        reportFailure();
+    }
+
+    // EFFECTS: returns the generation of the current journal
+    public long getGeneration() {
+        return generation;
+    }
+
+    // EFFECTS: returns the size in bytes of the current journal
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every recorded change, stops recording changes to the loaded build, waits for a
+    //          running compaction and closes the journal; throws the IOException of any append,
+    //          compaction or close that failed and has not been reported by sync
+    @Override
+    public void close() throws IOException {
+        if (build != null) {
+            flush();
+            build.removeListener(this);
+        }
+        awaitCompaction();
+        compactor.shutdown();
+        if (channel != null) {
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                failAppend(e);
+            }
+        }
+        reportFailure();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the changes of the mutator call or BuildEdit that just finished as one record,
+    //          then starts a compaction once the journal is past the threshold, so the snapshot never
+    //          sees half of a change; a failure is kept for sync() or close()
+    @Override
+    public void buildChanged(Build build) {
+        flush();
+        if (failure == null && journalBytes > compactBytes && (compaction == null || compaction.isDone())) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // kept by failAppend for sync() or close()
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that part was added; a part that is not in one of the standard categories
+    //          cannot be recorded, which stops recording as a failed append does
+    @Override
+    public void partAdded(Build build, Part part) {
+        if (appendFailed) {
+            return;
+        }
+        if (part.getCategory() == null) {
+            failAppend(new IOException("Cannot journal uncategorized part: " + part.getName()));
+            return;
+        }
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (String s : BinaryFormat.strings(part)) {
+            index.putIfAbsent(s, index.size());
+        }
+        try {
+            record.writeByte(ADD);
+            record.writeByte(BinaryFormat.code(part.getCategory()));
+            record.writeInt(index.size());
+            for (String s : index.keySet()) {
+                BinaryFormat.writeString(record, s);
+            }
+            BinaryFormat.writeRecord(record, part, index);
+        } catch (IOException e) {
+            failAppend(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that part was removed
+    @Override
+    public void partRemoved(Build build, Part part) {
+        if (appendFailed) {
+            return;
+        }
+        try {
+            record.writeByte(REMOVE);
+            BinaryFormat.writeString(record, part.getName());
+        } catch (IOException e) {
+            failAppend(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that part became active in category, or that category was cleared
+    @Override
+    public void activeChanged(Build build, PartCategory category, Part part) {
+        if (appendFailed) {
+            return;
+        }
+        try {
+            record.writeByte(part == null ? CLEAR : ACTIVE);
+            record.writeByte(BinaryFormat.code(category));
+            if (part != null) {
+                BinaryFormat.writeString(record, part.getName());
+            }
+        } catch (IOException e) {
+            failAppend(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the reference rolling diameter was set or cleared
+    @Override
+    public void referenceChanged(Build build, Double odMm) {
+        if (appendFailed) {
+            return;
+        }
+        try {
+            record.writeByte(REFERENCE);
+            record.writeBoolean(odMm != null);
+            if (odMm != null) {
+                record.writeDouble(odMm);
+            }
+        } catch (IOException e) {
+            failAppend(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the changes recorded since the last flush to the journal as one record with
+    //          its length and checksum, forcing it to disk if durability is FSYNC; does nothing if
+    //          there are none, and keeps the failure if it cannot be written
+    private void flush() {
+        if (recordBytes.size() == 0 || appendFailed) {
+            recordBytes.reset();
+            return;
+        }
+        byte[] bytes = recordBytes.toByteArray();
+        recordBytes.reset();
+        crc.reset();
+        crc.update(bytes);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + bytes.length + 4);
+        buffer.putInt(bytes.length).put(bytes).putInt((int) crc.getValue()).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+            journalBytes += buffer.limit();
+        } catch (IOException e) {
+            failAppend(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps e to be reported (unless an earlier failure is already kept) and stops
+    //          recording changes
+    private void failAppend(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        appendFailed = true;
+        recordBytes.reset();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: throws the kept failure, if any; a compaction failure is reported once, an append
+    //          failure every time
+    private void reportFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            if (!appendFailed) {
+                failure = null;
+            }
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header of the journal of the current generation to the empty channel
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        if (durability == Durability.FSYNC) {
+            channel.force(true);
+        }
+        journalBytes = HEADER_BYTES;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the current journal to disk if durability is FSYNC and closes it
+    private void closeChannel() throws IOException {
+        try {
+            if (durability == Durability.FSYNC && channel.isOpen()) {
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for the last compaction to finish; if it failed, keeps its IOException to be
+    //          reported unless an earlier failure is already kept
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        IOException e;
+        try {
+            compaction.get();
+            return;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            e = new IOException("Interrupted while waiting for compaction", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            e = (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+        } finally {
+            compaction = null;
+        }
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    // EFFECTS: writes a snapshot of generation g with the given contents, then deletes the journals
+    //          it covers
+    private void writeSnapshot(String name, Collection<Part> parts, Map<PartCategory, Part> active,
+                               Double referenceOdMm, long g) throws IOException {
+        BinaryWriter writer = new BinaryWriter(snapshot.toString(), durability);
+        writer.open();
+        writer.write(name, parts, List.of(), active, referenceOdMm, g);
+        writer.close();
+        for (long j : journalGenerations()) {
+            if (j < g) {
+                Files.deleteIfExists(journal(j));
+            }
+        }
+    }
+
+    // EFFECTS: returns the active parts of b by category
+    private static Map<PartCategory, Part> activeParts(Build b) {
+        Map<PartCategory, Part> active = new EnumMap<>(PartCategory.class);
+        for (PartCategory c : CATEGORIES) {
+            if (b.getActive(c) != null) {
+                active.put(c, b.getActive(c));
+            }
+        }
+        return active;
+    }
+
+    // MODIFIES: build
+    // EFFECTS: applies the whole records of the journal of generation g to build and returns the
+    //          offset just past the last of them (0 if even the header is incomplete); a torn or
+    //          corrupt record is taken as the end of the journal if it is the newest, and throws
+    //          IOException otherwise. Also throws IOException if the file is not the journal of
+    //          generation g or a whole record cannot be applied
+    private long replay(long g, Build build, boolean newest) throws IOException {
+        Path file = journal(g);
+        long size = Files.size(file);
+        if (size < HEADER_BYTES) {
+            if (newest) {
+                return 0;
+            }
+            throw new IOException("Corrupt journal generation " + g + ": incomplete header");
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION || in.readLong() != g) {
+                throw new IOException("Not the journal of generation " + g + ": " + file);
+            }
+            long validEnd = HEADER_BYTES;
+            while (validEnd < size) {
+                byte[] bytes = readRecord(in, size - validEnd);
+                if (bytes == null) {
+                    if (newest) {
+                        return validEnd;
+                    }
+                    throw new IOException("Corrupt journal generation " + g + ": bad record at " + validEnd);
+                }
+                apply(bytes, build);
+                validEnd += 4 + bytes.length + 4;
+            }
+            return validEnd;
+        }
+    }
+
+    // EFFECTS: reads the next record from the remaining bytes of the journal and returns its bytes,
+    //          or null if it is torn or its checksum does not match
+    private byte[] readRecord(DataInputStream in, long remaining) throws IOException {
+        if (remaining < 4 + 4) {
+            return null;
+        }
+        int length = in.readInt();
+        if (length <= 0 || length > remaining - 4 - 4) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        int checksum = in.readInt();
+        crc.reset();
+        crc.update(bytes);
+        return (checksum == (int) crc.getValue()) ? bytes : null;
+    }
+
+    // MODIFIES: build
+    // EFFECTS: applies every change of one journal record to build; throws IOException if one is
+    //          invalid or build refuses it, since then the journal no longer matches the build
+    private void apply(byte[] bytes, Build build) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        while (in.available() > 0) {
+            byte op = in.readByte();
+            boolean applied = true;
+            switch (op) {
+                case ADD:
+                    PartCategory category = category(in.readUnsignedByte());
+                    String[] table = new String[in.readInt()];
+                    for (int i = 0; i < table.length; i++) {
+                        table[i] = BinaryFormat.readString(in);
+                    }
+                    applied = build.addPart(BinaryFormat.readRecord(in, category, table));
+                    break;
+                case REMOVE: applied = build.removePartByName(BinaryFormat.readString(in));
+                    break;
+                case ACTIVE: applied = build.setActive(category(in.readUnsignedByte()), BinaryFormat.readString(in));
+                    break;
+                case CLEAR: build.clearActive(category(in.readUnsignedByte()));
+                    break;
+                case REFERENCE: build.setReferenceOdMm(in.readBoolean() ? in.readDouble() : null);
+                    break;
+                default: throw new IOException("Corrupt journal: unknown record type " + op);
+            }
+            if (!applied) {
+                throw new IOException("Corrupt journal: change " + op + " does not apply to the build");
+            }
+        }
+    }
+
+    // EFFECTS: returns the category with the given code; throws IOException if there is none
+    private static PartCategory category(int code) throws IOException {
+        PartCategory category = BinaryFormat.category(code);
+        if (category == null) {
+            throw new IOException("Corrupt journal: unknown category " + code);
+        }
+        return category;
+    }
+
+    // EFFECTS: returns the path of the journal of generation g
+    private Path journal(long g) {
+        return snapshot.resolveSibling(journalPrefix + g);
+    }
+
+    // EFFECTS: returns the generations of the journal files beside the snapshot, in increasing order
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(snapshot.getParent())) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String name = p.getFileName().toString();
+                if (name.startsWith(journalPrefix)) {
+                    try {
+                        generations.add(Long.parseLong(name.substring(journalPrefix.length())));
+                    } catch (NumberFormatException e) {
+                        // some other file sharing the prefix
+                    }
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+}
@@ -0,0 +1,11 @@
+package persistence;
+
+// Represents how hard a save works to survive a crash or power loss. Every save is atomic either
+// way: readers see the old file or the new one, never a mix.
+public enum Durability {
+    // the new file is renamed into place as soon as it is written; a crash shortly after the save
+    // may lose it, leaving the previous file
+    NONE,
+    // the new file, then its directory, are forced to disk before the save returns
+    FSYNC
+}
@@ -0,0 +1,189 @@
+package persistence;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Represents a streaming JSON writer that emits objects, arrays and values straight to a Writer as
+// they are given, without building a JSONObject or the document text first. In pretty mode the
+// output is laid out like JSONObject.toString(4); in compact mode no whitespace is written.
+public class JsonEmitter {
+    private static final int INDENT = 4;
+
+    private final Writer out;
+    private final boolean pretty;
+    // hasItems[d] is true once the container at depth d has a member
+    private boolean[] hasItems = new boolean[8];
+    private int depth;
+    private boolean afterName;
+    // a line break followed by enough spaces for the deepest indent seen so far
+    private char[] lineBreak = "\n".toCharArray();
+
+    // REQUIRES: out != null
+    // EFFECTS: constructs an emitter writing to out, pretty-printed if pretty and compact otherwise
+    public JsonEmitter(Writer out, boolean pretty) {
+        this.out = out;
+        this.pretty = pretty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a JSON object
+    public JsonEmitter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the innermost JSON object
+    public JsonEmitter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a JSON array
+    public JsonEmitter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the innermost JSON array
+    public JsonEmitter endArray() throws IOException {
+        return close(']');
+    }
+
+    // REQUIRES: the innermost open container is an object; key != null
+    // MODIFIES: this
+    // EFFECTS: writes the key of the next object member
+    public JsonEmitter name(String key) throws IOException {
+        separate();
+        JSONObject.quote(key, out);
+        out.write(pretty ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value, or null if value is null
+    public JsonEmitter value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            out.write("null");
+        } else {
+            JSONObject.quote(value, out);
+        }
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a whole number value
+    public JsonEmitter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value the way JSONObject does; throws org.json.JSONException if value
+    //          is not finite
+    public JsonEmitter value(double value) throws IOException {
+        separate();
+        out.write(JSONObject.numberToString(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    public JsonEmitter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an object member with a string value
+    public JsonEmitter field(String key, String value) throws IOException {
+        return name(key).value(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an object member with a whole number value
+    public JsonEmitter field(String key, long value) throws IOException {
+        return name(key).value(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an object member with a number value
+    public JsonEmitter field(String key, double value) throws IOException {
+        return name(key).value(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an object member with a boolean value
+    public JsonEmitter field(String key, boolean value) throws IOException {
+        return name(key).value(value);
+    }
+
+    // EFFECTS: flushes the underlying writer
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator before a value and opens a container with the given bracket
+    private JsonEmitter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        depth++;
+        if (depth == hasItems.length) {
+            hasItems = Arrays.copyOf(hasItems, depth * 2);
+        }
+        hasItems[depth] = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the innermost container with the given bracket, on its own line if it is not
+    //          empty
+    private JsonEmitter close(char bracket) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("No open object or array to close");
+        }
+        boolean empty = !hasItems[depth];
+        depth--;
+        if (!empty) {
+            newline();
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the comma and line break that go before the next member of the innermost
+    //          container, unless a value follows a key
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasItems[depth]) {
+                out.write(',');
+            }
+            hasItems[depth] = true;
+            newline();
+        }
+    }
+
+    // EFFECTS: starts a new line indented to the current depth, in pretty mode only
+    private void newline() throws IOException {
+        if (pretty) {
+            int length = 1 + depth * INDENT;
+            if (length > lineBreak.length) {
+                lineBreak = Arrays.copyOf(lineBreak, length);
+                Arrays.fill(lineBreak, 1, length, ' ');
+            }
+            out.write(lineBreak, 0, length);
+        }
+    }
+}
@@ -5,18 +5,28 @@ import org.json.*;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 // Citation: Modelled after the JsonReader class in the WorkRoom example provided in the CPSC 210 Term Project Task 3
 
 
 // Represents a reader that reads AutoLink build and parts data from JSON file
+// The streaming mode (readStreaming) tokenizes the file straight from a buffered file channel and
+// only ever holds one part's JSON object at a time, so memory stays proportional to one part
+// instead of the whole document
 public class JsonReader {
+    // chars read from the file channel at a time in streaming mode
+    private static final int STREAM_BUFFER = 1 << 16;
     private String source;
 
     // REQUIRES: source is a valid path to a JSON file inside ./data directory
@@ -37,6 +47,32 @@ public class JsonReader {
         return parseAutoLink(jsonObject);
     }
 
+    // REQUIRES: file at source must contain valid JSON data
+    // EFFECTS: reads data from file in streaming mode and returns BuildData object containing
+    //          active build and inventory list; throws IOException if an error occurs
+    public BuildData readStreaming() throws IOException {
+        List<Part> inventory = new ArrayList<>();
+        Build build = readStreaming(inventory::add);
+        return new BuildData(build, inventory);
+    }
+
+    // REQUIRES: file at source must contain valid JSON data; inventorySink != null
+    // EFFECTS: reads data from file in streaming mode, passing each inventory part to inventorySink
+    //          as soon as it has been read, and returns the active build;
+    //          throws IOException if an error occurs
+    public Build readStreaming(Consumer<Part> inventorySink) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+                Reader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8),
+                        STREAM_BUFFER)) {
+            return parseAutoLink(new JSONTokener(reader), inventorySink);
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     // REQUIRES: valid file path
     // EFFECTS: reads source file as string and returns it
     private String readFile(String source) throws IOException {
@@ -75,11 +111,12 @@ public class JsonReader {
         String name = jsonObject.getString("name");
         Build build = new Build(name);
         JSONArray partsArray = jsonObject.getJSONArray("parts");
+        List<Part> parts = new ArrayList<>(partsArray.length());
         for (Object obj : partsArray) {
             JSONObject partJson = (JSONObject) obj;
-            Part part = parsePart(partJson);
-            build.addPart(part);
+            parts.add(parsePart(partJson));
         }
+        build.addAll(parts);
         return build;
 
     }
@@ -87,7 +124,7 @@ public class JsonReader {
     // REQUIRES: valid JSON array containing part info
     // EFFECTS: parses parts from JSON array and returns them as a list
     private List<Part> parseInventory(JSONArray jsonArray) {
-        List<Part> inventory = new ArrayList<>();
+        List<Part> inventory = new ArrayList<>(jsonArray.length());
         for (Object obj : jsonArray) {
             JSONObject nextPart = (JSONObject) obj;
             inventory.add(parsePart(nextPart));
@@ -96,107 +133,128 @@ public class JsonReader {
     }
 
 
-    // REQUIRES: valid JSON part object with category field
-    // EFFECTS: parses and returns correct Part subclass based on category
-    @SuppressWarnings("methodlength")
-    private Part parsePart(JSONObject json) {
-        String category = json.getString("category");
-        String name = json.getString("name");
-        int cost = json.getInt("cost");
-        if (category.equalsIgnoreCase("Wheel")) {
-            return parseWheelPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Tire")) {
-            return parseTirePart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Suspension")) {
-            return parseSuspensionPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Exhaust")) {
-            return parseExhaustPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Engine")) {
-            return parseEnginePart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Transmission")) {
-            return parseTransmissionPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Bumper")) {
-            return parseBumperPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("SideSkirts")) {
-            return parseSideSkirtsPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Diffuser")) {
-            return parseDiffuserPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Spoiler")) {
-            return parseSpoilerPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("Lights")) {
-            return parseLightsPart(json, name, cost);
-        } else if (category.equalsIgnoreCase("PartStub")) {
-            return new GenericPart(name, cost);
-        } else {
-            throw new IllegalArgumentException("Unknown category: " + category);
+    // EFFECTS: parses AutoLink data from the top-level object at the tokener, in any key order, passing
+    //          inventory parts to inventorySink; returns the active build; throws JSONException if the
+    //          JSON is malformed or activeBuild or inventory is missing
+    private Build parseAutoLink(JSONTokener tokener, Consumer<Part> inventorySink) {
+        Build build = null;
+        boolean sawInventory = false;
+        expect(tokener, '{');
+        for (String key = firstKey(tokener); key != null; key = nextKey(tokener, '}')) {
+            if (key.equals("activeBuild")) {
+                build = parseBuild(tokener);
+            } else if (key.equals("inventory")) {
+                parseParts(tokener, inventorySink);
+                sawInventory = true;
+            } else {
+                tokener.nextValue();
+            }
         }
+        if (build == null || !sawInventory) {
+            throw new JSONException("JSONObject[\"" + (build == null ? "activeBuild" : "inventory")
+                    + "\"] not found.");
+        }
+        return build;
     }
 
-    // EFFECTS: parses wheel JSON into Wheel object
-    private Part parseWheelPart(JSONObject json, String name, int cost) {
-        return new Wheel(name, cost, json.getDouble("diameterIn"),
-                json.getDouble("widthIn"), json.getInt("offsetMm"));
-    }
-
-    // EFFECTS: parses tire JSON into Tire object
-    private Part parseTirePart(JSONObject json, String name, int cost) {
-        return new Tire(name, cost, json.getInt("widthMm"),
-                json.getInt("aspectPercent"), json.getDouble("rimDiameterIn"));
-    }
-
-    // EFFECTS: parses suspension JSON into Suspension object
-    private Part parseSuspensionPart(JSONObject json, String name, int cost) {
-        return new Suspension(name, cost, json.getString("type"),
-                json.getInt("dropMm"));
-    }
-
-    // EFFECTS: parses exhaust JSON into Exhaust object
-    private Part parseExhaustPart(JSONObject json, String name, int cost) {
-        return new Exhaust(name, cost, json.getString("spec"));
+    // EFFECTS: parses the Build object at the tokener, in any key order, and returns it
+    private Build parseBuild(JSONTokener tokener) {
+        String name = null;
+        List<Part> parts = new ArrayList<>();
+        expect(tokener, '{');
+        for (String key = firstKey(tokener); key != null; key = nextKey(tokener, '}')) {
+            if (key.equals("name")) {
+                Object value = tokener.nextValue();
+                if (!(value instanceof String)) {
+                    throw tokener.syntaxError("Build name is not a string");
+                }
+                name = (String) value;
+            } else if (key.equals("parts")) {
+                parseParts(tokener, parts::add);
+            } else {
+                tokener.nextValue();
+            }
+        }
+        if (name == null) {
+            throw new JSONException("JSONObject[\"name\"] not found.");
+        }
+        Build build = new Build(name);
+        build.addAll(parts);
+        return build;
     }
 
-    // EFFECTS: parses engine JSON into Engine object
-    private Part parseEnginePart(JSONObject json, String name, int cost) {
-        return new Engine(name, cost, json.getString("type"),
-                json.getInt("horsepower"), json.getDouble("displacement"));
+    // EFFECTS: parses the array of part objects at the tokener, passing each part to sink as soon
+    //          as its object is complete
+    private void parseParts(JSONTokener tokener, Consumer<Part> sink) {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            Object value = tokener.nextValue();
+            if (!(value instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected a part object");
+            }
+            sink.accept(parsePart((JSONObject) value));
+        } while (separator(tokener, ']'));
     }
 
-    // EFFECTS: parses transmission JSON into Transmission object
-    private Part parseTransmissionPart(JSONObject json, String name, int cost) {
-        return new Transmission(name, cost, json.getString("type"),
-                json.getInt("gears"), json.getString("drive"));
+    // EFFECTS: reads the first key of an object whose '{' has been read, and the ':' after it;
+    //          returns null if the object is empty
+    private String firstKey(JSONTokener tokener) {
+        if (tokener.nextClean() == '}') {
+            return null;
+        }
+        tokener.back();
+        return readKey(tokener);
     }
 
-    // EFFECTS: parses bumper JSON into Bumper object
-    private Part parseBumperPart(JSONObject json, String name, int cost) {
-        return new Bumper(name, cost, json.getString("type"),
-                json.getString("material"), json.getString("brand"),
-                json.getString("style"));
+    // EFFECTS: reads the ',' or closing bracket after an object member, then the next key and the
+    //          ':' after it; returns null at the closing bracket
+    private String nextKey(JSONTokener tokener, char closing) {
+        return separator(tokener, closing) ? readKey(tokener) : null;
     }
 
-    // EFFECTS: parses side skirts JSON into SideSkirts object
-    private Part parseSideSkirtsPart(JSONObject json, String name, int cost) {
-        return new SideSkirts(name, cost, json.getString("material"),
-                json.getString("brand"));
+    // EFFECTS: reads a quoted key and the ':' after it and returns the key
+    private String readKey(JSONTokener tokener) {
+        expect(tokener, '"');
+        String key = tokener.nextString('"');
+        expect(tokener, ':');
+        return key;
     }
 
-    // EFFECTS: parses diffuser JSON into Diffuser object
-    private Part parseDiffuserPart(JSONObject json, String name, int cost) {
-        return new Diffuser(name, cost, json.getString("material"),
-                json.getString("brand"), json.getBoolean("functional"));
+    // EFFECTS: reads the next significant char; returns true for ',' and false for closing, and
+    //          throws JSONException for anything else
+    private boolean separator(JSONTokener tokener, char closing) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            return true;
+        } else if (c == closing) {
+            return false;
+        }
+        throw tokener.syntaxError("Expected ',' or '" + closing + "'");
     }
 
-    // EFFECTS: parses spoiler JSON into Spoiler object
-    private Part parseSpoilerPart(JSONObject json, String name, int cost) {
-        return new Spoiler(name, cost, json.getString("material"),
-                json.getString("style"), json.getDouble("heightMm"));
+    // EFFECTS: reads the next significant char and throws JSONException if it is not expected
+    private void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
     }
 
-    // EFFECTS: parses lights JSON into Lights object
-    private Part parseLightsPart(JSONObject json, String name, int cost) {
-        return new Lights(name, cost, json.getString("type"),
-                json.getString("brand"), json.getString("lightType"),
-                json.getString("detail"));
+    // REQUIRES: valid JSON part object with category field
+    // EFFECTS: parses and returns correct Part subclass based on category
+    private Part parsePart(JSONObject json) {
+        String category = json.getString("category");
+        PartCategory partCategory = PartCategory.fromJsonName(category);
+        if (partCategory != null) {
+            return partCategory.fromJson(json);
+        } else if (category.equalsIgnoreCase("PartStub")) {
+            return new GenericPart(json.getString("name"), json.getInt("cost"));
+        } else {
+            throw new IllegalArgumentException("Unknown category: " + category);
+        }
     }
 
      // simple fallback part type for testing
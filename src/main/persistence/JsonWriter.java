@@ -2,76 +2,121 @@ package persistence;
 
 import model.*;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 
 // Citation: Modelled after the JsonWriter class in the WorkRoom example provided in the CPSC 210 Term Project Task 3
 
-// Represents a writer that writes AutoLink build and inventory data to JSON file
+// Represents a writer that writes AutoLink build and inventory data to JSON file.
+// Parts are streamed to a buffered file stream one at a time through a JsonEmitter, so neither a
+// JSONObject of the data nor the document text is ever held in memory. Saves are atomic: the data
+// goes to a temporary file that only replaces the destination when close succeeds.
 public class JsonWriter {
-    private static final int TAB = 4;
-    private PrintWriter writer;
-    private String destination;
+    // bytes buffered before each write to the file
+    private static final int BUFFER = 1 << 16;
+
+    // Represents the layout of the written JSON: indented for people to read, or with no
+    // whitespace for smaller, faster saves
+    public enum Format {
+        PRETTY,
+        COMPACT
+    }
+
+    private final String destination;
+    private final Format format;
+    private final Durability durability;
+    private AtomicFile file;
+    private Writer writer;
 
     // REQUIRES: destination is a valid path inside ./data directory
     // MODIFIES: this
-    // EFFECTS: constructs a writer to write to given destination file
+    // EFFECTS: constructs a writer to write pretty-printed JSON to given destination file
     public JsonWriter(String destination) {
-        this.destination = destination;
+        this(destination, Format.PRETTY);
     }
 
+    // REQUIRES: destination is a valid path inside ./data directory; format != null
     // MODIFIES: this
-    // EFFECTS: opens writer for writing to file at destination
-    //          throws FileNotFoundException if destination file cannot be opened
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+    // EFFECTS: constructs a writer to write JSON in the given format to given destination file
+    public JsonWriter(String destination, Format format) {
+        this(destination, format, Durability.FSYNC);
     }
 
+    // REQUIRES: destination is a valid path inside ./data directory; format and durability != null
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of the given BuildData object to file
-    public void write(BuildData data) {
-        JSONObject json = new JSONObject();
-        json.put("activeBuild", buildToJson(data.getBuild()));
-        json.put("inventory", inventoryToJson(data.getInventory()));
-        saveToFile(json.toString(TAB));
+    // EFFECTS: constructs a writer to write JSON in the given format to given destination file, with
+    //          the given durability
+    public JsonWriter(String destination, Format format, Durability durability) {
+        this.destination = destination;
+        this.format = format;
+        this.durability = durability;
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: starts a save to destination, writing to a temporary file beside it;
+    //          throws FileNotFoundException if destination file cannot be opened
+    public void open() throws FileNotFoundException {
+        file = new AtomicFile(destination, durability);
+        writer = new BufferedWriter(new OutputStreamWriter(file.stream(), StandardCharsets.UTF_8), BUFFER);
     }
 
-    // EFFECTS: saves given JSON string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of the given BuildData object to file; throws IOException
+    //          (or the exception of a part) if an error occurs, in which case the save is abandoned and
+    //          destination is left unchanged
+    public void write(BuildData data) throws IOException {
+        try {
+            JsonEmitter out = new JsonEmitter(writer, format == Format.PRETTY);
+            out.beginObject();
+            out.name("activeBuild");
+            writeBuild(out, data.getBuild());
+            out.name("inventory");
+            writeParts(out, data.getInventoryView());
+            out.endObject();
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            file.abort();
+            throw e;
+        }
     }
 
-        // EFFECTS: converts Build to JSON object
-    private JSONObject buildToJson(Build build) {
-        JSONObject json = new JSONObject();
-        json.put("name", build.getName());
-
-        JSONArray partsArray = new JSONArray();
-        for (Part p : build.getParts()) {
-            partsArray.put(p.toJson());
+    // MODIFIES: this
+    // EFFECTS: finishes the save, replacing destination with the written file in one atomic step;
+    //          does nothing if the save was abandoned; throws IOException (leaving destination
+    //          unchanged) if the file cannot be written, forced to disk or renamed
+    public void close() throws IOException {
+        if (!file.isOpen()) {
+            return;
         }
-        json.put("parts", partsArray);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
+    }
 
-        return json;
+    // EFFECTS: writes Build as a JSON object
+    private void writeBuild(JsonEmitter out, Build build) throws IOException {
+        out.beginObject();
+        out.field("name", build.getName());
+        out.name("parts");
+        writeParts(out, build.partsView());
+        out.endObject();
     }
 
-    // EFFECTS: converts list of parts to JSON array
-    private JSONArray inventoryToJson(List<Part> inventory) {
-        JSONArray array = new JSONArray();
-        for (Part p : inventory) {
-            array.put(p.toJson());
+    // EFFECTS: writes collection of parts as a JSON array, one part at a time
+    private void writeParts(JsonEmitter out, Collection<Part> parts) throws IOException {
+        out.beginArray();
+        for (Part p : parts) {
+            p.writeJson(out);
         }
-        return array;
+        out.endArray();
     }
-
-
 }
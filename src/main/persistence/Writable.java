@@ -2,9 +2,15 @@ package persistence;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 // Represents data that can be written to JSON
 public interface Writable {
     
     //EFFECTS: returns this object as a JSON object
     JSONObject toJson();
+
+    //MODIFIES: out
+    //EFFECTS: writes this object to out as it goes, with the same fields as toJson
+    void writeJson(JsonEmitter out) throws IOException;
 }
@@ -1,16 +1,33 @@
 package ui;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
 import model.*;
-import persistence.BuildData;
+import model.fitment.CompatibilityMatrix;
+import model.fitment.FitmentCache;
+import model.fitment.FitmentEngine;
+import model.fitment.FitmentIssue;
+import model.fitment.ClearanceRuleSet;
+import model.fitment.FitmentMonitor;
+import model.fitment.FitmentRule;
+import model.fitment.StandardFitmentRule;
+import model.fitment.FitmentReport;
+import model.fitment.RollingDiameterTable;
+import model.fitment.RuleTiming;
+import model.fitment.ToleranceResult;
+import model.fitment.ToleranceSimulator;
+import model.planning.ParetoBuild;
+import model.planning.ParetoFrontier;
+import persistence.BuildJournal;
 import persistence.JsonReader;
-import persistence.JsonWriter;
 
 
 // representation of the console based UI interface for AutoLink through user interaction with console-based inputs
@@ -22,18 +39,28 @@ public class AutoLinkApp {
     private Scanner sc;
     private Build build;
     private boolean running;
+    private static final String JOURNAL_STORE = "./data/autolink.bin";
     private static final String JSON_STORE = "./data/autolink.json";
-    private JsonWriter jsonWriter;
+    private static final int COMPLETION_LIMIT = 10;
+    private static final int PAIRS_SHOWN = 20;
+    private static final int FRONTIER_SHOWN = 20;
+    private static final int TOLERANCE_SAMPLES = 100_000;
+    private static final long TOLERANCE_SEED = 210;
+    private static final String CLEARANCE_RULES = "./data/clearance_rules.txt";
+    private BuildJournal journal;
     private JsonReader jsonReader;
+    private ClearanceRuleSet clearanceRules;
+    private FitmentMonitor fitmentMonitor;
 
     // MODIFIES: this
     // EFFECTS: constructs a new AutoLinkApp with an empty Build and initializes sc 
     //          while also setting running boolean to true
     public AutoLinkApp() {
         build = new Build();
+        clearanceRules = loadClearanceRules();
+        fitmentMonitor = newFitmentMonitor();
         sc = new Scanner(System.in);
         running = true;
-        jsonWriter = new JsonWriter(JSON_STORE);
         jsonReader = new JsonReader(JSON_STORE);
     }
 
@@ -149,19 +176,22 @@ public class AutoLinkApp {
     // EFFECTS: creates and returns a part based on category using helpers for each category to keep everything under
     //          25 lines, and also returns null if unknown
     private Part createPartFromInput(String category, String name, int cost) {
-        switch (category) {
-            case "wheel": return createWheelFromInput(name, cost);
-            case "tire": return createTireFromInput(name, cost);
-            case "suspension": return createSuspensionFromInput(name, cost);
-            case "exhaust": return createExhaustFromInput(name, cost);
-            case "engine": return createEngineFromInput(name, cost);
-            case "transmission": return createTransmissionFromInput(name, cost);
-            case "bumper": return createBumperFromInput(name, cost);
-            case "sideskirts": return createSideSkirtsFromInput(name, cost);
-            case "diffuser": return createDiffuserFromInput(name, cost);
-            case "spoiler": return createSpoilerFromInput(name, cost);
-            case "lights": return createLightsFromInput(name, cost);
-            default: return null;
+        PartCategory c = PartCategory.fromKey(category);
+        if (c == null) {
+            return null;
+        }
+        switch (c) {
+            case WHEEL: return createWheelFromInput(name, cost);
+            case TIRE: return createTireFromInput(name, cost);
+            case SUSPENSION: return createSuspensionFromInput(name, cost);
+            case EXHAUST: return createExhaustFromInput(name, cost);
+            case ENGINE: return createEngineFromInput(name, cost);
+            case TRANSMISSION: return createTransmissionFromInput(name, cost);
+            case BUMPER: return createBumperFromInput(name, cost);
+            case SIDE_SKIRTS: return createSideSkirtsFromInput(name, cost);
+            case DIFFUSER: return createDiffuserFromInput(name, cost);
+            case SPOILER: return createSpoilerFromInput(name, cost);
+            default: return createLightsFromInput(name, cost);
         }
     }
 
@@ -169,7 +199,7 @@ public class AutoLinkApp {
     // MODIFIES: this
     // EFFECTS: prompts for a name and removes the matching part if present
     private void removePart() {
-        String name = readNonEmpty("Enter the part name to remove: ");
+        String name = readPartName("Enter the part name to remove: ");
         boolean removed;
         try {
             removed = build.removePartByName(name);
@@ -187,7 +217,7 @@ public class AutoLinkApp {
     // MODIFIES: this
     // EFFECTS: lists all parts currently in inventory
     private void listParts() {
-        List<Part> parts = build.listAllParts();
+        Collection<Part> parts = build.partsView();
         if (parts.isEmpty()) {
             System.out.println("No parts in inventory.!");
             return;
@@ -199,7 +229,7 @@ public class AutoLinkApp {
 
         for (Part p : parts) {
             String name = p.getName();
-            String category = p.getClass().getSimpleName();
+            String category = p.getCategoryName();
             String cost = String.valueOf(p.getCost());
             System.out.println(name + " | " + category + " | " + cost);
         }
@@ -215,7 +245,8 @@ public class AutoLinkApp {
             divider();
             System.out.println("Active Build Menu");
             divider();
-            System.out.println("1. Set active part\n2. Clear an active part\n3. Show current active build\nB. Back");
+            System.out.println("1. Set active part\n2. Clear an active part\n3. Show current active build");
+            System.out.println("4. Set reference rolling diameter\nB. Back");
             System.out.print("Q. Quit\nSelect an option: ");
 
             String choice = readInput();
@@ -227,6 +258,8 @@ public class AutoLinkApp {
                     break;
                 case "3": showCurrentActiveBuild();
                     break;
+                case "4": setReferenceFlow();
+                    break;
                 case "b": inMenu = false;
                     break;
                 case "q": quit(); 
@@ -243,7 +276,7 @@ public class AutoLinkApp {
         System.out.println("Categories: wheel, tire, suspension, exhaust, engine, transmission,");
         System.out.println("            bumper, sideskirts, diffuser, spoiler, lights");
         String category = readNonEmpty("Enter category to set: ").toLowerCase();
-        String name = readNonEmpty("Enter part name to activate: ");
+        String name = readPartName("Enter part name to activate: ");
         try {
             boolean bool = build.replaceActivePart(category, name);
             if (bool) {
@@ -264,20 +297,63 @@ public class AutoLinkApp {
         System.out.println("Current Active Build");
         divider();
 
-        printActive("Wheel", build.getActive("wheel"));
-        printActive("Tire", build.getActive("tire"));
-        printActive("Suspension", build.getActive("suspension"));
-        printActive("Exhaust", build.getActive("exhaust"));
-        printActive("Engine", build.getActive("engine"));
-        printActive("Transmission", build.getActive("transmission"));
-        printActive("Bumper", build.getActive("bumper"));
-        printActive("SideSkirts", build.getActive("sideskirts"));
-        printActive("Diffuser", build.getActive("diffuser"));
-        printActive("Spoiler", build.getActive("spoiler"));
-        printActive("Lights", build.getActive("lights"));
+        for (PartCategory category : PartCategory.values()) {
+            printActive(category.getDisplayName(), build.getActive(category));
+        }
 
         divider();
         System.out.println("Estimated total cost: " + build.totalCost());
+        printFitment();
+    }
+
+    // EFFECTS: prints the rolling diameter of the active tire and any fitment warnings
+    private void printFitment() {
+        FitmentReport report = fitmentMonitor.check();
+        if (!Double.isNaN(report.getRollingDiameterMm())) {
+            System.out.printf("Rolling diameter: %.1f mm%n", report.getRollingDiameterMm());
+        }
+        if (report.isClean()) {
+            System.out.println("Fitment: no issues found.");
+        } else {
+            for (String warning : report.getWarnings()) {
+                System.out.println("Warning: " + warning);
+            }
+        }
+        for (String rule : clearanceRules.matching(build)) {
+            System.out.println("Clearance rule: " + rule);
+        }
+    }
+
+    // EFFECTS: returns the clearance rules in CLEARANCE_RULES, or no rules (after saying why) if the
+    //          file cannot be read or has a bad rule
+    private ClearanceRuleSet loadClearanceRules() {
+        try {
+            return ClearanceRuleSet.load(Paths.get(CLEARANCE_RULES));
+        } catch (IOException e) {
+            return new ClearanceRuleSet(new ArrayList<>());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Ignoring clearance rules in " + CLEARANCE_RULES + ": " + e.getMessage());
+            return new ClearanceRuleSet(new ArrayList<>());
+        }
+    }
+
+    // EFFECTS: returns a fitment monitor of build running the standard rules and the clearance rules
+    private FitmentMonitor newFitmentMonitor() {
+        List<FitmentRule> rules = new ArrayList<>(List.of(StandardFitmentRule.values()));
+        rules.add(clearanceRules);
+        return new FitmentMonitor(build, rules);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prompts for the reference rolling diameter in mm (0 clears it) and sets it on the build
+    private void setReferenceFlow() {
+        double odMm = readDouble("Reference rolling diameter in mm (0 to clear): ");
+        try {
+            build.setReferenceOdMm(odMm == 0 ? null : odMm);
+            System.out.println("Reference rolling diameter updated.");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
     }
 
 
@@ -302,19 +378,206 @@ public class AutoLinkApp {
 
 
     // MODIFIES: this
-    // EFFECTS: handles the reports menu options like summary or totals, or search tools
+    // EFFECTS: handles the reports menu options like summary or totals, or budget searches
     private void handleReportsMenu() {
-        divider();
-        System.out.println("Reports");
-        divider();
+        boolean inMenu = true;
+
+        while (inMenu) {
+            divider();
+            System.out.println("Reports");
+            divider();
+            System.out.println("1. Inventory summary\n2. Parts within a price range\n3. Cheapest parts");
+            System.out.println("4. Most expensive parts\n5. Compatible wheel and tire pairs");
+            System.out.println("6. Cost / horsepower / drop trade-offs\n7. Fitment rule timings and cache");
+            System.out.println("8. Tires by rolling diameter\n9. Tolerance analysis of the active fitment");
+            System.out.print("B. Back\nQ. Quit\nSelect an option: ");
+
+            switch (readInput().toLowerCase()) {
+                case "1": printSummary();
+                    break;
+                case "2": priceRangeReport();
+                    break;
+                case "3": topPartsReport(true);
+                    break;
+                case "4": topPartsReport(false);
+                    break;
+                case "5": compatiblePairsReport();
+                    break;
+                case "6": paretoReport();
+                    break;
+                case "7": ruleTimingsReport();
+                    break;
+                case "8": nearestTiresReport();
+                    break;
+                case "9": toleranceReport();
+                    break;
+                case "b": inMenu = false;
+                    break;
+                case "q": quit();
+                    inMenu = false;
+                    break;
+                default: System.out.println("Invalid selection please try again!");
+            }
+        }
+    }
+
+    // EFFECTS: prints the part counts by category and the active total cost
+    private void printSummary() {
         Map<String, Integer> counts = build.countsByCategory();
         if (counts.isEmpty()) {
             System.out.println("No parts in inventory.");
         } else {
             counts.forEach((k,v) -> System.out.println(k + ": " + v));
         }
-        System.out.println("Active total cost: " + build.totalCost());                                             
-         
+        System.out.println("Active total cost: " + build.totalCost());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prompts for a category (or "all") and a price band and lists the parts in it, cheapest first
+    private void priceRangeReport() {
+        PartCategory category = readReportCategory();
+        int min = readInt("Minimum cost: ");
+        int max = readInt("Maximum cost: ");
+        try {
+            if (category == null) {
+                printPartRows(build.partsInCostRange(min, max));
+            } else {
+                printPartRows(build.partsInCostRange(category, min, max));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prompts for a category (or "all") and a count N and lists the N cheapest parts
+    //          if cheapest, otherwise the N most expensive parts
+    private void topPartsReport(boolean cheapest) {
+        PartCategory category = readReportCategory();
+        int k = readInt("How many parts: ");
+        try {
+            if (cheapest) {
+                printPartRows(category == null ? build.cheapestParts(k) : build.cheapestParts(category, k));
+            } else {
+                printPartRows(category == null ? build.mostExpensiveParts(k)
+                        : build.mostExpensiveParts(category, k));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    // EFFECTS: prints how many wheel and tire pairs in inventory fit each other and lists the first few
+    private void compatiblePairsReport() {
+        CompatibilityMatrix matrix = new CompatibilityMatrix(build);
+        System.out.println(matrix.count() + " compatible pairs from " + matrix.getWheelCount() + " wheels and "
+                + matrix.getTireCount() + " tires");
+        matrix.stream().limit(PAIRS_SHOWN).forEach(pair ->
+                System.out.printf("  %s (%.1f mm)%n", pair, pair.getRollingDiameterMm()));
+    }
+
+    // EFFECTS: prints the complete builds no other build beats on cost, horsepower and drop, cheapest first
+    private void paretoReport() {
+        List<ParetoBuild> builds = new ParetoFrontier(build).getBuilds();
+        if (builds.isEmpty()) {
+            System.out.println("No complete build: none of the wheels and tires fit each other.");
+            return;
+        }
+        System.out.println(builds.size() + " builds on the frontier");
+        divider();
+        System.out.println("Cost | HP | Drop | Engine | Suspension");
+        divider();
+        for (ParetoBuild b : builds.subList(0, Math.min(FRONTIER_SHOWN, builds.size()))) {
+            Part engine = b.getPart(PartCategory.ENGINE);
+            Part suspension = b.getPart(PartCategory.SUSPENSION);
+            System.out.println(b.getTotalCost() + " | " + b.getHorsepower() + " | " + b.getDropMm() + " mm | "
+                    + (engine == null ? "-" : engine.getName()) + " | "
+                    + (suspension == null ? "-" : suspension.getName()));
+        }
+    }
+
+    // EFFECTS: prints how many times each fitment rule has run this session and how long it took,
+    //          and how well the shared fitment cache is doing
+    private void ruleTimingsReport() {
+        for (RuleTiming timing : fitmentMonitor.getTimings()) {
+            System.out.println(timing);
+        }
+        FitmentCache cache = FitmentCache.shared();
+        System.out.printf("Fitment cache: %d / %d entries, %d hits, %d misses (%.0f%% hit rate)%n", cache.size(),
+                cache.getCapacity(), cache.getHits(), cache.getMisses(), cache.getHitRate() * 100);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prompts for a rolling diameter (0 for the reference) and lists the tires within the
+    //          rolling diameter threshold of it, or the closest ones if none are
+    private void nearestTiresReport() {
+        double target = readDouble("Rolling diameter in mm (0 for the reference): ");
+        if (target == 0 && build.getReferenceOdMm() != null) {
+            target = build.getReferenceOdMm();
+        }
+        if (target <= 0) {
+            System.out.println("Please enter a diameter greater than 0 or set a reference first.");
+            return;
+        }
+        RollingDiameterTable table = new RollingDiameterTable(build);
+        List<Tire> tires = table.within(target, build.getRollingDeltaThresholdPct());
+        if (tires.isEmpty()) {
+            System.out.printf("No tires within %.1f%%; closest:%n", build.getRollingDeltaThresholdPct());
+            tires = table.nearest(target);
+        }
+        if (tires.isEmpty()) {
+            System.out.println("No tires in inventory.");
+        }
+        for (Tire t : tires) {
+            double odMm = FitmentEngine.rollingDiameterMm(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn());
+            System.out.printf("  %s (%.1f mm, %+.2f%%)%n", t.getName(), odMm, FitmentEngine.deltaPct(odMm, target));
+        }
+    }
+
+    // EFFECTS: prints how often the active wheel, tire and suspension would fail the fitment check once
+    //          manufacturing variance is sampled, and which issues cause the failures
+    private void toleranceReport() {
+        ToleranceResult result = ToleranceSimulator.simulateActive(build, TOLERANCE_SAMPLES, TOLERANCE_SEED);
+        if (result == null) {
+            System.out.println("Set an active wheel and tire first.");
+            return;
+        }
+        System.out.println(result);
+        for (FitmentIssue issue : FitmentIssue.values()) {
+            if (result.getIssueCount(issue) > 0) {
+                System.out.printf("  %.2f%% %s%n", result.probability(issue) * 100, issue.getDescription());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prompts until the user enters a known category or "all"; returns null for "all"
+    private PartCategory readReportCategory() {
+        while (true) {
+            String input = readNonEmpty("Enter category (or 'all'): ");
+            if (input.equalsIgnoreCase("all")) {
+                return null;
+            }
+            PartCategory category = PartCategory.fromKey(input);
+            if (category != null) {
+                return category;
+            }
+            System.out.println("Unknown category please try again!");
+        }
+    }
+
+    // EFFECTS: prints the given parts as name | category | cost rows
+    private void printPartRows(Collection<Part> parts) {
+        if (parts.isEmpty()) {
+            System.out.println("No matching parts.");
+            return;
+        }
+        divider();
+        System.out.println("Name | Category | Cost");
+        divider();
+        for (Part p : parts) {
+            System.out.println(p.getName() + " | " + p.getCategoryName() + " | " + p.getCost());
+        }
     }
 
     // MODIFIES: this
@@ -323,14 +586,22 @@ public class AutoLinkApp {
         divider();
         System.out.println("Use number keys and 'B' = back or 'Q' = quit");
         System.out.println("Inventory = you can add remove or list all parts");
-        System.out.println("Active Build = you can set clear or show all actives");                                
+        System.out.println("Active Build = you can set clear or show all actives");
+        System.out.println("Reports = you can see a summary or search parts by price");
+        System.out.println("When asked for a part name, end it with TAB or '?' to complete it");
     }
 
     // MODIFIES: this
     // EFFECTS: reads and returns a line of user input and if there nothing to read for any reason then quit
     private String readInput() {
+        return readRawInput().trim();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns a line of user input as typed (untrimmed), or "q" if there is nothing to read
+    private String readRawInput() {
         if (sc.hasNextLine()) {
-            return sc.nextLine().trim();
+            return sc.nextLine();
         }
         return "q";
     }
@@ -340,10 +611,17 @@ public class AutoLinkApp {
     private void quit() {
         running = false;
         divider();
-        System.out.println("Would you like to save your current build and inventory before quitting? (y/n)");
-        String saveBuild = readInput();
-        if (saveBuild.equalsIgnoreCase("y")) {
-            saveAutoLink();
+        if (journal == null) {
+            System.out.println("Would you like to save your current build and inventory before quitting? (y/n)");
+            String saveBuild = readInput();
+            if (saveBuild.equalsIgnoreCase("y")) {
+                saveAutoLink();
+            }
+        } else {
+            System.out.println("Your changes were saved to " + JOURNAL_STORE + " as you made them");
+        }
+        if (!closeJournal()) {
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
         }
         divider();
         System.out.println("Thank you for using AutoLink, where ideas meet creation!");
@@ -494,6 +772,57 @@ public class AutoLinkApp {
         }
     }
 
+    // REQUIRES: prompt != null
+    // MODIFIES: this
+    // EFFECTS: prompts until user enters a part name and returns it. Ending the input with a tab or '?'
+    //          asks for completion instead: if exactly one part name starts with what was typed (ignoring
+    //          case) that name is returned, otherwise the matches are listed and the user is asked again
+    private String readPartName(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String raw = readRawInput();
+            String typed = raw.trim();
+            boolean complete = raw.endsWith("\t") || typed.endsWith("?");
+            if (typed.endsWith("?")) {
+                typed = typed.substring(0, typed.length() - 1).trim();
+            }
+            if (!complete && !typed.isEmpty()) {
+                return typed;
+            } else if (!complete) {
+                System.out.println("Input cannot be empty!");
+            } else {
+                String match = completePartName(typed);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS: returns the only part name starting with prefix (ignoring case) after echoing it;
+    //          otherwise prints the matching names (if any) and returns null
+    private String completePartName(String prefix) {
+        int count = build.countPartsWithPrefix(prefix);
+        if (count == 0) {
+            System.out.println("No part name starts with '" + prefix + "'.");
+            return null;
+        }
+        List<Part> matches = build.partsWithPrefix(prefix, COMPLETION_LIMIT);
+        if (count == 1) {
+            System.out.println("Completed to: " + matches.get(0).getName());
+            return matches.get(0).getName();
+        }
+        System.out.println(count + " parts start with '" + build.completeName(prefix) + "':");
+        for (Part p : matches) {
+            System.out.println("  " + p.getName());
+        }
+        if (count > matches.size()) {
+            System.out.println("  ... and " + (count - matches.size()) + " more");
+        }
+        return null;
+    }
+
     // REQUIRES: prompt != null
     // MODIFIES: this
     // EFFECTS: prompts until user enters yes/no (y/n); returns true for yes
@@ -537,33 +866,95 @@ public class AutoLinkApp {
     //                                       data persistence
     //-------------------------------------------------------------------------------------------------
 
-    // EFFECTS: saves the current build and inventory to file
+    // MODIFIES: this
+    // EFFECTS: saves the current build and inventory to file; the first save writes the whole build,
+    //          after which every change is journaled as it is made and a save only makes sure the
+    //          journal is on disk
     private void saveAutoLink() {
         try {
-            BuildData data = new BuildData(build, build.listAllParts());
-            jsonWriter.open();
-            jsonWriter.write(data);
-            jsonWriter.close();
-            System.out.println("Saved your AutoLink data to " + JSON_STORE);
+            if (journal == null) {
+                BuildJournal opened = new BuildJournal(JOURNAL_STORE);
+                try {
+                    opened.save(build);
+                } catch (IOException e) {
+                    closeFailed(opened);
+                    throw e;
+                }
+                journal = opened;
+            } else {
+                journal.sync();
+            }
+            System.out.println("Saved your AutoLink data to " + JOURNAL_STORE);
             divider();
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
+        } catch (IOException e) {
+            // the next save starts over with the whole build
+            closeJournal();
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
             divider();
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: loads build and inventory data from file, replacing current session data
+    // EFFECTS: loads build and inventory data from file, replacing current session data, and journals
+    //          every later change; data saved only as JSON by an earlier version is imported once.
+    //          If nothing has been saved yet, says so and keeps the current session
     private void loadAutoLink() {
+        BuildJournal opened = new BuildJournal(JOURNAL_STORE);
         try {
-            BuildData data = jsonReader.read();
-            build = data.getBuild();
-            System.out.println("Loaded build and inventory from " + JSON_STORE);
+            boolean importJson = !opened.exists();
+            if (importJson && !Files.exists(Paths.get(JSON_STORE))) {
+                opened.close();
+                System.out.println("Nothing has been saved to " + JOURNAL_STORE + " yet");
+                divider();
+                return;
+            }
+            // the current journal may still be compacting into the files about to be read
+            if (!closeJournal()) {
+                System.out.println("Unable to write to file: " + JOURNAL_STORE);
+            }
+            Build loaded;
+            if (importJson) {
+                loaded = jsonReader.readStreaming().getBuild();
+                opened.save(loaded);
+            } else {
+                loaded = opened.load();
+            }
+            journal = opened;
+            build = loaded;
+            fitmentMonitor = newFitmentMonitor();
+            System.out.println("Loaded build and inventory from " + JOURNAL_STORE);
             divider();
         } catch (IOException e) {
-            System.out.println("Unable to read from file: " + JSON_STORE);
+            closeFailed(opened);
+            System.out.println("Unable to read from file: " + JOURNAL_STORE);
             divider();
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: closes the journal, if any, so later changes to build are not saved; returns false if
+    //          the journal failed to save a change
+    private boolean closeJournal() {
+        if (journal == null) {
+            return true;
+        }
+        try {
+            journal.close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            journal = null;
+        }
+    }
+
+    // EFFECTS: closes a journal that could not be loaded or saved, which has already failed
+    private static void closeFailed(BuildJournal opened) {
+        try {
+            opened.close();
+        } catch (IOException e) {
+            // the failure that got here has already been reported
+        }
+    }
+
 }
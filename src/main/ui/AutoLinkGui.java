@@ -2,10 +2,16 @@ package ui;
 
 import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
 import model.Build;
+import model.BuildListener;
 import model.Part;
-import persistence.BuildData;
+import model.PartCategory;
+import model.fitment.ClearanceRuleSet;
+import model.fitment.FitmentMonitor;
+import model.fitment.FitmentRule;
+import model.fitment.StandardFitmentRule;
+import model.fitment.FitmentReport;
+import persistence.BuildJournal;
 import persistence.JsonReader;
-import persistence.JsonWriter;
 import model.Event;
 import model.EventLog;
 import java.awt.event.WindowAdapter;
@@ -13,8 +19,10 @@ import java.awt.event.WindowEvent;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,48 +30,59 @@ import java.util.List;
  * Displays the current build's parts, allows the user to add and filter parts,
  * and provides menu actions for saving and loading application state.
  *
- * The GUI wraps the existing Build model and JSON persistence classes without
+ * The GUI wraps the existing Build model and BuildJournal persistence without
  * removing or changing core model functionality, model package functionality is unchanged
  */
 
 @ExcludeFromJacocoGeneratedReport
 public class AutoLinkGui {
 
+    private static final String JOURNAL_STORE = "./data/autolink.bin";
     private static final String JSON_STORE = "./data/autolink.json";
+    private static final String CLEARANCE_RULES = "./data/clearance_rules.txt";
 
     // core model & persistence
     private Build build;
-    private JsonWriter jsonWriter;
+    private BuildListener buildRefresher;
+    private ClearanceRuleSet clearanceRules;
+    private FitmentMonitor fitmentMonitor;
+    private BuildJournal journal;
     private JsonReader jsonReader;
 
     // Swing components
     private JFrame frame;
     private JLabel logoLabel;
     private PartsPanel partsPanel;
+    private ParetoPanel paretoPanel;
+    private SpeedometerPanel speedometerPanel;
     private JTextArea activeSummaryArea;
 
 
     // REQUIRES: Swing must be initialized on the EDT if called from another GUI context.
     // MODIFIES: this
     // EFFECTS:  constructs a new AutoLinkGui with an empty Build, initializes
-    //           JSON reader/writer, creates all Swing components, and prepares
+    //           the JSON reader used to import old saves, creates all Swing components, and prepares
     //           the main window (but does not necessarily make it visible yet).
     public AutoLinkGui() {
          // initialize the model and persistence
         build = new Build();
-        jsonWriter = new JsonWriter(JSON_STORE);
+        clearanceRules = loadClearanceRules();
+        fitmentMonitor = newFitmentMonitor();
+        buildRefresher = b -> refreshAll();
+        build.addListener(buildRefresher);
         jsonReader = new JsonReader(JSON_STORE);
 
         // initialize Swing components
         frame = new JFrame("AutoLink");
         logoLabel = new JLabel();
         partsPanel = new PartsPanel();
+        paretoPanel = new ParetoPanel();
+        speedometerPanel = new SpeedometerPanel();
 
         // build the frame + UI
         initFrame();
 
-        refreshPartsList();
-        refreshActiveBuildSummary();
+        refreshAll();
     }
 
     // REQUIRES: this object has been constructed.
@@ -141,10 +160,13 @@ public class AutoLinkGui {
         JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.add(partsPanel, BorderLayout.CENTER);
 
-        // Right side = active summary
-        JPanel activePanel = buildActivePanel();
+        // Right side = active summary and cost / horsepower / drop trade-offs
+        JTabbedPane rightTabs = new JTabbedPane();
+        rightTabs.addTab("Active Build", buildActivePanel());
+        rightTabs.addTab("Trade-offs", paretoPanel);
+        rightTabs.addTab("Speedometer", speedometerPanel);
 
-        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftPanel, activePanel);
+        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, leftPanel, rightTabs);
         split.setResizeWeight(0.7);      
         split.setDividerLocation(0.7);    
         split.setOneTouchExpandable(true);
@@ -178,9 +200,13 @@ public class AutoLinkGui {
         JButton clearActiveButton = new JButton("Clear Active");
         clearActiveButton.addActionListener(e -> handleClearActiveFromSelection());
 
+        JButton referenceButton = new JButton("Set Reference");
+        referenceButton.addActionListener(e -> handleSetReference());
+
         controls.add(addButton);
         controls.add(setActiveButton);
         controls.add(clearActiveButton);
+        controls.add(referenceButton);
 
         return controls;
     }
@@ -201,14 +227,24 @@ public class AutoLinkGui {
     }
 
 
+    // MODIFIES: this
+    // EFFECTS:  refreshes the parts list, the active build summary, the trade-offs panel and the
+    //           speedometer panel; registered as a listener on the build so the views update once
+    //           per change or committed batch
+    private void refreshAll() {
+        refreshPartsList();
+        refreshActiveBuildSummary();
+        paretoPanel.refresh(build);
+        speedometerPanel.refresh(build);
+    }
+
     // REQUIRES: build != null, partsListModel != null
     // MODIFIES: this, partsListModel
     // EFFECTS:  clears the list model and repopulates it with a textual view
     //           of all parts currently in the build's inventory. Each list entry
     //           includes at least the part name, category, and cost.
     private void refreshPartsList() {
-        List<Part> parts = build.listAllParts();
-        partsPanel.refresh(parts);
+        partsPanel.refresh(build);
     }
 
     // REQUIRES: build != null
@@ -230,8 +266,6 @@ public class AutoLinkGui {
                     JOptionPane.showMessageDialog(frame,"A part with that name already exists in the build.",
                             "Duplicate Part Name",
                             JOptionPane.WARNING_MESSAGE);
-                } else {
-                    refreshPartsList();
                 }
             } catch (IllegalArgumentException e) {
                 JOptionPane.showMessageDialog(frame,e.getMessage(),"Error Adding Part",JOptionPane.ERROR_MESSAGE);
@@ -240,64 +274,132 @@ public class AutoLinkGui {
     }
 
 
-    // REQUIRES: jsonWriter != null
-    // MODIFIES: this, file system at JSON_STORE
-    // EFFECTS:  saves the current build and its parts inventory to JSON_STORE
-    //           using JsonWriter. If the file cannot be opened, shows an error
-    //           dialog and leaves the current build unchanged.
+    // MODIFIES: this, file system at JOURNAL_STORE
+    // EFFECTS:  saves the current build and its parts inventory to JOURNAL_STORE.
+    //           The first save writes the whole build with BuildJournal, after
+    //           which every change is journaled as it is made and a save only
+    //           makes sure the journal is on disk. If saving fails, shows an
+    //           error dialog and the next save writes the whole build again.
     private void handleSave() {
         try {
-            BuildData data = new BuildData(build, build.getParts());
-            jsonWriter.open();
-            jsonWriter.write(data);
-            jsonWriter.close();
+            if (journal == null) {
+                BuildJournal opened = new BuildJournal(JOURNAL_STORE);
+                try {
+                    opened.save(build);
+                } catch (IOException e) {
+                    closeFailed(opened);
+                    throw e;
+                }
+                journal = opened;
+            } else {
+                journal.sync();
+            }
 
             JOptionPane.showMessageDialog(
                     frame,
-                    "Saved AutoLink data to " + JSON_STORE,
+                    "Saved AutoLink data to " + JOURNAL_STORE,
                     "Save Successful",
                     JOptionPane.INFORMATION_MESSAGE
             );
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
+            closeJournal();
             JOptionPane.showMessageDialog(
                     frame,
-                    "Unable to write to file: " + JSON_STORE,
+                    "Unable to write to file: " + JOURNAL_STORE,
                     "Save Error",
                     JOptionPane.ERROR_MESSAGE
             );
         }
     }
 
-    // REQUIRES: jsonReader != null
     // MODIFIES: this, build
-    // EFFECTS:  attempts to load build and inventory data from JSON_STORE using
-    //           JsonReader. If successful, replaces the current Build with the
-    //           loaded one and refreshes the parts list. If an error occurs
-    //           (e.g., file not found or invalid JSON), shows an error dialog
-    //           and leaves the current build unchanged.
+    // EFFECTS:  attempts to load build and inventory data from JOURNAL_STORE using
+    //           BuildJournal (importing JSON_STORE once if only that exists).
+    //           If successful, replaces the current Build with the loaded one,
+    //           journals its later changes and refreshes the parts list. If
+    //           nothing has been saved yet, or an error occurs (e.g., a corrupt
+    //           file), shows a dialog and leaves the current build unchanged.
     private void handleLoad() {
+        BuildJournal opened = new BuildJournal(JOURNAL_STORE);
         try {
-            BuildData data = jsonReader.read();
-            build = data.getBuild();
-            refreshPartsList();
-            refreshActiveBuildSummary();
+            boolean importJson = !opened.exists();
+            if (importJson && !Files.exists(Paths.get(JSON_STORE))) {
+                opened.close();
+                JOptionPane.showMessageDialog(
+                        frame,
+                        "Nothing has been saved to " + JOURNAL_STORE + " yet",
+                        "Nothing to Load",
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+                return;
+            }
+            // the current journal may still be compacting into the files about to be read
+            if (!closeJournal()) {
+                JOptionPane.showMessageDialog(
+                        frame,
+                        "Unable to write to file: " + JOURNAL_STORE,
+                        "Save Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
+            Build loaded;
+            if (importJson) {
+                loaded = jsonReader.readStreaming().getBuild();
+                opened.save(loaded);
+            } else {
+                loaded = opened.load();
+            }
+            journal = opened;
+            build.removeListener(buildRefresher);
+            build = loaded;
+            fitmentMonitor = newFitmentMonitor();
+            build.addListener(buildRefresher);
+            refreshAll();
 
             JOptionPane.showMessageDialog(
                     frame,
-                    "Loaded AutoLink data from " + JSON_STORE,
+                    "Loaded AutoLink data from " + JOURNAL_STORE,
                     "Load Successful",
                     JOptionPane.INFORMATION_MESSAGE
             );
         } catch (IOException e) {
+            closeFailed(opened);
             JOptionPane.showMessageDialog(
                     frame,
-                    "Unable to read from file: " + JSON_STORE,
+                    "Unable to read from file: " + JOURNAL_STORE,
                     "Load Error",
                     JOptionPane.ERROR_MESSAGE
             );
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS:  closes the journal, if any, so later changes to build are not
+    //           saved; returns false if the journal failed to save a change
+    private boolean closeJournal() {
+        if (journal == null) {
+            return true;
+        }
+        try {
+            journal.close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            journal = null;
+        }
+    }
+
+    // EFFECTS:  closes a journal that could not be loaded or saved, which has
+    //           already failed
+    private static void closeFailed(BuildJournal opened) {
+        try {
+            opened.close();
+        } catch (IOException e) {
+            // the failure that got here has already been reported
+        }
+    }
+
     // REQUIRES: logoLabel != null
     // MODIFIES: this, logoLabel
     // EFFECTS:  attempts to load a logo image from the data directory
@@ -334,9 +436,9 @@ public class AutoLinkGui {
 
     // REQUIRES: frame != null
     // MODIFIES: this, frame
-    // EFFECTS:  closes the main window and terminates the application.
-    //           In the future, this method could be extended to prompt the user
-    //           to save before exiting.
+    // EFFECTS:  closes the journal and the main window and terminates the
+    //           application. In the future, this method could be extended to
+    //           prompt the user to save an unsaved build before exiting.
     private void handleQuit() {
         int choice = JOptionPane.showConfirmDialog(
                 frame,
@@ -346,6 +448,14 @@ public class AutoLinkGui {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
+            if (!closeJournal()) {
+                JOptionPane.showMessageDialog(
+                        frame,
+                        "Unable to write to file: " + JOURNAL_STORE,
+                        "Save Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
             printEventLog();
             frame.dispose();
         }
@@ -366,17 +476,14 @@ public class AutoLinkGui {
             return;
         }
 
-        // category key used by Build (e.g., "wheel", "tire", etc.)
-        String categoryKey = selected.getClass().getSimpleName().toLowerCase();
+        PartCategory category = selected.getCategory();
 
         try {
-            boolean ok = build.replaceActivePart(categoryKey, selected.getName());
+            boolean ok = category != null && build.replaceActivePart(category, selected.getName());
             if (!ok) {
                 JOptionPane.showMessageDialog(frame,
                         "Could not set active part (unknown category or part not found).","Set Active",
                         JOptionPane.WARNING_MESSAGE);
-            } else {
-                refreshActiveBuildSummary();
             }
         } catch (IllegalArgumentException e) {
             JOptionPane.showMessageDialog(frame,e.getMessage(),"Error Setting Active Part",JOptionPane.ERROR_MESSAGE);
@@ -393,15 +500,14 @@ public class AutoLinkGui {
             return;
         }
 
-        String categoryKey = selected.getClass().getSimpleName().toLowerCase();
+        PartCategory category = selected.getCategory();
 
         try {
-            boolean ok = build.clearActive(categoryKey);
-            if (!ok) {
-                JOptionPane.showMessageDialog(frame,"Unknown category: " + categoryKey,"Clear Active",
+            if (category == null) {
+                JOptionPane.showMessageDialog(frame,"Unknown category: " + selected.getCategoryName(),"Clear Active",
                                               JOptionPane.WARNING_MESSAGE);
             } else {
-                refreshActiveBuildSummary();
+                build.clearActive(category);
             }
         } catch (IllegalArgumentException e) {
             JOptionPane.showMessageDialog(frame,e.getMessage(),"Error Clearing Active Part",JOptionPane.ERROR_MESSAGE);
@@ -419,33 +525,87 @@ public class AutoLinkGui {
         sb.append("Current Active Build\n");
         sb.append("---------------------\n");
 
-        appendActiveLine(sb, "Wheel", "wheel");
-        appendActiveLine(sb, "Tire", "tire");
-        appendActiveLine(sb, "Suspension", "suspension");
-        appendActiveLine(sb, "Exhaust", "exhaust");
-        appendActiveLine(sb, "Engine", "engine");
-        appendActiveLine(sb, "Transmission", "transmission");
-        appendActiveLine(sb, "Bumper", "bumper");
-        appendActiveLine(sb, "SideSkirts", "sideskirts");
-        appendActiveLine(sb, "Diffuser", "diffuser");
-        appendActiveLine(sb, "Spoiler", "spoiler");
-        appendActiveLine(sb, "Lights", "lights");
+        for (PartCategory category : PartCategory.values()) {
+            appendActiveLine(sb, category);
+        }
 
         sb.append("\n---------------------\n");
         sb.append("Estimated total cost: ").append(build.totalCost());
+        appendFitment(sb);
 
         activeSummaryArea.setText(sb.toString());
         activeSummaryArea.setCaretPosition(0);
     }
 
     //helper
-    private void appendActiveLine(StringBuilder sb, String label, String key) {
-        Part p = build.getActive(key);
+    private void appendActiveLine(StringBuilder sb, PartCategory category) {
+        String label = category.getDisplayName();
+        Part p = build.getActive(category);
         String name = (p == null) ? "-" : p.getName();
         String cost = (p == null) ? "-" : String.valueOf(p.getCost());
         sb.append(String.format("%-12s: %s (cost %s)%n", label, name, cost));
     }
 
+    //helper
+    private void appendFitment(StringBuilder sb) {
+        FitmentReport report = fitmentMonitor.check();
+        sb.append("\n\nFitment\n---------------------\n");
+        if (!Double.isNaN(report.getRollingDiameterMm())) {
+            sb.append(String.format("Rolling diameter: %.1f mm%n", report.getRollingDiameterMm()));
+        }
+        if (build.getReferenceOdMm() != null) {
+            sb.append(String.format("Reference: %.1f mm%n", build.getReferenceOdMm()));
+        }
+        if (report.isClean()) {
+            sb.append("No issues found.");
+        }
+        for (String warning : report.getWarnings()) {
+            sb.append("! ").append(warning).append("\n");
+        }
+        for (String rule : clearanceRules.matching(build)) {
+            sb.append("! Clearance rule: ").append(rule).append("\n");
+        }
+    }
+
+    // EFFECTS: returns the clearance rules in CLEARANCE_RULES, or no rules if the file cannot be
+    //          read; a bad rule is reported on the console and no rules are used
+    private ClearanceRuleSet loadClearanceRules() {
+        try {
+            return ClearanceRuleSet.load(Paths.get(CLEARANCE_RULES));
+        } catch (IOException e) {
+            return new ClearanceRuleSet(new ArrayList<>());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Ignoring clearance rules in " + CLEARANCE_RULES + ": " + e.getMessage());
+            return new ClearanceRuleSet(new ArrayList<>());
+        }
+    }
+
+    // EFFECTS: returns a fitment monitor of build running the standard rules and the clearance rules
+    private FitmentMonitor newFitmentMonitor() {
+        List<FitmentRule> rules = new ArrayList<>(List.of(StandardFitmentRule.values()));
+        rules.add(clearanceRules);
+        return new FitmentMonitor(build, rules);
+    }
+
+    // REQUIRES: build != null
+    // MODIFIES: this, build
+    // EFFECTS:  prompts for the reference rolling diameter in mm and sets it on the build;
+    //           an empty entry clears it, and invalid input shows an error and changes nothing
+    private void handleSetReference() {
+        String input = JOptionPane.showInputDialog(frame,
+                "Reference rolling diameter in mm (leave empty to clear):", "Set Reference",
+                JOptionPane.QUESTION_MESSAGE);
+        if (input == null) {
+            return;
+        }
+        try {
+            build.setReferenceOdMm(input.trim().isEmpty() ? null : Double.valueOf(input.trim()));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(frame, "Please enter a diameter in mm greater than 0.",
+                    "Invalid Reference", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     // EFFECTS: prints all logged events to the console
     private void printEventLog() {
         for (Event e : EventLog.getInstance()) {
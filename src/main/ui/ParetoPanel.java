@@ -0,0 +1,133 @@
+package ui;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Part;
+import model.PartCategory;
+import model.planning.ParetoBuild;
+import model.planning.ParetoFrontier;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Represents the panel that lists the complete builds on the cost / horsepower / drop Pareto
+ * frontier of the current AutoLink build's inventory, cheapest first.
+ *
+ * The panel keeps its frontier between refreshes: when the only change to the inventory is new
+ * parts, they are added to the frontier one by one instead of recomputing it. Any other change
+ * (a removed part, a new reference diameter or a different build) recomputes it. Selecting a row
+ * and pressing "Apply" makes that build the active build.
+ */
+
+@ExcludeFromJacocoGeneratedReport
+public class ParetoPanel extends JPanel {
+
+    private DefaultListModel<String> listModel;
+    private JList<String> list;
+    private JLabel countLabel;
+
+    // build the frontier was computed for, and the parts and settings it has seen
+    private Build currentBuild;
+    private ParetoFrontier frontier;
+    private Set<Part> seenParts;
+    private Double seenReferenceOdMm;
+    // builds currently displayed
+    private List<ParetoBuild> displayedBuilds;
+
+    // REQUIRES: this panel is created and used on the Swing event dispatch thread.
+    // MODIFIES: this
+    // EFFECTS:  constructs an empty ParetoPanel with a count label above a scrollable list of
+    //           frontier builds and an "Apply" button below it
+    public ParetoPanel() {
+        seenParts = Collections.newSetFromMap(new IdentityHashMap<>());
+        displayedBuilds = new ArrayList<>();
+        buildUi();
+    }
+
+    // REQUIRES: build != null
+    // MODIFIES: this
+    // EFFECTS:  brings the frontier up to date with build, adding only the new parts when nothing
+    //           else has changed, and shows its builds
+    public void refresh(Build build) {
+        List<Part> added = new ArrayList<>();
+        for (Part p : build.partsView()) {
+            if (!seenParts.contains(p)) {
+                added.add(p);
+            }
+        }
+        boolean onlyAdded = build == currentBuild && seenParts.size() + added.size() == build.size()
+                && Objects.equals(seenReferenceOdMm, build.getReferenceOdMm());
+        if (onlyAdded) {
+            added.forEach(frontier::add);
+            seenParts.addAll(added);
+        } else {
+            currentBuild = build;
+            frontier = new ParetoFrontier(build);
+            seenParts.clear();
+            seenParts.addAll(build.partsView());
+            seenReferenceOdMm = build.getReferenceOdMm();
+        }
+        showBuilds();
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  replaces the listed builds with the builds on the frontier
+    private void showBuilds() {
+        listModel.clear();
+        displayedBuilds = frontier.getBuilds();
+        countLabel.setText(displayedBuilds.isEmpty() ? "No complete build: no wheel and tire fit each other."
+                : displayedBuilds.size() + " builds on the frontier");
+        for (ParetoBuild b : displayedBuilds) {
+            listModel.addElement(formatBuild(b));
+        }
+    }
+
+    // EFFECTS: returns "$cost | hp | drop | engine | suspension" for b
+    private String formatBuild(ParetoBuild b) {
+        Part engine = b.getPart(PartCategory.ENGINE);
+        Part suspension = b.getPart(PartCategory.SUSPENSION);
+        return String.format("$%d | %d hp | %d mm | %s | %s", b.getTotalCost(), b.getHorsepower(), b.getDropMm(),
+                engine == null ? "-" : engine.getName(), suspension == null ? "-" : suspension.getName());
+    }
+
+    // MODIFIES: this, currentBuild
+    // EFFECTS:  makes the selected frontier build the active build; shows a message if nothing is
+    //           selected or its parts are no longer in inventory
+    private void handleApply() {
+        int index = list.getSelectedIndex();
+        if (index < 0 || index >= displayedBuilds.size()) {
+            JOptionPane.showMessageDialog(this, "Please select a build in the list first.", "No Selection",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } else if (!displayedBuilds.get(index).applyTo(currentBuild)) {
+            JOptionPane.showMessageDialog(this, "Some parts of that build are no longer in inventory.",
+                    "Apply Build", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  creates the count label, the list of builds and the apply button and lays them out
+    private void buildUi() {
+        setLayout(new BorderLayout());
+
+        listModel = new DefaultListModel<>();
+        list = new JList<>(listModel);
+        list.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        countLabel = new JLabel();
+
+        JButton applyButton = new JButton("Apply");
+        applyButton.addActionListener(e -> handleApply());
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(applyButton);
+
+        add(countLabel, BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+        add(controls, BorderLayout.SOUTH);
+    }
+}
@@ -1,38 +1,51 @@
 package ui;
 
 import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
 import model.Part;
+import model.PartCategory;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Represents the panel that displays the parts in the current AutoLink build.
  * Shows a list of parts and provides controls for filtering the list by part
  * category (Wheel, Tire, Suspension, Exhaust, Engine, Transmission, Bumper,
- * SideSkirts, Diffuser, Spoiler, Lights).
+ * SideSkirts, Diffuser, Spoiler, Lights) and by a price band, plus a search
+ * field that narrows the list to names starting with the typed text as the
+ * user types.
  *
  * This class is responsible only for the visual representation and basic
  * filtering of parts; it does not modify the underlying model. The parent
- * GUI (AutoLinkGui) is responsible for supplying the list of parts to display.
+ * GUI (AutoLinkGui) is responsible for supplying the build whose parts are displayed.
  */
 
 @ExcludeFromJacocoGeneratedReport
 public class PartsPanel extends JPanel {
 
+    // most parts listed for a name search, so type-ahead stays responsive on large inventories
+    private static final int SEARCH_LIMIT = 500;
+
     // list model + list used to display parts
     private DefaultListModel<String> partsListModel;
     private JList<String> partsList;
 
     // filter controls
+    private JTextField searchField;
     private JComboBox<String> filterComboBox;
+    private JTextField minCostField;
+    private JTextField maxCostField;
     private JButton filterButton;
 
 
-    // cached copy of all parts currently supplied by the GUI
-    private List<Part> currentParts;
+    // build currently supplied by the GUI (read only)
+    private Build currentBuild;
     // parts currently displayed after applying the filter
     private List<Part> displayedParts;
 
@@ -45,7 +58,6 @@ public class PartsPanel extends JPanel {
     //           Diffuser, Spoiler, Lights), and lays out the filter controls
     //           above the scrollable parts list.
     public PartsPanel() {
-        currentParts = new ArrayList<>();
         displayedParts = new ArrayList<>();
         buildUi();
     }
@@ -66,50 +78,82 @@ public class PartsPanel extends JPanel {
         }
     }
 
-    // REQUIRES: parts != null; parts may be empty
-    // MODIFIES: this, currentParts, partsListModel
-    // EFFECTS:  replaces the cached list of parts with a defensive copy of
-    //           parts, then refreshes the visible list according to the
-    //           currently selected filter in the combo box. If "All" is
-    //           selected, all parts are shown; otherwise, only parts whose
-    //           runtime category matches the selected category are displayed.
-    public void refresh(List<Part> parts) {
-        currentParts = new ArrayList<>(parts);
+    // REQUIRES: build != null
+    // MODIFIES: this, currentBuild, partsListModel
+    // EFFECTS:  remembers the given build, then refreshes the visible list
+    //           according to the currently selected filter in the combo box.
+    //           If "All" is selected, all parts are shown; otherwise, only
+    //           parts in the selected category are displayed.
+    public void refresh(Build build) {
+        currentBuild = build;
         applyFilterFromSelection();
     }
 
-    // REQUIRES: currentParts != null; filterComboBox != null; partsListModel != null
+    // REQUIRES: filterComboBox != null; partsListModel != null
     // MODIFIES: this, partsListModel
     // EFFECTS:  reads the selected category from the filter combo box. If the
-    //           selected item is "All", displays all parts in currentParts.
-    //           Otherwise, displays only parts whose class simple name matches
-    //           the selected category string. The list model is cleared and
-    //           repopulated with the filtered entries.
+    //           selected item is "All", displays all parts in currentBuild.
+    //           Otherwise, displays only the parts the build has grouped under
+    //           the selected category. If a min or max cost is entered, only
+    //           parts within that price band are shown, cheapest first. If
+    //           search text is entered, only parts whose names start with it
+    //           (ignoring case) are shown, alphabetically, up to SEARCH_LIMIT.
+    //           The list model is cleared and repopulated with the filtered entries.
     private void applyFilterFromSelection() {
-        if (partsListModel == null || currentParts == null) {
+        if (partsListModel == null || currentBuild == null) {
             return;
         }
 
-        String selected = (filterComboBox != null)
-                ? (String) filterComboBox.getSelectedItem()
-                : null;
+        // combo box index 0 is "All"; index i + 1 is PartCategory.values()[i]
+        int selected = (filterComboBox != null) ? filterComboBox.getSelectedIndex() : 0;
 
         partsListModel.clear();
         displayedParts.clear();
 
-        if (selected == null || "All".equals(selected)) {
-            for (Part p : currentParts) {
+        PartCategory category = (selected <= 0) ? null : PartCategory.values()[selected - 1];
+        int min = readCostBound(minCostField, 0);
+        int max = readCostBound(maxCostField, Integer.MAX_VALUE);
+
+        String search = searchField.getText().trim();
+        if (!search.isEmpty()) {
+            showSearchResults(search, category, min, max);
+            return;
+        }
+
+        Collection<Part> parts;
+        if (min > max) {
+            parts = new ArrayList<>();
+        } else if (min > 0 || max < Integer.MAX_VALUE) {
+            parts = (category == null) ? currentBuild.partsInCostRange(min, max)
+                    : currentBuild.partsInCostRange(category, min, max);
+        } else if (category == null) {
+            parts = currentBuild.partsView();
+        } else {
+            parts = currentBuild.categoryView(category);
+        }
+        for (Part p : parts) {
+            partsListModel.addElement(formatPartForDisplay(p));
+            displayedParts.add(p);
+        }
+    }
+
+    // REQUIRES: search is non-empty
+    // MODIFIES: this, partsListModel
+    // EFFECTS:  displays up to SEARCH_LIMIT parts whose names start with search
+    //           that are also in category (any category if null) and cost
+    //           between min and max, alphabetically
+    private void showSearchResults(String search, PartCategory category, int min, int max) {
+        boolean unfiltered = category == null && min == 0 && max == Integer.MAX_VALUE;
+        int limit = unfiltered ? SEARCH_LIMIT : Integer.MAX_VALUE;
+        for (Part p : currentBuild.partsWithPrefix(search, limit)) {
+            if (displayedParts.size() == SEARCH_LIMIT) {
+                break;
+            }
+            boolean inCategory = category == null || p.getCategory() == category;
+            if (inCategory && p.getCost() >= min && p.getCost() <= max) {
                 partsListModel.addElement(formatPartForDisplay(p));
                 displayedParts.add(p);
             }
-        } else {
-            for (Part p : currentParts) {
-                String category = p.getClass().getSimpleName();
-                if (category.equals(selected)) {
-                    partsListModel.addElement(formatPartForDisplay(p));
-                    displayedParts.add(p);
-                }
-            }
         }
     }
 
@@ -132,8 +176,14 @@ public class PartsPanel extends JPanel {
         filterButton.addActionListener(e -> applyFilterFromSelection());
 
         JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Search:"));
+        controls.add(searchField);
         controls.add(new JLabel("Filter:"));
         controls.add(filterComboBox);
+        controls.add(new JLabel("Min $"));
+        controls.add(minCostField);
+        controls.add(new JLabel("Max $"));
+        controls.add(maxCostField);
         controls.add(filterButton);
 
         JScrollPane scrollPane = new JScrollPane(partsList);
@@ -145,22 +195,33 @@ public class PartsPanel extends JPanel {
     
     //helper for method above
     private void initFilterControls() {
+        searchField = new JTextField(12);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applyFilterFromSelection();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applyFilterFromSelection();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applyFilterFromSelection();
+            }
+        });
         filterComboBox = new JComboBox<>();
+        minCostField = new JTextField(6);
+        maxCostField = new JTextField(6);
         filterButton = new JButton("Apply Filter");
 
         List<String> categories = new ArrayList<>();
         categories.add("All");
-        categories.add("Wheel");
-        categories.add("Tire");
-        categories.add("Suspension");
-        categories.add("Exhaust");
-        categories.add("Engine");
-        categories.add("Transmission");
-        categories.add("Bumper");
-        categories.add("SideSkirts");
-        categories.add("Diffuser");
-        categories.add("Spoiler");
-        categories.add("Lights");
+        for (PartCategory c : PartCategory.values()) {
+            categories.add(c.getDisplayName());
+        }
 
         setFilterCategories(categories);
 
@@ -168,13 +229,28 @@ public class PartsPanel extends JPanel {
     }
 
 
+    // REQUIRES: field != null
+    // EFFECTS:  returns the whole-dollar cost typed into field, or fallback if the
+    //           field is blank or does not hold a non-negative whole number
+    private int readCostBound(JTextField field, int fallback) {
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            return fallback;
+        }
+        try {
+            int value = Integer.parseInt(text);
+            return (value < 0) ? fallback : value;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
     // REQUIRES: part != null
     // MODIFIES: nothing
     // EFFECTS:  returns a human-readable string representation of the given
     //           part for display in the list.
     private String formatPartForDisplay(Part part) {
-        String category = part.getClass().getSimpleName();
-        return part.getName() + " (" + category + ") - $" + part.getCost();
+        return part.getName() + " (" + part.getCategoryName() + ") - $" + part.getCost();
     }
 
     // REQUIRES: this panel is visible; may return null if nothing is selected
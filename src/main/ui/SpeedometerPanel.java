@@ -0,0 +1,88 @@
+package ui;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Part;
+import model.PartCategory;
+import model.Tire;
+import model.Transmission;
+import model.fitment.SpeedometerCalculator;
+import model.fitment.SpeedometerEffect;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the panel that lists every tire in the current AutoLink build's inventory with the
+ * speedometer error and effective final drive change it causes against the reference rolling
+ * diameter, smallest error first.
+ *
+ * The panel keeps one SpeedometerCalculator, so refreshing after an unrelated change only looks up
+ * cached effects; the cache is dropped when the reference changes.
+ */
+
+@ExcludeFromJacocoGeneratedReport
+public class SpeedometerPanel extends JPanel {
+
+    // true speed the indicated speed column is shown for
+    private static final double SAMPLE_SPEED = 100.0;
+
+    private SpeedometerCalculator calculator;
+    private DefaultListModel<String> listModel;
+    private JLabel headerLabel;
+
+    // REQUIRES: this panel is created and used on the Swing event dispatch thread.
+    // MODIFIES: this
+    // EFFECTS:  constructs an empty SpeedometerPanel with a header label above a scrollable list of tires
+    public SpeedometerPanel() {
+        calculator = new SpeedometerCalculator();
+        setLayout(new BorderLayout());
+        listModel = new DefaultListModel<>();
+        JList<String> list = new JList<>(listModel);
+        list.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        headerLabel = new JLabel();
+        add(headerLabel, BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+    }
+
+    // REQUIRES: build != null
+    // MODIFIES: this
+    // EFFECTS:  lists build's tires sorted by speedometer error against build's reference, or asks for
+    //           a reference if none is set
+    public void refresh(Build build) {
+        calculator.setReferenceOdMm(build.getReferenceOdMm());
+        listModel.clear();
+        if (build.getReferenceOdMm() == null) {
+            headerLabel.setText("Set a reference rolling diameter to see speedometer error.");
+            return;
+        }
+        headerLabel.setText(header(build));
+
+        List<Tire> tires = new ArrayList<>();
+        for (Part p : build.categoryView(PartCategory.TIRE)) {
+            tires.add((Tire) p);
+        }
+        // DefaultListModel.addAll fires one event for the whole catalog instead of one per tire
+        List<String> rows = new ArrayList<>(tires.size());
+        for (Tire t : calculator.sortBySpeedoError(tires)) {
+            SpeedometerEffect effect = calculator.effectOf(t);
+            rows.add(String.format("%-24s %7.1f mm  speedo %+6.2f%%  (%.0f reads %.1f)  final drive %+6.2f%%",
+                    t.getName(), effect.getRollingDiameterMm(), effect.getSpeedoErrorPct(), SAMPLE_SPEED,
+                    effect.indicatedSpeed(SAMPLE_SPEED), effect.getFinalDriveChangePct()));
+        }
+        listModel.addAll(rows);
+    }
+
+    // EFFECTS: returns the header text naming the reference and the active transmission, if any
+    private String header(Build build) {
+        String text = String.format("Reference %.1f mm", build.getReferenceOdMm());
+        Transmission transmission = (Transmission) build.getActive(PartCategory.TRANSMISSION);
+        if (transmission != null) {
+            text += String.format("; final drive change applies to all %d gears of %s (%s)",
+                    transmission.getGears(), transmission.getName(), transmission.getDrive());
+        }
+        return text;
+    }
+}
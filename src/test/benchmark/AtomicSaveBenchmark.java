@@ -0,0 +1,52 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Part;
+import model.Tire;
+import model.Wheel;
+import persistence.BuildData;
+import persistence.Durability;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Benchmark of the save latency of JsonWriter with each Durability level, for a small and a large
+// inventory. Run the main method with an optional number of saves per case (default 50).
+@ExcludeFromJacocoGeneratedReport
+public class AtomicSaveBenchmark {
+
+    private static final int[] SIZES = {100, 100_000};
+
+    public static void main(String[] args) throws IOException {
+        int saves = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+        Path dir = Files.createTempDirectory("autolink-bench");
+        Path file = dir.resolve("autolink.json");
+        for (int size : SIZES) {
+            List<Part> inventory = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                inventory.add((i % 2 == 0) ? new Wheel("Wheel " + i, 1000, 18, 8.5, 35)
+                        : new Tire("Tire " + i, 300, 245, 40, 18));
+            }
+            BuildData data = new BuildData(new Build("Benchmark"), inventory);
+            for (Durability durability : Durability.values()) {
+                JsonWriter writer = new JsonWriter(file.toString(), JsonWriter.Format.COMPACT, durability);
+                long start = System.nanoTime();
+                for (int i = 0; i < saves; i++) {
+                    writer.open();
+                    writer.write(data);
+                    writer.close();
+                }
+                long end = System.nanoTime();
+                System.out.printf("%7d parts, %-5s: %.2f ms per save%n", size, durability,
+                        (end - start) / 1e6 / saves);
+            }
+        }
+        Files.delete(file);
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.*;
+import model.planning.BuildOptimizer;
+import model.planning.PlannedBuild;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of BuildOptimizer on synthetic inventories with parts in all eleven categories.
+// Run the main method with an optional part count (default 11000) and budget (default 40000).
+@ExcludeFromJacocoGeneratedReport
+public class BuildOptimizerBenchmark {
+
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int partCount = (args.length > 0) ? Integer.parseInt(args[0]) : 11000;
+        long budget = (args.length > 1) ? Long.parseLong(args[1]) : 40000;
+
+        Build build = new Build();
+        build.addAll(syntheticInventory(partCount, new Random(2024)));
+        System.out.println("Inventory: " + build.size() + " parts, budget " + budget);
+
+        BuildOptimizer optimizer = new BuildOptimizer(build);
+        List<PlannedBuild> plans = null;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            plans = optimizer.optimize(budget, 5);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("run %d: %.1f ms%n", run + 1, elapsed / 1e6);
+        }
+        for (PlannedBuild plan : plans) {
+            System.out.println(plan);
+        }
+    }
+
+    // EFFECTS: returns count random parts spread evenly over the eleven categories
+    static List<Part> syntheticInventory(int count, Random random) {
+        List<Part> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            parts.add(randomPart(PartCategory.values()[i % PartCategory.values().length], i, random));
+        }
+        return parts;
+    }
+
+    // EFFECTS: returns a random part of the given category named after i
+    private static Part randomPart(PartCategory category, int i, Random random) {
+        String name = category.getDisplayName() + "-" + i;
+        int cost = 100 + random.nextInt(5000);
+        switch (category) {
+            case WHEEL: return new Wheel(name, cost, 15 + random.nextInt(6), 6 + random.nextInt(9) * 0.5,
+                    random.nextInt(50));
+            case TIRE: return new Tire(name, cost, 185 + 10 * random.nextInt(10), 30 + 5 * random.nextInt(6),
+                    15 + random.nextInt(6));
+            case SUSPENSION: return new Suspension(name, cost, "coilover", random.nextInt(80));
+            case EXHAUST: return new Exhaust(name, cost, "ss");
+            case ENGINE: return new Engine(name, cost, "i4", 100 + random.nextInt(600), 1.0 + random.nextInt(60) / 10.0);
+            case TRANSMISSION: return new Transmission(name, cost, "manual", 5 + random.nextInt(3), "RWD");
+            case BUMPER: return new Bumper(name, cost, "front", "carbon fiber", "brand", "style");
+            case SIDE_SKIRTS: return new SideSkirts(name, cost, "fiberglass", "brand");
+            case DIFFUSER: return new Diffuser(name, cost, "carbon fiber", "brand", random.nextBoolean());
+            case SPOILER: return new Spoiler(name, cost, "carbon fiber", "gt", random.nextInt(400));
+            default: return new Lights(name, cost, "headlights", "brand", "LED", "clear");
+        }
+    }
+}
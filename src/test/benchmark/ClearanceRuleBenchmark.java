@@ -0,0 +1,76 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.fitment.ClearanceRule;
+import model.fitment.ClearanceRuleSet;
+import model.fitment.ClearanceSpecs;
+
+import java.util.Random;
+
+// Benchmark of interpreted against compiled clearance rules over millions of wheel / tire / drop
+// combinations. Run the main method with an optional combination count (default 5000000).
+@ExcludeFromJacocoGeneratedReport
+public class ClearanceRuleBenchmark {
+
+    private static final String RULES = "tall-sidewall-slammed: drop > 50 and sidewall > 110\n"
+            + "wide-wheel-low-offset: wheel_width >= 10 and offset < 15\n"
+            + "lowered-large-tire: drop + max(diameter - 660, 0) / 2 > 70\n"
+            + "poke: (wheel_width_mm - tire_width) / 2 + (35 - offset) > 25\n";
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000_000;
+        ClearanceRuleSet rules = ClearanceRuleSet.parse(RULES);
+
+        // candidate specs as primitive arrays, so the sweep itself allocates nothing
+        Random random = new Random(42);
+        double[] wheelDiameters = new double[count];
+        double[] wheelWidths = new double[count];
+        double[] offsets = new double[count];
+        double[] tireWidths = new double[count];
+        double[] aspects = new double[count];
+        double[] drops = new double[count];
+        for (int i = 0; i < count; i++) {
+            wheelDiameters[i] = 15 + random.nextInt(6);
+            wheelWidths[i] = 6 + random.nextInt(9) * 0.5;
+            offsets[i] = random.nextInt(60);
+            tireWidths[i] = 185 + 10 * random.nextInt(12);
+            aspects[i] = 25 + 5 * random.nextInt(10);
+            drops[i] = random.nextInt(100);
+        }
+
+        ClearanceSpecs specs = new ClearanceSpecs();
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            long interpreted = 0;
+            for (int i = 0; i < count; i++) {
+                specs.setWheel(wheelDiameters[i], wheelWidths[i], offsets[i]);
+                specs.setTire(tireWidths[i], aspects[i], wheelDiameters[i]);
+                specs.setDrop(drops[i]);
+                for (ClearanceRule r : rules.getRules()) {
+                    if (r.interpret(specs)) {
+                        interpreted++;
+                    }
+                }
+            }
+            long middle = System.nanoTime();
+            long compiled = 0;
+            for (int i = 0; i < count; i++) {
+                specs.setWheel(wheelDiameters[i], wheelWidths[i], offsets[i]);
+                specs.setTire(tireWidths[i], aspects[i], wheelDiameters[i]);
+                specs.setDrop(drops[i]);
+                for (ClearanceRule r : rules.getRules()) {
+                    if (r.test(specs)) {
+                        compiled++;
+                    }
+                }
+            }
+            long end = System.nanoTime();
+            if (interpreted != compiled) {
+                throw new IllegalStateException("interpreted and compiled rules disagree");
+            }
+            System.out.printf("run %d: interpreted %.1f ms, compiled %.1f ms (%d rule hits over %d combinations)%n",
+                    run + 1, (middle - start) / 1e6, (end - middle) / 1e6, compiled, count);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Tire;
+import model.Wheel;
+import model.fitment.CompatibilityMatrix;
+import model.fitment.FitmentCache;
+import model.fitment.FitmentEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Benchmark of three ways to check every wheel against every tire of an inventory whose parts share
+// a few thousand spec pairs: one FitmentEngine.evaluate call per pair, one lookup per pair in a
+// FitmentCache of the default capacity, and the spec-grouped join of CompatibilityMatrix on one thread.
+// Run the main method with an optional number of wheels, also used as the number of tires (default 2000).
+@ExcludeFromJacocoGeneratedReport
+public class FitmentCacheBenchmark {
+
+    private static final int RUNS = 5;
+    private static final double REFERENCE_OD_MM = 650;
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(16);
+        List<Wheel> wheels = new ArrayList<>(count);
+        List<Tire> tires = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            wheels.add(new Wheel("W" + i, 100, 15 + random.nextInt(6), 6 + random.nextInt(9) * 0.5, 20));
+            tires.add(new Tire("T" + i, 100, 185 + 10 * random.nextInt(10), 30 + 5 * random.nextInt(6),
+                    15 + random.nextInt(6)));
+        }
+        FitmentCache cache = new FitmentCache(FitmentCache.DEFAULT_CAPACITY);
+        ForkJoinPool pool = new ForkJoinPool(1);
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            long direct = 0;
+            for (Wheel w : wheels) {
+                for (Tire t : tires) {
+                    if (FitmentEngine.evaluate(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(), t.getAspectPercent(),
+                            t.getRimDiameterIn(), 0, REFERENCE_OD_MM, 3.0) == 0) {
+                        direct++;
+                    }
+                }
+            }
+            long afterDirect = System.nanoTime();
+            long cached = 0;
+            for (Wheel w : wheels) {
+                for (Tire t : tires) {
+                    if (cache.evaluate(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(), t.getAspectPercent(),
+                            t.getRimDiameterIn(), 0, REFERENCE_OD_MM, 3.0) == 0) {
+                        cached++;
+                    }
+                }
+            }
+            long afterCached = System.nanoTime();
+            long grouped = new CompatibilityMatrix(wheels, tires, REFERENCE_OD_MM, 3.0)
+                    .forEachCompatible(pool, (w, t) -> { });
+            long end = System.nanoTime();
+            System.out.printf("run %d: per pair %.1f ms, cache per pair %.1f ms (%.0f%% hits), "
+                            + "spec-grouped join %.1f ms (%d / %d / %d pairs)%n", run + 1,
+                    (afterDirect - start) / 1e6, (afterCached - afterDirect) / 1e6, cache.getHitRate() * 100,
+                    (end - afterCached) / 1e6, direct, cached, grouped);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.PartCategory;
+import model.Tire;
+import model.Wheel;
+import persistence.BuildData;
+import persistence.BuildJournal;
+import persistence.Durability;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+// Benchmark of the cost of saving one small change to a large inventory: a full compact JSON save
+// against a BuildJournal append, with each Durability level. Run the main method with an optional
+// inventory size (default 100000) and number of changes per case (default 50).
+@ExcludeFromJacocoGeneratedReport
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int changes = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+        Path dir = Files.createTempDirectory("autolink-bench");
+        for (Durability durability : Durability.values()) {
+            BuildJournal journal = new BuildJournal(dir.resolve("autolink.bin").toString(),
+                    BuildJournal.DEFAULT_COMPACT_BYTES, durability);
+            Build build = journal.load();
+            for (int i = 0; i < size; i++) {
+                build.addPart((i % 2 == 0) ? new Wheel("Wheel " + i, 1000, 18, 8.5, 35)
+                        : new Tire("Tire " + i, 300, 245, 40, 18));
+            }
+            journal.compact();
+
+            JsonWriter writer = new JsonWriter(dir.resolve("autolink.json").toString(),
+                    JsonWriter.Format.COMPACT, durability);
+            long start = System.nanoTime();
+            for (int i = 0; i < changes; i++) {
+                build.setActive(PartCategory.WHEEL, "Wheel " + (2 * i));
+                writer.open();
+                writer.write(new BuildData(build, build.partsView()));
+                writer.close();
+            }
+            long json = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < changes; i++) {
+                build.setActive(PartCategory.WHEEL, "Wheel " + (2 * i));
+            }
+            long journaled = System.nanoTime() - start;
+            journal.close();
+
+            System.out.printf("%d parts, %-5s: JSON save %.3f ms, journal append %.3f ms per change%n", size,
+                    durability, json / 1e6 / changes, journaled / 1e6 / changes);
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) files::iterator) {
+                    Files.delete(p);
+                }
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Part;
+import model.Tire;
+import model.Wheel;
+import persistence.BuildData;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of JsonReader.read, which builds the whole document before parsing it, against the
+// streaming mode, which reads one part at a time, on a generated inventory file. Prints the time
+// and the peak heap of each; the streaming run passes parts to a counter so only one part is live
+// at a time. Run the main method with an optional part count (default 500000).
+@ExcludeFromJacocoGeneratedReport
+public class JsonReadBenchmark {
+
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(4);
+        List<Part> inventory = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inventory.add((i % 2 == 0)
+                    ? new Wheel("Wheel " + i, 500 + random.nextInt(3000), 15 + random.nextInt(8), 7 + random.nextInt(4),
+                            20 + random.nextInt(30))
+                    : new Tire("Tire " + i, 100 + random.nextInt(900), 185 + 10 * random.nextInt(10),
+                            30 + 5 * random.nextInt(8), 15 + random.nextInt(8)));
+        }
+        Path file = Files.createTempFile("autolink-bench", ".json");
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(new BuildData(new Build("Benchmark"), inventory));
+        writer.close();
+        inventory = null;
+        System.out.printf("%d parts, %.1f MB file%n", count, Files.size(file) / 1e6);
+
+        JsonReader reader = new JsonReader(file.toString());
+        for (int run = 0; run < RUNS; run++) {
+            resetPeaks();
+            long start = System.nanoTime();
+            int read = reader.read().getInventory().size();
+            long middle = System.nanoTime();
+            long domPeak = peakHeap();
+
+            resetPeaks();
+            long[] streamed = new long[1];
+            long restart = System.nanoTime();
+            reader.readStreaming(p -> streamed[0]++);
+            long end = System.nanoTime();
+            long streamPeak = peakHeap();
+
+            System.out.printf("run %d: read %d parts in %.0f ms (peak %.0f MB), streaming %d parts in %.0f ms"
+                    + " (peak %.0f MB)%n", run + 1, read, (middle - start) / 1e6, domPeak / 1e6, streamed[0],
+                    (end - restart) / 1e6, streamPeak / 1e6);
+        }
+        Files.delete(file);
+    }
+
+    // EFFECTS: collects garbage and resets the peak usage of the heap memory pools
+    private static void resetPeaks() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // EFFECTS: returns the sum of the peak usage of the heap memory pools since the last reset
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
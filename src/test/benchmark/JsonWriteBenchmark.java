@@ -0,0 +1,90 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Part;
+import model.Tire;
+import model.Wheel;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.BuildData;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of saving a generated inventory the old way (a JSONObject of everything, pretty-printed
+// into one String) against the streaming JsonWriter in pretty and compact format. Prints the time
+// and file size of each. Run the main method with an optional part count (default 500000).
+@ExcludeFromJacocoGeneratedReport
+public class JsonWriteBenchmark {
+
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(4);
+        List<Part> inventory = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inventory.add((i % 2 == 0)
+                    ? new Wheel("Wheel " + i, 500 + random.nextInt(3000), 15 + random.nextInt(8), 7 + random.nextInt(4),
+                            20 + random.nextInt(30))
+                    : new Tire("Tire " + i, 100 + random.nextInt(900), 185 + 10 * random.nextInt(10),
+                            30 + 5 * random.nextInt(8), 15 + random.nextInt(8)));
+        }
+        BuildData data = new BuildData(new Build("Benchmark"), inventory);
+        Path file = Files.createTempFile("autolink-bench", ".json");
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            writeDom(file, data);
+            long dom = System.nanoTime() - start;
+            long domSize = Files.size(file);
+
+            start = System.nanoTime();
+            writeStreaming(file, data, JsonWriter.Format.PRETTY);
+            long pretty = System.nanoTime() - start;
+            long prettySize = Files.size(file);
+
+            start = System.nanoTime();
+            writeStreaming(file, data, JsonWriter.Format.COMPACT);
+            long compact = System.nanoTime() - start;
+            long compactSize = Files.size(file);
+
+            System.out.printf("run %d: DOM %.0f ms (%.1f MB), streaming pretty %.0f ms (%.1f MB), "
+                    + "streaming compact %.0f ms (%.1f MB)%n", run + 1, dom / 1e6, domSize / 1e6, pretty / 1e6,
+                    prettySize / 1e6, compact / 1e6, compactSize / 1e6);
+        }
+        Files.delete(file);
+    }
+
+    // EFFECTS: saves data to file the way JsonWriter did before streaming
+    private static void writeDom(Path file, BuildData data) throws IOException {
+        JSONObject build = new JSONObject();
+        build.put("name", data.getBuild().getName());
+        build.put("parts", new JSONArray());
+        JSONArray parts = new JSONArray();
+        for (Part p : data.getInventoryView()) {
+            parts.put(p.toJson());
+        }
+        JSONObject json = new JSONObject();
+        json.put("activeBuild", build);
+        json.put("inventory", parts);
+        try (PrintWriter writer = new PrintWriter(file.toFile())) {
+            writer.print(json.toString(4));
+        }
+    }
+
+    // EFFECTS: saves data to file with the streaming JsonWriter in the given format
+    private static void writeStreaming(Path file, BuildData data, JsonWriter.Format format) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString(), format);
+        writer.open();
+        writer.write(data);
+        writer.close();
+    }
+}
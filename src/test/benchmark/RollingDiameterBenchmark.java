@@ -0,0 +1,62 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Tire;
+import model.fitment.FitmentEngine;
+import model.fitment.RollingDiameterTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of the batch rolling diameter kernel against one FitmentEngine call per tire, and of
+// nearest-diameter lookups in a RollingDiameterTable. Run the main method with an optional tire
+// count (default 2000000).
+@ExcludeFromJacocoGeneratedReport
+public class RollingDiameterBenchmark {
+
+    private static final int RUNS = 5;
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(9);
+        List<Tire> tires = new ArrayList<>(count);
+        double[] widths = new double[count];
+        double[] aspects = new double[count];
+        double[] rims = new double[count];
+        for (int i = 0; i < count; i++) {
+            Tire t = new Tire("T" + i, 100, 155 + 5 * random.nextInt(40), 25 + 5 * random.nextInt(12),
+                    13 + random.nextInt(10));
+            tires.add(t);
+            widths[i] = t.getWidthMm();
+            aspects[i] = t.getAspectPercent();
+            rims[i] = t.getRimDiameterIn();
+        }
+
+        double[] out = new double[count];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                Tire t = tires.get(i);
+                out[i] = FitmentEngine.rollingDiameterMm(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn());
+            }
+            long middle = System.nanoTime();
+            RollingDiameterTable.rollingDiametersMm(widths, aspects, rims, out);
+            long end = System.nanoTime();
+            System.out.printf("run %d: per tire %.1f ms, batch kernel %.1f ms%n", run + 1,
+                    (middle - start) / 1e6, (end - middle) / 1e6);
+        }
+
+        long start = System.nanoTime();
+        RollingDiameterTable table = new RollingDiameterTable(tires);
+        long built = System.nanoTime();
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += table.nearestIndex(500 + random.nextInt(300));
+        }
+        long end = System.nanoTime();
+        System.out.printf("table of %d tires (%d diameters) built in %.1f ms, %d lookups in %.1f ms (%d)%n",
+                table.size(), table.distinctCount(), (built - start) / 1e6, LOOKUPS, (end - built) / 1e6, found);
+    }
+}
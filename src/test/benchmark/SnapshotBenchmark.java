@@ -0,0 +1,87 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Build;
+import model.Bumper;
+import model.Engine;
+import model.Part;
+import model.Tire;
+import model.Wheel;
+import persistence.BinaryReader;
+import persistence.BinaryWriter;
+import persistence.BuildData;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark of saving and loading a generated inventory as compact JSON (streamed both ways) and
+// as a binary snapshot. Prints the save and load throughput in parts per second and the file size
+// of each. Run the main method with an optional part count (default 500000).
+@ExcludeFromJacocoGeneratedReport
+public class SnapshotBenchmark {
+
+    private static final int RUNS = 3;
+    private static final String[] BRANDS = {"Varis", "Mugen", "TRD", "Rocket Bunny", "Seibon"};
+    private static final String[] MATERIALS = {"carbon fiber", "fiberglass", "polyurethane"};
+
+    public static void main(String[] args) throws IOException {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(6);
+        List<Part> inventory = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (i % 4) {
+                case 0: inventory.add(new Wheel("Wheel " + i, 500 + random.nextInt(3000), 15 + random.nextInt(8),
+                        7 + 0.5 * random.nextInt(6), 20 + random.nextInt(30)));
+                    break;
+                case 1: inventory.add(new Tire("Tire " + i, 100 + random.nextInt(900), 185 + 10 * random.nextInt(10),
+                        30 + 5 * random.nextInt(8), 15 + random.nextInt(8)));
+                    break;
+                case 2: inventory.add(new Engine("Engine " + i, 5000 + random.nextInt(20000), "I6",
+                        150 + random.nextInt(500), 1.5 + random.nextInt(40) / 10.0));
+                    break;
+                default: inventory.add(new Bumper("Bumper " + i, 400 + random.nextInt(2000), "front",
+                        MATERIALS[random.nextInt(MATERIALS.length)], BRANDS[random.nextInt(BRANDS.length)], "street"));
+            }
+        }
+        BuildData data = new BuildData(new Build("Benchmark"), inventory);
+        Path jsonFile = Files.createTempFile("autolink-bench", ".json");
+        Path binaryFile = Files.createTempFile("autolink-bench", ".bin");
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            JsonWriter jsonWriter = new JsonWriter(jsonFile.toString(), JsonWriter.Format.COMPACT);
+            jsonWriter.open();
+            jsonWriter.write(data);
+            jsonWriter.close();
+            long jsonSave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new JsonReader(jsonFile.toString()).readStreaming();
+            long jsonLoad = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BinaryWriter binaryWriter = new BinaryWriter(binaryFile.toString());
+            binaryWriter.open();
+            binaryWriter.write(data);
+            binaryWriter.close();
+            long binarySave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new BinaryReader(binaryFile.toString()).read();
+            long binaryLoad = System.nanoTime() - start;
+
+            System.out.printf("run %d: JSON save %.2f M parts/s, load %.2f M parts/s, %.1f MB | "
+                    + "binary save %.2f M parts/s, load %.2f M parts/s, %.1f MB%n", run + 1,
+                    count * 1e3 / jsonSave, count * 1e3 / jsonLoad, Files.size(jsonFile) / 1e6,
+                    count * 1e3 / binarySave, count * 1e3 / binaryLoad, Files.size(binaryFile) / 1e6);
+        }
+        Files.delete(jsonFile);
+        Files.delete(binaryFile);
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import model.fitment.ToleranceResult;
+import model.fitment.ToleranceSimulator;
+import model.fitment.Tolerances;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Benchmark of the tolerance simulator on fork/join pools of 1, 2, 4, ... workers up to the number
+// of cores, checking that every pool size gives the same counts for the same seed. Run the main
+// method with an optional sample count per combination (default 200000).
+@ExcludeFromJacocoGeneratedReport
+public class ToleranceBenchmark {
+
+    private static final int WHEELS = 12;
+    private static final int TIRES = 12;
+    private static final long SEED = 2024;
+
+    public static void main(String[] args) {
+        int samples = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(5);
+        List<Wheel> wheels = new ArrayList<>();
+        for (int i = 0; i < WHEELS; i++) {
+            wheels.add(new Wheel("W" + i, 500, 17 + random.nextInt(2), 7 + 0.5 * random.nextInt(4), 35));
+        }
+        List<Tire> tires = new ArrayList<>();
+        for (int i = 0; i < TIRES; i++) {
+            tires.add(new Tire("T" + i, 200, 205 + 10 * random.nextInt(5), 35 + 5 * random.nextInt(3),
+                    17 + random.nextInt(2)));
+        }
+        Suspension suspension = new Suspension("S", 900, "coilover", 40);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double baseline = 0;
+        List<ToleranceResult> expected = null;
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int workers = 1; workers < cores; workers *= 2) {
+            poolSizes.add(workers);
+        }
+        poolSizes.add(cores);
+        for (int workers : poolSizes) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            ToleranceSimulator simulator = new ToleranceSimulator(Tolerances.DEFAULT, 650.0, 3.0, pool);
+            simulator.simulateAll(wheels, tires, suspension, samples / 10, SEED);
+            long start = System.nanoTime();
+            List<ToleranceResult> results = simulator.simulateAll(wheels, tires, suspension, samples, SEED);
+            double ms = (System.nanoTime() - start) / 1e6;
+            pool.shutdown();
+
+            if (expected == null) {
+                expected = results;
+                baseline = ms;
+            }
+            boolean same = true;
+            for (int i = 0; i < results.size(); i++) {
+                same &= results.get(i).getFailures() == expected.get(i).getFailures();
+            }
+            System.out.printf("%2d workers: %d combinations x %d samples in %.1f ms, speedup %.2fx, %s%n",
+                    workers, results.size(), samples, ms, baseline / ms, same ? "same counts" : "COUNTS DIFFER");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the BuildEdit class and Build change notifications
+@ExcludeFromJacocoGeneratedReport
+public class BuildEditTest {
+
+    private Build build;
+    private int notifications;
+
+    private Wheel w18;
+    private Wheel w19;
+    private Tire t18;
+    private Tire t19;
+    private Suspension sus;
+    private Suspension sus2;
+
+    @BeforeEach
+    public void runBefore() {
+        build = new Build();
+        notifications = 0;
+
+        w18 = new Wheel("TE37-18", 3200, 18.0, 9.5, 22);
+        w19 = new Wheel("LM-19", 4000, 19.0, 10.0, 25);
+        t18 = new Tire("PS4S-18", 1400, 245, 40, 18.0);
+        t19 = new Tire("PS4S-19", 1450, 245, 35, 19.0);
+        sus = new Suspension("BC", 1200, "coilover", 35);
+        sus2 = new Suspension("KW", 2500, "coilover", 30);
+
+        build.addAll(List.of(w18, w19, t18, t19, sus, sus2));
+        build.setActiveWheel(w18.getName());
+        build.setActiveTire(t18.getName());
+        build.setActiveSuspension(sus.getName());
+        build.addListener(b -> notifications++);
+    }
+
+    @Test
+    public void testEachMutationNotifiesOnce() {
+        build.addPart(new Exhaust("HKS", 950, "ss"));
+        build.setActiveExhaust("HKS");
+        build.clearActive(PartCategory.EXHAUST);
+        build.removePartByName("HKS");
+        assertEquals(4, notifications);
+
+        assertFalse(build.removePartByName("missing"));
+        assertFalse(build.setActiveWheel(t18.getName()));
+        assertEquals(4, notifications);
+    }
+
+    @Test
+    public void testCommitSwapsSeveralPartsAtOnce() {
+        int eventsBefore = countEvents();
+        boolean ok = build.edit()
+                .replaceActive(PartCategory.WHEEL, w19.getName())
+                .replaceActive(PartCategory.TIRE, t19.getName())
+                .replaceActive(PartCategory.SUSPENSION, sus2.getName())
+                .commit();
+
+        assertTrue(ok);
+        assertEquals(w19, build.getActive(PartCategory.WHEEL));
+        assertEquals(t19, build.getActive(PartCategory.TIRE));
+        assertEquals(sus2, build.getActive(PartCategory.SUSPENSION));
+        assertEquals(List.of(w19, t19, sus2), build.listAllParts());
+        assertEquals(4000 + 1450 + 2500, build.totalCost());
+        assertEquals(1, notifications);
+        assertEquals(eventsBefore + 1, countEvents());
+    }
+
+    @Test
+    public void testFailedCommitLeavesBuildUnchanged() {
+        int eventsBefore = countEvents();
+        boolean ok = build.edit()
+                .replaceActive(PartCategory.WHEEL, w19.getName())
+                .replaceActive(PartCategory.TIRE, w18.getName())
+                .commit();
+
+        assertFalse(ok);
+        assertEquals(w18, build.getActive(PartCategory.WHEEL));
+        assertEquals(t18, build.getActive(PartCategory.TIRE));
+        assertEquals(6, build.size());
+        assertEquals(0, notifications);
+        assertEquals(eventsBefore, countEvents());
+    }
+
+    @Test
+    public void testLaterChangesSeeEarlierStagedChanges() {
+        Wheel w20 = new Wheel("W20", 5000, 20.0, 10.5, 30);
+        assertTrue(build.edit()
+                .addPart(w20)
+                .setActive(PartCategory.WHEEL, w20.getName())
+                .removePart(t19.getName())
+                .clearActive(PartCategory.SUSPENSION)
+                .commit());
+        assertEquals(w20, build.getActive(PartCategory.WHEEL));
+        assertNotNull(build.getPartByName(w18.getName()));
+        assertNull(build.getPartByName(t19.getName()));
+        assertNull(build.getActive(PartCategory.SUSPENSION));
+        assertEquals(1, notifications);
+
+        // removing a part earlier in the batch makes a later change to it fail
+        assertFalse(build.edit()
+                .removePart(w19.getName())
+                .setActive(PartCategory.WHEEL, w19.getName())
+                .commit());
+        assertNotNull(build.getPartByName(w19.getName()));
+
+        // a part replaced out of inventory cannot be added back under a clash
+        assertFalse(build.edit().addPart(new Tire(t18.getName(), 1, 205, 55, 16.0)).commit());
+    }
+
+    @Test
+    public void testCommitTwiceThrows() {
+        BuildEdit edit = build.edit().clearActive(PartCategory.WHEEL);
+        assertEquals(1, edit.size());
+        assertTrue(edit.commit());
+        assertThrows(IllegalStateException.class, edit::commit);
+        assertThrows(IllegalStateException.class, () -> edit.clearActive(PartCategory.TIRE));
+    }
+
+    @Test
+    public void testInvalidArgumentsThrow() {
+        BuildEdit edit = build.edit();
+        assertThrows(IllegalArgumentException.class, () -> edit.addPart(null));
+        assertThrows(IllegalArgumentException.class, () -> edit.removePart(" "));
+        assertThrows(IllegalArgumentException.class, () -> edit.replaceActive(null, "x"));
+        assertThrows(IllegalArgumentException.class, () -> edit.setActive(PartCategory.WHEEL, null));
+        assertThrows(IllegalArgumentException.class, () -> edit.clearActive(null));
+        assertThrows(IllegalArgumentException.class, () -> build.addListener(null));
+    }
+
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        BuildListener counter = b -> notifications += 10;
+        build.addListener(counter);
+        build.clearActive(PartCategory.WHEEL);
+        build.removeListener(counter);
+        build.clearActive(PartCategory.TIRE);
+        assertEquals(12, notifications);
+    }
+
+    private int countEvents() {
+        int count = 0;
+        for (Event e : EventLog.getInstance()) {
+            count++;
+        }
+        return count;
+    }
+}
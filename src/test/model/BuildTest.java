@@ -5,6 +5,11 @@ import org.junit.jupiter.api.Test;
 
 import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -146,6 +151,108 @@ public class BuildTest {
     }
 
 
+    @Test
+    public void testListAllPartsKeepsInsertionOrderAfterRemove() {
+        build.addPart(w18);
+        build.addPart(t18);
+        build.addPart(sus);
+        build.addPart(exh);
+        assertTrue(build.removePartByName(t18.getName()));
+        build.addPart(t19);
+
+        List<Part> all = build.listAllParts();
+        assertEquals(List.of(w18, sus, exh, t19), all);
+        assertEquals(sus, build.getPartByName(sus.getName()));
+    }
+
+
+    @Test
+    public void testPartsViewIsLiveAndReadOnly() {
+        Collection<Part> view = build.partsView();
+        Collection<Part> wheels = build.categoryView(PartCategory.WHEEL);
+        assertTrue(view.isEmpty());
+
+        build.addPart(w18);
+        build.addPart(t18);
+        assertEquals(List.of(w18, t18), new ArrayList<>(view));
+        assertEquals(List.of(w18), new ArrayList<>(wheels));
+        assertEquals(2, build.size());
+
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(w18));
+        assertThrows(UnsupportedOperationException.class, () -> wheels.clear());
+
+        build.removePartByName(w18.getName());
+        assertEquals(List.of(t18), new ArrayList<>(view));
+        assertTrue(wheels.isEmpty());
+    }
+
+    @Test
+    public void testPartsViewFailsFastOnChange() {
+        build.addPart(w18);
+        build.addPart(t18);
+        Iterator<Part> it = build.partsView().iterator();
+        it.next();
+        build.addPart(sus);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+
+    @Test
+    public void testAddAllSkipsDuplicatesAndLogsOnce() {
+        build.addPart(w18);
+        int eventsBefore = countEvents();
+        Wheel dupOfBatch = new Wheel(t18.getName(), 1, 17.0, 7.0, 40);
+
+        assertEquals(3, build.addAll(List.of(w18, t18, sus, dupOfBatch, eng)));
+        assertEquals(List.of(w18, t18, sus, eng), build.listAllParts());
+        assertEquals(t18, build.getPartByName(t18.getName()));
+        assertEquals(List.of(t18), build.getPartsInCategory(PartCategory.TIRE));
+        assertEquals(eventsBefore + 1, countEvents());
+
+        assertEquals(0, build.addAll(List.of()));
+        assertEquals(eventsBefore + 1, countEvents());
+    }
+
+    @Test
+    public void testAddAllRejectsNullWithoutChanges() {
+        assertThrows(IllegalArgumentException.class, () -> build.addAll(null));
+        assertThrows(IllegalArgumentException.class, () -> build.addAll(Arrays.asList(w18, null)));
+        assertEquals(0, build.size());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        build.addAll(List.of(w18, w19, t18, eng));
+        build.setActiveWheel(w19.getName());
+        build.setActiveEngine(eng.getName());
+        int eventsBefore = countEvents();
+
+        assertEquals(2, build.removeIf(p -> p.getCost() >= 4000));
+        assertEquals(List.of(w18, t18), build.listAllParts());
+        assertNull(build.getActive(PartCategory.WHEEL));
+        assertNull(build.getActive(PartCategory.ENGINE));
+        assertEquals(0, build.totalCost());
+        assertEquals(List.of(w18), build.getPartsInCategory(PartCategory.WHEEL));
+        assertEquals(eventsBefore + 1, countEvents());
+
+        assertEquals(0, build.removeIf(p -> false));
+        assertThrows(IllegalArgumentException.class, () -> build.removeIf(null));
+    }
+
+    @Test
+    public void testRemoveAllByName() {
+        build.addAll(List.of(w18, w19, t18, sus));
+        build.setActiveTire(t18.getName());
+
+        assertEquals(2, build.removeAllByName(List.of(t18.getName(), "missing", w19.getName())));
+        assertEquals(List.of(w18, sus), build.listAllParts());
+        assertNull(build.getActive(PartCategory.TIRE));
+
+        assertThrows(IllegalArgumentException.class, () -> build.removeAllByName(null));
+        assertThrows(IllegalArgumentException.class, () -> build.removeAllByName(List.of(w18.getName(), " ")));
+        assertEquals(2, build.size());
+    }
+
     //                                                  Active selections
     // --------------------------------------------------------------------------------------------------------------
 
@@ -221,6 +328,25 @@ public class BuildTest {
         assertNull(build.getActive("no-such-category"));
     }
 
+    @Test
+    public void testActiveByCategoryEnum() {
+        build.addPart(w18);
+        build.addPart(w19);
+        build.addPart(t18);
+
+        assertFalse(build.replaceActivePart(PartCategory.TIRE, w18.getName()));
+        assertTrue(build.replaceActivePart(PartCategory.WHEEL, w18.getName()));
+        assertTrue(build.replaceActivePart(PartCategory.TIRE, t18.getName()));
+        assertEquals(w18, build.getActive(PartCategory.WHEEL));
+        assertEquals(t18, build.getActive(PartCategory.TIRE));
+        assertNull(build.getActive(PartCategory.ENGINE));
+
+        build.clearActive(PartCategory.WHEEL);
+        assertNull(build.getActive(PartCategory.WHEEL));
+        assertEquals(List.of(w18, w19), build.getPartsInCategory(PartCategory.WHEEL));
+        assertEquals(List.of(t18), build.getPartsInCategory("tires"));
+    }
+
 //individually testing all categories
     @Test
     public void testClearActiveAlln() {
@@ -380,6 +506,43 @@ public class BuildTest {
         assertEquals(expected, build.totalCost());
     }
 
+    @Test
+    public void testTotalCostFollowsActiveChanges() {
+        List<Part> parts = List.of(w18, w19, t18, sus, eng);
+        for (Part p : parts) {
+            assertTrue(build.addPart(p));
+        }
+        assertEquals(0, build.totalCost());
+
+        build.setActiveWheel(w18.getName());
+        build.setActiveTire(t18.getName());
+        build.setActiveEngine(eng.getName());
+        assertEquals(3200 + 1400 + 12000, build.totalCost());
+
+        build.setActiveWheel(w19.getName());
+        assertEquals(4000 + 1400 + 12000, build.totalCost());
+
+        build.clearActive("tire");
+        assertEquals(4000 + 12000, build.totalCost());
+
+        assertTrue(build.removePartByName(eng.getName()));
+        assertEquals(4000, build.totalCost());
+
+        // re-activating the active part keeps it in inventory and does not double count
+        assertTrue(build.replaceActivePart("wheel", w19.getName()));
+        assertEquals(w19, build.getPartByName(w19.getName()));
+        assertEquals(4000, build.totalCost());
+    }
+
+    @Test
+    public void testTotalCostDoesNotOverflowInt() {
+        build.addPart(new Engine("Big", Integer.MAX_VALUE, "V12", 900, 6.5));
+        build.addPart(new Transmission("Huge", Integer.MAX_VALUE, "DCT", 8, "AWD"));
+        build.setActiveEngine("Big");
+        build.setActiveTransmission("Huge");
+        assertEquals(2L * Integer.MAX_VALUE, build.totalCost());
+    }
+
     @Test
     public void testCountsByCategory() {
         List<Part> parts = List.of(w18, w19, t18, t19, sus, exh, bumpFront, head, tail);
@@ -399,9 +562,124 @@ public class BuildTest {
         }
     }
 
+    @Test
+    public void testCountsByCategoryTracksRemoveAndReplace() {
+        List<Part> parts = List.of(w18, w19, t18, head);
+        for (Part p : parts) {
+            assertTrue(build.addPart(p));
+        }
+        assertTrue(build.removePartByName(head.getName()));
+        assertTrue(build.replaceActivePart("wheel", w18.getName()));
+        assertTrue(build.replaceActivePart("wheel", w19.getName()));
+
+        Map<String, Integer> counts = build.countsByCategory();
+        assertEquals(Map.of("Wheel", 1, "Tire", 1), counts);
+    }
+
+    @Test
+    public void testGetPartsInCategory() {
+        List<Part> parts = List.of(w18, t18, w19, t19, sus);
+        for (Part p : parts) {
+            assertTrue(build.addPart(p));
+        }
+
+        assertEquals(List.of(w18, w19), build.getPartsInCategory("Wheel"));
+        assertEquals(List.of(sus), build.getPartsInCategory("Suspension"));
+        assertTrue(build.getPartsInCategory("Lights").isEmpty());
+
+        assertTrue(build.removePartByName(w18.getName()));
+        assertEquals(List.of(w19), build.getPartsInCategory("Wheel"));
+
+        // copy check
+        build.getPartsInCategory("Tire").clear();
+        assertEquals(2, build.getPartsInCategory("Tire").size());
+    }
+
     //                                                  Helpers
     // --------------------------------------------------------------------------------------------------------------
 
+    @Test
+    public void testPartsInCostRange() {
+        build.addAll(List.of(w18, t18, t19, sus, exh, dif, head));
+
+        assertEquals(List.of(head, exh, dif, sus, t18, t19), build.partsInCostRange(0, 1500));
+        assertEquals(List.of(exh, dif), build.partsInCostRange(950, 950));
+        assertEquals(List.of(t18, t19), build.partsInCostRange(PartCategory.TIRE, 0, 5000));
+        assertTrue(build.partsInCostRange(PartCategory.ENGINE, 0, 5000).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> build.partsInCostRange(10, 9));
+        assertThrows(IllegalArgumentException.class, () -> build.partsInCostRange(null, 0, 1));
+    }
+
+    @Test
+    public void testCheapestAndMostExpensive() {
+        build.addAll(List.of(w18, w19, t18, t19, eng, exh));
+
+        assertEquals(List.of(exh, t18), build.cheapestParts(2));
+        assertEquals(List.of(eng, w19, w18), build.mostExpensiveParts(3));
+        assertEquals(List.of(w18), build.cheapestParts(PartCategory.WHEEL, 1));
+        assertEquals(List.of(t19, t18), build.mostExpensiveParts(PartCategory.TIRE, 5));
+        assertTrue(build.cheapestParts(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> build.cheapestParts(-1));
+        assertThrows(IllegalArgumentException.class, () -> build.mostExpensiveParts(PartCategory.TIRE, -1));
+    }
+
+    @Test
+    public void testCostIndexFollowsRemovals() {
+        build.addAll(List.of(w18, w19, t18, t19, sus));
+        build.setActiveWheel(w18.getName());
+
+        build.replaceActivePart("wheel", w19.getName());
+        build.removePartByName(t18.getName());
+        build.removeIf(p -> p.getCost() == 1200);
+
+        assertEquals(List.of(t19, w19), build.cheapestParts(10));
+        assertEquals(List.of(w19), build.partsInCostRange(PartCategory.WHEEL, 0, 10000));
+        assertTrue(build.partsInCostRange(PartCategory.SUSPENSION, 0, 10000).isEmpty());
+    }
+
+    @Test
+    public void testPartsWithPrefix() {
+        build.addAll(List.of(w18, t18, t19, sus, exh));
+
+        assertEquals(List.of(t19, t18), build.partsWithPrefix("ps4s", 10));
+        assertEquals(List.of(t19), build.partsWithPrefix("PS4S", 1));
+        assertEquals(5, build.countPartsWithPrefix(""));
+        assertEquals(2, build.countPartsWithPrefix("ps4s-245-"));
+        assertEquals("PS4S-245-", build.completeName("p"));
+        assertEquals("BC Coilovers", build.completeName("bc"));
+        assertNull(build.completeName("zzz"));
+        assertThrows(IllegalArgumentException.class, () -> build.partsWithPrefix(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> build.partsWithPrefix("a", -1));
+        assertThrows(IllegalArgumentException.class, () -> build.completeName(null));
+    }
+
+    @Test
+    public void testNameIndexFollowsRemovals() {
+        build.addAll(List.of(w18, w19, t18, t19));
+        build.setActiveTire(t18.getName());
+
+        build.replaceActivePart("tire", t19.getName());
+        build.removePartByName(w18.getName());
+
+        assertEquals(List.of(t19), build.partsWithPrefix("PS4S", 10));
+        assertEquals("LM-19x10-ET25", build.completeName("l"));
+        assertEquals(0, build.countPartsWithPrefix("TE37"));
+    }
+
+    @Test
+    public void testReferenceRollingDiameter() {
+        assertNull(build.getReferenceOdMm());
+        assertEquals(3.0, build.getRollingDeltaThresholdPct());
+
+        build.setReferenceOdMm(653.2);
+        assertEquals(653.2, build.getReferenceOdMm());
+        build.setReferenceOdMm(null);
+        assertNull(build.getReferenceOdMm());
+
+        assertThrows(IllegalArgumentException.class, () -> build.setReferenceOdMm(0.0));
+        assertThrows(IllegalArgumentException.class, () -> build.setReferenceOdMm(Double.NaN));
+    }
+
     @Test
     public void testGetPartByName() {
         assertTrue(build.addPart(w18));
@@ -414,4 +692,12 @@ public class BuildTest {
     public void testGetPartByMissingName() {
         assertNull(build.getPartByName("nope"));
     }
+
+    private int countEvents() {
+        int count = 0;
+        for (Event e : EventLog.getInstance()) {
+            count++;
+        }
+        return count;
+    }
 }
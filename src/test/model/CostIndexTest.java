@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the CostIndex class
+@ExcludeFromJacocoGeneratedReport
+public class CostIndexTest {
+
+    private CostIndex index;
+    private Exhaust a;
+    private Exhaust b;
+    private Exhaust c;
+    private Exhaust d;
+
+    @BeforeEach
+    public void runBefore() {
+        index = new CostIndex();
+        a = new Exhaust("A", 500, "ss");
+        b = new Exhaust("B", 100, "ss");
+        c = new Exhaust("C", 500, "ti");
+        d = new Exhaust("D", 900, "ss");
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        index.add(d);
+    }
+
+    @Test
+    public void testRangeIsInclusiveAndOrderedByCost() {
+        assertEquals(4, index.size());
+        assertEquals(List.of(b, a, c, d), index.inRange(0, Integer.MAX_VALUE));
+        assertEquals(List.of(a, c), index.inRange(500, 500));
+        assertEquals(List.of(b, a, c), index.inRange(100, 899));
+        assertTrue(index.inRange(101, 499).isEmpty());
+    }
+
+    @Test
+    public void testTopK() {
+        assertEquals(List.of(b, a), index.cheapest(2));
+        assertEquals(List.of(d, a, c), index.mostExpensive(3));
+        assertEquals(4, index.cheapest(10).size());
+        assertTrue(index.mostExpensive(0).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        index.remove(a);
+        index.remove(a);
+        index.remove(new Exhaust("Z", 500, "ss"));
+        assertEquals(3, index.size());
+        assertEquals(List.of(c), index.inRange(500, 500));
+
+        index.remove(c);
+        assertTrue(index.inRange(500, 500).isEmpty());
+        assertEquals(List.of(d, b), index.mostExpensive(5));
+    }
+}
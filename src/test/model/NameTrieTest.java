@@ -0,0 +1,75 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the NameTrie class
+@ExcludeFromJacocoGeneratedReport
+public class NameTrieTest {
+
+    private NameTrie trie;
+    private Exhaust hks;
+    private Exhaust hksHi;
+    private Exhaust hksLegal;
+    private Exhaust tomei;
+
+    @BeforeEach
+    public void runBefore() {
+        trie = new NameTrie();
+        hks = new Exhaust("HKS", 100, "ss");
+        hksHi = new Exhaust("HKS Hi-Power", 200, "ss");
+        hksLegal = new Exhaust("hks Legal", 300, "ss");
+        tomei = new Exhaust("Tomei Expreme", 400, "ti");
+        trie.add(tomei);
+        trie.add(hksLegal);
+        trie.add(hksHi);
+        trie.add(hks);
+    }
+
+    @Test
+    public void testPrefixIgnoresCase() {
+        assertEquals(List.of(hks, hksHi, hksLegal), trie.withPrefix("hks", 10));
+        assertEquals(List.of(hksHi, hksLegal), trie.withPrefix("HKS ", 10));
+        assertEquals(List.of(tomei), trie.withPrefix("tOmEi", 10));
+        assertEquals(3, trie.countWithPrefix("Hk"));
+        assertEquals(4, trie.countWithPrefix(""));
+        assertTrue(trie.withPrefix("apex", 10).isEmpty());
+        assertEquals(0, trie.countWithPrefix("HKS Hi-Power Extra"));
+    }
+
+    @Test
+    public void testLimit() {
+        assertEquals(List.of(hks, hksHi), trie.withPrefix("h", 2));
+        assertTrue(trie.withPrefix("h", 0).isEmpty());
+    }
+
+    @Test
+    public void testComplete() {
+        assertEquals("Tomei Expreme", trie.complete("t"));
+        assertEquals("HKS", trie.complete("h"));
+        assertEquals("HKS ", trie.complete("hks "));
+        assertEquals("HKS Hi-Power", trie.complete("hks h"));
+        assertNull(trie.complete("x"));
+    }
+
+    @Test
+    public void testRemovePrunes() {
+        trie.remove(hks);
+        trie.remove(hks);
+        trie.remove(new Exhaust("HKS Hi-Power", 1, "other"));
+        assertEquals(List.of(hksHi, hksLegal), trie.withPrefix("hks", 10));
+        assertEquals("HKS ", trie.complete("h"));
+
+        trie.remove(hksHi);
+        trie.remove(hksLegal);
+        assertEquals(0, trie.countWithPrefix("h"));
+        assertNull(trie.complete("h"));
+        assertEquals(List.of(tomei), trie.withPrefix("", 10));
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the PartCategory enum
+@ExcludeFromJacocoGeneratedReport
+public class PartCategoryTest {
+
+    @Test
+    public void testFromKeyAliases() {
+        assertEquals(PartCategory.WHEEL, PartCategory.fromKey("wheel"));
+        assertEquals(PartCategory.WHEEL, PartCategory.fromKey(" Wheels "));
+        assertEquals(PartCategory.TIRE, PartCategory.fromKey("TIRES"));
+        assertEquals(PartCategory.BUMPER, PartCategory.fromKey("bumpers"));
+        assertEquals(PartCategory.SIDE_SKIRTS, PartCategory.fromKey("side skirts"));
+        assertEquals(PartCategory.SIDE_SKIRTS, PartCategory.fromKey("SideSkirts"));
+        assertNull(PartCategory.fromKey("no-such-category"));
+    }
+
+    @Test
+    public void testFromJsonName() {
+        assertEquals(PartCategory.LIGHTS, PartCategory.fromJsonName("Lights"));
+        assertEquals(PartCategory.SIDE_SKIRTS, PartCategory.fromJsonName("sideskirts"));
+        assertNull(PartCategory.fromJsonName("PartStub"));
+        assertNull(PartCategory.fromJsonName("side skirts"));
+    }
+
+    @Test
+    public void testEveryPartRoundTripsThroughItsCategory() {
+        List<Part> parts = List.of(
+                new Wheel("W", 1, 18.0, 8.5, 35),
+                new Tire("T", 2, 245, 40, 18.0),
+                new Suspension("SUS", 3, "coilover", 10),
+                new Exhaust("EXH", 4, "ss"),
+                new Engine("ENG", 5, "i4", 100, 2.0),
+                new Transmission("TRN", 6, "auto", 6, "FWD"),
+                new Bumper("B", 7, "front", "cf", "X", "style"),
+                new SideSkirts("SS", 8, "fg", "Y"),
+                new Diffuser("DIF", 9, "cf", "Z", true),
+                new Spoiler("SPL", 10, "cf", "gt", 10.5),
+                new Lights("L", 11, "headlights", "oem", "halogen", "4300K"));
+
+        assertEquals(PartCategory.values().length, parts.size());
+        for (Part p : parts) {
+            PartCategory c = p.getCategory();
+            assertTrue(c.getPartClass().isInstance(p));
+            assertEquals(c.getDisplayName(), p.getCategoryName());
+
+            JSONObject json = p.toJson();
+            assertEquals(c, PartCategory.fromJsonName(json.getString("category")));
+            Part copy = c.fromJson(json);
+            assertEquals(p.getClass(), copy.getClass());
+            assertTrue(json.similar(copy.toJson()));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the SpecQuery class and the spec indexes behind it
+@ExcludeFromJacocoGeneratedReport
+public class SpecQueryTest {
+
+    private Build build;
+    private List<Wheel> wheels;
+    private Engine i4;
+    private Engine v6;
+    private Engine v8;
+    private Bumper carbon;
+    private Bumper plastic;
+
+    @BeforeEach
+    public void runBefore() {
+        build = new Build();
+        wheels = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            double diameter = 15 + i % 6;
+            wheels.add(new Wheel("W" + i, 1000 + i, diameter, 8.0, 20 + i));
+        }
+        i4 = new Engine("K20", 5000, "i4", 220, 2.0);
+        v6 = new Engine("VQ35", 7000, "v6", 300, 3.5);
+        v8 = new Engine("LS3", 9000, "v8", 430, 6.2);
+        carbon = new Bumper("Front CF", 1500, "front", "Carbon Fiber", "Varis", "aggressive");
+        plastic = new Bumper("Front OEM", 300, "front", "plastic", "OEM", "stock");
+
+        build.addAll(wheels);
+        build.addAll(List.of(i4, v6, v8, carbon, plastic));
+    }
+
+    @Test
+    public void testNumericEqualityAndRange() {
+        List<Part> result = build.query(PartCategory.WHEEL)
+                .equalTo(SpecField.WHEEL_DIAMETER, 18)
+                .between(SpecField.WHEEL_OFFSET, 35, 45)
+                .stream().collect(Collectors.toList());
+        assertEquals(List.of(wheels.get(15), wheels.get(21)), result);
+    }
+
+    @Test
+    public void testStrictAndInclusiveBounds() {
+        assertEquals(List.of(v6, v8), build.query(PartCategory.ENGINE)
+                .atLeast(SpecField.ENGINE_HORSEPOWER, 300).stream().collect(Collectors.toList()));
+        assertEquals(List.of(v8), build.query(PartCategory.ENGINE)
+                .greaterThan(SpecField.ENGINE_HORSEPOWER, 300).stream().collect(Collectors.toList()));
+        assertEquals(List.of(i4), build.query(PartCategory.ENGINE)
+                .lessThan(SpecField.ENGINE_DISPLACEMENT, 3.5).stream().collect(Collectors.toList()));
+        assertEquals(List.of(i4, v6), build.query(PartCategory.ENGINE)
+                .atMost(SpecField.ENGINE_DISPLACEMENT, 3.5).stream().collect(Collectors.toList()));
+        assertEquals(0, build.query(PartCategory.ENGINE)
+                .greaterThan(SpecField.ENGINE_HORSEPOWER, 300)
+                .lessThan(SpecField.ENGINE_DISPLACEMENT, 3.0).stream().count());
+    }
+
+    @Test
+    public void testTextEqualityIgnoresCase() {
+        assertEquals(List.of(carbon), build.query(PartCategory.BUMPER)
+                .equalTo(SpecField.BUMPER_MATERIAL, "carbon fiber").stream().collect(Collectors.toList()));
+        assertEquals(List.of(carbon, plastic), build.query(PartCategory.BUMPER)
+                .equalTo(SpecField.BUMPER_TYPE, "FRONT").stream().collect(Collectors.toList()));
+        assertEquals(0, build.query(PartCategory.BUMPER)
+                .equalTo(SpecField.BUMPER_BRAND, "none").stream().count());
+    }
+
+    @Test
+    public void testPlannerPicksMostSelectiveIndex() {
+        SpecQuery q = build.query(PartCategory.WHEEL)
+                .between(SpecField.WHEEL_OFFSET, 0, 100)
+                .equalTo(SpecField.WHEEL_DIAMETER, 18);
+        assertEquals(SpecField.WHEEL_DIAMETER, q.plan());
+
+        SpecQuery narrow = build.query(PartCategory.WHEEL)
+                .equalTo(SpecField.WHEEL_DIAMETER, 18)
+                .between(SpecField.WHEEL_OFFSET, 20, 21);
+        assertEquals(SpecField.WHEEL_OFFSET, narrow.plan());
+
+        assertNull(build.query(PartCategory.WHEEL).atLeast(SpecField.WHEEL_WIDTH, 1).plan());
+        assertNull(build.query(PartCategory.WHEEL).plan());
+        assertEquals(40, build.query(PartCategory.WHEEL).stream().count());
+    }
+
+    @Test
+    public void testIndexesFollowInventoryChanges() {
+        SpecQuery q = build.query(PartCategory.ENGINE).atLeast(SpecField.ENGINE_HORSEPOWER, 400);
+        assertEquals(List.of(v8), q.stream().collect(Collectors.toList()));
+
+        Engine rb = new Engine("RB26", 8000, "i6", 480, 2.6);
+        build.addPart(rb);
+        build.removePartByName(v8.getName());
+        assertEquals(List.of(rb), q.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCostQueryOverAllParts() {
+        build.addPart(new Exhaust("Cheap", 10, "ss"));
+        assertEquals(List.of("Cheap", "Front OEM"), build.query()
+                .atMost(SpecField.COST, 500)
+                .stream().map(Part::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testInvalidConditionsThrow() {
+        SpecQuery q = build.query(PartCategory.WHEEL);
+        assertThrows(IllegalArgumentException.class, () -> q.equalTo(SpecField.ENGINE_HORSEPOWER, 1));
+        assertThrows(IllegalArgumentException.class, () -> q.equalTo(SpecField.WHEEL_DIAMETER, "18"));
+        assertThrows(IllegalArgumentException.class, () -> q.between(SpecField.WHEEL_OFFSET, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> q.lessThan(SpecField.WHEEL_OFFSET, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> q.equalTo(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> build.query(PartCategory.BUMPER)
+                .equalTo(SpecField.BUMPER_STYLE, null));
+        assertThrows(IllegalArgumentException.class, () -> build.query().equalTo(SpecField.WHEEL_WIDTH, 1));
+        assertThrows(IllegalArgumentException.class, () -> build.query(null));
+    }
+
+    @Test
+    public void testFieldLookup() {
+        assertEquals(SpecField.WHEEL_OFFSET, SpecField.fromKey(PartCategory.WHEEL, "offsetMm"));
+        assertEquals(SpecField.LIGHTS_LIGHT_TYPE, SpecField.fromKey(PartCategory.LIGHTS, "LIGHTTYPE"));
+        assertEquals(SpecField.COST, SpecField.fromKey(PartCategory.TIRE, "cost"));
+        assertNull(SpecField.fromKey(PartCategory.TIRE, "offsetMm"));
+        for (SpecField f : SpecField.values()) {
+            assertEquals(f, SpecField.fromKey(f.getCategory() == null ? PartCategory.WHEEL : f.getCategory(),
+                    f.getKey()));
+        }
+    }
+}
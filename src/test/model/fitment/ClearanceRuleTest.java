@@ -0,0 +1,141 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the ClearanceRule, ClearanceRuleSet, ClearanceSpecs and ClearanceVariable classes
+@ExcludeFromJacocoGeneratedReport
+public class ClearanceRuleTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void testSpecs() {
+        ClearanceSpecs specs = new ClearanceSpecs().set(new Wheel("W", 1, 18.0, 9.5, 22),
+                new Tire("T", 1, 245, 40, 18.0), new Suspension("S", 1, "coilover", 35));
+        assertEquals(98.0, ClearanceVariable.SIDEWALL.valueIn(specs), EPS);
+        assertEquals(653.2, ClearanceVariable.DIAMETER.valueIn(specs), EPS);
+        assertEquals(9.5 * 25.4, ClearanceVariable.WHEEL_WIDTH_MM.valueIn(specs), EPS);
+        assertEquals(22, ClearanceVariable.OFFSET.valueIn(specs), EPS);
+        assertEquals(35, ClearanceVariable.DROP.valueIn(specs), EPS);
+        assertEquals(ClearanceVariable.RIM, ClearanceVariable.fromKey("rim"));
+        assertNull(ClearanceVariable.fromKey("nope"));
+        assertEquals(0, ClearanceVariable.DROP.valueIn(new ClearanceSpecs().set(null, null, null)), EPS);
+    }
+
+    @Test
+    public void testPrecedenceAndFunctions() {
+        ClearanceSpecs specs = new ClearanceSpecs().setWheel(18, 9.5, 22).setTire(245, 40, 18).setDrop(30);
+        assertTrue(rule("1 + 2 * 3 == 7").test(specs));
+        assertTrue(rule("(1 + 2) * 3 == 9").test(specs));
+        assertTrue(rule("10 - 4 - 3 == 3").test(specs));
+        assertTrue(rule("-drop + 40 == 10").test(specs));
+        assertTrue(rule("max(drop, 50) == 50 and min(drop, 50) == 30 and abs(0 - offset) == 22").test(specs));
+        assertTrue(rule("drop > 10 or drop > 100 and offset > 100").test(specs));
+        assertFalse(rule("(drop > 10 or drop > 100) and offset > 100").test(specs));
+        assertTrue(rule("not drop > 40 && !(offset < 0)").test(specs));
+        assertTrue(rule("drop > 100 || offset == 22").test(specs));
+        assertTrue(rule("sidewall / 2 >= 49 and sidewall != 0 and drop <= 30").test(specs));
+        assertTrue(rule("DROP + SideWall > 127").test(specs));
+    }
+
+    @Test
+    public void testCompiledMatchesInterpreted() {
+        List<ClearanceRule> rules = List.of(
+                rule("drop + sidewall / 2 > 120 and offset < 20"),
+                rule("wheel_width_mm > tire_width or rim != wheel_diameter"),
+                rule("not (drop + max(diameter - 660, 0) / 2 <= 70)"),
+                rule("abs(offset - 35) * 2 + aspect / 10 >= drop - 5 * (1 + 1)"),
+                rule("2 > 1"));
+        Random random = new Random(5);
+        ClearanceSpecs specs = new ClearanceSpecs();
+        for (int i = 0; i < 5000; i++) {
+            specs.setWheel(15 + random.nextInt(6), 6 + random.nextInt(7) * 0.5, random.nextInt(60));
+            specs.setTire(185 + 10 * random.nextInt(10), 30 + 5 * random.nextInt(8), 15 + random.nextInt(6));
+            specs.setDrop(random.nextInt(100));
+            for (ClearanceRule r : rules) {
+                assertEquals(r.interpret(specs), r.test(specs), r.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testBadRules() {
+        assertThrows(IllegalArgumentException.class, () -> rule("drop"));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop + (offset < 3) > 1"));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop > 1 and 3"));
+        assertThrows(IllegalArgumentException.class, () -> rule("height > 3"));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop > 3 )"));
+        assertThrows(IllegalArgumentException.class, () -> rule("(drop > 3"));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop > "));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop > 1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> rule("drop > 1 ; offset"));
+        assertThrows(IllegalArgumentException.class, () -> rule("max(drop) > 1"));
+        assertThrows(IllegalArgumentException.class, () -> rule("abs(drop, 1) > 1"));
+        assertThrows(IllegalArgumentException.class, () -> rule("-(drop > 1)"));
+        assertThrows(IllegalArgumentException.class, () -> rule("not drop"));
+        assertThrows(IllegalArgumentException.class, () -> new ClearanceRule(" ", "drop > 1"));
+        assertThrows(IllegalArgumentException.class, () -> new ClearanceRule("x", null));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ClearanceRuleSet.parse("# comment\n\nok: drop > 1\nbad: drop >"));
+        assertTrue(e.getMessage().startsWith("line 4: "));
+        assertThrows(IllegalArgumentException.class, () -> ClearanceRuleSet.parse("no colon here"));
+        assertThrows(IllegalArgumentException.class, () -> ClearanceRuleSet.parse("a: drop > 1\na: drop > 2"));
+    }
+
+    @Test
+    public void testRuleSet() {
+        ClearanceRuleSet set = ClearanceRuleSet.parse("# rules\nslammed: drop > 50\n  poke : offset < 15\n");
+        assertEquals(2, set.getRules().size());
+        assertEquals("poke", set.getRules().get(1).getName());
+        assertEquals("offset < 15", set.getRules().get(1).getCondition());
+        assertEquals("poke: offset < 15", set.getRules().get(1).toString());
+
+        ClearanceSpecs specs = new ClearanceSpecs().setWheel(18, 9.5, 10).setDrop(20);
+        assertTrue(set.anyMatch(specs));
+        assertEquals(List.of("poke"), set.matching(specs));
+        assertFalse(new ClearanceRuleSet(new ArrayList<>()).anyMatch(specs));
+    }
+
+    @Test
+    public void testAsFitmentRule() throws IOException {
+        ClearanceRuleSet set = ClearanceRuleSet.load(Paths.get("./data/clearance_rules.txt"));
+        assertFalse(set.getRules().isEmpty());
+        assertEquals("CLEARANCE_RULES", set.getName());
+        assertFalse(set.readsReference());
+
+        Build build = new Build();
+        build.addAll(List.of(new Wheel("W", 1, 18.0, 10.5, 10), new Tire("T", 1, 275, 35, 18.0),
+                new Suspension("S", 1, "coilover", 20)));
+        List<FitmentRule> rules = new ArrayList<>(List.of(StandardFitmentRule.values()));
+        rules.add(set);
+        FitmentMonitor monitor = new FitmentMonitor(build, rules);
+
+        build.setActive(PartCategory.WHEEL, "W");
+        assertFalse(monitor.check().hasIssue(FitmentIssue.CLEARANCE_RISK));
+        assertTrue(set.matching(build).isEmpty());
+
+        build.setActive(PartCategory.TIRE, "T");
+        assertTrue(monitor.check().hasIssue(FitmentIssue.CLEARANCE_RISK));
+        assertEquals(List.of("wide-wheel-low-offset"), set.matching(build));
+    }
+
+    private static ClearanceRule rule(String condition) {
+        return new ClearanceRule("r", condition);
+    }
+}
@@ -0,0 +1,126 @@
+package model.fitment;
+
+import model.Build;
+import model.Tire;
+import model.Wheel;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the CompatibilityMatrix class
+@ExcludeFromJacocoGeneratedReport
+public class CompatibilityMatrixTest {
+
+    @Test
+    public void testSmallInventory() {
+        Build build = new Build();
+        Wheel w18 = new Wheel("W18", 1, 18.0, 9.5, 22);
+        Wheel w18narrow = new Wheel("W18N", 1, 18.0, 6.0, 22);
+        Wheel w19 = new Wheel("W19", 1, 19.0, 9.0, 30);
+        Tire t18 = new Tire("T18", 1, 245, 40, 18.0);
+        Tire t19 = new Tire("T19", 1, 245, 35, 19.0);
+        Tire t20 = new Tire("T20", 1, 255, 35, 20.0);
+        build.addAll(List.of(w18, w18narrow, w19, t18, t19, t20));
+
+        CompatibilityMatrix matrix = new CompatibilityMatrix(build);
+        assertEquals(3, matrix.getWheelCount());
+        assertEquals(3, matrix.getTireCount());
+        assertEquals(List.of("W18 + T18", "W19 + T19"),
+                matrix.stream().map(WheelTirePair::toString).collect(Collectors.toList()));
+        assertEquals(2, matrix.count());
+
+        build.setReferenceOdMm(600.0);
+        assertEquals(0, new CompatibilityMatrix(build).count());
+    }
+
+    @Test
+    public void testIdenticalSpecsAreJoinedOnce() {
+        List<Wheel> wheels = new ArrayList<>();
+        List<Tire> tires = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            wheels.add(new Wheel("W" + i, 100 + i, 18.0, 9.5, 22));
+            tires.add(new Tire("T" + i, 100 + i, 245, 40, 18.0));
+        }
+        tires.add(new Tire("Tall", 100, 245, 60, 18.0));
+        CompatibilityMatrix matrix = new CompatibilityMatrix(wheels, tires, 650.0, 3.0);
+        assertEquals(100, matrix.count());
+        List<WheelTirePair> pairs = matrix.stream().collect(Collectors.toList());
+        assertEquals(100, pairs.size());
+        assertEquals("W0 + T0", pairs.get(0).toString());
+        assertEquals("W1 + T0", pairs.get(10).toString());
+    }
+
+    @Test
+    public void testRimsStraddlingAKeyAreJoined() {
+        // 17.004 and 17.01 are within the rim match tolerance but round to different hundredths
+        Wheel wheel = new Wheel("W17", 1, 17.004, 7.5, 40);
+        Tire tire = new Tire("T17", 1, 215, 45, 17.01);
+        Tire far = new Tire("T17.02", 1, 215, 45, 17.02);
+        assertEquals(0, FitmentEngine.evaluate(17.004, 7.5, 215, 45, 17.01, 0, Double.NaN, 3.0));
+        CompatibilityMatrix matrix = new CompatibilityMatrix(List.of(wheel), List.of(tire, far), Double.NaN, 3.0);
+        assertEquals(1, matrix.count());
+        assertEquals(List.of("W17 + T17"),
+                matrix.stream().map(WheelTirePair::toString).collect(Collectors.toList()));
+
+        CompatibilityMatrix reversed = new CompatibilityMatrix(List.of(new Wheel("W", 1, 17.01, 7.5, 40)),
+                List.of(new Tire("T", 1, 215, 45, 17.004)), Double.NaN, 3.0);
+        assertEquals(1, reversed.count());
+        assertEquals(1, reversed.stream().count());
+    }
+
+    @Test
+    public void testParallelJoinMatchesNestedLoop() {
+        Random random = new Random(42);
+        List<Wheel> wheels = new ArrayList<>();
+        List<Tire> tires = new ArrayList<>();
+        for (int i = 0; i < 700; i++) {
+            wheels.add(new Wheel("W" + i, 1, 15 + random.nextInt(6), 6 + random.nextInt(9) * 0.5, 20));
+            tires.add(new Tire("T" + i, 1, 185 + 10 * random.nextInt(10), 30 + 5 * random.nextInt(6),
+                    15 + random.nextInt(6)));
+        }
+        double reference = 650;
+
+        Set<String> expected = new HashSet<>();
+        for (Wheel w : wheels) {
+            for (Tire t : tires) {
+                int mask = FitmentEngine.evaluate(w.getDiameterIn(), w.getWidthIn(), t.getWidthMm(),
+                        t.getAspectPercent(), t.getRimDiameterIn(), 0, reference, 3.0);
+                if (mask == 0) {
+                    expected.add(w.getName() + " + " + t.getName());
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+
+        CompatibilityMatrix matrix = new CompatibilityMatrix(wheels, tires, reference, 3.0);
+        Set<String> found = ConcurrentHashMap.newKeySet();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            long count = matrix.forEachCompatible(pool, (w, t) -> found.add(w.getName() + " + " + t.getName()));
+            assertEquals(expected.size(), count);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected, found);
+        assertEquals(expected, matrix.stream().parallel().map(WheelTirePair::toString).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testPairRollingDiameter() {
+        WheelTirePair pair = new WheelTirePair(new Wheel("W", 1, 18.0, 9.5, 22), new Tire("T", 1, 245, 40, 18.0));
+        assertEquals("W", pair.getWheel().getName());
+        assertEquals("T", pair.getTire().getName());
+        assertEquals(653.2, pair.getRollingDiameterMm(), 1e-9);
+    }
+}
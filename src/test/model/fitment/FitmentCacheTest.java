@@ -0,0 +1,77 @@
+package model.fitment;
+
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the FitmentCache class
+@ExcludeFromJacocoGeneratedReport
+public class FitmentCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        FitmentCache cache = new FitmentCache(10);
+        assertEquals(0.0, cache.getHitRate());
+        int expected = FitmentEngine.evaluate(18.0, 9.5, 245, 40, 18.0, 30, Double.NaN, 3.0);
+        assertEquals(expected, cache.evaluate(18.0, 9.5, 245, 40, 18.0, 30, Double.NaN, 3.0));
+        assertEquals(expected, cache.evaluate(18.0, 9.5, 245, 40, 18.0, 30, Double.NaN, 3.0));
+        assertEquals(FitmentIssue.RIM_MISMATCH.bit(), cache.evaluate(17.0, 9.5, 245, 40, 18.0, 30, Double.NaN, 3.0)
+                & FitmentIssue.RIM_MISMATCH.bit());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        FitmentCache cache = new FitmentCache(2);
+        assertEquals(2, cache.getCapacity());
+        cache.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        cache.evaluate(18.0, 9.0, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        // touch the first so the second is the least recently used
+        cache.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        cache.evaluate(18.0, 8.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        assertEquals(2, cache.size());
+
+        cache.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        assertEquals(2, cache.getHits());
+        cache.evaluate(18.0, 9.0, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testCapacity() {
+        FitmentCache large = new FitmentCache(1000);
+        for (int i = 0; i < 5000; i++) {
+            large.evaluate(18.0, 5 + i * 0.001, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        }
+        assertEquals(1000, large.size());
+
+        FitmentCache disabled = new FitmentCache(0);
+        disabled.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        disabled.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0);
+        assertEquals(0, disabled.size());
+        assertEquals(0, disabled.getHits());
+        assertEquals(2, disabled.getMisses());
+
+        assertThrows(IllegalArgumentException.class, () -> new FitmentCache(-1));
+    }
+
+    @Test
+    public void testSharedCache() {
+        FitmentCache.configureShared(50);
+        assertSame(FitmentCache.shared(), FitmentCache.shared());
+        assertEquals(50, FitmentCache.shared().getCapacity());
+        FitmentCache.configureShared(FitmentCache.DEFAULT_CAPACITY);
+        assertEquals(FitmentCache.DEFAULT_CAPACITY, FitmentCache.shared().getCapacity());
+    }
+}
@@ -0,0 +1,106 @@
+package model.fitment;
+
+import model.Build;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the FitmentEngine and FitmentReport classes
+@ExcludeFromJacocoGeneratedReport
+public class FitmentEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    private Build build;
+    private Wheel w18;
+    private Tire t18;
+
+    @BeforeEach
+    public void runBefore() {
+        build = new Build();
+        w18 = new Wheel("TE37-18", 3200, 18.0, 9.5, 22);
+        t18 = new Tire("PS4S-245-40R18", 1400, 245, 40, 18.0);
+        build.addAll(List.of(w18, t18));
+    }
+
+    @Test
+    public void testRollingDiameterAndDelta() {
+        assertEquals(653.2, FitmentEngine.rollingDiameterMm(245, 40, 18.0), EPS);
+        assertEquals(654.1, FitmentEngine.rollingDiameterMm(245, 35, 19.0), EPS);
+        assertEquals(10.0, FitmentEngine.deltaPct(110, 100), EPS);
+        assertTrue(Double.isNaN(FitmentEngine.deltaPct(110, Double.NaN)));
+    }
+
+    @Test
+    public void testEvaluateRimAndWidth() {
+        assertEquals(0, FitmentEngine.evaluate(18.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0));
+        assertEquals(FitmentIssue.RIM_MISMATCH.bit(),
+                FitmentEngine.evaluate(19.0, 9.5, 245, 40, 18.0, 0, Double.NaN, 3.0));
+        assertEquals(FitmentIssue.RIM_TOO_WIDE.bit(),
+                FitmentEngine.evaluate(18.0, 10.5, 245, 40, 18.0, 0, Double.NaN, 3.0));
+        assertEquals(FitmentIssue.RIM_TOO_NARROW.bit(),
+                FitmentEngine.evaluate(18.0, 6.0, 245, 40, 18.0, 0, Double.NaN, 3.0));
+    }
+
+    @Test
+    public void testEvaluateAgainstReference() {
+        double reference = 653.2;
+        assertEquals(0, FitmentEngine.evaluate(19.0, 9.5, 245, 35, 19.0, 0, reference, 3.0));
+        assertEquals(FitmentIssue.ROLLING_DIAMETER_DELTA.bit(),
+                FitmentEngine.evaluate(20.0, 9.5, 255, 35, 20.0, 0, reference, 3.0));
+        assertEquals(FitmentIssue.ROLLING_DIAMETER_DELTA.bit() | FitmentIssue.CLEARANCE_RISK.bit(),
+                FitmentEngine.evaluate(20.0, 9.5, 255, 35, 20.0, 35, reference, 3.0));
+        assertEquals(FitmentIssue.CLEARANCE_RISK.bit(),
+                FitmentEngine.evaluate(18.0, 9.5, 245, 40, 18.0, 60, Double.NaN, 3.0));
+    }
+
+    @Test
+    public void testCheckMissingParts() {
+        FitmentReport report = FitmentEngine.check(build);
+        assertEquals(EnumSet.of(FitmentIssue.MISSING_WHEEL, FitmentIssue.MISSING_TIRE), report.getIssues());
+        assertTrue(Double.isNaN(report.getRollingDiameterMm()));
+
+        build.setActiveTire(t18.getName());
+        report = FitmentEngine.check(build);
+        assertEquals(EnumSet.of(FitmentIssue.MISSING_WHEEL), report.getIssues());
+        assertEquals(653.2, report.getRollingDiameterMm(), EPS);
+        assertEquals(List.of("No active wheel"), report.getWarnings());
+    }
+
+    @Test
+    public void testCheckActiveBuild() {
+        build.setActiveWheel(w18.getName());
+        build.setActiveTire(t18.getName());
+        FitmentReport report = FitmentEngine.check(build);
+        assertTrue(report.isClean());
+        assertTrue(report.getWarnings().isEmpty());
+        assertTrue(Double.isNaN(report.getDeltaPct()));
+
+        Tire t20 = new Tire("PS4S-255-35R20", 1800, 255, 35, 20.0);
+        build.addPart(t20);
+        build.addPart(new Suspension("BC", 1200, "coilover", 35));
+        build.setReferenceOdMm(653.2);
+        build.setActiveTire(t20.getName());
+        build.setActiveSuspension("BC");
+
+        report = FitmentEngine.check(build);
+        assertEquals(EnumSet.of(FitmentIssue.RIM_MISMATCH, FitmentIssue.ROLLING_DIAMETER_DELTA,
+                FitmentIssue.CLEARANCE_RISK), report.getIssues());
+        assertTrue(report.hasIssue(FitmentIssue.RIM_MISMATCH));
+        assertFalse(report.hasIssue(FitmentIssue.RIM_TOO_WIDE));
+        assertEquals(5.1, report.getDeltaPct(), 0.01);
+        List<String> warnings = report.getWarnings();
+        assertEquals(3, warnings.size());
+        assertTrue(warnings.get(1).contains("686.5 mm vs 653.2 mm, +5.10%, limit 3.0%"));
+        assertTrue(warnings.get(2).contains("51.6 mm of gap lost, 35 mm from the drop"));
+    }
+}
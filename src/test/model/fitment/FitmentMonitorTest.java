@@ -0,0 +1,189 @@
+package model.fitment;
+
+import model.Build;
+import model.Engine;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the FitmentMonitor, StandardFitmentRule and RuleTiming classes
+@ExcludeFromJacocoGeneratedReport
+public class FitmentMonitorTest {
+
+    private Build build;
+    private FitmentMonitor monitor;
+
+    @BeforeEach
+    public void runBefore() {
+        build = new Build();
+        build.addAll(List.of(
+                new Wheel("W18", 3200, 18.0, 9.5, 22),
+                new Wheel("W17", 1000, 17.0, 7.5, 40),
+                new Tire("T18", 1400, 245, 40, 18.0),
+                new Tire("T19", 1600, 245, 35, 19.0),
+                new Suspension("Low", 2000, "coilover", 70),
+                new Engine("K20", 5000, "i4", 220, 2.0)));
+        monitor = new FitmentMonitor(build);
+    }
+
+    @Test
+    public void testOnlyAffectedRulesRerun() {
+        assertEquals(EnumSet.of(FitmentIssue.MISSING_WHEEL, FitmentIssue.MISSING_TIRE), monitor.check().getIssues());
+        assertEquals(List.of(1L, 1L, 1L, 1L), evaluations());
+
+        // nothing changed, and the engine is read by no rule
+        monitor.check();
+        build.setActive(PartCategory.ENGINE, "K20");
+        monitor.check();
+        assertEquals(List.of(1L, 1L, 1L, 1L), evaluations());
+
+        build.setActive(PartCategory.SUSPENSION, "Low");
+        monitor.check();
+        assertEquals(List.of(1L, 1L, 1L, 2L), evaluations());
+
+        build.setActive(PartCategory.WHEEL, "W18");
+        monitor.check();
+        assertEquals(List.of(2L, 2L, 1L, 2L), evaluations());
+
+        build.setReferenceOdMm(653.2);
+        build.setActive(PartCategory.TIRE, "T18");
+        FitmentReport report = monitor.check();
+        assertEquals(List.of(3L, 3L, 2L, 3L), evaluations());
+        assertEquals(653.2, report.getReferenceOdMm());
+        assertEquals(FitmentEngine.check(build).getIssues(), report.getIssues());
+
+        build.setReferenceOdMm(600.0);
+        assertEquals(EnumSet.of(FitmentIssue.ROLLING_DIAMETER_DELTA, FitmentIssue.CLEARANCE_RISK),
+                monitor.check().getIssues());
+        assertEquals(List.of(3L, 3L, 3L, 4L), evaluations());
+
+        build.clearActive(PartCategory.WHEEL);
+        assertTrue(monitor.check().hasIssue(FitmentIssue.MISSING_WHEEL));
+        assertEquals(List.of(4L, 4L, 3L, 4L), evaluations());
+    }
+
+    @Test
+    public void testTimings() {
+        monitor.check();
+        List<RuleTiming> timings = monitor.getTimings();
+        assertEquals(4, timings.size());
+        RuleTiming presence = timings.get(0);
+        assertEquals("PRESENCE", presence.getRuleName());
+        assertEquals(1, presence.getEvaluations());
+        assertTrue(presence.getTotalNanos() >= presence.getLastNanos());
+        assertEquals(presence.getTotalNanos(), presence.getAverageNanos());
+        assertTrue(presence.toString().startsWith("PRESENCE: 1 evaluations"));
+
+        monitor.resetTimings();
+        RuleTiming reset = monitor.getTimings().get(0);
+        assertEquals(0, reset.getEvaluations());
+        assertEquals(0, reset.getTotalNanos());
+        assertEquals(0.0, reset.getAverageNanos());
+    }
+
+    @Test
+    public void testCustomRule() {
+        FitmentRule engineRule = new FitmentRule() {
+            @Override
+            public String getName() {
+                return "engine";
+            }
+
+            @Override
+            public Set<PartCategory> getInputs() {
+                return EnumSet.of(PartCategory.ENGINE);
+            }
+
+            @Override
+            public boolean readsReference() {
+                return false;
+            }
+
+            @Override
+            public int evaluate(Build b) {
+                return b.getActive(PartCategory.ENGINE) == null ? 0 : FitmentIssue.CLEARANCE_RISK.bit();
+            }
+        };
+        FitmentMonitor custom = new FitmentMonitor(build, List.of(engineRule));
+        assertTrue(custom.check().isClean());
+        build.setReferenceOdMm(700.0);
+        custom.check();
+        assertEquals(1, custom.getTimings().get(0).getEvaluations());
+        build.setActive(PartCategory.ENGINE, "K20");
+        assertTrue(custom.check().hasIssue(FitmentIssue.CLEARANCE_RISK));
+        assertEquals(2, custom.getTimings().get(0).getEvaluations());
+
+        List<FitmentRule> withNull = new ArrayList<>();
+        withNull.add(null);
+        assertThrows(IllegalArgumentException.class, () -> new FitmentMonitor(build, null));
+        assertThrows(IllegalArgumentException.class, () -> new FitmentMonitor(build, withNull));
+    }
+
+    @Test
+    public void testMatchesFitmentEngine() {
+        Random random = new Random(11);
+        String[] wheels = {"W18", "W17", null};
+        String[] tires = {"T18", "T19", null};
+        for (int i = 0; i < 200; i++) {
+            setOrClear(PartCategory.WHEEL, wheels[random.nextInt(3)]);
+            setOrClear(PartCategory.TIRE, tires[random.nextInt(3)]);
+            setOrClear(PartCategory.SUSPENSION, random.nextBoolean() ? "Low" : null);
+            if (random.nextInt(4) == 0) {
+                build.setReferenceOdMm(random.nextBoolean() ? null : 600.0 + random.nextInt(100));
+            }
+            assertEquals(FitmentEngine.check(build).getIssueMask(), monitor.check().getIssueMask());
+        }
+    }
+
+    @Test
+    public void testRulesShareTheFitmentCache() {
+        FitmentCache.configureShared(16);
+        build.setActive(PartCategory.WHEEL, "W18");
+        build.setActive(PartCategory.TIRE, "T18");
+        monitor.check();
+        // the three wheel and tire rules look up one spec tuple
+        assertEquals(1, FitmentCache.shared().getMisses());
+        assertEquals(2, FitmentCache.shared().getHits());
+
+        build.setActive(PartCategory.SUSPENSION, "Low");
+        monitor.check();
+        assertEquals(2, FitmentCache.shared().getMisses());
+        // going back to specs already seen is answered from the cache
+        build.clearActive(PartCategory.SUSPENSION);
+        monitor.check();
+        build.setActive(PartCategory.SUSPENSION, "Low");
+        monitor.check();
+        assertEquals(2, FitmentCache.shared().getMisses());
+        assertEquals(4, FitmentCache.shared().getHits());
+        FitmentCache.configureShared(FitmentCache.DEFAULT_CAPACITY);
+    }
+
+    private void setOrClear(PartCategory category, String name) {
+        if (name == null) {
+            build.clearActive(category);
+        } else {
+            build.setActive(category, name);
+        }
+    }
+
+    private List<Long> evaluations() {
+        List<Long> result = new ArrayList<>();
+        for (RuleTiming t : monitor.getTimings()) {
+            result.add(t.getEvaluations());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+package model.fitment;
+
+import model.Build;
+import model.Tire;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the RollingDiameterTable class
+@ExcludeFromJacocoGeneratedReport
+public class RollingDiameterTableTest {
+
+    @Test
+    public void testKernelMatchesFitmentEngine() {
+        Random random = new Random(3);
+        int n = 1000;
+        double[] widths = new double[n];
+        double[] aspects = new double[n];
+        double[] rims = new double[n];
+        for (int i = 0; i < n; i++) {
+            widths[i] = 155 + 5 * random.nextInt(40);
+            aspects[i] = 25 + 5 * random.nextInt(12);
+            rims[i] = 13 + random.nextInt(10) + (random.nextBoolean() ? 0.5 : 0);
+        }
+        double[] out = new double[n];
+        RollingDiameterTable.rollingDiametersMm(widths, aspects, rims, out);
+        for (int i = 0; i < n; i++) {
+            assertEquals(FitmentEngine.rollingDiameterMm((int) widths[i], (int) aspects[i], rims[i]), out[i]);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> RollingDiameterTable.rollingDiametersMm(widths, aspects, rims, new double[n - 1]));
+    }
+
+    @Test
+    public void testSortedAndGrouped() {
+        Tire a = new Tire("A", 100, 245, 40, 18.0);
+        Tire b = new Tire("B", 200, 225, 45, 17.0);
+        Tire c = new Tire("C", 300, 245, 40, 18.0);
+        Tire d = new Tire("D", 400, 255, 35, 19.0);
+        Build build = new Build();
+        build.addAll(List.of(a, b, c, d));
+        RollingDiameterTable table = new RollingDiameterTable(build);
+
+        assertEquals(4, table.size());
+        assertEquals(3, table.distinctCount());
+        assertEquals(634.3, table.diameterAt(0), 1e-9);
+        assertEquals(653.2, table.diameterAt(1), 1e-9);
+        assertEquals(661.1, table.diameterAt(2), 1e-9);
+        assertEquals(List.of(b), table.tiresAt(0));
+        assertEquals(List.of(a, c), table.tiresAt(1));
+        assertEquals(List.of(d), table.tiresAt(2));
+    }
+
+    @Test
+    public void testNearestAndWithin() {
+        Tire a = new Tire("A", 100, 245, 40, 18.0);
+        Tire b = new Tire("B", 200, 225, 45, 17.0);
+        Tire d = new Tire("D", 400, 255, 35, 19.0);
+        RollingDiameterTable table = new RollingDiameterTable(List.of(a, b, d));
+
+        assertEquals(List.of(a), table.nearest(653.2));
+        assertEquals(List.of(a), table.nearest(655));
+        assertEquals(List.of(d), table.nearest(660));
+        assertEquals(List.of(b), table.nearest(100));
+        assertEquals(List.of(d), table.nearest(1000));
+        // exactly halfway picks the smaller diameter
+        assertEquals(List.of(b), table.nearest((634.3 + 653.2) / 2));
+
+        assertEquals(List.of(a, d), table.within(655, 1.0));
+        assertEquals(List.of(b, a, d), table.within(650, 3.0));
+        assertTrue(table.within(500, 1.0).isEmpty());
+
+        RollingDiameterTable empty = new RollingDiameterTable(new ArrayList<>());
+        assertEquals(-1, empty.nearestIndex(650));
+        assertTrue(empty.nearest(650).isEmpty());
+        assertTrue(empty.within(650, 3.0).isEmpty());
+        assertEquals(0, empty.distinctCount());
+    }
+}
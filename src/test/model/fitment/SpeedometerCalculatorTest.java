@@ -0,0 +1,83 @@
+package model.fitment;
+
+import model.Tire;
+import model.Transmission;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the SpeedometerCalculator and SpeedometerEffect classes
+@ExcludeFromJacocoGeneratedReport
+public class SpeedometerCalculatorTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void testEffect() {
+        SpeedometerEffect effect = new SpeedometerEffect(600, 660);
+        assertEquals(600, effect.getRollingDiameterMm());
+        assertEquals(660, effect.getReferenceOdMm());
+        assertEquals(10.0, effect.getSpeedoErrorPct(), EPS);
+        assertEquals(110.0, effect.indicatedSpeed(100), EPS);
+        assertEquals(100.0, effect.trueSpeed(110), EPS);
+        assertEquals(1.1, effect.getFinalDriveFactor(), EPS);
+        assertEquals(10.0, effect.getFinalDriveChangePct(), EPS);
+
+        double[] gears = effect.gearFactors(new Transmission("6MT", 1, "manual", 6, "RWD"));
+        assertEquals(6, gears.length);
+        assertEquals(1.1, gears[5], EPS);
+
+        assertTrue(new SpeedometerEffect(700, 660).getSpeedoErrorPct() < 0);
+    }
+
+    @Test
+    public void testCachePerSpecAndReference() {
+        SpeedometerCalculator calc = new SpeedometerCalculator();
+        Tire a = new Tire("A", 100, 245, 40, 18.0);
+        Tire sameSize = new Tire("B", 900, 245, 40, 18.0);
+        assertNull(calc.getReferenceOdMm());
+        assertNull(calc.effectOf(a));
+
+        calc.setReferenceOdMm(653.2);
+        assertEquals(0.0, calc.effectOf(a).getSpeedoErrorPct(), EPS);
+        assertSame(calc.effectOf(a), calc.effectOf(sameSize));
+        assertEquals(1, calc.cachedSpecs());
+
+        calc.setReferenceOdMm(653.2);
+        assertEquals(1, calc.cachedSpecs());
+        calc.setReferenceOdMm(600.0);
+        assertEquals(0, calc.cachedSpecs());
+        assertEquals(600.0, calc.effectOf(a).getReferenceOdMm());
+        calc.setReferenceOdMm(null);
+        assertNull(calc.effectOf(a));
+
+        assertThrows(IllegalArgumentException.class, () -> calc.setReferenceOdMm(0.0));
+        assertThrows(IllegalArgumentException.class, () -> calc.setReferenceOdMm(Double.NaN));
+    }
+
+    @Test
+    public void testSortBySpeedoError() {
+        Tire exact = new Tire("Exact", 100, 245, 40, 18.0);
+        Tire small = new Tire("Small", 100, 225, 45, 17.0);
+        Tire big = new Tire("Big", 100, 255, 35, 19.0);
+        Tire exactToo = new Tire("AlsoExact", 100, 245, 40, 18.0);
+        List<Tire> tires = List.of(small, big, exact, exactToo);
+
+        SpeedometerCalculator calc = new SpeedometerCalculator();
+        assertEquals(tires, calc.sortBySpeedoError(tires));
+
+        calc.setReferenceOdMm(653.2);
+        assertEquals(List.of(exactToo, exact, big, small), calc.sortBySpeedoError(tires));
+        assertEquals(3, calc.cachedSpecs());
+        for (Tire t : tires) {
+            double odMm = FitmentEngine.rollingDiameterMm(t.getWidthMm(), t.getAspectPercent(), t.getRimDiameterIn());
+            assertEquals(odMm, calc.effectOf(t).getRollingDiameterMm(), EPS);
+        }
+        assertTrue(calc.sortBySpeedoError(new ArrayList<>()).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package model.fitment;
+
+import model.Build;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the ToleranceSimulator class
+@ExcludeFromJacocoGeneratedReport
+public class ToleranceSimulatorTest {
+
+    private static final int SAMPLES = 20_000;
+
+    private final Wheel roomy = new Wheel("Roomy", 500, 18.0, 8.0, 35);
+    private final Wheel tight = new Wheel("Tight", 600, 18.0, 8.5, 35);
+    private final Wheel small = new Wheel("Small", 300, 17.0, 7.5, 40);
+    private final Tire wide = new Tire("Wide", 200, 245, 40, 18.0);
+    private final Tire edge = new Tire("Edge", 200, 216, 40, 18.0);
+    private final Tire other = new Tire("Other", 150, 225, 45, 17.0);
+    private final Suspension coilovers = new Suspension("Coilovers", 900, "coilover", 30);
+
+    @Test
+    public void testClearFitNeverFails() {
+        ToleranceSimulator simulator = new ToleranceSimulator(Tolerances.DEFAULT, Double.NaN, 3.0);
+        ToleranceResult result = simulator.simulate(roomy, wide, coilovers, SAMPLES, 1);
+        assertEquals(SAMPLES, result.getSamples());
+        assertEquals(0, result.getFailures());
+        assertEquals(0.0, result.getFailureProbability());
+        assertSame(roomy, result.getWheel());
+        assertSame(wide, result.getTire());
+        assertSame(coilovers, result.getSuspension());
+    }
+
+    @Test
+    public void testBorderlineFitFailsAboutHalfTheTime() {
+        ToleranceSimulator simulator = new ToleranceSimulator(Tolerances.DEFAULT, Double.NaN, 3.0);
+        ToleranceResult result = simulator.simulate(tight, edge, null, SAMPLES, 2);
+        assertEquals(0.5, result.getFailureProbability(), 0.05);
+        assertEquals(result.getFailures(), result.getIssueCount(FitmentIssue.RIM_TOO_WIDE));
+        assertEquals(0, result.getIssueCount(FitmentIssue.RIM_TOO_NARROW));
+        assertEquals(0.0, result.probability(FitmentIssue.CLEARANCE_RISK));
+        assertNull(result.getSuspension());
+    }
+
+    @Test
+    public void testZeroTolerancesMatchNominalCheck() {
+        Tolerances none = new Tolerances(0, 0, 0, 0);
+        ToleranceSimulator simulator = new ToleranceSimulator(none, 640.0, 1.0);
+        ToleranceResult result = simulator.simulate(roomy, wide, coilovers, 100, 3);
+        int mask = FitmentEngine.evaluate(18.0, 8.0, 245, 40, 18.0, 30, 640.0, 1.0);
+        assertEquals(mask == 0 ? 0 : 100, result.getFailures());
+        for (FitmentIssue issue : FitmentIssue.values()) {
+            assertEquals(issue.in(mask) ? 1.0 : 0.0, result.probability(issue));
+        }
+    }
+
+    @Test
+    public void testSameSeedSameCountsOnAnyPool() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            ToleranceSimulator a = new ToleranceSimulator(Tolerances.DEFAULT, 650.0, 1.0, single);
+            ToleranceSimulator b = new ToleranceSimulator(Tolerances.DEFAULT, 650.0, 1.0, several);
+            int samples = 3 * ToleranceSimulator.SAMPLES_PER_CHUNK + 17;
+            ToleranceResult first = a.simulate(tight, edge, coilovers, samples, 42);
+            ToleranceResult second = b.simulate(tight, edge, coilovers, samples, 42);
+            assertEquals(first.getFailures(), second.getFailures());
+            for (FitmentIssue issue : FitmentIssue.values()) {
+                assertEquals(first.getIssueCount(issue), second.getIssueCount(issue));
+            }
+            ToleranceResult reseeded = a.simulate(tight, edge, coilovers, samples, 43);
+            assertNotEquals(first.getFailures(), reseeded.getFailures());
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testSimulateAllPairsByRimDiameter() {
+        ToleranceSimulator simulator = new ToleranceSimulator(Tolerances.DEFAULT, Double.NaN, 3.0);
+        List<ToleranceResult> results = simulator.simulateAll(List.of(roomy, tight, small),
+                List.of(wide, edge, other), null, 5000, 7);
+        assertEquals(5, results.size());
+        assertSame(roomy, results.get(0).getWheel());
+        assertSame(wide, results.get(0).getTire());
+        assertSame(edge, results.get(1).getTire());
+        assertSame(tight, results.get(2).getWheel());
+        assertSame(small, results.get(4).getWheel());
+        assertSame(other, results.get(4).getTire());
+
+        ToleranceResult alone = simulator.simulate(roomy, wide, null, 5000, 7);
+        assertEquals(alone.getFailures(), results.get(0).getFailures());
+        assertTrue(simulator.simulateAll(List.of(small), List.of(wide), null, 10, 1).isEmpty());
+    }
+
+    @Test
+    public void testSimulateActive() {
+        Build build = new Build();
+        build.addAll(List.of(tight, edge, coilovers));
+        assertNull(ToleranceSimulator.simulateActive(build, 100, 1));
+        build.setActive(PartCategory.WHEEL, "Tight");
+        build.setActive(PartCategory.TIRE, "Edge");
+        ToleranceResult result = ToleranceSimulator.simulateActive(build, 1000, 1);
+        assertSame(tight, result.getWheel());
+        assertNull(result.getSuspension());
+        assertTrue(result.toString().startsWith("Tight + Edge: "));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        ToleranceSimulator simulator = new ToleranceSimulator(Tolerances.DEFAULT, Double.NaN, 3.0);
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(roomy, wide, null, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tolerances(-1, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Tolerances(0, Double.NaN, 0, 0));
+    }
+}
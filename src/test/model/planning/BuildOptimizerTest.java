@@ -0,0 +1,199 @@
+package model.planning;
+
+import model.Build;
+import model.Engine;
+import model.Exhaust;
+import model.Part;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import model.fitment.FitmentEngine;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the BuildOptimizer and PlannedBuild classes
+@ExcludeFromJacocoGeneratedReport
+public class BuildOptimizerTest {
+
+    @Test
+    public void testPicksMostHorsepowerWithinBudget() {
+        Build build = new Build();
+        build.addAll(List.of(
+                new Engine("K20", 5000, "i4", 220, 2.0),
+                new Engine("VQ35", 7000, "v6", 300, 3.5),
+                new Engine("LS3", 9000, "v8", 430, 6.2),
+                new Exhaust("Cheap", 300, "ss"),
+                new Exhaust("Fancy", 2000, "ti"),
+                new Wheel("W18", 1000, 18.0, 9.5, 22),
+                new Wheel("W17", 500, 17.0, 7.5, 40),
+                new Tire("T18", 800, 245, 40, 18.0),
+                new Tire("T19", 100, 245, 35, 19.0)));
+
+        List<PlannedBuild> plans = new BuildOptimizer(build).optimize(11000, 3);
+        assertEquals(3, plans.size());
+
+        PlannedBuild best = plans.get(0);
+        assertEquals(300.0, best.getScore());
+        assertEquals(7000 + 300 + 1000 + 800, best.getTotalCost());
+        assertEquals("VQ35", best.getPart(PartCategory.ENGINE).getName());
+        assertEquals("W18", best.getPart(PartCategory.WHEEL).getName());
+        assertEquals("T18", best.getPart(PartCategory.TIRE).getName());
+        assertNull(best.getPart(PartCategory.LIGHTS));
+        assertEquals(List.of(PartCategory.WHEEL, PartCategory.TIRE, PartCategory.EXHAUST, PartCategory.ENGINE),
+                best.getParts().stream().map(Part::getCategory).collect(Collectors.toList()));
+
+        assertEquals(300.0, plans.get(1).getScore());
+        assertEquals(7000 + 2000 + 1000 + 800, plans.get(1).getTotalCost());
+        assertEquals(220.0, plans.get(2).getScore());
+
+        assertTrue(new BuildOptimizer(build).optimize(6000, 1).isEmpty());
+        assertEquals(430.0, new BuildOptimizer(build).optimize(100000, 1).get(0).getScore());
+    }
+
+    @Test
+    public void testApplyWinner() {
+        Build build = new Build();
+        Engine old = new Engine("Old", 1, "i4", 100, 1.6);
+        Engine better = new Engine("Better", 2, "i6", 200, 3.0);
+        Suspension sus = new Suspension("BC", 3, "coilover", 30);
+        build.addAll(List.of(old, better, sus));
+        build.setActiveEngine(old.getName());
+
+        PlannedBuild plan = new BuildOptimizer(build).optimize(10, 1).get(0);
+        assertTrue(plan.applyTo(build));
+        assertEquals(better, build.getActive(PartCategory.ENGINE));
+        assertEquals(sus, build.getActive(PartCategory.SUSPENSION));
+        assertNull(build.getPartByName(old.getName()));
+
+        build.removePartByName(sus.getName());
+        assertFalse(plan.applyTo(build));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        BuildOptimizer optimizer = new BuildOptimizer(new Build());
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(1, 1, null));
+        assertEquals(1, optimizer.optimize(0, 3).size());
+    }
+
+    @Test
+    public void testSuspensionDropIsCheckedWithTheTire() {
+        Build build = new Build();
+        build.addAll(List.of(
+                new Wheel("W18", 1000, 18.0, 8.5, 35),
+                new Tire("T18", 800, 235, 40, 18.0),
+                new Suspension("Slammed", 100, "coilover", 80),
+                new Suspension("Mild", 900, "springs", 30)));
+        build.setReferenceOdMm(640.0);
+
+        List<PlannedBuild> plans = new BuildOptimizer(build).optimize(100000, 5, p -> p.getCost());
+        assertEquals(1, plans.size());
+        assertEquals("Mild", plans.get(0).getPart(PartCategory.SUSPENSION).getName());
+
+        build.removePartByName("Mild");
+        assertTrue(new BuildOptimizer(build).optimize(100000, 5).isEmpty());
+    }
+
+    @Test
+    public void testEveryPlanPassesFitment() {
+        Random random = new Random(11);
+        int checked = 0;
+        for (int round = 0; round < 20; round++) {
+            Build build = randomBuild(random);
+            if (round % 2 == 0) {
+                build.setReferenceOdMm(600.0 + random.nextInt(80));
+            }
+            for (PlannedBuild plan : new BuildOptimizer(build).optimize(100000, 10)) {
+                // applyTo drops replaced parts from inventory, so each plan gets a fresh build
+                Build target = new Build();
+                target.addAll(plan.getParts());
+                target.setReferenceOdMm(build.getReferenceOdMm());
+                assertTrue(plan.applyTo(target));
+                assertTrue(FitmentEngine.check(target).isClean(), plan.toString());
+                checked++;
+            }
+        }
+        assertTrue(checked > 50);
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            Build build = randomBuild(random);
+            if (round % 2 == 0) {
+                build.setReferenceOdMm(600.0 + random.nextInt(80));
+            }
+            long budget = 2000 + random.nextInt(5000);
+            int n = 1 + random.nextInt(5);
+
+            List<PlannedBuild> plans = new BuildOptimizer(build).optimize(budget, n, p -> p.getCost() % 7);
+            List<long[]> expected = bruteForce(build, budget, p -> p.getCost() % 7);
+            assertEquals(Math.min(n, expected.size()), plans.size());
+            for (int i = 0; i < plans.size(); i++) {
+                assertEquals(expected.get(i)[0], (long) plans.get(i).getScore());
+                assertEquals(expected.get(i)[1], plans.get(i).getTotalCost());
+                assertTrue(plans.get(i).getTotalCost() <= budget);
+            }
+        }
+    }
+
+    // EFFECTS: returns a build with a few random parts in five categories
+    private Build randomBuild(Random random) {
+        Build build = new Build();
+        for (int i = 0; i < 5; i++) {
+            build.addPart(new Wheel("W" + i, random.nextInt(1000), 17 + random.nextInt(2),
+                    7 + random.nextInt(4), 30));
+            build.addPart(new Tire("T" + i, random.nextInt(1000), 215 + 10 * random.nextInt(4), 40,
+                    17 + random.nextInt(2)));
+            build.addPart(new Engine("E" + i, random.nextInt(1000), "i4", 100 + random.nextInt(300), 2.0));
+            build.addPart(new Exhaust("X" + i, random.nextInt(1000), "ss"));
+            build.addPart(new Suspension("S" + i, random.nextInt(1000), "coilover", random.nextInt(80)));
+        }
+        return build;
+    }
+
+    // EFFECTS: returns {score, cost} of every fitting in-budget build, best first, by nested loops
+    private List<long[]> bruteForce(Build build, long budget, ToDoubleFunction<Part> score) {
+        List<long[]> result = new ArrayList<>();
+        double reference = (build.getReferenceOdMm() == null) ? Double.NaN : build.getReferenceOdMm();
+        for (Part w : build.categoryView(PartCategory.WHEEL)) {
+            for (Part t : build.categoryView(PartCategory.TIRE)) {
+                for (Part s : build.categoryView(PartCategory.SUSPENSION)) {
+                    Wheel wheel = (Wheel) w;
+                    Tire tire = (Tire) t;
+                    if (FitmentEngine.evaluate(wheel.getDiameterIn(), wheel.getWidthIn(), tire.getWidthMm(),
+                            tire.getAspectPercent(), tire.getRimDiameterIn(), ((Suspension) s).getDropMm(),
+                            reference, 3.0) != 0) {
+                        continue;
+                    }
+                    for (Part e : build.categoryView(PartCategory.ENGINE)) {
+                        for (Part x : build.categoryView(PartCategory.EXHAUST)) {
+                            long cost = (long) w.getCost() + t.getCost() + s.getCost() + e.getCost() + x.getCost();
+                            long value = (long) (score.applyAsDouble(w) + score.applyAsDouble(t)
+                                    + score.applyAsDouble(s) + score.applyAsDouble(e) + score.applyAsDouble(x));
+                            if (cost <= budget) {
+                                result.add(new long[] {value, cost});
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong((long[] a) -> -a[0]).thenComparingLong(a -> a[1]));
+        return result;
+    }
+}
@@ -0,0 +1,240 @@
+package model.planning;
+
+import model.Build;
+import model.Engine;
+import model.Exhaust;
+import model.Part;
+import model.PartCategory;
+import model.Suspension;
+import model.Tire;
+import model.Wheel;
+import model.fitment.FitmentEngine;
+import org.junit.jupiter.api.Test;
+
+import ca.ubc.cs.ExcludeFromJacocoGeneratedReport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the ParetoFrontier and ParetoBuild classes
+@ExcludeFromJacocoGeneratedReport
+public class ParetoFrontierTest {
+
+    @Test
+    public void testFrontierTradesCostForHorsepowerAndDrop() {
+        Build build = new Build();
+        build.addAll(List.of(
+                new Engine("K20", 5000, "i4", 220, 2.0),
+                new Engine("VQ35", 7000, "v6", 300, 3.5),
+                new Engine("Weak", 7500, "i4", 150, 1.5),
+                new Suspension("Springs", 300, "springs", 25),
+                new Suspension("Coilovers", 1500, "coilover", 60),
+                new Suspension("Junk", 2000, "springs", 10),
+                new Exhaust("Cheap", 300, "ss"),
+                new Exhaust("Fancy", 2000, "ti")));
+
+        List<ParetoBuild> builds = new ParetoFrontier(build).getBuilds();
+        assertEquals(List.of("K20 Springs", "K20 Coilovers", "VQ35 Springs", "VQ35 Coilovers"),
+                builds.stream().map(b -> b.getPart(PartCategory.ENGINE).getName() + " "
+                        + b.getPart(PartCategory.SUSPENSION).getName()).collect(Collectors.toList()));
+
+        ParetoBuild first = builds.get(0);
+        assertEquals(5000 + 300 + 300, first.getTotalCost());
+        assertEquals(220, first.getHorsepower());
+        assertEquals(220.0, first.getScore());
+        assertEquals(25, first.getDropMm());
+        assertEquals("Cheap", first.getPart(PartCategory.EXHAUST).getName());
+        assertEquals("[Springs, Cheap, K20] cost 5600, 220 hp, drop 25 mm", first.toString());
+    }
+
+    @Test
+    public void testIncrementalAdds() {
+        Build build = new Build();
+        build.addPart(new Engine("K20", 5000, "i4", 220, 2.0));
+        ParetoFrontier frontier = new ParetoFrontier(build);
+        assertEquals(1, frontier.size());
+        assertEquals(0, frontier.getBuilds().get(0).getDropMm());
+
+        frontier.add(new Suspension("Springs", 300, "springs", 25));
+        assertEquals(1, frontier.size());
+        assertEquals(5300, frontier.getBuilds().get(0).getTotalCost());
+
+        // dominated engine leaves the frontier unchanged
+        frontier.add(new Engine("Weak", 6000, "i4", 200, 1.5));
+        assertEquals(1, frontier.size());
+
+        // a cheaper cost-only part only lowers the totals
+        frontier.add(new Exhaust("Fancy", 2000, "ti"));
+        frontier.add(new Exhaust("Cheap", 300, "ss"));
+        assertEquals(5600, frontier.getBuilds().get(0).getTotalCost());
+
+        frontier.add(new Engine("VQ35", 7000, "v6", 300, 3.5));
+        assertEquals(2, frontier.size());
+        frontier.add(new Engine("K24", 4000, "i4", 250, 2.4));
+        assertEquals(List.of("K24", "VQ35"), frontier.getBuilds().stream()
+                .map(b -> b.getPart(PartCategory.ENGINE).getName()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testWheelsAndTiresMustFit() {
+        Build build = new Build();
+        build.addPart(new Wheel("W18", 1000, 18.0, 9.5, 22));
+        build.addPart(new Tire("T19", 100, 245, 35, 19.0));
+        ParetoFrontier frontier = new ParetoFrontier(build);
+        assertEquals(0, frontier.size());
+        assertTrue(frontier.getBuilds().isEmpty());
+
+        frontier.add(new Tire("T18", 800, 245, 40, 18.0));
+        assertEquals(1, frontier.size());
+        assertEquals(1800, frontier.getBuilds().get(0).getTotalCost());
+        assertEquals("T18", frontier.getBuilds().get(0).getPart(PartCategory.TIRE).getName());
+    }
+
+    @Test
+    public void testSuspensionDropIsCheckedWithTheTire() {
+        Build build = new Build();
+        build.addAll(List.of(
+                new Wheel("W18", 1000, 18.0, 8.5, 35),
+                new Tire("Tall", 300, 235, 40, 18.0),
+                new Tire("Short", 900, 225, 35, 18.0),
+                new Suspension("Slammed", 100, "coilover", 45),
+                new Suspension("Mild", 200, "springs", 30)));
+        build.setReferenceOdMm(630.0);
+
+        List<ParetoBuild> builds = new ParetoFrontier(build).getBuilds();
+        assertEquals(List.of("Tall Mild", "Short Slammed"), builds.stream().map(b -> b.getPart(PartCategory.TIRE)
+                .getName() + " " + b.getPart(PartCategory.SUSPENSION).getName()).collect(Collectors.toList()));
+        assertEquals(1000 + 300 + 200, builds.get(0).getTotalCost());
+        assertEquals(1000 + 900 + 100, builds.get(1).getTotalCost());
+
+        ParetoFrontier frontier = new ParetoFrontier(build);
+        frontier.add(new Suspension("Bagged", 50, "air", 120));
+        assertEquals(2, frontier.size());
+    }
+
+    @Test
+    public void testEveryBuildPassesFitment() {
+        Random random = new Random(11);
+        int checked = 0;
+        for (int round = 0; round < 20; round++) {
+            Build build = new Build();
+            build.addAll(randomParts(random));
+            build.setReferenceOdMm(600.0 + random.nextInt(80));
+            for (ParetoBuild b : new ParetoFrontier(build).getBuilds()) {
+                Build target = new Build();
+                target.setReferenceOdMm(build.getReferenceOdMm());
+                target.addAll(b.getParts());
+                for (Part p : b.getParts()) {
+                    target.setActive(p.getCategory(), p.getName());
+                }
+                assertTrue(FitmentEngine.check(target).isClean(), b.toString());
+                checked++;
+            }
+        }
+        assertTrue(checked > 20);
+    }
+
+    @Test
+    public void testEmptyInventoryHasOneEmptyBuild() {
+        ParetoFrontier frontier = new ParetoFrontier(new Build());
+        assertEquals(1, frontier.size());
+        assertTrue(frontier.getBuilds().get(0).getParts().isEmpty());
+    }
+
+    @Test
+    public void testMatchesBruteForceInAnyOrder() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            List<Part> parts = randomParts(random);
+            Build build = new Build();
+            build.addAll(parts);
+            Build empty = new Build();
+            if (round % 2 == 0) {
+                build.setReferenceOdMm(600.0 + random.nextInt(80));
+                empty.setReferenceOdMm(build.getReferenceOdMm());
+            }
+            List<String> expected = bruteForce(parts, build.getReferenceOdMm());
+
+            assertEquals(expected, describe(new ParetoFrontier(build).getBuilds()));
+
+            Collections.shuffle(parts, random);
+            ParetoFrontier incremental = new ParetoFrontier(empty);
+            parts.forEach(incremental::add);
+            assertEquals(expected, describe(incremental.getBuilds()));
+        }
+    }
+
+    private static List<Part> randomParts(Random random) {
+        List<Part> parts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            parts.add(new Engine("E" + i, 100 * random.nextInt(20), "i4", 100 + 20 * random.nextInt(10), 2.0));
+            parts.add(new Suspension("S" + i, 100 * random.nextInt(10), "coilover", 10 * random.nextInt(9)));
+        }
+        for (int i = 0; i < 4; i++) {
+            parts.add(new Exhaust("X" + i, 100 * random.nextInt(10), "ss"));
+            parts.add(new Wheel("W" + i, 100 * random.nextInt(10), 17 + random.nextInt(2), 8.5, 30));
+            parts.add(new Tire("T" + i, 100 * random.nextInt(10), 225 + 10 * random.nextInt(3),
+                    35 + 5 * random.nextInt(3), 17 + random.nextInt(2)));
+        }
+        return parts;
+    }
+
+    // returns the cost, horsepower and drop of every non-dominated combination, in frontier order
+    private static List<String> bruteForce(List<Part> parts, Double reference) {
+        double referenceOdMm = (reference == null) ? Double.NaN : reference;
+        List<long[]> combos = new ArrayList<>();
+        long exhaust = parts.stream().filter(p -> p instanceof Exhaust).mapToLong(Part::getCost).min().orElse(0);
+        for (Part e : parts) {
+            for (Part s : parts) {
+                if (!(e instanceof Engine) || !(s instanceof Suspension)) {
+                    continue;
+                }
+                int drop = ((Suspension) s).getDropMm();
+                long wheelTire = Long.MAX_VALUE;
+                for (Part w : parts) {
+                    for (Part t : parts) {
+                        if (w instanceof Wheel && t instanceof Tire && FitmentEngine.evaluate(
+                                ((Wheel) w).getDiameterIn(), ((Wheel) w).getWidthIn(), ((Tire) t).getWidthMm(),
+                                ((Tire) t).getAspectPercent(), ((Tire) t).getRimDiameterIn(), drop,
+                                referenceOdMm, 3.0) == 0) {
+                            wheelTire = Math.min(wheelTire, w.getCost() + t.getCost());
+                        }
+                    }
+                }
+                if (wheelTire != Long.MAX_VALUE) {
+                    combos.add(new long[] {exhaust + wheelTire + e.getCost() + s.getCost(),
+                            ((Engine) e).getHorsepower(), drop});
+                }
+            }
+        }
+        List<String> result = new ArrayList<>();
+        combos.stream()
+                .filter(c -> combos.stream().noneMatch(o -> o[0] <= c[0] && o[1] >= c[1] && o[2] >= c[2]
+                        && (o[0] < c[0] || o[1] > c[1] || o[2] > c[2])))
+                .map(c -> c[0] + "/" + c[1] + "/" + c[2])
+                .distinct()
+                .forEach(result::add);
+        result.sort((a, b) -> {
+            long[] x = parse(a);
+            long[] y = parse(b);
+            return x[0] != y[0] ? Long.compare(x[0], y[0])
+                    : x[1] != y[1] ? Long.compare(y[1], x[1]) : Long.compare(y[2], x[2]);
+        });
+        return result;
+    }
+
+    private static long[] parse(String s) {
+        String[] parts = s.split("/");
+        return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+    }
+
+    private static List<String> describe(List<ParetoBuild> builds) {
+        return builds.stream().map(b -> b.getTotalCost() + "/" + b.getHorsepower() + "/" + b.getDropMm())
+                .collect(Collectors.toList());
+    }
+}
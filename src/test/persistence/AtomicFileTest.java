@@ -0,0 +1,165 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for AtomicFile class and the atomic saves of JsonWriter and BinaryWriter
+public class AtomicFileTest {
+
+    @Test
+    void testCommitReplacesTarget() {
+        for (Durability durability : Durability.values()) {
+            try {
+                Path dir = Files.createTempDirectory("autolink");
+                Path target = dir.resolve("save.json");
+                Files.writeString(target, "old");
+
+                AtomicFile file = new AtomicFile(target.toString(), durability);
+                OutputStream out = file.stream();
+                out.write("new".getBytes(StandardCharsets.UTF_8));
+                out.close();
+                assertEquals("old", Files.readString(target));
+                assertTrue(file.isOpen());
+                file.commit();
+
+                assertFalse(file.isOpen());
+                assertEquals("new", Files.readString(target));
+                assertEquals(List.of(target), listFiles(dir));
+                assertThrows(IllegalStateException.class, file::commit);
+                deleteAll(dir);
+            } catch (IOException e) {
+                fail("Exception should not have been thrown");
+            }
+        }
+    }
+
+    @Test
+    void testAbortLeavesTarget() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            Path target = dir.resolve("save.json");
+            Files.writeString(target, "old");
+
+            AtomicFile aborted = new AtomicFile(target.toString(), Durability.NONE);
+            aborted.stream().write(new byte[100]);
+            aborted.abort();
+            try (AtomicFile closed = new AtomicFile(target.toString(), Durability.NONE)) {
+                closed.stream().write(new byte[100]);
+            }
+
+            assertEquals("old", Files.readString(target));
+            assertEquals(List.of(target), listFiles(dir));
+            deleteAll(dir);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCommitKeepsPermissions() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            if (!dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                deleteAll(dir);
+                return;
+            }
+            Path plain = Files.createFile(dir.resolve("plain.json"));
+            Path created = dir.resolve("created.json");
+            AtomicFile first = new AtomicFile(created.toString(), Durability.NONE);
+            first.commit();
+            assertEquals(Files.getPosixFilePermissions(plain), Files.getPosixFilePermissions(created));
+
+            Path shared = dir.resolve("shared.json");
+            Files.writeString(shared, "old");
+            Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+            Files.setPosixFilePermissions(shared, permissions);
+            AtomicFile save = new AtomicFile(shared.toString(), Durability.NONE);
+            save.stream().write("new".getBytes(StandardCharsets.UTF_8));
+            save.commit();
+            assertEquals("new", Files.readString(shared));
+            assertEquals(permissions, Files.getPosixFilePermissions(shared));
+            deleteAll(dir);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testInvalidDestination() {
+        assertThrows(FileNotFoundException.class,
+                () -> new AtomicFile("./data/no/such/dir/save.json", Durability.FSYNC));
+        assertThrows(FileNotFoundException.class, () -> new AtomicFile("./data/my\0illegal.json", Durability.NONE));
+    }
+
+    @Test
+    void testFailedWritesKeepPreviousSave() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            Path json = dir.resolve("save.json");
+            Path binary = dir.resolve("save.bin");
+            Build build = new Build("Saved");
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            BuildData good = new BuildData(build, build.partsView());
+
+            JsonWriter jsonWriter = new JsonWriter(json.toString(), JsonWriter.Format.COMPACT, Durability.NONE);
+            jsonWriter.open();
+            jsonWriter.write(good);
+            jsonWriter.close();
+            BinaryWriter binaryWriter = new BinaryWriter(binary.toString(), Durability.NONE);
+            binaryWriter.open();
+            binaryWriter.write(good);
+            binaryWriter.close();
+            byte[] savedJson = Files.readAllBytes(json);
+            byte[] savedBinary = Files.readAllBytes(binary);
+
+            Part broken = new Part("Broken", 1) {
+                @Override
+                protected void writeFields(JsonEmitter out) throws IOException {
+                    throw new IOException("disk full");
+                }
+            };
+            BuildData bad = new BuildData(new Build("Lost"), List.of(new Tire("PS4S", 1400, 245, 35, 19.0), broken));
+            jsonWriter.open();
+            assertThrows(IOException.class, () -> jsonWriter.write(bad));
+            jsonWriter.close();
+            binaryWriter.open();
+            assertThrows(IllegalArgumentException.class, () -> binaryWriter.write(bad));
+            binaryWriter.close();
+
+            assertArrayEquals(savedJson, Files.readAllBytes(json));
+            assertArrayEquals(savedBinary, Files.readAllBytes(binary));
+            assertEquals(List.of(binary, json), listFiles(dir));
+            assertEquals("Saved", new JsonReader(json.toString()).read().getBuild().getName());
+            deleteAll(dir);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns the files in dir, sorted
+    private List<Path> listFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    // EFFECTS: deletes dir and the files in it
+    private void deleteAll(Path dir) throws IOException {
+        for (Path p : listFiles(dir)) {
+            Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+}
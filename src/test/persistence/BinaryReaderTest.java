@@ -0,0 +1,105 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for BinaryReader class
+public class BinaryReaderTest {
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.bin");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        try {
+            Path path = Files.createTempFile("autolink", ".bin");
+            Files.writeString(path, "{\"activeBuild\": {}}");
+            assertThrows(IOException.class, new BinaryReader(path.toString())::read);
+            Files.delete(path);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReaderUnsupportedVersion() {
+        try {
+            byte[] bytes = snapshot();
+            bytes[5] = 99;
+            assertThrows(IOException.class, () -> readBytes(bytes));
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReaderTruncated() {
+        try {
+            byte[] bytes = snapshot();
+            for (int length : List.of(0, 3, 8, bytes.length / 2, bytes.length - 1)) {
+                assertThrows(IOException.class, () -> readBytes(Arrays.copyOf(bytes, length)));
+            }
+            assertEquals(3, readBytes(bytes).getInventory().size());
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReaderCorruptIndexes() {
+        try {
+            byte[] bytes = snapshot();
+            // the build name index follows the header and the string table
+            int nameIndexAt = 6 + 4;
+            for (String s : List.of("Corrupt", "TE37", "PS4S", "KW", "coilover")) {
+                nameIndexAt += 4 + s.length();
+            }
+            byte[] badIndex = bytes.clone();
+            badIndex[nameIndexAt] = 0x7F;
+            assertThrows(IOException.class, () -> readBytes(badIndex));
+
+            // the last byte of the inventory order is the category of the suspension
+            byte[] badCategory = bytes.clone();
+            int orderAt = nameIndexAt + 4 + 4 + 1 + 4;
+            badCategory[orderAt + 2] = (byte) BinaryFormat.code(PartCategory.LIGHTS);
+            assertThrows(IOException.class, () -> readBytes(badCategory));
+            badCategory[orderAt + 2] = (byte) 200;
+            assertThrows(IOException.class, () -> readBytes(badCategory));
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    // EFFECTS: returns the bytes of a snapshot of an empty build and a wheel, tire and suspension
+    private byte[] snapshot() throws IOException {
+        Path path = Files.createTempFile("autolink", ".bin");
+        BinaryWriter writer = new BinaryWriter(path.toString());
+        writer.open();
+        writer.write(new BuildData(new Build("Corrupt"), List.of(new Wheel("TE37", 3000, 18.0, 9.5, 22),
+                new Tire("PS4S", 1400, 245, 35, 19.0), new Suspension("KW", 2500, "coilover", 30))));
+        writer.close();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.delete(path);
+        return bytes;
+    }
+
+    // EFFECTS: reads bytes back through a temporary file
+    private BuildData readBytes(byte[] bytes) throws IOException {
+        Path path = Files.createTempFile("autolink", ".bin");
+        Files.write(path, bytes);
+        try {
+            return new BinaryReader(path.toString()).read();
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
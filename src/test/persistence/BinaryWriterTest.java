@@ -0,0 +1,176 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for BinaryWriter class, checked by round trips against the JSON format
+public class BinaryWriterTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/my\0illegal:file.bin");
+            writer.open();
+            fail("FileNotFoundException expected");
+        } catch (FileNotFoundException e) {
+        }
+    }
+
+    @Test
+    void testWriterEmptyBuildData() {
+        try {
+            BuildData readData = roundTrip(new BuildData(new Build("Empty Build"), List.of()));
+            assertEquals("Empty Build", readData.getBuild().getName());
+            assertEquals(0, readData.getBuild().getParts().size());
+            assertEquals(0, readData.getInventory().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterAllPartTypesMatchJson() {
+        try {
+            List<Part> inventory = allPartTypes();
+            Build build = new Build("Full Build \u00e9");
+            build.addAll(List.of(inventory.get(9), inventory.get(0), inventory.get(4)));
+            BuildData data = new BuildData(build, inventory);
+
+            Path jsonPath = Files.createTempFile("autolink", ".json");
+            JsonWriter jsonWriter = new JsonWriter(jsonPath.toString(), JsonWriter.Format.COMPACT);
+            jsonWriter.open();
+            jsonWriter.write(data);
+            jsonWriter.close();
+            BuildData fromJson = new JsonReader(jsonPath.toString()).read();
+            Files.delete(jsonPath);
+
+            BuildData fromBinary = roundTrip(data);
+            assertEquals(fromJson.getBuild().getName(), fromBinary.getBuild().getName());
+            assertSameParts(fromJson.getBuild().getParts(), fromBinary.getBuild().getParts());
+            assertSameParts(fromJson.getInventory(), fromBinary.getInventory());
+            assertSameParts(inventory, fromBinary.getInventory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterInterleavedInventoryKeepsOrder() {
+        try {
+            Random random = new Random(8);
+            List<Part> parts = allPartTypes();
+            List<Part> inventory = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                Part p = parts.get(random.nextInt(parts.size()));
+                inventory.add(p instanceof Wheel
+                        ? new Wheel("W" + i, i, 15 + random.nextInt(8), 7.5, -5) : p);
+            }
+            BuildData readData = roundTrip(new BuildData(new Build("Order"), inventory));
+            assertSameParts(inventory, readData.getInventory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSmallerThanJson() {
+        try {
+            List<Part> inventory = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                inventory.add(new Tire("Tire " + i, 200 + i, 205 + 10 * (i % 6), 40, 18.0));
+                inventory.add(new Bumper("Bumper " + i, 900, "front", "carbon fiber", "Varis", "aggressive"));
+            }
+            BuildData data = new BuildData(new Build("Size"), inventory);
+            Path jsonPath = Files.createTempFile("autolink", ".json");
+            Path binaryPath = Files.createTempFile("autolink", ".bin");
+            JsonWriter jsonWriter = new JsonWriter(jsonPath.toString(), JsonWriter.Format.COMPACT);
+            jsonWriter.open();
+            jsonWriter.write(data);
+            jsonWriter.close();
+            BinaryWriter binaryWriter = new BinaryWriter(binaryPath.toString());
+            binaryWriter.open();
+            binaryWriter.write(data);
+            binaryWriter.close();
+
+            assertTrue(Files.size(binaryPath) * 2 < Files.size(jsonPath));
+            Files.delete(jsonPath);
+            Files.delete(binaryPath);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCategoryCodesAreFixed() {
+        List<String> expected = List.of("Wheel", "Tire", "Suspension", "Exhaust", "Engine", "Transmission",
+                "Bumper", "SideSkirts", "Diffuser", "Spoiler", "Lights");
+        for (int code = 0; code < expected.size(); code++) {
+            PartCategory category = BinaryFormat.category(code);
+            assertEquals(expected.get(code), category.getDisplayName());
+            assertEquals(code, BinaryFormat.code(category));
+        }
+        assertNull(BinaryFormat.category(expected.size()));
+        assertNull(BinaryFormat.category(-1));
+    }
+
+    @Test
+    void testWriterUncategorizedPart() {
+        try {
+            Path path = Files.createTempFile("autolink", ".bin");
+            BinaryWriter writer = new BinaryWriter(path.toString());
+            writer.open();
+            Part stub = new Part("Radiator", 250) {
+            };
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.write(new BuildData(new Build("Stub"), List.of(stub))));
+            writer.close();
+            Files.delete(path);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: writes data to a temporary binary snapshot and returns what is read back from it
+    static BuildData roundTrip(BuildData data) throws IOException {
+        Path path = Files.createTempFile("autolink", ".bin");
+        BinaryWriter writer = new BinaryWriter(path.toString());
+        writer.open();
+        writer.write(data);
+        writer.close();
+        BuildData readData = new BinaryReader(path.toString()).read();
+        Files.delete(path);
+        return readData;
+    }
+
+    // EFFECTS: fails unless both lists hold parts with the same JSON, in the same order
+    static void assertSameParts(List<Part> expected, List<Part> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            assertTrue(expected.get(i).toJson().similar(actual.get(i).toJson()));
+        }
+    }
+
+    // EFFECTS: returns one part of every category
+    static List<Part> allPartTypes() {
+        return List.of(new Wheel("TE37", 3000, 18.0, 9.5, 22),
+                new Tire("PS4S", 1400, 245, 35, 19.0),
+                new Suspension("KW", 2500, "coilover", 30),
+                new Exhaust("HKS", 950, "stainless"),
+                new Engine("2JZ", 12000, "I6", 320, 3.0),
+                new Transmission("GR6", 8000, "DCT", 6, "AWD"),
+                new Bumper("Mugen", 1200, "front", "cf", "Mugen", "aggressive"),
+                new SideSkirts("TRD", 650, "cf", "TRD"),
+                new Diffuser("APR", 950, "cf", "APR", true),
+                new Spoiler("Voltex", 1800, "cf", "GT", 320.5),
+                new Lights("Valenti", 800, "taillight", "Valenti", "LED", "smoked"));
+    }
+}
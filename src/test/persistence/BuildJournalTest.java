@@ -0,0 +1,418 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for BuildJournal class
+public class BuildJournalTest {
+
+    @Test
+    void testJournalConstructorInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new BuildJournal("./data/build.bin", 0, Durability.NONE));
+    }
+
+    @Test
+    void testJournalNotLoaded() {
+        BuildJournal journal = new BuildJournal("./data/build.bin");
+        assertThrows(IllegalStateException.class, journal::compact);
+    }
+
+    @Test
+    void testJournalEmpty() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            BuildJournal journal = new BuildJournal(dir.resolve("build.bin").toString());
+            Build build = journal.load();
+            assertTrue(build.getParts().isEmpty());
+            assertEquals(0, journal.getGeneration());
+            assertThrows(IllegalStateException.class, journal::load);
+            journal.close();
+
+            BuildJournal reopened = new BuildJournal(dir.resolve("build.bin").toString());
+            assertTrue(reopened.load().getParts().isEmpty());
+            reopened.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalReplaysEveryChange() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addAll(BinaryWriterTest.allPartTypes());
+            build.addPart(new Wheel("RPF1", 1500, 18.0, 9.5, 35));
+            build.setActiveWheel("TE37");
+            build.setActiveTire("PS4S");
+            build.replaceActivePart(PartCategory.WHEEL, "RPF1");
+            build.setActiveExhaust("HKS");
+            build.clearActive(PartCategory.EXHAUST);
+            build.removePartByName("Voltex");
+            build.setReferenceOdMm(650.0);
+            assertTrue(build.edit().addPart(new Exhaust("Tomei", 700, "titanium"))
+                    .setActive(PartCategory.EXHAUST, "Tomei").commit());
+            build.removeIf(p -> p.getCost() < 700);
+            journal.close();
+
+            BuildJournal reopened = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build loaded = reopened.load();
+            BinaryWriterTest.assertSameParts(build.getParts(), loaded.getParts());
+            for (PartCategory c : PartCategory.values()) {
+                Part expected = build.getActive(c);
+                assertEquals(expected == null ? null : expected.getName(),
+                        loaded.getActive(c) == null ? null : loaded.getActive(c).getName());
+            }
+            assertEquals("RPF1", loaded.getActive(PartCategory.WHEEL).getName());
+            assertEquals("Tomei", loaded.getActive(PartCategory.EXHAUST).getName());
+            assertEquals(650.0, loaded.getReferenceOdMm());
+            reopened.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalSmallAppends() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            BuildJournal journal = new BuildJournal(dir.resolve("build.bin").toString(),
+                    BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            for (int i = 0; i < 1000; i++) {
+                build.addPart(new Wheel("Wheel " + i, 1000 + i, 18.0, 9.5, 35));
+            }
+            long before = journal.getJournalBytes();
+            build.setActiveWheel("Wheel 500");
+            assertTrue(journal.getJournalBytes() - before < 32);
+            journal.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalTornRecord() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            build.addPart(new Tire("PS4S", 1400, 245, 35, 19.0));
+            journal.close();
+
+            // cut the last record in half, as a crash mid-append would
+            Path file = dir.resolve("build.bin.journal.0");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 5);
+            }
+            BuildJournal recovered = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build loaded = recovered.load();
+            assertEquals(1, loaded.getParts().size());
+            loaded.addPart(new Suspension("KW", 2500, "coilover", 30));
+            recovered.close();
+
+            BuildJournal reopened = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build again = reopened.load();
+            assertEquals(2, again.getParts().size());
+            assertEquals("KW", again.getParts().get(1).getName());
+            reopened.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalCorruptRecord() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            build.addPart(new Tire("PS4S", 1400, 245, 35, 19.0));
+            journal.close();
+
+            // flip a byte of the last record's checksum
+            Path file = dir.resolve("build.bin.journal.0");
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 1] ^= 0x01;
+            Files.write(file, bytes);
+            BuildJournal recovered = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            assertEquals(1, recovered.load().getParts().size());
+            recovered.close();
+
+            // a file that is not a journal cannot be replayed
+            Files.write(file, "not a journal at all".getBytes());
+            assertThrows(IOException.class,
+                    new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE)::load);
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalCompaction() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, 512, Durability.NONE);
+            Build build = journal.load();
+            for (int i = 0; i < 200; i++) {
+                build.addPart(new Wheel("Wheel " + i, 1000 + i, 18.0, 9.5, 35));
+            }
+            build.setActiveWheel("Wheel 42");
+            build.setReferenceOdMm(660.0);
+            journal.compact().get();
+            assertTrue(journal.getGeneration() > 0);
+            assertEquals(List.of("build.bin", "build.bin.journal." + journal.getGeneration()), files(dir));
+            build.removePartByName("Wheel 0");
+            journal.close();
+
+            BuildJournal reopened = new BuildJournal(path, 512, Durability.NONE);
+            Build loaded = reopened.load();
+            assertEquals(199, loaded.getParts().size());
+            assertEquals("Wheel 42", loaded.getActive(PartCategory.WHEEL).getName());
+            assertEquals(660.0, loaded.getReferenceOdMm());
+            reopened.close();
+            delete(dir);
+        } catch (Exception e) {
+            fail("Unexpected exception " + e);
+        }
+    }
+
+    @Test
+    void testJournalStaleAndMissingGenerations() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            journal.compact().get();
+            build.addPart(new Tire("PS4S", 1400, 245, 35, 19.0));
+            journal.close();
+
+            // a journal already covered by the snapshot is ignored and deleted on load
+            Path stale = dir.resolve("build.bin.journal.0");
+            Files.copy(dir.resolve("build.bin.journal.1"), stale);
+            BuildJournal reopened = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            assertEquals(2, reopened.load().getParts().size());
+            assertFalse(Files.exists(stale));
+            reopened.close();
+
+            // a gap between journals cannot be replayed
+            Files.copy(dir.resolve("build.bin.journal.1"), dir.resolve("build.bin.journal.3"));
+            assertThrows(IOException.class,
+                    new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE)::load);
+            delete(dir);
+        } catch (Exception e) {
+            fail("Unexpected exception " + e);
+        }
+    }
+
+    @Test
+    void testJournalEditIsOneRecord() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            long before = journal.getJournalBytes();
+            build.addAll(List.of(new Tire("PS4S", 1400, 245, 35, 19.0), new Exhaust("HKS", 900, "steel")));
+            assertTrue(build.edit().addPart(new Suspension("KW", 2500, "coilover", 30))
+                    .setActive(PartCategory.SUSPENSION, "KW").commit());
+            journal.close();
+
+            // cutting the last record loses the whole edit and nothing else
+            Path file = dir.resolve("build.bin.journal.0");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 5);
+            }
+            BuildJournal recovered = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build loaded = recovered.load();
+            assertEquals(3, loaded.getParts().size());
+            assertNull(loaded.getActive(PartCategory.SUSPENSION));
+            recovered.close();
+
+            // and cutting the record of addAll loses all of its parts
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(before + 5);
+            }
+            BuildJournal again = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            assertEquals(List.of("TE37"), again.load().getParts().stream().map(Part::getName).toList());
+            again.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalCorruptOlderGeneration() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build build = journal.load();
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            build.addPart(new Tire("PS4S", 1400, 245, 35, 19.0));
+            // a directory in the snapshot's place keeps the compaction from replacing it
+            Path blocker = Files.createDirectory(dir.resolve("build.bin"));
+            Files.createFile(blocker.resolve("keep"));
+            Future<?> compaction = journal.compact();
+            assertThrows(ExecutionException.class, compaction::get);
+            build.addPart(new Suspension("KW", 2500, "coilover", 30));
+            assertThrows(IOException.class, journal::close);
+            delete(blocker);
+
+            BuildJournal reopened = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            assertEquals(3, reopened.load().getParts().size());
+            reopened.close();
+
+            // a bad record is only a torn tail in the newest journal
+            Path older = dir.resolve("build.bin.journal.0");
+            byte[] bytes = Files.readAllBytes(older);
+            bytes[bytes.length - 1] ^= 0x01;
+            Files.write(older, bytes);
+            assertThrows(IOException.class,
+                    new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE)::load);
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalChangeThatDoesNotApply() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Wheel wheel = new Wheel("TE37", 3000, 18.0, 9.5, 22);
+            journal.load().addPart(wheel);
+            journal.close();
+
+            // a snapshot that already holds the part the journal adds
+            BinaryWriter writer = new BinaryWriter(path);
+            writer.open();
+            writer.write("My Build", List.of(wheel), List.of(), Map.of(), null, 0);
+            writer.close();
+            assertThrows(IOException.class,
+                    new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE)::load);
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalFailuresReportedBySync() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, 64, Durability.NONE);
+            assertThrows(IllegalStateException.class, journal::sync);
+            Build build = journal.load();
+            Path blocker = Files.createDirectory(dir.resolve("build.bin"));
+            Files.createFile(blocker.resolve("keep"));
+            for (int i = 0; i < 10; i++) {
+                build.addPart(new Wheel("Wheel " + i, 1000 + i, 18.0, 9.5, 35));
+            }
+            // the failed compaction is reported once, and changes are still recorded
+            assertThrows(IOException.class, journal::sync);
+            journal.sync();
+            delete(blocker);
+
+            Part stub = new Part("Radiator", 250) {
+            };
+            assertTrue(build.addPart(stub));
+            build.addPart(new Tire("PS4S", 1400, 245, 35, 19.0));
+            // a change that cannot be recorded stops the journal and fails every sync
+            assertThrows(IOException.class, journal::sync);
+            assertThrows(IOException.class, journal::sync);
+            assertThrows(IOException.class, journal::close);
+
+            BuildJournal reopened = new BuildJournal(path, 64, Durability.NONE);
+            assertEquals(10, reopened.load().getParts().size());
+            reopened.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testJournalSave() {
+        try {
+            Path dir = Files.createTempDirectory("autolink");
+            String path = dir.resolve("build.bin").toString();
+            BuildJournal journal = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            assertFalse(journal.exists());
+            journal.load().addPart(new Exhaust("HKS", 900, "steel"));
+            journal.close();
+            assertTrue(new BuildJournal(path).exists());
+
+            Build build = new Build("Track");
+            build.addAll(BinaryWriterTest.allPartTypes());
+            build.setActiveWheel("TE37");
+            build.setReferenceOdMm(650.0);
+            BuildJournal saved = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            saved.save(build);
+            assertThrows(IllegalStateException.class, () -> saved.save(build));
+            build.setActiveTire("PS4S");
+            saved.sync();
+            saved.close();
+            assertEquals(List.of("build.bin", "build.bin.journal.1"), files(dir));
+
+            BuildJournal reopened = new BuildJournal(path, BuildJournal.DEFAULT_COMPACT_BYTES, Durability.NONE);
+            Build loaded = reopened.load();
+            assertEquals("Track", loaded.getName());
+            BinaryWriterTest.assertSameParts(build.getParts(), loaded.getParts());
+            assertEquals("TE37", loaded.getActive(PartCategory.WHEEL).getName());
+            assertEquals("PS4S", loaded.getActive(PartCategory.TIRE).getName());
+            assertEquals(650.0, loaded.getReferenceOdMm());
+            reopened.close();
+            delete(dir);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    // EFFECTS: returns the names of the files in dir, sorted
+    private static List<String> files(Path dir) throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    // EFFECTS: deletes dir and the files in it
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) list::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,67 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for JsonEmitter class
+public class JsonEmitterTest {
+
+    @Test
+    void testCompactNesting() {
+        try {
+            StringWriter text = new StringWriter();
+            JsonEmitter out = new JsonEmitter(text, false);
+            out.beginObject().field("a", 1).name("b").beginArray().value(true).value("x").beginObject().endObject()
+                    .beginArray().endArray().endArray().field("c", 2.5).field("d", 18.0).endObject();
+            assertEquals("{\"a\":1,\"b\":[true,\"x\",{},[]],\"c\":2.5,\"d\":18}", text.toString());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testPrettyLayout() {
+        try {
+            StringWriter text = new StringWriter();
+            JsonEmitter out = new JsonEmitter(text, true);
+            out.beginObject().name("list").beginArray().value(1).value(2).endArray().name("empty").beginArray()
+                    .endArray().field("flag", false).endObject();
+            assertEquals("{\n    \"list\": [\n        1,\n        2\n    ],\n    \"empty\": [],\n    \"flag\": false\n}",
+                    text.toString());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testEscapingAndNull() {
+        try {
+            StringWriter text = new StringWriter();
+            new JsonEmitter(text, false).beginArray().value("a\"b\\c\n").value((String) null).endArray();
+            assertEquals("[\"a\\\"b\\\\c\\n\",null]", text.toString());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDeepNestingAndErrors() {
+        try {
+            StringWriter text = new StringWriter();
+            JsonEmitter out = new JsonEmitter(text, false);
+            for (int i = 0; i < 20; i++) {
+                out.beginArray();
+            }
+            for (int i = 0; i < 20; i++) {
+                out.endArray();
+            }
+            assertEquals("[".repeat(20) + "]".repeat(20), text.toString());
+            assertThrows(IllegalStateException.class, out::endArray);
+            assertThrows(org.json.JSONException.class, () -> out.value(Double.NaN));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -105,4 +106,88 @@ public class JsonReaderTest {
         }
     }
 
+    @Test
+    void testReaderStreamingNonExistentFile() {
+        JsonReader reader = new JsonReader("./data/noSuchFile.json");
+        assertThrows(IOException.class, reader::readStreaming);
+    }
+
+    @Test
+    void testReaderStreamingMatchesRead() {
+        for (String file : List.of("./data/testReaderEmptyBuildData.json",
+                "./data/testReaderGeneralBuildData.json", "./data/testWriterGeneralBuildData.json")) {
+            try {
+                BuildData expected = new JsonReader(file).read();
+                BuildData actual = new JsonReader(file).readStreaming();
+
+                assertEquals(expected.getBuild().getName(), actual.getBuild().getName());
+                assertSameParts(expected.getBuild().getParts(), actual.getBuild().getParts());
+                assertSameParts(expected.getInventory(), actual.getInventory());
+            } catch (IOException e) {
+                fail("Couldn't read from file");
+            }
+        }
+    }
+
+    @Test
+    void testReaderStreamingAnyKeyOrder() {
+        try {
+            String json = """
+            {
+            "version": {"major": 1, "tags": ["a", "b"]},
+            "inventory": [
+                {"category":"Wheel","name":"TE37","cost":3000,"diameterIn":18,"widthIn":9,"offsetMm":22},
+                {"category":"Engine","name":"2JZ","cost":12000,"type":"I6","horsepower":320,"displacement":3.0}
+            ],
+            "activeBuild": {
+                "parts": [{"category":"Tire","name":"PS4S","cost":1400,"widthMm":245,"aspectPercent":35,
+                           "rimDiameterIn":19}],
+                "notes": null,
+                "name": "Reordered"
+            }
+            }
+            """;
+            Path path = Files.createTempFile("autolink", ".json");
+            Files.writeString(path, json);
+
+            List<String> seen = new ArrayList<>();
+            Build build = new JsonReader(path.toString()).readStreaming(p -> seen.add(p.getName()));
+            Files.delete(path);
+
+            assertEquals("Reordered", build.getName());
+            assertEquals(1, build.getParts().size());
+            assertEquals("PS4S", build.getParts().get(0).getName());
+            assertEquals(List.of("TE37", "2JZ"), seen);
+        } catch (IOException e) {
+            fail("Unexpected IOException");
+        }
+    }
+
+    @Test
+    void testReaderStreamingMalformed() {
+        for (String json : List.of("{\"build\": {\"name\": \"x\", \"parts\": []}, \"inventory\": []}",
+                "{\"activeBuild\": {\"name\": \"x\", \"parts\": []}}",
+                "{\"activeBuild\": {\"parts\": []}, \"inventory\": []}",
+                "{\"activeBuild\": {\"name\": \"x\", \"parts\": [1]}, \"inventory\": []}",
+                "{\"activeBuild\": {\"name\": \"x\", \"parts\": []} \"inventory\": []}",
+                "{\"activeBuild\": {\"name\": \"x\", \"parts\": []}, \"inventory\": [")) {
+            try {
+                Path path = Files.createTempFile("autolink", ".json");
+                Files.writeString(path, json);
+                assertThrows(org.json.JSONException.class, new JsonReader(path.toString())::readStreaming);
+                Files.delete(path);
+            } catch (IOException e) {
+                fail("Unexpected IOException");
+            }
+        }
+    }
+
+    // EFFECTS: fails unless both lists hold parts with the same JSON, in the same order
+    private void assertSameParts(List<Part> expected, List<Part> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i).toJson().similar(actual.get(i).toJson()));
+        }
+    }
+
 }
@@ -7,7 +7,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.io.StringWriter;
 import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import static org.junit.jupiter.api.Assertions.*;
 
 // Citation: Modelled after the JsonWriterTest class in example provided in the CPSC 210 Term Project Task 3
@@ -87,6 +90,31 @@ public class JsonWriterTest {
         }
     }
 
+    @Test
+    void testWriterInventoryFromLiveView() {
+        try {
+            Build build = new Build("View Build");
+            build.addPart(new Wheel("TE37", 3000, 18.0, 9.5, 22));
+            build.addPart(new Tire("PS4S", 1400, 245, 40, 18.0));
+            BuildData data = new BuildData(build, build.partsView());
+            assertEquals(List.of("TE37", "PS4S"), data.getInventory().stream().map(Part::getName).toList());
+
+            Path path = Files.createTempFile("autolink", ".json");
+            JsonWriter writer = new JsonWriter(path.toString());
+            writer.open();
+            writer.write(data);
+            writer.close();
+
+            BuildData readData = new JsonReader(path.toString()).read();
+            assertEquals(2, readData.getBuild().getParts().size());
+            assertEquals(2, readData.getInventory().size());
+            assertEquals("PS4S", readData.getInventory().get(1).getName());
+            Files.delete(path);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
     // helper stub class for testing 
     private static class PartStub extends Part {
         public PartStub(String name, int cost) {
@@ -145,4 +173,94 @@ public class JsonWriterTest {
         }
     }
 
+    @Test
+    void testWriteJsonMatchesToJson() {
+        try {
+            for (Part p : allPartTypes()) {
+                StringWriter text = new StringWriter();
+                p.writeJson(new JsonEmitter(text, false));
+                assertTrue(p.toJson().similar(new JSONObject(text.toString())), p.getName());
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCompactAllPartTypes() {
+        try {
+            List<Part> parts = allPartTypes();
+            Build build = new Build("Full \"Build\"");
+            build.addAll(parts.subList(0, 4));
+            Path path = Files.createTempFile("autolink", ".json");
+
+            JsonWriter writer = new JsonWriter(path.toString(), JsonWriter.Format.COMPACT);
+            writer.open();
+            writer.write(new BuildData(build, parts));
+            writer.close();
+
+            String text = Files.readString(path);
+            assertFalse(text.contains("\n"));
+            assertFalse(text.contains(": "));
+            for (BuildData readData : List.of(new JsonReader(path.toString()).read(),
+                    new JsonReader(path.toString()).readStreaming())) {
+                assertEquals("Full \"Build\"", readData.getBuild().getName());
+                assertEquals(4, readData.getBuild().getParts().size());
+                assertEquals(parts.size(), readData.getInventory().size());
+                for (int i = 0; i < parts.size(); i++) {
+                    assertTrue(parts.get(i).toJson().similar(readData.getInventory().get(i).toJson()));
+                }
+            }
+            Files.delete(path);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterPrettyMatchesDom() {
+        try {
+            List<Part> parts = allPartTypes();
+            Build build = new Build("Pretty Build");
+            build.addAll(parts.subList(0, 2));
+            Path path = Files.createTempFile("autolink", ".json");
+
+            JsonWriter writer = new JsonWriter(path.toString());
+            writer.open();
+            writer.write(new BuildData(build, parts));
+            writer.close();
+
+            JSONObject expected = new JSONObject();
+            JSONObject buildJson = new JSONObject();
+            buildJson.put("name", "Pretty Build");
+            buildJson.put("parts", new JSONArray(List.of(parts.get(0).toJson(), parts.get(1).toJson())));
+            expected.put("activeBuild", buildJson);
+            JSONArray inventory = new JSONArray();
+            parts.forEach(p -> inventory.put(p.toJson()));
+            expected.put("inventory", inventory);
+
+            String text = Files.readString(path);
+            assertTrue(expected.similar(new JSONObject(text)));
+            assertTrue(text.startsWith("{\n    \"activeBuild\": {\n        \"name\": \"Pretty Build\",\n"));
+            Files.delete(path);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns one part of every category
+    private List<Part> allPartTypes() {
+        return List.of(new Wheel("TE37", 3000, 18.0, 9.5, 22),
+                new Tire("PS4S", 1400, 245, 35, 19.0),
+                new Suspension("KW", 2500, "coilover", 30),
+                new Exhaust("HKS", 950, "stainless"),
+                new Engine("2JZ", 12000, "I6", 320, 3.0),
+                new Transmission("GR6", 8000, "DCT", 6, "AWD"),
+                new Bumper("Mugen", 1200, "front", "cf", "Mugen", "aggressive"),
+                new SideSkirts("TRD", 650, "fg", "TRD"),
+                new Diffuser("APR", 950, "cf", "APR", true),
+                new Spoiler("Voltex", 1800, "cf", "GT", 320.5),
+                new Lights("Valenti", 800, "taillight", "Valenti", "LED", "smoked \u00e9"));
+    }
+
 }